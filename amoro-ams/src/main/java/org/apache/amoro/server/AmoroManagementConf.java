@@ -191,6 +191,14 @@ public class AmoroManagementConf {
           .defaultValue(100)
           .withDescription("Filters will not be used beyond that number of partitions.");
 
+  public static final ConfigOption<Duration> TABLE_RUNTIME_FLUSH_INTERVAL =
+      ConfigOptions.key("table-runtime.flush-interval")
+          .durationType()
+          .defaultValue(Duration.ofSeconds(1))
+          .withDescription(
+              "Interval for flushing the coalesced table runtime states and task quotas to the"
+                  + " database in batches. Set to 0 to persist every state change synchronously.");
+
   public static final ConfigOption<Duration> BLOCKER_TIMEOUT =
       ConfigOptions.key("blocker.timeout")
           .durationType()
@@ -215,6 +223,24 @@ public class AmoroManagementConf {
           .defaultValue("")
           .withDescription("The Zookeeper address used for high availability.");
 
+  public static final ConfigOption<Boolean> HA_SHARDING_ENABLED =
+      ConfigOptions.key("ha.sharding.enabled")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to distribute tables across all live AMS nodes instead of serving them all"
+                  + " on the leader. Tables are hashed into buckets by their optimizer group and the"
+                  + " buckets are assigned to AMS nodes through Zookeeper, so a single optimizer"
+                  + " group is always served by one node.");
+
+  public static final ConfigOption<Integer> HA_SHARDING_BUCKET_NUM =
+      ConfigOptions.key("ha.sharding.bucket-num")
+          .intType()
+          .defaultValue(64)
+          .withDescription(
+              "Number of buckets optimizer groups are hashed into when sharding is enabled. All"
+                  + " AMS nodes of a cluster must use the same value.");
+
   public static final ConfigOption<Integer> TABLE_SERVICE_THRIFT_BIND_PORT =
       ConfigOptions.key("thrift-server.table-service.bind-port")
           .intType()
@@ -296,6 +322,14 @@ public class AmoroManagementConf {
           .defaultValue(Duration.ofSeconds(180))
           .withDescription("Interval for refreshing overview cache.");
 
+  public static final ConfigOption<Duration> OVERVIEW_CACHE_RECONCILE_INTERVAL =
+      ConfigOptions.key("overview-cache.reconcile-interval")
+          .durationType()
+          .defaultValue(Duration.ofMinutes(30))
+          .withDescription(
+              "Interval for reloading the overview cache from the database, the cache is "
+                  + "updated by table runtime events in between.");
+
   public static final ConfigOption<Integer> OVERVIEW_CACHE_MAX_SIZE =
       ConfigOptions.key("overview-cache.max-size")
           .intType()
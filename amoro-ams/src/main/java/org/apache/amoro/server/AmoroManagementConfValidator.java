@@ -55,6 +55,13 @@ public class AmoroManagementConfValidator {
                 + " must be configured when you enable "
                 + "the ams high availability");
       }
+      if (configurations.getBoolean(AmoroManagementConf.HA_SHARDING_ENABLED)
+          && configurations.getInteger(AmoroManagementConf.HA_SHARDING_BUCKET_NUM) <= 0) {
+        throw new IllegalArgumentException(
+            AmoroManagementConf.HA_SHARDING_BUCKET_NUM.key()
+                + " must be greater than 0 when you enable "
+                + "the ams sharding");
+      }
     }
     // terminal config
     String terminalBackend =
@@ -33,6 +33,7 @@ import org.apache.amoro.server.catalog.CatalogManager;
 import org.apache.amoro.server.catalog.DefaultCatalogManager;
 import org.apache.amoro.server.dashboard.DashboardServer;
 import org.apache.amoro.server.dashboard.JavalinJsonMapper;
+import org.apache.amoro.server.dashboard.OverviewManager;
 import org.apache.amoro.server.dashboard.response.ErrorResponse;
 import org.apache.amoro.server.dashboard.utils.AmsUtil;
 import org.apache.amoro.server.dashboard.utils.CommonUtil;
@@ -52,6 +53,7 @@ import org.apache.amoro.server.table.TableManager;
 import org.apache.amoro.server.table.TableService;
 import org.apache.amoro.server.table.executor.AsyncTableExecutors;
 import org.apache.amoro.server.terminal.TerminalManager;
+import org.apache.amoro.server.utils.MultiplexedAsyncProcessor;
 import org.apache.amoro.server.utils.ThriftServiceProxy;
 import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
@@ -104,6 +106,7 @@ public class AmoroServiceContainer {
   private TableService tableService;
   private DefaultOptimizingService optimizingService;
   private TerminalManager terminalManager;
+  private OverviewManager overviewManager;
   private Configurations serviceConfig;
   private TServer tableManagementServer;
   private TServer optimizingServiceServer;
@@ -159,7 +162,8 @@ public class AmoroServiceContainer {
     tableManager = new DefaultTableManager(serviceConfig, catalogManager);
     optimizerManager = new DefaultOptimizerManager(serviceConfig);
 
-    tableService = new DefaultTableService(serviceConfig, catalogManager);
+    tableService =
+        new DefaultTableService(serviceConfig, catalogManager, haContainer.getTableOwnership());
 
     optimizingService =
         new DefaultOptimizingService(
@@ -178,6 +182,12 @@ public class AmoroServiceContainer {
     addHandlerChain(AsyncTableExecutors.getInstance().getHiveCommitSyncExecutor());
     addHandlerChain(AsyncTableExecutors.getInstance().getTableRefreshingExecutor());
     addHandlerChain(AsyncTableExecutors.getInstance().getTagsAutoCreatingExecutor());
+    overviewManager = new OverviewManager(serviceConfig);
+    // A sharded node only sees the events of its own tables, the overview of all tables is
+    // aggregated from the database on every refresh instead
+    if (!haContainer.getTableOwnership().isSharded()) {
+      addHandlerChain(overviewManager.getTableRuntimeHandler());
+    }
     tableService.initialize();
     LOG.info("AMS table service have been initialized");
     tableManager.setTableService(tableService);
@@ -263,7 +273,8 @@ public class AmoroServiceContainer {
             tableManager,
             optimizerManager,
             optimizingService,
-            terminalManager);
+            terminalManager,
+            overviewManager);
     RestCatalogService restCatalogService = new RestCatalogService(catalogManager, tableManager);
 
     httpServer =
@@ -352,12 +363,14 @@ public class AmoroServiceContainer {
         serviceConfig.getInteger(AmoroManagementConf.THRIFT_QUEUE_SIZE_PER_THREAD);
     String bindHost = serviceConfig.getString(AmoroManagementConf.SERVER_BIND_HOST);
 
-    AmoroTableMetastore.Processor<AmoroTableMetastore.Iface> tableManagementProcessor =
+    TMultiplexedProcessor tableManagementProcessor = new TMultiplexedProcessor();
+    tableManagementProcessor.registerProcessor(
+        Constants.THRIFT_TABLE_SERVICE_NAME,
         new AmoroTableMetastore.Processor<>(
             ThriftServiceProxy.createProxy(
                 AmoroTableMetastore.Iface.class,
                 new TableManagementService(catalogManager, tableManager),
-                AmoroRuntimeException::normalizeCompatibly));
+                AmoroRuntimeException::normalizeCompatibly)));
     tableManagementServer =
         createThriftServer(
             tableManagementProcessor,
@@ -370,20 +383,21 @@ public class AmoroServiceContainer {
             queueSizePerSelector,
             maxMessageSize);
 
-    OptimizingService.Processor<OptimizingService.Iface> optimizingProcessor =
-        new OptimizingService.Processor<>(
-            ThriftServiceProxy.createProxy(
-                OptimizingService.Iface.class,
-                optimizingService,
-                AmoroRuntimeException::normalize));
+    // Optimizers waiting for tasks are parked as callbacks, so a fixed worker pool is enough
+    AsyncOptimizingService asyncOptimizingService = new AsyncOptimizingService(optimizingService);
+    MultiplexedAsyncProcessor<OptimizingService.AsyncIface> optimizingProcessor =
+        new MultiplexedAsyncProcessor<>(
+            Constants.THRIFT_OPTIMIZING_SERVICE_NAME,
+            new OptimizingService.AsyncProcessor<>(asyncOptimizingService),
+            asyncOptimizingService);
     optimizingServiceServer =
         createThriftServer(
             optimizingProcessor,
             Constants.THRIFT_OPTIMIZING_SERVICE_NAME,
             bindHost,
             serviceConfig.getInteger(AmoroManagementConf.OPTIMIZING_SERVICE_THRIFT_BIND_PORT),
-            Executors.newCachedThreadPool(
-                getThriftThreadFactory(Constants.THRIFT_OPTIMIZING_SERVICE_NAME)),
+            Executors.newFixedThreadPool(
+                workerThreads, getThriftThreadFactory(Constants.THRIFT_OPTIMIZING_SERVICE_NAME)),
             selectorThreads,
             queueSizePerSelector,
             maxMessageSize);
@@ -406,11 +420,9 @@ public class AmoroServiceContainer {
     final TProtocolFactory inputProtoFactory =
         new TBinaryProtocol.Factory(true, true, maxMessageSize, maxMessageSize);
     TTransportFactory transportFactory = new TFramedTransport.Factory();
-    TMultiplexedProcessor multiplexedProcessor = new TMultiplexedProcessor();
-    multiplexedProcessor.registerProcessor(processorName, processor);
     THsHaServer.Args args =
         new THsHaServer.Args(serverTransport)
-            .processor(multiplexedProcessor)
+            .processor(processor)
             .transportFactory(transportFactory)
             .protocolFactory(protocolFactory)
             .inputProtocolFactory(inputProtoFactory)
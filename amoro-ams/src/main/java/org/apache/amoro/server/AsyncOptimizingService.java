@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server;
+
+import org.apache.amoro.api.OptimizerRegisterInfo;
+import org.apache.amoro.api.OptimizingService;
+import org.apache.amoro.api.OptimizingTask;
+import org.apache.amoro.api.OptimizingTaskId;
+import org.apache.amoro.api.OptimizingTaskResult;
+import org.apache.amoro.exception.AmoroRuntimeException;
+import org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Asynchronous thrift interface of {@link DefaultOptimizingService}. Polling optimizers are parked
+ * as callbacks on the optimizing queue instead of holding a thrift worker thread until a task is
+ * ready, the other calls are short and complete on the worker thread. Exceptions are normalized
+ * the same way as the synchronous service proxy does.
+ */
+public class AsyncOptimizingService implements OptimizingService.AsyncIface {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AsyncOptimizingService.class);
+
+  private final DefaultOptimizingService service;
+
+  public AsyncOptimizingService(DefaultOptimizingService service) {
+    this.service = service;
+  }
+
+  @Override
+  public void ping(AsyncMethodCallback<Void> resultHandler) {
+    call(
+        "ping",
+        resultHandler,
+        () -> {
+          service.ping();
+          return null;
+        });
+  }
+
+  @Override
+  public void touch(
+      String authToken, Map<String, String> metrics, AsyncMethodCallback<Void> resultHandler) {
+    call(
+        "touch",
+        resultHandler,
+        () -> {
+          service.touch(authToken, metrics);
+          return null;
+        });
+  }
+
+  @Override
+  public void pollTask(
+      String authToken, int threadId, AsyncMethodCallback<OptimizingTask> resultHandler) {
+    callAsync("pollTask", resultHandler, () -> service.pollTaskAsync(authToken, threadId));
+  }
+
+  @Override
+  public void ackTask(
+      String authToken,
+      int threadId,
+      OptimizingTaskId taskId,
+      AsyncMethodCallback<Void> resultHandler) {
+    call(
+        "ackTask",
+        resultHandler,
+        () -> {
+          service.ackTask(authToken, threadId, taskId);
+          return null;
+        });
+  }
+
+  @Override
+  public void completeTask(
+      String authToken, OptimizingTaskResult taskResult, AsyncMethodCallback<Void> resultHandler) {
+    call(
+        "completeTask",
+        resultHandler,
+        () -> {
+          service.completeTask(authToken, taskResult);
+          return null;
+        });
+  }
+
+  @Override
+  public void authenticate(
+      OptimizerRegisterInfo registerInfo, AsyncMethodCallback<String> resultHandler) {
+    call("authenticate", resultHandler, () -> service.authenticate(registerInfo));
+  }
+
+  @Override
+  public void cancelProcess(long processId, AsyncMethodCallback<Boolean> resultHandler) {
+    call("cancelProcess", resultHandler, () -> service.cancelProcess(processId));
+  }
+
+  @Override
+  public void pollTasks(
+      String authToken,
+      int threadId,
+      int maxTasks,
+      AsyncMethodCallback<List<OptimizingTask>> resultHandler) {
+    callAsync(
+        "pollTasks", resultHandler, () -> service.pollTasksAsync(authToken, threadId, maxTasks));
+  }
+
+  @Override
+  public void completeTasks(
+      String authToken,
+      List<OptimizingTaskResult> taskResults,
+      AsyncMethodCallback<List<OptimizingTaskId>> resultHandler) {
+    call("completeTasks", resultHandler, () -> service.completeTasks(authToken, taskResults));
+  }
+
+  private <T> void call(String method, AsyncMethodCallback<T> resultHandler, Callable<T> call) {
+    callAsync(method, resultHandler, () -> CompletableFuture.completedFuture(call.call()));
+  }
+
+  private <T> void callAsync(
+      String method, AsyncMethodCallback<T> resultHandler, Callable<CompletableFuture<T>> call) {
+    CompletableFuture<T> future;
+    try {
+      future = call.call();
+    } catch (Throwable throwable) {
+      future = new CompletableFuture<>();
+      future.completeExceptionally(throwable);
+    }
+    future.whenComplete(
+        (result, throwable) -> {
+          if (throwable == null) {
+            resultHandler.onComplete(result);
+          } else {
+            Throwable exception =
+                throwable instanceof CompletionException && throwable.getCause() != null
+                    ? throwable.getCause()
+                    : throwable;
+            LOG.error(
+                String.format(
+                    "Thrift service:%s.%s execute failed",
+                    service.getClass().getSimpleName(), method),
+                exception);
+            resultHandler.onError(AmoroRuntimeException.normalize(exception));
+          }
+        });
+  }
+}
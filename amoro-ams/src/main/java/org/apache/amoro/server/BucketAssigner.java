@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns buckets to live AMS nodes. A bucket keeps its previous owner while the owner is alive and
+ * holds no more than its fair share, so a membership change moves as few buckets as possible.
+ */
+class BucketAssigner {
+
+  private BucketAssigner() {}
+
+  /**
+   * Assign buckets to members.
+   *
+   * @param bucketNum number of buckets
+   * @param previous buckets of each node in the previous assignment
+   * @param members live nodes
+   * @param occupiedBuckets buckets holding at least one optimizer group, they are balanced apart
+   *     from the empty buckets
+   * @return buckets of each live node
+   */
+  static Map<String, List<Integer>> assign(
+      int bucketNum,
+      Map<String, List<Integer>> previous,
+      Collection<String> members,
+      Set<Integer> occupiedBuckets) {
+    Map<String, List<Integer>> assignment = new TreeMap<>();
+    members.forEach(member -> assignment.put(member, new ArrayList<>()));
+    if (assignment.isEmpty()) {
+      return assignment;
+    }
+    Map<Integer, String> previousOwners = new HashMap<>();
+    previous.forEach((member, buckets) -> buckets.forEach(b -> previousOwners.put(b, member)));
+    Map<Boolean, List<Integer>> partitionedBuckets =
+        IntStream.range(0, bucketNum)
+            .boxed()
+            .collect(Collectors.partitioningBy(occupiedBuckets::contains));
+    balance(partitionedBuckets.get(true), previousOwners, assignment);
+    balance(partitionedBuckets.get(false), previousOwners, assignment);
+    assignment.values().forEach(Collections::sort);
+    return assignment;
+  }
+
+  /**
+   * Withhold the buckets still held by other nodes, so that a bucket is only handed over once its
+   * previous owner has released it.
+   *
+   * @param assignment buckets of each live node
+   * @param heldBuckets buckets each live node is serving
+   * @return buckets of each live node, without the buckets held by other nodes
+   */
+  static Map<String, List<Integer>> fence(
+      Map<String, List<Integer>> assignment, Map<String, Set<Integer>> heldBuckets) {
+    Map<String, List<Integer>> fenced = new TreeMap<>();
+    assignment.forEach(
+        (member, buckets) ->
+            fenced.put(
+                member,
+                buckets.stream()
+                    .filter(
+                        bucket ->
+                            heldBuckets.entrySet().stream()
+                                .allMatch(
+                                    held ->
+                                        held.getKey().equals(member)
+                                            || !held.getValue().contains(bucket)))
+                    .collect(Collectors.toList())));
+    return fenced;
+  }
+
+  private static void balance(
+      List<Integer> buckets,
+      Map<Integer, String> previousOwners,
+      Map<String, List<Integer>> assignment) {
+    Map<String, List<Integer>> kept = new HashMap<>();
+    assignment.keySet().forEach(member -> kept.put(member, new ArrayList<>()));
+    List<Integer> unassigned = new ArrayList<>();
+    for (Integer bucket : buckets) {
+      List<Integer> ownerBuckets = kept.get(previousOwners.get(bucket));
+      if (ownerBuckets != null) {
+        ownerBuckets.add(bucket);
+      } else {
+        unassigned.add(bucket);
+      }
+    }
+
+    // Members keeping more buckets get the rounded up share first, the others are trimmed
+    List<String> members = new ArrayList<>(assignment.keySet());
+    members.sort(Comparator.comparingInt((String member) -> kept.get(member).size()).reversed());
+    int share = buckets.size() / members.size();
+    int remainder = buckets.size() % members.size();
+    Map<String, Integer> capacities = new HashMap<>();
+    for (int i = 0; i < members.size(); i++) {
+      int capacity = share + (i < remainder ? 1 : 0);
+      List<Integer> memberBuckets = kept.get(members.get(i));
+      while (memberBuckets.size() > capacity) {
+        unassigned.add(memberBuckets.remove(memberBuckets.size() - 1));
+      }
+      capacities.put(members.get(i), capacity);
+    }
+
+    Collections.sort(unassigned);
+    Iterator<Integer> unassignedIterator = unassigned.iterator();
+    for (String member : members) {
+      List<Integer> memberBuckets = kept.get(member);
+      while (memberBuckets.size() < capacities.get(member) && unassignedIterator.hasNext()) {
+        memberBuckets.add(unassignedIterator.next());
+      }
+      assignment.get(member).addAll(memberBuckets);
+    }
+  }
+}
@@ -52,6 +52,7 @@ import org.apache.amoro.server.resource.OptimizerThread;
 import org.apache.amoro.server.resource.QuotaProvider;
 import org.apache.amoro.server.table.MaintainedTableManager;
 import org.apache.amoro.server.table.RuntimeHandlerChain;
+import org.apache.amoro.server.table.TableOwnership;
 import org.apache.amoro.server.table.TableRuntime;
 import org.apache.amoro.server.table.TableService;
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
@@ -69,6 +70,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.Delayed;
@@ -106,6 +108,9 @@ public class DefaultOptimizingService extends StatedPersistentBase
   private final MaintainedTableManager tableManager;
   private final RuntimeHandlerChain tableHandlerChain;
   private final ExecutorService planExecutor;
+  // Schedules the tasks handed over to polls, off the thread that completes the waiting polls
+  private final ExecutorService pollExecutor;
+  private final Runnable ownershipListener = this::releaseUnownedQueues;
 
   public DefaultOptimizingService(
       Configurations serviceConfig,
@@ -132,6 +137,13 @@ public class DefaultOptimizingService extends StatedPersistentBase
                 .setNameFormat("plan-executor-thread-%d")
                 .setDaemon(true)
                 .build());
+    this.pollExecutor =
+        Executors.newFixedThreadPool(
+            serviceConfig.getInteger(AmoroManagementConf.THRIFT_WORKER_THREADS),
+            new ThreadFactoryBuilder()
+                .setNameFormat("optimizer-poll-thread-%d")
+                .setDaemon(true)
+                .build());
   }
 
   public RuntimeHandlerChain getTableRuntimeHandler() {
@@ -141,24 +153,31 @@ public class DefaultOptimizingService extends StatedPersistentBase
   private void loadOptimizingQueues(List<TableRuntime> tableRuntimeMetaList) {
     List<ResourceGroup> optimizerGroups =
         getAs(ResourceMapper.class, ResourceMapper::selectResourceGroups);
-    List<OptimizerInstance> optimizers = getAs(OptimizerMapper.class, OptimizerMapper::selectAll);
+    // Optimizers of groups served by other nodes are kept in touch by those nodes
+    List<OptimizerInstance> optimizers =
+        getAs(OptimizerMapper.class, OptimizerMapper::selectAll).stream()
+            .filter(optimizer -> tableService.getTableOwnership().owns(optimizer.getGroupName()))
+            .collect(Collectors.toList());
     Map<String, List<TableRuntime>> groupToTableRuntimes =
         tableRuntimeMetaList.stream()
             .collect(Collectors.groupingBy(TableRuntime::getOptimizerGroup));
-    optimizerGroups.forEach(
-        group -> {
-          String groupName = group.getName();
-          List<TableRuntime> tableRuntimes = groupToTableRuntimes.remove(groupName);
-          OptimizingQueue optimizingQueue =
-              new OptimizingQueue(
-                  catalogManager,
-                  group,
-                  this,
-                  planExecutor,
-                  Optional.ofNullable(tableRuntimes).orElseGet(ArrayList::new),
-                  maxPlanningParallelism);
-          optimizingQueueByGroup.put(groupName, optimizingQueue);
-        });
+    // Queues of groups served by other nodes are loaded once their buckets are acquired
+    optimizerGroups.stream()
+        .filter(group -> tableService.getTableOwnership().owns(group.getName()))
+        .forEach(
+            group -> {
+              String groupName = group.getName();
+              List<TableRuntime> tableRuntimes = groupToTableRuntimes.remove(groupName);
+              OptimizingQueue optimizingQueue =
+                  new OptimizingQueue(
+                      catalogManager,
+                      group,
+                      this,
+                      planExecutor,
+                      Optional.ofNullable(tableRuntimes).orElseGet(ArrayList::new),
+                      maxPlanningParallelism);
+              optimizingQueueByGroup.put(groupName, optimizingQueue);
+            });
     optimizers.forEach(optimizer -> registerOptimizer(optimizer, false));
     groupToTableRuntimes
         .keySet()
@@ -194,8 +213,9 @@ public class DefaultOptimizingService extends StatedPersistentBase
   }
 
   @Override
-  public void touch(String authToken) {
+  public void touch(String authToken, Map<String, String> metrics) {
     OptimizerInstance optimizer = getAuthenticatedOptimizer(authToken).touch();
+    optimizer.reportMetrics(metrics);
     LOG.debug("Optimizer {} touch time: {}", optimizer.getToken(), optimizer.getTouchTime());
     doAs(OptimizerMapper.class, mapper -> mapper.updateTouchTime(optimizer.getToken()));
   }
@@ -208,11 +228,76 @@ public class DefaultOptimizingService extends StatedPersistentBase
 
   @Override
   public OptimizingTask pollTask(String authToken, int threadId) {
+    return pollTaskAsync(authToken, threadId).join();
+  }
+
+  /**
+   * Poll a task without holding the calling thread, the returned future completes once a task is
+   * handed over by the optimizing queue or the polling timeout elapses.
+   */
+  public CompletableFuture<OptimizingTask> pollTaskAsync(String authToken, int threadId) {
     LOG.debug("Optimizer {} (threadId {}) try polling task", authToken, threadId);
     OptimizingQueue queue = getQueueByToken(authToken);
-    return Optional.ofNullable(queue.pollTask(pollingTimeout))
-        .map(task -> extractOptimizingTask(task, authToken, threadId, queue))
-        .orElse(null);
+    return queue
+        .pollTasksAsync(pollingTimeout, 1)
+        .thenApply(tasks -> checkPolledByAuthenticated(authToken, tasks))
+        .thenApplyAsync(
+            tasks ->
+                tasks.isEmpty()
+                    ? null
+                    : extractOptimizingTask(tasks.get(0), authToken, threadId, queue),
+            pollExecutor);
+  }
+
+  @Override
+  public List<OptimizingTask> pollTasks(String authToken, int threadId, int maxTasks) {
+    return pollTasksAsync(authToken, threadId, maxTasks).join();
+  }
+
+  public CompletableFuture<List<OptimizingTask>> pollTasksAsync(
+      String authToken, int threadId, int maxTasks) {
+    LOG.debug(
+        "Optimizer {} (threadId {}) try polling at most {} tasks", authToken, threadId, maxTasks);
+    Preconditions.checkArgument(maxTasks > 0, "maxTasks must be positive");
+    OptimizingQueue queue = getQueueByToken(authToken);
+    return queue
+        .pollTasksAsync(pollingTimeout, maxTasks)
+        .thenApply(tasks -> checkPolledByAuthenticated(authToken, tasks))
+        .thenApplyAsync(
+            tasks ->
+                tasks.stream()
+                    .map(task -> extractAckedOptimizingTask(task, authToken, threadId, queue))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList()),
+            pollExecutor);
+  }
+
+  /**
+   * Fail a poll left without tasks if its optimizer has been released meanwhile, because its group
+   * moved to another node, so that the optimizer registers with the new owner at once.
+   */
+  private List<TaskRuntime<?>> checkPolledByAuthenticated(
+      String authToken, List<TaskRuntime<?>> tasks) {
+    if (tasks.isEmpty()) {
+      getQueueByToken(authToken);
+    }
+    return tasks;
+  }
+
+  /** Tasks polled in batch are acked at once, to save the extra round trip per task. */
+  private OptimizingTask extractAckedOptimizingTask(
+      TaskRuntime<?> task, String authToken, int threadId, OptimizingQueue queue) {
+    try {
+      OptimizerThread optimizerThread = getAuthenticatedOptimizer(authToken).getThread(threadId);
+      task.schedule(optimizerThread);
+      task.ack(optimizerThread);
+      LOG.info("OptimizerThread {} polled and acked task {}", optimizerThread, task.getTaskId());
+      return task.extractProtocolTask();
+    } catch (Throwable throwable) {
+      LOG.error("Schedule task {} failed, put it to retry queue", task.getTaskId(), throwable);
+      queue.retryTask(task);
+      return null;
+    }
   }
 
   private OptimizingTask extractOptimizingTask(
@@ -253,6 +338,24 @@ public class DefaultOptimizingService extends StatedPersistentBase
         .complete(thread, taskResult);
   }
 
+  @Override
+  public List<OptimizingTaskId> completeTasks(
+      String authToken, List<OptimizingTaskResult> taskResults) {
+    // an unknown optimizer fails the whole call, so that it registers again and reports them all
+    getQueueByToken(authToken);
+    getAuthenticatedOptimizer(authToken);
+    List<OptimizingTaskId> rejectedTasks = new ArrayList<>();
+    for (OptimizingTaskResult taskResult : taskResults) {
+      try {
+        completeTask(authToken, taskResult);
+      } catch (RuntimeException e) {
+        LOG.error("Complete task {} failed", taskResult.getTaskId(), e);
+        rejectedTasks.add(taskResult.getTaskId());
+      }
+    }
+    return rejectedTasks;
+  }
+
   @Override
   public String authenticate(OptimizerRegisterInfo registerInfo) {
     LOG.info("Register optimizer {}.", registerInfo);
@@ -271,6 +374,12 @@ public class DefaultOptimizingService extends StatedPersistentBase
               }
             });
 
+    if (!tableService.getTableOwnership().owns(registerInfo.getGroupName())) {
+      // Fail the registration so that the optimizer resolves the node serving its group again
+      throw new PluginRetryAuthException(
+          String.format(
+              "Optimizer group %s is served by another AMS node", registerInfo.getGroupName()));
+    }
     OptimizingQueue queue = getQueueByGroup(registerInfo.getGroupName());
     OptimizerInstance optimizer = new OptimizerInstance(registerInfo, queue.getContainerName());
     registerOptimizer(optimizer, true);
@@ -309,7 +418,69 @@ public class DefaultOptimizingService extends StatedPersistentBase
 
   private Optional<OptimizingQueue> getOptionalQueueByGroup(String optimizerGroup) {
     Preconditions.checkArgument(optimizerGroup != null, "optimizerGroup can not be null");
-    return Optional.ofNullable(optimizingQueueByGroup.get(optimizerGroup));
+    TableOwnership tableOwnership = tableService.getTableOwnership();
+    if (!tableOwnership.owns(optimizerGroup)) {
+      return Optional.empty();
+    }
+    OptimizingQueue optimizingQueue = optimizingQueueByGroup.get(optimizerGroup);
+    if (optimizingQueue == null && tableOwnership.isSharded()) {
+      // The group may have been created on another AMS node, or its bucket has been acquired
+      optimizingQueue = loadOptimizingQueue(optimizerGroup);
+    }
+    return Optional.ofNullable(optimizingQueue);
+  }
+
+  private synchronized OptimizingQueue loadOptimizingQueue(String optimizerGroup) {
+    OptimizingQueue optimizingQueue = optimizingQueueByGroup.get(optimizerGroup);
+    if (optimizingQueue != null) {
+      return optimizingQueue;
+    }
+    ResourceGroup resourceGroup =
+        getAs(ResourceMapper.class, mapper -> mapper.selectResourceGroup(optimizerGroup));
+    if (resourceGroup == null) {
+      return null;
+    }
+    optimizingQueue =
+        new OptimizingQueue(
+            catalogManager,
+            resourceGroup,
+            this,
+            planExecutor,
+            new ArrayList<>(),
+            maxPlanningParallelism);
+    optimizingQueueByGroup.put(optimizerGroup, optimizingQueue);
+    // Optimizers registered through the previous owner of the group keep their tokens
+    getAs(OptimizerMapper.class, OptimizerMapper::selectAll).stream()
+        .filter(optimizer -> optimizer.getGroupName().equals(optimizerGroup))
+        .forEach(optimizer -> registerOptimizer(optimizer, false));
+    return optimizingQueue;
+  }
+
+  /**
+   * Release the queues of the optimizer groups served by other nodes from now on. Their tables have
+   * been released by the table service, the optimizing processes and optimizers of the groups are
+   * kept in the database for the new owner.
+   */
+  private synchronized void releaseUnownedQueues() {
+    TableOwnership tableOwnership = tableService.getTableOwnership();
+    List<String> releasedGroups =
+        optimizingQueueByGroup.keySet().stream()
+            .filter(group -> !tableOwnership.owns(group))
+            .collect(Collectors.toList());
+    for (String group : releasedGroups) {
+      OptimizingQueue optimizingQueue = optimizingQueueByGroup.remove(group);
+      authOptimizers.values().stream()
+          .filter(optimizer -> optimizer.getGroupName().equals(group))
+          .map(OptimizerInstance::getToken)
+          .collect(Collectors.toList())
+          .forEach(
+              token -> {
+                authOptimizers.remove(token);
+                optimizingQueueByToken.remove(token);
+              });
+      optimizingQueue.dispose();
+      LOG.info("Released optimizing queue of group {}, which is served by another node", group);
+    }
   }
 
   private OptimizingQueue getQueueByToken(String token) {
@@ -333,23 +504,26 @@ public class DefaultOptimizingService extends StatedPersistentBase
     doAsTransaction(
         () -> {
           optimizerManager.createResourceGroup(resourceGroup);
-          OptimizingQueue optimizingQueue =
-              new OptimizingQueue(
-                  catalogManager,
-                  resourceGroup,
-                  this,
-                  planExecutor,
-                  new ArrayList<>(),
-                  maxPlanningParallelism);
-          optimizingQueueByGroup.put(resourceGroup.getName(), optimizingQueue);
+          // the queue of a group served by another node is loaded by that node on demand
+          if (tableService.getTableOwnership().owns(resourceGroup.getName())) {
+            OptimizingQueue optimizingQueue =
+                new OptimizingQueue(
+                    catalogManager,
+                    resourceGroup,
+                    this,
+                    planExecutor,
+                    new ArrayList<>(),
+                    maxPlanningParallelism);
+            optimizingQueueByGroup.put(resourceGroup.getName(), optimizingQueue);
+          }
         });
   }
 
   public void deleteResourceGroup(String groupName) {
     if (canDeleteResourceGroup(groupName)) {
       optimizerManager.deleteResourceGroup(groupName);
-      OptimizingQueue optimizingQueue = optimizingQueueByGroup.remove(groupName);
-      optimizingQueue.dispose();
+      Optional.ofNullable(optimizingQueueByGroup.remove(groupName))
+          .ifPresent(OptimizingQueue::dispose);
     } else {
       throw new RuntimeException(
           String.format(
@@ -366,12 +540,14 @@ public class DefaultOptimizingService extends StatedPersistentBase
   }
 
   public void dispose() {
+    tableService.getTableOwnership().removeListener(ownershipListener);
     optimizerKeeper.dispose();
     tableHandlerChain.dispose();
     optimizingQueueByGroup.clear();
     optimizingQueueByToken.clear();
     authOptimizers.clear();
     planExecutor.shutdown();
+    pollExecutor.shutdown();
   }
 
   public boolean canDeleteResourceGroup(String name) {
@@ -432,7 +608,7 @@ public class DefaultOptimizingService extends StatedPersistentBase
     @Override
     public void handleTableAdded(AmoroTable<?> table, TableRuntime tableRuntime) {
       getOptionalQueueByGroup(tableRuntime.getOptimizerGroup())
-          .ifPresent(q -> q.refreshTable(tableRuntime));
+          .ifPresent(q -> q.addTable(tableRuntime));
     }
 
     @Override
@@ -445,6 +621,9 @@ public class DefaultOptimizingService extends StatedPersistentBase
     protected void initHandler(List<TableRuntime> tableRuntimeList) {
       LOG.info("OptimizerManagementService begin initializing");
       loadOptimizingQueues(tableRuntimeList);
+      if (tableService.getTableOwnership().isSharded()) {
+        tableService.getTableOwnership().addListener(ownershipListener);
+      }
       optimizerKeeper.start();
       LOG.info("SuspendingDetector for Optimizer has been started.");
       LOG.info("OptimizerManagementService initializing has completed");
@@ -524,6 +703,10 @@ public class DefaultOptimizingService extends StatedPersistentBase
       while (!stopped) {
         try {
           OptimizerKeepingTask keepingTask = suspendingQueue.take();
+          if (!tableService.getTableOwnership().owns(keepingTask.getOptimizer().getGroupName())) {
+            // kept in touch by the node serving the group from now on
+            continue;
+          }
           String token = keepingTask.getToken();
           boolean isExpired = !keepingTask.tryKeeping();
           Optional.ofNullable(keepingTask.getQueue())
@@ -19,33 +19,71 @@
 package org.apache.amoro.server;
 
 import org.apache.amoro.client.AmsServerInfo;
+import org.apache.amoro.client.BucketAssignment;
 import org.apache.amoro.config.Configurations;
 import org.apache.amoro.properties.AmsHAProperties;
+import org.apache.amoro.resource.ResourceGroup;
+import org.apache.amoro.server.persistence.PersistentBase;
+import org.apache.amoro.server.persistence.mapper.ResourceMapper;
+import org.apache.amoro.server.table.TableOwnership;
+import org.apache.amoro.shade.guava32.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.amoro.shade.zookeeper3.org.apache.curator.framework.CuratorFramework;
 import org.apache.amoro.shade.zookeeper3.org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.amoro.shade.zookeeper3.org.apache.curator.framework.recipes.cache.CuratorCache;
 import org.apache.amoro.shade.zookeeper3.org.apache.curator.framework.recipes.leader.LeaderLatch;
 import org.apache.amoro.shade.zookeeper3.org.apache.curator.framework.recipes.leader.LeaderLatchListener;
+import org.apache.amoro.shade.zookeeper3.org.apache.curator.framework.state.ConnectionState;
 import org.apache.amoro.shade.zookeeper3.org.apache.curator.retry.ExponentialBackoffRetry;
 import org.apache.amoro.shade.zookeeper3.org.apache.zookeeper.CreateMode;
 import org.apache.amoro.shade.zookeeper3.org.apache.zookeeper.KeeperException;
+import org.apache.amoro.shade.zookeeper3.org.apache.zookeeper.data.Stat;
 import org.apache.amoro.utils.JacksonUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
-public class HighAvailabilityContainer implements LeaderLatchListener {
+public class HighAvailabilityContainer extends PersistentBase implements LeaderLatchListener {
 
   public static final Logger LOG = LoggerFactory.getLogger(HighAvailabilityContainer.class);
 
+  // Rebalance periodically to pick up optimizer groups created since the last membership change
+  private static final long REBALANCE_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+  private static final long ASSIGNMENT_WAIT_INTERVAL = TimeUnit.SECONDS.toMillis(5);
+
   private final LeaderLatch leaderLatch;
   private final CuratorFramework zkClient;
   private final String tableServiceMasterPath;
   private final String optimizingServiceMasterPath;
   private final AmsServerInfo tableServiceServerInfo;
   private final AmsServerInfo optimizingServiceServerInfo;
+  private final boolean shardingEnabled;
+  private final int bucketNum;
+  private final String membersPath;
+  private final String bucketAssignmentPath;
+  private final String heldBucketsPath;
+  private final Object assignmentLock = new Object();
+  private CuratorCache membersCache;
+  private CuratorCache bucketAssignmentCache;
+  private CuratorCache heldBucketsCache;
+  private ScheduledExecutorService rebalanceScheduler;
+  // Whether the services of this node are serving the owned buckets, guarded by assignmentLock
+  private boolean serving = false;
+  private volatile TableOwnership tableOwnership = TableOwnership.all();
   private volatile CountDownLatch followerLath;
 
   public HighAvailabilityContainer(Configurations serviceConfig) throws Exception {
@@ -54,6 +92,19 @@ public class HighAvailabilityContainer implements LeaderLatchListener {
       String haClusterName = serviceConfig.getString(AmoroManagementConf.HA_CLUSTER_NAME);
       tableServiceMasterPath = AmsHAProperties.getTableServiceMasterPath(haClusterName);
       optimizingServiceMasterPath = AmsHAProperties.getOptimizingServiceMasterPath(haClusterName);
+      shardingEnabled = serviceConfig.getBoolean(AmoroManagementConf.HA_SHARDING_ENABLED);
+      bucketNum = serviceConfig.getInteger(AmoroManagementConf.HA_SHARDING_BUCKET_NUM);
+      membersPath = AmsHAProperties.getShardingMembersPath(haClusterName);
+      bucketAssignmentPath = AmsHAProperties.getBucketAssignmentPath(haClusterName);
+      heldBucketsPath = AmsHAProperties.getHeldBucketsPath(haClusterName);
+      this.tableServiceServerInfo =
+          buildServerInfo(
+              serviceConfig.getString(AmoroManagementConf.SERVER_EXPOSE_HOST),
+              serviceConfig.getInteger(AmoroManagementConf.TABLE_SERVICE_THRIFT_BIND_PORT));
+      this.optimizingServiceServerInfo =
+          buildServerInfo(
+              serviceConfig.getString(AmoroManagementConf.SERVER_EXPOSE_HOST),
+              serviceConfig.getInteger(AmoroManagementConf.OPTIMIZING_SERVICE_THRIFT_BIND_PORT));
       ExponentialBackoffRetry retryPolicy = new ExponentialBackoffRetry(1000, 3, 5000);
       this.zkClient =
           CuratorFrameworkFactory.builder()
@@ -65,19 +116,14 @@ public class HighAvailabilityContainer implements LeaderLatchListener {
       zkClient.start();
       createPathIfNeeded(tableServiceMasterPath);
       createPathIfNeeded(optimizingServiceMasterPath);
+      if (shardingEnabled) {
+        startSharding();
+      }
       String leaderPath = AmsHAProperties.getLeaderPath(haClusterName);
       createPathIfNeeded(leaderPath);
       leaderLatch = new LeaderLatch(zkClient, leaderPath);
       leaderLatch.addListener(this);
       leaderLatch.start();
-      this.tableServiceServerInfo =
-          buildServerInfo(
-              serviceConfig.getString(AmoroManagementConf.SERVER_EXPOSE_HOST),
-              serviceConfig.getInteger(AmoroManagementConf.TABLE_SERVICE_THRIFT_BIND_PORT));
-      this.optimizingServiceServerInfo =
-          buildServerInfo(
-              serviceConfig.getString(AmoroManagementConf.SERVER_EXPOSE_HOST),
-              serviceConfig.getInteger(AmoroManagementConf.OPTIMIZING_SERVICE_THRIFT_BIND_PORT));
     } else {
       leaderLatch = null;
       zkClient = null;
@@ -85,27 +131,26 @@ public class HighAvailabilityContainer implements LeaderLatchListener {
       optimizingServiceMasterPath = null;
       tableServiceServerInfo = null;
       optimizingServiceServerInfo = null;
+      shardingEnabled = false;
+      bucketNum = 0;
+      membersPath = null;
+      bucketAssignmentPath = null;
+      heldBucketsPath = null;
       // block follower latch forever when ha is disabled
       followerLath = new CountDownLatch(1);
     }
   }
 
   public void waitLeaderShip() throws Exception {
+    if (shardingEnabled) {
+      waitBucketsAssigned();
+      return;
+    }
     LOG.info("Waiting to become the leader of AMS");
     if (leaderLatch != null) {
       leaderLatch.await();
       if (leaderLatch.hasLeadership()) {
-        zkClient
-            .setData()
-            .forPath(
-                tableServiceMasterPath,
-                JacksonUtil.toJSONString(tableServiceServerInfo).getBytes(StandardCharsets.UTF_8));
-        zkClient
-            .setData()
-            .forPath(
-                optimizingServiceMasterPath,
-                JacksonUtil.toJSONString(optimizingServiceServerInfo)
-                    .getBytes(StandardCharsets.UTF_8));
+        publishMasterServerInfo();
       }
     }
     LOG.info("Became the leader of AMS");
@@ -119,9 +164,24 @@ public class HighAvailabilityContainer implements LeaderLatchListener {
     LOG.info("Became the follower of AMS");
   }
 
+  /**
+   * Tables this node serves, all tables unless sharding is enabled. With sharding, the owned
+   * buckets change while the services are running, and the services apply the changes through the
+   * listeners of the ownership.
+   */
+  public TableOwnership getTableOwnership() {
+    return tableOwnership;
+  }
+
   public void close() {
     if (leaderLatch != null) {
       try {
+        if (shardingEnabled) {
+          rebalanceScheduler.shutdownNow();
+          membersCache.close();
+          bucketAssignmentCache.close();
+          heldBucketsCache.close();
+        }
         this.leaderLatch.close();
         this.zkClient.close();
       } catch (IOException e) {
@@ -136,6 +196,16 @@ public class HighAvailabilityContainer implements LeaderLatchListener {
         "Table service server {} and optimizing service server {} got leadership",
         tableServiceServerInfo.toString(),
         optimizingServiceServerInfo.toString());
+    if (shardingEnabled) {
+      // The leader only coordinates bucket assignment, all nodes serve tables
+      try {
+        publishMasterServerInfo();
+      } catch (Exception e) {
+        LOG.error("Publish master server info failed", e);
+      }
+      rebalance();
+      return;
+    }
     followerLath = new CountDownLatch(1);
   }
 
@@ -145,7 +215,272 @@ public class HighAvailabilityContainer implements LeaderLatchListener {
         "Table service server {} and optimizing service server {} lost leadership",
         tableServiceServerInfo.toString(),
         optimizingServiceServerInfo.toString());
-    followerLath.countDown();
+    if (!shardingEnabled) {
+      followerLath.countDown();
+    }
+  }
+
+  private void publishMasterServerInfo() throws Exception {
+    zkClient
+        .setData()
+        .forPath(
+            tableServiceMasterPath,
+            JacksonUtil.toJSONString(tableServiceServerInfo).getBytes(StandardCharsets.UTF_8));
+    zkClient
+        .setData()
+        .forPath(
+            optimizingServiceMasterPath,
+            JacksonUtil.toJSONString(optimizingServiceServerInfo).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void startSharding() throws Exception {
+    createPathIfNeeded(membersPath);
+    createPathIfNeeded(heldBucketsPath);
+    followerLath = new CountDownLatch(1);
+    tableOwnership = new TableOwnership(bucketNum, Collections.emptySet(), this::isCoordinator);
+    membersCache = CuratorCache.build(zkClient, membersPath);
+    membersCache.listenable().addListener((type, oldData, data) -> rebalance());
+    bucketAssignmentCache = CuratorCache.build(zkClient, bucketAssignmentPath);
+    bucketAssignmentCache.listenable().addListener((type, oldData, data) -> onAssignmentChanged());
+    // Buckets withheld from their new owners are assigned once their previous owners release them
+    heldBucketsCache = CuratorCache.build(zkClient, heldBucketsPath);
+    heldBucketsCache.listenable().addListener((type, oldData, data) -> rebalance());
+    zkClient
+        .getConnectionStateListenable()
+        .addListener(
+            (client, newState) -> {
+              if (newState == ConnectionState.SUSPENDED || newState == ConnectionState.LOST) {
+                // The session may expire before the connection recovers, and the buckets are then
+                // assigned to other nodes, so stop serving them at once
+                LOG.warn("AMS {} lost its zookeeper connection: {}", getMemberId(), newState);
+                stopServing();
+              }
+            });
+    rebalanceScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("bucket-rebalance-scheduler-%d")
+                .setDaemon(true)
+                .build());
+    rebalanceScheduler.scheduleAtFixedRate(
+        this::rebalance, REBALANCE_INTERVAL, REBALANCE_INTERVAL, TimeUnit.MILLISECONDS);
+    membersCache.start();
+    bucketAssignmentCache.start();
+    heldBucketsCache.start();
+  }
+
+  private void waitBucketsAssigned() throws Exception {
+    LOG.info("Waiting for buckets to be assigned to AMS {}", getMemberId());
+    registerMember();
+    // The services of a previous run, if any, have been disposed
+    publishHeldBuckets(Collections.emptySet());
+    Set<Integer> buckets;
+    synchronized (assignmentLock) {
+      followerLath = new CountDownLatch(1);
+      buckets = getAssignedBuckets(readAssignment());
+      while (buckets.isEmpty()) {
+        assignmentLock.wait(ASSIGNMENT_WAIT_INTERVAL);
+        // The member node is gone if the session expired meanwhile
+        registerMember();
+        buckets = getAssignedBuckets(readAssignment());
+      }
+      // Claim the buckets before the services load their tables
+      publishHeldBuckets(buckets);
+      tableOwnership.setBuckets(buckets);
+      serving = true;
+    }
+    LOG.info("AMS {} serves buckets {}", getMemberId(), buckets);
+  }
+
+  private void registerMember() throws Exception {
+    writeEphemeralNode(
+        getMemberPath(),
+        JacksonUtil.toJSONString(optimizingServiceServerInfo).getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Write an ephemeral node of the current session. A node left by a previous session of this node
+   * is replaced, otherwise it would vanish once that session expires while this node is serving.
+   */
+  private void writeEphemeralNode(String path, byte[] data) throws Exception {
+    long sessionId = zkClient.getZookeeperClient().getZooKeeper().getSessionId();
+    Stat stat = zkClient.checkExists().forPath(path);
+    if (stat != null && stat.getEphemeralOwner() == sessionId) {
+      zkClient.setData().forPath(path, data);
+      return;
+    }
+    if (stat != null) {
+      try {
+        zkClient.delete().withVersion(stat.getVersion()).forPath(path);
+      } catch (KeeperException.NoNodeException e) {
+        // ignore, the previous session has expired meanwhile
+      }
+    }
+    zkClient.create().withMode(CreateMode.EPHEMERAL).forPath(path, data);
+  }
+
+  private void onAssignmentChanged() {
+    synchronized (assignmentLock) {
+      try {
+        Set<Integer> buckets = getAssignedBuckets(readAssignment());
+        Set<Integer> ownedBuckets = tableOwnership.getBuckets();
+        if (serving && !ownedBuckets.equals(buckets)) {
+          LOG.info(
+              "Buckets of AMS {} changed from {} to {}", getMemberId(), ownedBuckets, buckets);
+          // Claim the acquired buckets before loading their tables, and acknowledge the released
+          // buckets only after their tables are released, the coordinator hands a bucket over to
+          // another node only once it is acknowledged
+          Set<Integer> claimedBuckets = new HashSet<>(ownedBuckets);
+          claimedBuckets.addAll(buckets);
+          publishHeldBuckets(claimedBuckets);
+          tableOwnership.setBuckets(buckets);
+          publishHeldBuckets(buckets);
+        }
+      } catch (Exception e) {
+        // The claimed buckets stay held until the services are disposed by the restart, so that
+        // no other node takes over a table which may not have been released
+        LOG.error("Apply bucket assignment failed, restart AMS {}", getMemberId(), e);
+        stopServing();
+      }
+      assignmentLock.notifyAll();
+    }
+  }
+
+  /**
+   * Stop serving the owned buckets and restart the services of this node, which claim their buckets
+   * again once they are disposed.
+   */
+  private void stopServing() {
+    synchronized (assignmentLock) {
+      if (serving) {
+        serving = false;
+        try {
+          // Stop writing the state of the tables before other nodes take them over
+          tableOwnership.setBuckets(Collections.emptySet());
+        } catch (RuntimeException e) {
+          LOG.error("Release buckets of AMS {} failed", getMemberId(), e);
+        }
+        followerLath.countDown();
+      }
+    }
+  }
+
+  private void publishHeldBuckets(Set<Integer> buckets) throws Exception {
+    writeEphemeralNode(
+        getHeldBucketsPath(),
+        JacksonUtil.toJSONString(new TreeSet<>(buckets)).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private Set<Integer> readHeldBuckets(String member) throws Exception {
+    try {
+      byte[] data = zkClient.getData().forPath(heldBucketsPath + "/" + member);
+      return new HashSet<>(
+          Arrays.asList(
+              JacksonUtil.parseObject(new String(data, StandardCharsets.UTF_8), Integer[].class)));
+    } catch (KeeperException.NoNodeException e) {
+      return Collections.emptySet();
+    }
+  }
+
+  private synchronized void rebalance() {
+    if (!isCoordinator()) {
+      return;
+    }
+    try {
+      Map<String, AmsServerInfo> optimizingServices = new HashMap<>();
+      for (String member : zkClient.getChildren().forPath(membersPath)) {
+        try {
+          byte[] data = zkClient.getData().forPath(membersPath + "/" + member);
+          optimizingServices.put(
+              member,
+              JacksonUtil.parseObject(
+                  new String(data, StandardCharsets.UTF_8), AmsServerInfo.class));
+        } catch (KeeperException.NoNodeException e) {
+          // ignore, the member has left
+        }
+      }
+      Map<String, Set<Integer>> heldBuckets = new HashMap<>();
+      for (String member : optimizingServices.keySet()) {
+        heldBuckets.put(member, readHeldBuckets(member));
+      }
+      BucketAssignment previous = readAssignment();
+      Map<String, List<Integer>> previousBuckets =
+          previous == null || previous.getBucketNum() != bucketNum
+              ? Collections.emptyMap()
+              : previous.getBuckets();
+      Set<Integer> occupiedBuckets = getOccupiedBuckets();
+      BucketAssignment assignment = new BucketAssignment();
+      assignment.setBucketNum(bucketNum);
+      assignment.setOptimizingServices(optimizingServices);
+      assignment.setBuckets(
+          BucketAssigner.fence(
+              BucketAssigner.assign(
+                  bucketNum, previousBuckets, optimizingServices.keySet(), occupiedBuckets),
+              heldBuckets));
+      if (!assignment.equals(previous)) {
+        if (occupiedBuckets.size() < optimizingServices.size()) {
+          // A group is never split across nodes, see BucketAssignment
+          LOG.warn(
+              "Optimizer groups are hashed into {} buckets, so {} of {} AMS nodes serve no table,"
+                  + " split large optimizer groups to spread their tables",
+              occupiedBuckets.size(),
+              optimizingServices.size() - occupiedBuckets.size(),
+              optimizingServices.size());
+        }
+        byte[] data = JacksonUtil.toJSONString(assignment).getBytes(StandardCharsets.UTF_8);
+        try {
+          zkClient.setData().forPath(bucketAssignmentPath, data);
+        } catch (KeeperException.NoNodeException e) {
+          zkClient.create().creatingParentsIfNeeded().forPath(bucketAssignmentPath, data);
+        }
+        LOG.info("Assigned buckets to AMS nodes: {}", assignment.getBuckets());
+      }
+    } catch (Exception e) {
+      LOG.error("Rebalance buckets of AMS nodes failed", e);
+    }
+  }
+
+  private Set<Integer> getOccupiedBuckets() {
+    List<ResourceGroup> resourceGroups =
+        getAs(ResourceMapper.class, ResourceMapper::selectResourceGroups);
+    return resourceGroups.stream()
+        .map(group -> BucketAssignment.bucketOf(group.getName(), bucketNum))
+        .collect(Collectors.toSet());
+  }
+
+  private BucketAssignment readAssignment() throws Exception {
+    try {
+      byte[] data = zkClient.getData().forPath(bucketAssignmentPath);
+      return JacksonUtil.parseObject(
+          new String(data, StandardCharsets.UTF_8), BucketAssignment.class);
+    } catch (KeeperException.NoNodeException e) {
+      return null;
+    }
+  }
+
+  private Set<Integer> getAssignedBuckets(BucketAssignment assignment) {
+    if (assignment == null) {
+      return Collections.emptySet();
+    }
+    return new HashSet<>(
+        assignment.getBuckets().getOrDefault(getMemberId(), Collections.emptyList()));
+  }
+
+  private String getMemberId() {
+    return tableServiceServerInfo.toString();
+  }
+
+  private String getMemberPath() {
+    return membersPath + "/" + getMemberId();
+  }
+
+  private String getHeldBucketsPath() {
+    return heldBucketsPath + "/" + getMemberId();
+  }
+
+  private boolean isCoordinator() {
+    // The caches are started before the leader latch is created
+    return leaderLatch != null && leaderLatch.hasLeadership();
   }
 
   private AmsServerInfo buildServerInfo(String host, int port) {
@@ -29,9 +29,12 @@ import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.PropertyNamingStrategy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.javalin.apibuilder.EndpointGroup;
 import io.javalin.http.ContentType;
 import io.javalin.http.Context;
+import io.javalin.http.Header;
 import io.javalin.http.HttpCode;
 import io.javalin.plugin.json.JavalinJackson;
 import org.apache.amoro.ServerTableIdentifier;
@@ -51,6 +54,7 @@ import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Sets;
+import org.apache.amoro.shade.guava32.com.google.common.hash.Hashing;
 import org.apache.amoro.utils.CatalogUtil;
 import org.apache.amoro.utils.TablePropertyUtil;
 import org.apache.iceberg.TableMetadata;
@@ -78,6 +82,9 @@ import org.apache.iceberg.rest.responses.LoadTableResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -105,10 +112,20 @@ public class RestCatalogService extends PersistentBase {
   private static final Set<String> catalogPropertiesOverwrite =
       Collections.unmodifiableSet(Sets.newHashSet(CatalogMetaProperties.KEY_WAREHOUSE));
 
+  // bound of the cached load table responses, in chars of the serialized responses
+  private static final long MAX_CACHED_RESPONSE_CHARS = 64 * 1024 * 1024;
+
   private final JavalinJackson jsonMapper;
 
   private final CatalogManager catalogManager;
   private final InternalTableManager tableManager;
+  // serialized load table responses, keyed by the metadata file location
+  private final Cache<String, String> loadTableResponses =
+      Caffeine.newBuilder()
+          .maximumWeight(MAX_CACHED_RESPONSE_CHARS)
+          .weigher((String location, String response) -> response.length())
+          .expireAfterAccess(Duration.ofMinutes(30))
+          .build();
 
   public RestCatalogService(CatalogManager catalogManager, InternalTableManager tableManager) {
     this.catalogManager = catalogManager;
@@ -311,7 +328,26 @@ public class RestCatalogService extends PersistentBase {
           if (tableMetadata == null) {
             throw new NoSuchTableException("failed to load table from metadata file.");
           }
-          return LoadTableResponse.builder().withTableMetadata(tableMetadata).build();
+          String metadataLocation = tableMetadata.metadataFileLocation();
+          if (metadataLocation == null) {
+            return LoadTableResponse.builder().withTableMetadata(tableMetadata).build();
+          }
+
+          // the response only changes with the metadata file, which is never rewritten
+          String etag = etag(metadataLocation);
+          ctx.header(Header.ETAG, etag);
+          if (etagMatches(ctx.header(Header.IF_NONE_MATCH), etag)) {
+            ctx.status(HttpCode.NOT_MODIFIED);
+          } else {
+            String response =
+                loadTableResponses.get(
+                    metadataLocation,
+                    location ->
+                        jsonMapper.toJsonString(
+                            LoadTableResponse.builder().withTableMetadata(tableMetadata).build()));
+            ctx.contentType(ContentType.APPLICATION_JSON).result(response);
+          }
+          return null;
         });
   }
 
@@ -334,6 +370,10 @@ public class RestCatalogService extends PersistentBase {
 
           ops.commit(base, newMetadata);
           TableMetadata current = ops.current();
+          if (base.metadataFileLocation() != null
+              && !base.metadataFileLocation().equals(current.metadataFileLocation())) {
+            loadTableResponses.invalidate(base.metadataFileLocation());
+          }
           return LoadTableResponse.builder().withTableMetadata(current).build();
         });
   }
@@ -401,11 +441,31 @@ public class RestCatalogService extends PersistentBase {
     RESTResponse r = handler.apply(internalCatalog);
     if (r != null) {
       jsonResponse(ctx, r);
-    } else {
+    } else if (!responded(ctx)) {
       ctx.status(HttpCode.NO_CONTENT);
     }
   }
 
+  /** @return Whether the handler has written the response to the context itself. */
+  private static boolean responded(Context ctx) {
+    return ctx.status() != HttpCode.OK.getStatus() || ctx.resultStream() != null;
+  }
+
+  private static String etag(String metadataLocation) {
+    return "\""
+        + Hashing.murmur3_128().hashString(metadataLocation, StandardCharsets.UTF_8)
+        + "\"";
+  }
+
+  private static boolean etagMatches(String ifNoneMatch, String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    return Arrays.stream(ifNoneMatch.split(","))
+        .map(String::trim)
+        .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+  }
+
   private void handleNamespace(
       Context ctx, BiFunction<InternalCatalog, String, ? extends RESTResponse> handler) {
     handleCatalog(
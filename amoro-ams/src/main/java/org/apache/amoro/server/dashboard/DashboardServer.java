@@ -102,7 +102,8 @@ public class DashboardServer {
       TableManager tableManager,
       OptimizerManager optimizerManager,
       DefaultOptimizingService optimizingService,
-      TerminalManager terminalManager) {
+      TerminalManager terminalManager,
+      OverviewManager overviewManager) {
     PlatformFileManager platformFileManager = new PlatformFileManager();
     this.catalogController = new CatalogController(catalogManager, platformFileManager);
     this.healthCheckController = new HealthCheckController();
@@ -120,8 +121,7 @@ public class DashboardServer {
         new TableController(catalogManager, tableManager, tableDescriptor, serviceConfig);
     this.terminalController = new TerminalController(terminalManager);
     this.versionController = new VersionController();
-    OverviewManager manager = new OverviewManager(serviceConfig);
-    this.overviewController = new OverviewController(manager);
+    this.overviewController = new OverviewController(overviewManager);
 
     this.authType = serviceConfig.get(AmoroManagementConf.HTTP_SERVER_REST_AUTH_TYPE);
     this.basicAuthUser = serviceConfig.get(AmoroManagementConf.ADMIN_USERNAME);
@@ -18,7 +18,12 @@
 
 package org.apache.amoro.server.dashboard;
 
+import org.apache.amoro.AmoroTable;
+import org.apache.amoro.ServerTableIdentifier;
+import org.apache.amoro.TableFormat;
 import org.apache.amoro.config.Configurations;
+import org.apache.amoro.config.TableConfiguration;
+import org.apache.amoro.optimizing.plan.AbstractOptimizingEvaluator;
 import org.apache.amoro.server.AmoroManagementConf;
 import org.apache.amoro.server.dashboard.model.OverviewDataSizeItem;
 import org.apache.amoro.server.dashboard.model.OverviewResourceUsageItem;
@@ -30,20 +35,21 @@ import org.apache.amoro.server.persistence.mapper.CatalogMetaMapper;
 import org.apache.amoro.server.persistence.mapper.OptimizerMapper;
 import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
 import org.apache.amoro.server.resource.OptimizerInstance;
+import org.apache.amoro.server.table.RuntimeHandlerChain;
+import org.apache.amoro.server.table.TableRuntime;
 import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
 import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
-import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Ordering;
 import org.apache.amoro.shade.guava32.com.google.common.util.concurrent.ThreadFactoryBuilder;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
-import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.Executors;
@@ -53,6 +59,14 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+/**
+ * Aggregates of the dashboard overview. The table aggregates are updated by the status and pending
+ * input events of the table runtimes once {@link #getTableRuntimeHandler()} is initialized, and
+ * reloaded from the database every reconcile interval to correct the changes missed by the events.
+ * Table runtimes are persisted behind their events, so tables with an event newer than the
+ * database read keep the state of the event. Without the handler, for example on a node serving a
+ * part of the tables, the aggregates are reloaded on every refresh.
+ */
 public class OverviewManager extends PersistentBase {
 
   public static final String STATUS_PENDING = "Pending";
@@ -62,8 +76,13 @@ public class OverviewManager extends PersistentBase {
   public static final String STATUS_COMMITTING = "Committing";
 
   private static final Logger LOG = LoggerFactory.getLogger(OverviewManager.class);
-  private final List<OverviewTopTableItem> allTopTableItem = new ArrayList<>();
+  // table items and overview status of each table, keyed by the table id
+  private final Map<Long, OverviewTopTableItem> tableItems = new ConcurrentHashMap<>();
+  private final Map<Long, String> tableStatuses = new ConcurrentHashMap<>();
   private final Map<String, Long> optimizingStatusCountMap = new ConcurrentHashMap<>();
+  // sequence of the latest event of each table, kept until a database read covers it
+  private final Map<Long, Long> tableEventSequences = new ConcurrentHashMap<>();
+  private final AtomicLong eventSequence = new AtomicLong();
   private final ConcurrentLinkedDeque<OverviewResourceUsageItem> resourceUsageHistory =
       new ConcurrentLinkedDeque<>();
   private final ConcurrentLinkedDeque<OverviewDataSizeItem> dataSizeHistory =
@@ -73,18 +92,24 @@ public class OverviewManager extends PersistentBase {
   private final AtomicInteger totalTableCount = new AtomicInteger();
   private final AtomicInteger totalCpu = new AtomicInteger();
   private final AtomicLong totalMemory = new AtomicLong();
+  private final OverviewRuntimeHandler tableRuntimeHandler = new OverviewRuntimeHandler();
 
   private final int maxRecordCount;
+  private final long reconcileIntervalMs;
+  private volatile boolean handlerInitialized = false;
+  private volatile long lastReconcileTime = 0;
 
   public OverviewManager(Configurations serverConfigs) {
     this(
         serverConfigs.getInteger(AmoroManagementConf.OVERVIEW_CACHE_MAX_SIZE),
-        serverConfigs.get(AmoroManagementConf.OVERVIEW_CACHE_REFRESH_INTERVAL));
+        serverConfigs.get(AmoroManagementConf.OVERVIEW_CACHE_REFRESH_INTERVAL),
+        serverConfigs.get(AmoroManagementConf.OVERVIEW_CACHE_RECONCILE_INTERVAL));
   }
 
   @VisibleForTesting
-  public OverviewManager(int maxRecordCount, Duration refreshInterval) {
+  public OverviewManager(int maxRecordCount, Duration refreshInterval, Duration reconcileInterval) {
     this.maxRecordCount = maxRecordCount;
+    this.reconcileIntervalMs = reconcileInterval.toMillis();
     ScheduledExecutorService overviewUpdaterScheduler =
         Executors.newSingleThreadScheduledExecutor(
             new ThreadFactoryBuilder()
@@ -99,8 +124,25 @@ public class OverviewManager extends PersistentBase {
     }
   }
 
+  /** @return The handler to keep the table aggregates updated by the table runtime events */
+  public RuntimeHandlerChain getTableRuntimeHandler() {
+    return tableRuntimeHandler;
+  }
+
   public List<OverviewTopTableItem> getAllTopTableItem() {
-    return ImmutableList.copyOf(allTopTableItem);
+    return ImmutableList.copyOf(tableItems.values());
+  }
+
+  /**
+   * Select the first tables in the order of the comparator, without sorting all the tables.
+   *
+   * @param comparator Order of the tables
+   * @param limit Max number of the tables to return
+   * @return The first tables in order
+   */
+  public List<OverviewTopTableItem> getTopTableItems(
+      Comparator<OverviewTopTableItem> comparator, int limit) {
+    return Ordering.from(comparator).leastOf(tableItems.values(), limit);
   }
 
   public int getTotalCatalog() {
@@ -157,51 +199,124 @@ public class OverviewManager extends PersistentBase {
 
   private void refreshTableCache(long ts) {
     int totalCatalogs = getAs(CatalogMetaMapper.class, CatalogMetaMapper::selectCatalogCount);
-
-    List<TableRuntimeMeta> metas =
-        getAs(TableMetaMapper.class, TableMetaMapper::selectTableRuntimeMetas);
-    AtomicLong totalDataSize = new AtomicLong();
-    AtomicInteger totalFileCounts = new AtomicInteger();
-    Map<String, OverviewTopTableItem> topTableItemMap = Maps.newHashMap();
-    Map<String, Long> optimizingStatusMap = Maps.newHashMap();
-    for (TableRuntimeMeta meta : metas) {
-      Optional<OverviewTopTableItem> optItem = toTopTableItem(meta);
-      optItem.ifPresent(
-          tableItem -> {
-            topTableItemMap.put(tableItem.getTableName(), tableItem);
-            totalDataSize.addAndGet(tableItem.getTableSize());
-            totalFileCounts.addAndGet(tableItem.getFileCount());
-          });
-      String status = statusToMetricString(meta.getTableStatus());
-      if (StringUtils.isNotEmpty(status)) {
-        optimizingStatusMap.putIfAbsent(status, 0L);
-        optimizingStatusMap.computeIfPresent(status, (k, v) -> v + 1);
-      }
+    // without the table runtime events, the aggregates can only be loaded from the database
+    if (!handlerInitialized || ts - lastReconcileTime >= reconcileIntervalMs) {
+      long readSequence = eventSequence.get();
+      List<TableRuntimeMeta> metas =
+          getAs(TableMetaMapper.class, TableMetaMapper::selectTableRuntimeMetas);
+      reconcileTables(metas, readSequence);
+      lastReconcileTime = ts;
     }
 
     this.totalCatalog.set(totalCatalogs);
-    this.totalTableCount.set(topTableItemMap.size());
-    this.totalDataSize.set(totalDataSize.get());
-    this.allTopTableItem.clear();
-    this.allTopTableItem.addAll(topTableItemMap.values());
     addAndCheck(new OverviewDataSizeItem(ts, this.totalDataSize.get()));
+  }
+
+  /**
+   * Reload the aggregates from the table runtimes read from the database, except for the tables
+   * with an event after the read, whose rows may still lag behind their events.
+   *
+   * @param metas Table runtimes read from the database
+   * @param readSequence The event sequence before the database read
+   */
+  @VisibleForTesting
+  synchronized void reconcileTables(List<TableRuntimeMeta> metas, long readSequence) {
+    Map<Long, OverviewTopTableItem> newerItems = new HashMap<>();
+    Map<Long, String> newerStatuses = new HashMap<>();
+    tableEventSequences.forEach(
+        (tableId, sequence) -> {
+          if (sequence > readSequence) {
+            // null for a table removed after the read
+            newerItems.put(tableId, tableItems.get(tableId));
+            newerStatuses.put(tableId, tableStatuses.get(tableId));
+          }
+        });
+    tableEventSequences.values().removeIf(sequence -> sequence <= readSequence);
+
+    tableItems.clear();
+    tableStatuses.clear();
     resetStatusMap();
-    this.optimizingStatusCountMap.putAll(optimizingStatusMap);
+    totalDataSize.set(0);
+    for (TableRuntimeMeta meta : metas) {
+      if (newerItems.containsKey(meta.getTableId())) {
+        continue;
+      }
+      putTable(
+          meta.getTableId(),
+          toTopTableItem(
+              fullTableName(meta.getCatalogName(), meta.getDbName(), meta.getTableName()),
+              meta.getPendingInput()),
+          statusToMetricString(meta.getTableStatus()));
+    }
+    newerItems.forEach(
+        (tableId, item) -> {
+          if (item != null) {
+            putTable(tableId, item, newerStatuses.get(tableId));
+          }
+        });
+  }
+
+  /** Sequence of the latest table runtime event. */
+  @VisibleForTesting
+  long eventSequence() {
+    return eventSequence.get();
+  }
+
+  private synchronized void updateTable(TableRuntime tableRuntime) {
+    ServerTableIdentifier identifier = tableRuntime.getTableIdentifier();
+    tableEventSequences.put(identifier.getId(), eventSequence.incrementAndGet());
+    putTable(
+        identifier.getId(),
+        toTopTableItem(
+            fullTableName(
+                identifier.getCatalog(), identifier.getDatabase(), identifier.getTableName()),
+            tableRuntime.getPendingInput()),
+        statusToMetricString(tableRuntime.getOptimizingStatus()));
+  }
+
+  /** Replace the item and status of a table and apply the differences to the aggregates. */
+  private synchronized void putTable(long tableId, OverviewTopTableItem item, String statusString) {
+    OverviewTopTableItem originalItem = tableItems.put(tableId, item);
+    totalDataSize.addAndGet(
+        item.getTableSize() - (originalItem == null ? 0 : originalItem.getTableSize()));
+    totalTableCount.set(tableItems.size());
+
+    String originalStatus =
+        statusString == null
+            ? tableStatuses.remove(tableId)
+            : tableStatuses.put(tableId, statusString);
+    if (originalStatus != null) {
+      optimizingStatusCountMap.computeIfPresent(originalStatus, (k, v) -> v - 1);
+    }
+    if (statusString != null) {
+      optimizingStatusCountMap.merge(statusString, 1L, Long::sum);
+    }
   }
 
-  private Optional<OverviewTopTableItem> toTopTableItem(TableRuntimeMeta meta) {
-    if (meta == null) {
-      return Optional.empty();
+  private synchronized void removeTable(long tableId) {
+    tableEventSequences.put(tableId, eventSequence.incrementAndGet());
+    OverviewTopTableItem originalItem = tableItems.remove(tableId);
+    if (originalItem != null) {
+      totalDataSize.addAndGet(-originalItem.getTableSize());
+    }
+    totalTableCount.set(tableItems.size());
+    String originalStatus = tableStatuses.remove(tableId);
+    if (originalStatus != null) {
+      optimizingStatusCountMap.computeIfPresent(originalStatus, (k, v) -> v - 1);
     }
-    OverviewTopTableItem tableItem = new OverviewTopTableItem(fullTableName(meta));
-    if (meta.getPendingInput() != null) {
-      tableItem.setTableSize(meta.getPendingInput().getTotalFileSize());
-      tableItem.setFileCount(meta.getPendingInput().getTotalFileCount());
-      tableItem.setHealthScore(meta.getPendingInput().getHealthScore());
+  }
+
+  private OverviewTopTableItem toTopTableItem(
+      String tableName, AbstractOptimizingEvaluator.PendingInput pendingInput) {
+    OverviewTopTableItem tableItem = new OverviewTopTableItem(tableName);
+    if (pendingInput != null) {
+      tableItem.setTableSize(pendingInput.getTotalFileSize());
+      tableItem.setFileCount(pendingInput.getTotalFileCount());
+      tableItem.setHealthScore(pendingInput.getHealthScore());
     }
     tableItem.setAverageFileSize(
         tableItem.getFileCount() == 0 ? 0 : tableItem.getTableSize() / tableItem.getFileCount());
-    return Optional.of(tableItem);
+    return tableItem;
   }
 
   private String statusToMetricString(OptimizingStatus status) {
@@ -264,11 +379,58 @@ public class OverviewManager extends PersistentBase {
     }
   }
 
-  private String fullTableName(TableRuntimeMeta meta) {
-    return meta.getCatalogName()
-        .concat(".")
-        .concat(meta.getDbName())
-        .concat(".")
-        .concat(meta.getTableName());
+  private String fullTableName(String catalog, String database, String table) {
+    return catalog.concat(".").concat(database).concat(".").concat(table);
+  }
+
+  private class OverviewRuntimeHandler extends RuntimeHandlerChain {
+
+    @Override
+    protected boolean formatSupported(TableFormat format) {
+      return true;
+    }
+
+    @Override
+    protected void handleStatusChanged(TableRuntime tableRuntime, OptimizingStatus originalStatus) {
+      updateTable(tableRuntime);
+    }
+
+    @Override
+    protected void handlePendingInputChanged(TableRuntime tableRuntime) {
+      updateTable(tableRuntime);
+    }
+
+    @Override
+    protected void handleConfigChanged(
+        TableRuntime tableRuntime, TableConfiguration originalConfig) {}
+
+    @Override
+    protected void handleTableAdded(AmoroTable<?> table, TableRuntime tableRuntime) {
+      updateTable(tableRuntime);
+    }
+
+    @Override
+    protected void handleTableRemoved(TableRuntime tableRuntime) {
+      removeTable(tableRuntime.getTableIdentifier().getId());
+    }
+
+    @Override
+    protected void initHandler(List<TableRuntime> tableRuntimeList) {
+      synchronized (OverviewManager.this) {
+        tableItems.clear();
+        tableStatuses.clear();
+        tableEventSequences.clear();
+        resetStatusMap();
+        totalDataSize.set(0);
+        tableRuntimeList.forEach(OverviewManager.this::updateTable);
+      }
+      lastReconcileTime = System.currentTimeMillis();
+      handlerInitialized = true;
+    }
+
+    @Override
+    protected void doDispose() {
+      handlerInitialized = false;
+    }
   }
 }
@@ -98,13 +98,11 @@ public class OverviewController {
 
   private List<OverviewTopTableItem> getTopTables(
       boolean asc, Comparator<OverviewTopTableItem> comparator, int limit) {
-    return manager.getAllTopTableItem().stream()
-        .sorted(
-            asc
-                ? comparator.thenComparing(OverviewTopTableItem::getTableName)
-                : comparator.reversed().thenComparing(OverviewTopTableItem::getTableName))
-        .limit(limit)
-        .collect(Collectors.toList());
+    return manager.getTopTableItems(
+        asc
+            ? comparator.thenComparing(OverviewTopTableItem::getTableName)
+            : comparator.reversed().thenComparing(OverviewTopTableItem::getTableName),
+        limit);
   }
 
   public void getSummary(Context ctx) {
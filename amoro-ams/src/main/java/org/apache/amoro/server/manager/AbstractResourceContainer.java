@@ -104,6 +104,32 @@ public abstract class AbstractResourceContainer implements ResourceContainer {
             .append(
                 resource.getProperties().get(OptimizerProperties.OPTIMIZER_MEMORY_STORAGE_SIZE));
       }
+      if (resource.getProperties().containsKey(OptimizerProperties.OPTIMIZER_SPILL_BACKEND)) {
+        stringBuilder
+            .append(" -sb ")
+            .append(resource.getProperties().get(OptimizerProperties.OPTIMIZER_SPILL_BACKEND));
+      }
+    }
+    if (resource.getProperties().containsKey(OptimizerProperties.OPTIMIZER_PREFETCH_TASK_COUNT)) {
+      stringBuilder
+          .append(" -ptc ")
+          .append(resource.getProperties().get(OptimizerProperties.OPTIMIZER_PREFETCH_TASK_COUNT));
+    }
+    if (resource.getProperties().containsKey(OptimizerProperties.OPTIMIZER_SPLIT_TASK_SIZE)) {
+      stringBuilder
+          .append(" -sts ")
+          .append(resource.getProperties().get(OptimizerProperties.OPTIMIZER_SPLIT_TASK_SIZE));
+    }
+    if (org.apache.iceberg.util.PropertyUtil.propertyAsBoolean(
+        resource.getProperties(),
+        OptimizerProperties.OPTIMIZER_PIPELINED_REWRITE,
+        OptimizerProperties.OPTIMIZER_PIPELINED_REWRITE_DEFAULT)) {
+      stringBuilder.append(" -pr");
+    }
+    if (resource.getProperties().containsKey(OptimizerProperties.OPTIMIZER_METRICS_PORT)) {
+      stringBuilder
+          .append(" -mp ")
+          .append(resource.getProperties().get(OptimizerProperties.OPTIMIZER_METRICS_PORT));
     }
     if (StringUtils.isNotEmpty(resource.getResourceId())) {
       stringBuilder.append(" -id ").append(resource.getResourceId());
@@ -19,6 +19,7 @@
 package org.apache.amoro.server.optimizing;
 
 import static org.apache.amoro.metrics.MetricDefine.defineGauge;
+import static org.apache.amoro.metrics.MetricDefine.defineTimer;
 import static org.apache.amoro.server.optimizing.OptimizingStatus.COMMITTING;
 import static org.apache.amoro.server.optimizing.OptimizingStatus.IDLE;
 import static org.apache.amoro.server.optimizing.OptimizingStatus.PENDING;
@@ -27,10 +28,12 @@ import static org.apache.amoro.server.optimizing.TaskRuntime.Status.ACKED;
 import static org.apache.amoro.server.optimizing.TaskRuntime.Status.PLANNED;
 import static org.apache.amoro.server.optimizing.TaskRuntime.Status.SCHEDULED;
 
+import org.apache.amoro.OptimizerReportedMetrics;
 import org.apache.amoro.metrics.Gauge;
 import org.apache.amoro.metrics.Metric;
 import org.apache.amoro.metrics.MetricDefine;
 import org.apache.amoro.metrics.MetricKey;
+import org.apache.amoro.metrics.Timer;
 import org.apache.amoro.server.metrics.MetricRegistry;
 import org.apache.amoro.server.resource.OptimizerInstance;
 import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
@@ -104,11 +107,46 @@ public class OptimizerGroupMetrics {
           .withTags(GROUP_TAG)
           .build();
 
+  public static final MetricDefine OPTIMIZER_GROUP_POLL_TASK_DURATION =
+      defineTimer("optimizer_group_poll_task_duration_mills")
+          .withDescription(
+              "Distribution of durations in milliseconds of optimizers polling tasks, "
+                  + "including the time waiting for tasks")
+          .withTags(GROUP_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_GROUP_TASK_EXECUTE_DURATION =
+      defineTimer("optimizer_group_task_execute_duration_mills")
+          .withDescription(
+              "Distribution of durations in milliseconds of executing tasks in optimizer group")
+          .withTags(GROUP_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_GROUP_INPUT_BYTES_PER_SECOND =
+      defineGauge("optimizer_group_input_bytes_per_second")
+          .withDescription("Bytes read per second by optimizers in optimizer group")
+          .withTags(GROUP_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_GROUP_INPUT_RECORDS_PER_SECOND =
+      defineGauge("optimizer_group_input_records_per_second")
+          .withDescription("Records read per second by optimizers in optimizer group")
+          .withTags(GROUP_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_GROUP_SPILL_BYTES =
+      defineGauge("optimizer_group_spill_bytes")
+          .withDescription("Bytes spilled to disk by optimizers in optimizer group")
+          .withTags(GROUP_TAG)
+          .build();
+
   private final String groupName;
   private final MetricRegistry registry;
   private final OptimizingQueue optimizingQueue;
   private final List<MetricKey> registeredMetricKeys = Lists.newArrayList();
   private final Map<String, OptimizerInstance> optimizerInstances = new ConcurrentHashMap<>();
+  private final Timer pollTaskDuration = new Timer();
+  private final Timer taskExecuteDuration = new Timer();
 
   public OptimizerGroupMetrics(
       String groupName, MetricRegistry registry, OptimizingQueue optimizingQueue) {
@@ -199,6 +237,40 @@ public class OptimizerGroupMetrics {
                 optimizerInstances.values().stream()
                     .mapToLong(OptimizerInstance::getThreadCount)
                     .sum());
+    registerMetric(
+        registry,
+        OPTIMIZER_GROUP_INPUT_BYTES_PER_SECOND,
+        (Gauge<Long>)
+            () ->
+                optimizerInstances.values().stream()
+                    .mapToLong(OptimizerInstance::getInputBytesPerSecond)
+                    .sum());
+    registerMetric(
+        registry,
+        OPTIMIZER_GROUP_INPUT_RECORDS_PER_SECOND,
+        (Gauge<Long>)
+            () ->
+                optimizerInstances.values().stream()
+                    .mapToLong(OptimizerInstance::getInputRecordsPerSecond)
+                    .sum());
+    registerMetric(
+        registry,
+        OPTIMIZER_GROUP_SPILL_BYTES,
+        (Gauge<Long>)
+            () ->
+                optimizerInstances.values().stream()
+                    .mapToLong(o -> o.getReportedMetric(OptimizerReportedMetrics.SPILL_BYTES))
+                    .sum());
+    registerMetric(registry, OPTIMIZER_GROUP_POLL_TASK_DURATION, pollTaskDuration);
+    registerMetric(registry, OPTIMIZER_GROUP_TASK_EXECUTE_DURATION, taskExecuteDuration);
+  }
+
+  public Timer pollTaskDuration() {
+    return pollTaskDuration;
+  }
+
+  public Timer taskExecuteDuration() {
+    return taskExecuteDuration;
   }
 
   public void unregister() {
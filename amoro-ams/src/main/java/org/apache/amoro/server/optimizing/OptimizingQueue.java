@@ -45,6 +45,7 @@ import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTe
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.amoro.shade.guava32.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.amoro.table.MixedTable;
 import org.apache.amoro.utils.CompatiblePropertyUtil;
 import org.apache.amoro.utils.ExceptionUtil;
@@ -56,6 +57,10 @@ import org.apache.iceberg.util.StructLikeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -65,10 +70,12 @@ import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedTransferQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
@@ -77,6 +84,8 @@ import java.util.stream.Collectors;
 public class OptimizingQueue extends PersistentBase {
 
   private static final Logger LOG = LoggerFactory.getLogger(OptimizingQueue.class);
+  // Shared by all queues to hand tasks over to waiters and to expire waiters at their deadline
+  private static final ScheduledThreadPoolExecutor WAITER_EXECUTOR = createWaiterExecutor();
 
   private final QuotaProvider quotaProvider;
   private final Queue<TableOptimizingProcess> tableQueue = new LinkedTransferQueue<>();
@@ -87,7 +96,8 @@ public class OptimizingQueue extends PersistentBase {
   // Keep all planning table identifiers
   private final Set<ServerTableIdentifier> planningTables = new HashSet<>();
   private final Lock scheduleLock = new ReentrantLock();
-  private final Condition planningCompleted = scheduleLock.newCondition();
+  // Optimizer polls waiting for a task in arrival order, guarded by scheduleLock
+  private final Deque<TaskWaiter> taskWaiters = new ArrayDeque<>();
   private final int maxPlanningParallelism;
   private final OptimizerGroupMetrics metrics;
   private ResourceGroup optimizerGroup;
@@ -145,6 +155,14 @@ public class OptimizingQueue extends PersistentBase {
     }
   }
 
+  /**
+   * Serve a table loaded after the queue was created, recovering its optimizing process if the
+   * table is being optimized.
+   */
+  public void addTable(TableRuntime tableRuntime) {
+    initTableRuntime(tableRuntime);
+  }
+
   public String getContainerName() {
     return optimizerGroup.getContainer();
   }
@@ -188,12 +206,59 @@ public class OptimizingQueue extends PersistentBase {
   }
 
   public TaskRuntime<?> pollTask(long maxWaitTime) {
+    List<TaskRuntime<?>> tasks = pollTasks(maxWaitTime, 1);
+    return tasks.isEmpty() ? null : tasks.get(0);
+  }
+
+  /**
+   * Poll at most maxTasks tasks, only waiting for the first one. Tasks that are ready after the
+   * first one arrived are drained without waiting again.
+   */
+  public List<TaskRuntime<?>> pollTasks(long maxWaitTime, int maxTasks) {
+    CompletableFuture<List<TaskRuntime<?>>> future = pollTasksAsync(maxWaitTime, maxTasks);
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      LOG.error("Poll task interrupted", e);
+      // tasks already handed over can not be dropped
+      return future.cancel(false) ? Collections.emptyList() : future.join();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Poll task failed", e.getCause());
+    }
+  }
+
+  /**
+   * Poll at most maxTasks tasks without blocking the caller. When no task is ready, the poll is
+   * parked as a waiter and completed with the tasks handed over by the next planning or retry, or
+   * with an empty list once maxWaitTime elapses. Waiters are woken one at a time in arrival order,
+   * and only when there is a task for them. The future may be completed on the shared waiter
+   * thread, so callers must run blocking continuations on their own executor.
+   */
+  public CompletableFuture<List<TaskRuntime<?>>> pollTasksAsync(long maxWaitTime, int maxTasks) {
+    long startTime = System.currentTimeMillis();
     long deadline = calculateDeadline(maxWaitTime);
-    TaskRuntime<?> task = fetchTask();
-    while (task == null && waitTask(deadline)) {
-      task = fetchTask();
+    TaskWaiter waiter = new TaskWaiter(startTime, maxTasks);
+    List<TaskRuntime<?>> tasks = fetchTasks(maxTasks);
+    if (tasks.isEmpty()) {
+      scheduleLock.lock();
+      try {
+        long currentTime = System.currentTimeMillis();
+        scheduleTableIfNecessary(currentTime);
+        // tasks may be offered before the lock is acquired
+        tasks = fetchTasks(maxTasks);
+        if (tasks.isEmpty() && deadline > currentTime) {
+          waiter.timeout =
+              WAITER_EXECUTOR.schedule(
+                  () -> expireWaiter(waiter), deadline - currentTime, TimeUnit.MILLISECONDS);
+          taskWaiters.offer(waiter);
+          return waiter.future;
+        }
+      } finally {
+        scheduleLock.unlock();
+      }
     }
-    return task;
+    waiter.wake(tasks);
+    return waiter.future;
   }
 
   private long calculateDeadline(long maxWaitTime) {
@@ -201,19 +266,64 @@ public class OptimizingQueue extends PersistentBase {
     return deadline <= 0 ? Long.MAX_VALUE : deadline;
   }
 
-  private boolean waitTask(long waitDeadline) {
+  /**
+   * Wake waiters on the waiter executor, so the caller never acquires scheduleLock while holding
+   * the lock of an optimizing process.
+   */
+  private void signalTaskAvailable() {
+    WAITER_EXECUTOR.execute(this::wakeWaiters);
+  }
+
+  private void wakeWaiters() {
+    try {
+      while (true) {
+        TaskWaiter waiter;
+        List<TaskRuntime<?>> tasks;
+        scheduleLock.lock();
+        try {
+          waiter = taskWaiters.peek();
+          if (waiter == null) {
+            return;
+          }
+          tasks = fetchTasks(waiter.maxTasks);
+          if (tasks.isEmpty()) {
+            // waiters left without a task keep the planning going
+            scheduleTableIfNecessary(System.currentTimeMillis());
+            return;
+          }
+          taskWaiters.poll();
+        } finally {
+          scheduleLock.unlock();
+        }
+        waiter.wake(tasks);
+      }
+    } catch (Throwable throwable) {
+      LOG.error(
+          "Failed to hand over tasks to waiters of group {}", optimizerGroup.getName(), throwable);
+    }
+  }
+
+  private void expireWaiter(TaskWaiter waiter) {
+    boolean expired;
     scheduleLock.lock();
     try {
-      long currentTime = System.currentTimeMillis();
-      scheduleTableIfNecessary(currentTime);
-      return waitDeadline > currentTime
-          && planningCompleted.await(waitDeadline - currentTime, TimeUnit.MILLISECONDS);
-    } catch (InterruptedException e) {
-      LOG.error("Schedule table interrupted", e);
-      return false;
+      expired = taskWaiters.remove(waiter);
     } finally {
       scheduleLock.unlock();
     }
+    if (expired) {
+      waiter.wake(Collections.emptyList());
+    }
+  }
+
+  private List<TaskRuntime<?>> fetchTasks(int maxTasks) {
+    List<TaskRuntime<?>> tasks = new ArrayList<>();
+    TaskRuntime<?> task = fetchTask();
+    while (task != null) {
+      tasks.add(task);
+      task = tasks.size() < maxTasks ? fetchTask() : null;
+    }
+    return tasks;
   }
 
   private TaskRuntime<?> fetchTask() {
@@ -277,7 +387,10 @@ public class OptimizingQueue extends PersistentBase {
                       tableRuntime.getTableIdentifier(),
                       currentTime - startTime);
                 }
-                planningCompleted.signalAll();
+                if (process == null) {
+                  scheduler.refreshTable(tableRuntime);
+                }
+                signalTaskAvailable();
               } finally {
                 scheduleLock.unlock();
               }
@@ -286,6 +399,7 @@ public class OptimizingQueue extends PersistentBase {
 
   private TableOptimizingProcess planInternal(TableRuntime tableRuntime) {
     tableRuntime.beginPlanning();
+    long startTime = System.currentTimeMillis();
     try {
       ServerTableIdentifier identifier = tableRuntime.getTableIdentifier();
       AmoroTable<?> table = catalogManager.loadTable(identifier.getIdentifier());
@@ -295,7 +409,10 @@ public class OptimizingQueue extends PersistentBase {
               (MixedTable) table.originalTable(),
               getAvailableCore(),
               maxInputSizePerThread());
-      if (planner.isNecessary()) {
+      planner.withPlanningParallelism(planningParallelism());
+      boolean necessary = planner.isNecessary();
+      tableRuntime.getOptimizingMetrics().planningCompleted(System.currentTimeMillis() - startTime);
+      if (necessary) {
         return new TableOptimizingProcess(planner, tableRuntime);
       } else {
         tableRuntime.completeEmptyProcess();
@@ -332,6 +449,7 @@ public class OptimizingQueue extends PersistentBase {
   public void retryTask(TaskRuntime<?> taskRuntime) {
     taskRuntime.reset();
     retryTaskQueue.offer(taskRuntime);
+    signalTaskAvailable();
   }
 
   public void updateOptimizerGroup(ResourceGroup optimizerGroup) {
@@ -351,9 +469,31 @@ public class OptimizingQueue extends PersistentBase {
   }
 
   public void dispose() {
+    List<TaskWaiter> waiters;
+    scheduleLock.lock();
+    try {
+      waiters = new ArrayList<>(taskWaiters);
+      taskWaiters.clear();
+    } finally {
+      scheduleLock.unlock();
+    }
+    waiters.forEach(waiter -> waiter.wake(Collections.emptyList()));
     this.metrics.unregister();
   }
 
+  private static ScheduledThreadPoolExecutor createWaiterExecutor() {
+    ScheduledThreadPoolExecutor executor =
+        new ScheduledThreadPoolExecutor(
+            1,
+            new ThreadFactoryBuilder()
+                .setNameFormat("optimizing-queue-waiter-%d")
+                .setDaemon(true)
+                .build());
+    // most waiters are woken before their deadline
+    executor.setRemoveOnCancelPolicy(true);
+    return executor;
+  }
+
   private double getAvailableCore() {
     // the available core should be at least 1
     return Math.max(quotaProvider.getTotalQuota(optimizerGroup.getName()), 1);
@@ -366,11 +506,46 @@ public class OptimizingQueue extends PersistentBase {
         OptimizerProperties.MAX_INPUT_FILE_SIZE_PER_THREAD_DEFAULT);
   }
 
+  private int planningParallelism() {
+    return CompatiblePropertyUtil.propertyAsInt(
+        optimizerGroup.getProperties(),
+        OptimizerProperties.PLANNING_PARALLELISM_PER_TABLE,
+        OptimizerProperties.PLANNING_PARALLELISM_PER_TABLE_DEFAULT);
+  }
+
   @VisibleForTesting
   SchedulingPolicy getSchedulingPolicy() {
     return scheduler;
   }
 
+  private class TaskWaiter {
+    private final CompletableFuture<List<TaskRuntime<?>>> future = new CompletableFuture<>();
+    private final long startTime;
+    private final int maxTasks;
+    private volatile ScheduledFuture<?> timeout;
+
+    private TaskWaiter(long startTime, int maxTasks) {
+      this.startTime = startTime;
+      this.maxTasks = maxTasks;
+    }
+
+    private void wake(List<TaskRuntime<?>> tasks) {
+      if (timeout != null) {
+        timeout.cancel(false);
+      }
+      metrics
+          .pollTaskDuration()
+          .update(System.currentTimeMillis() - startTime, TimeUnit.MILLISECONDS);
+      if (!future.complete(tasks)) {
+        // the poll has been given up, tasks go back to the queue for the next waiter
+        tasks.forEach(retryTaskQueue::offer);
+        if (!tasks.isEmpty()) {
+          signalTaskAvailable();
+        }
+      }
+    }
+  }
+
   private class TableOptimizingProcess implements OptimizingProcess {
 
     private final Lock lock = new ReentrantLock();
@@ -481,6 +656,13 @@ public class OptimizingQueue extends PersistentBase {
         if (isClosed()) {
           throw new OptimizingClosedException(processId);
         }
+        if (taskRuntime.getStatus() == TaskRuntime.Status.SUCCESS
+            || taskRuntime.getStatus() == TaskRuntime.Status.FAILED) {
+          metrics
+              .taskExecuteDuration()
+              .update(
+                  taskRuntime.getEndTime() - taskRuntime.getStartTime(), TimeUnit.MILLISECONDS);
+        }
         if (taskRuntime.getStatus() == TaskRuntime.Status.SUCCESS) {
           // the lock of TableOptimizingProcess makes it thread-safe
           if (allTasksPrepared()
@@ -587,6 +769,7 @@ public class OptimizingQueue extends PersistentBase {
           }
           throw new IllegalStateException("repeat commit, and last error " + failedReason);
         }
+        long commitStartTime = System.currentTimeMillis();
         try {
           hasCommitted = true;
           buildCommit().commit();
@@ -605,6 +788,9 @@ public class OptimizingQueue extends PersistentBase {
           endTime = System.currentTimeMillis();
           persistAndSetCompleted(false);
         }
+        tableRuntime
+            .getOptimizingMetrics()
+            .commitCompleted(System.currentTimeMillis() - commitStartTime);
       } finally {
         lock.unlock();
       }
@@ -715,6 +901,12 @@ public class OptimizingQueue extends PersistentBase {
                     mapper.selectTaskRuntimes(
                         tableRuntime.getTableIdentifier().getId(), processId));
         Map<Integer, RewriteFilesInput> inputs = TaskFilesPersistence.loadTaskInputs(processId);
+        taskRuntimes.forEach(
+            taskRuntime ->
+                Preconditions.checkArgument(
+                    inputs.containsKey(taskRuntime.getTaskId().getTaskId()),
+                    "No input of task %s, it may be planned by an older version",
+                    taskRuntime.getTaskId()));
         taskRuntimes.forEach(
             taskRuntime -> {
               taskRuntime.getCompletedFuture().whenCompleted(() -> acceptResult(taskRuntime));
@@ -26,27 +26,54 @@ import org.apache.amoro.server.optimizing.sorter.SorterFactory;
 import org.apache.amoro.server.table.TableRuntime;
 import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.amoro.utils.CompatiblePropertyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Scheduling policy of an optimizer group. Tables in {@link OptimizingStatus#PENDING} are kept in a
+ * priority index which is maintained incrementally by table runtime change events, so picking the
+ * next table to plan does not need to scan all tables of the group.
+ *
+ * <p>Entries in the index are removed lazily: an entry whose table is no longer pending is dropped
+ * when it reaches the head of the index. Tables that are pending but not ready to be planned yet
+ * (within min-plan-interval, blocked or without new snapshots) are parked in a deferred queue
+ * ordered by the time they should be checked again. As the priority of some sorters changes with
+ * time, the whole index is re-sorted every {@link #SCHEDULING_REINDEX_INTERVAL_PROPERTY_NAME}.
+ */
 public class SchedulingPolicy {
 
   public static final Logger LOG = LoggerFactory.getLogger(SchedulingPolicy.class);
 
   private static final String SCHEDULING_POLICY_PROPERTY_NAME = "scheduling-policy";
+  private static final String SCHEDULING_REINDEX_INTERVAL_PROPERTY_NAME =
+      "scheduling-policy.reindex-interval";
+  private static final long SCHEDULING_REINDEX_INTERVAL_DEFAULT = 60 * 1000L;
+  // Interval to check a blocked table or a pending table without new snapshots again
+  private static final long RECHECK_INTERVAL = 10 * 1000L;
 
   private final Map<ServerTableIdentifier, TableRuntime> tableRuntimeMap = new HashMap<>();
+  private final Map<ServerTableIdentifier, IndexedTable> indexedTables = new HashMap<>();
+  private final PriorityQueue<IndexedTable> deferredTables =
+      new PriorityQueue<>(Comparator.comparingLong(IndexedTable::getDeferredUntil));
+  // Ordered by the sorter of current policy after the first reindex
+  private PriorityQueue<IndexedTable> pendingTables = new PriorityQueue<>((one, another) -> 0);
+  private long lastReindexTime = 0;
+  private volatile long reindexInterval;
   private volatile String policyName;
   private final Lock tableLock = new ReentrantLock();
   private static final Map<String, SorterFactory> sorterFactoryCache = new ConcurrentHashMap<>();
@@ -58,10 +85,20 @@ public class SchedulingPolicy {
   public void setTableSorterIfNeeded(ResourceGroup optimizerGroup) {
     tableLock.lock();
     try {
-      policyName =
-          Optional.ofNullable(optimizerGroup.getProperties())
-              .orElseGet(Maps::newHashMap)
-              .getOrDefault(SCHEDULING_POLICY_PROPERTY_NAME, QuotaOccupySorter.IDENTIFIER);
+      Map<String, String> properties =
+          Optional.ofNullable(optimizerGroup.getProperties()).orElseGet(Maps::newHashMap);
+      String newPolicyName =
+          properties.getOrDefault(SCHEDULING_POLICY_PROPERTY_NAME, QuotaOccupySorter.IDENTIFIER);
+      reindexInterval =
+          CompatiblePropertyUtil.propertyAsLong(
+              properties,
+              SCHEDULING_REINDEX_INTERVAL_PROPERTY_NAME,
+              SCHEDULING_REINDEX_INTERVAL_DEFAULT);
+      if (!newPolicyName.equals(policyName)) {
+        policyName = newPolicyName;
+        // Force to reindex with the new sorter on next scheduling
+        lastReindexTime = 0;
+      }
     } finally {
       tableLock.unlock();
     }
@@ -85,14 +122,49 @@ public class SchedulingPolicy {
     return policyName;
   }
 
+  /**
+   * Pick the table with the highest priority which is ready to be planned.
+   *
+   * @param skipSet tables should not be scheduled, e.g. tables in planning. Tables checked but not
+   *     ready to be planned in this round will be added to it.
+   * @return the scheduled table, or null if there is no table ready to be planned
+   */
   public TableRuntime scheduleTable(Set<ServerTableIdentifier> skipSet) {
     tableLock.lock();
     try {
-      fillSkipSet(skipSet);
-      return tableRuntimeMap.values().stream()
-          .filter(tableRuntime -> !skipSet.contains(tableRuntime.getTableIdentifier()))
-          .min(createSorterByPolicy())
-          .orElse(null);
+      long currentTime = System.currentTimeMillis();
+      if (currentTime - lastReindexTime >= reindexInterval) {
+        reindex(currentTime);
+      }
+      promoteDeferredTables(currentTime);
+
+      List<IndexedTable> skippedTables = new ArrayList<>();
+      TableRuntime scheduledTable = null;
+      IndexedTable head;
+      while (scheduledTable == null && (head = pendingTables.poll()) != null) {
+        if (!isIndexed(head)) {
+          continue;
+        }
+        TableRuntime tableRuntime = head.getTableRuntime();
+        if (tableRuntime.getOptimizingStatus() != OptimizingStatus.PENDING) {
+          // The table will be indexed again by the next status changing event
+          indexedTables.remove(tableRuntime.getTableIdentifier());
+        } else if (skipSet.contains(tableRuntime.getTableIdentifier())) {
+          skippedTables.add(head);
+        } else {
+          long readyTime = calculateReadyTime(tableRuntime, currentTime);
+          if (readyTime > currentTime) {
+            skipSet.add(tableRuntime.getTableIdentifier());
+            head.setDeferredUntil(readyTime);
+            deferredTables.offer(head);
+          } else {
+            indexedTables.remove(tableRuntime.getTableIdentifier());
+            scheduledTable = tableRuntime;
+          }
+        }
+      }
+      pendingTables.addAll(skippedTables);
+      return scheduledTable;
     } finally {
       tableLock.unlock();
     }
@@ -120,29 +192,49 @@ public class SchedulingPolicy {
     }
   }
 
-  private void fillSkipSet(Set<ServerTableIdentifier> originalSet) {
-    long currentTime = System.currentTimeMillis();
-    tableRuntimeMap.values().stream()
-        .filter(
-            tableRuntime ->
-                !isTablePending(tableRuntime)
-                    || tableRuntime.isBlocked(BlockableOperation.OPTIMIZE)
-                    || currentTime - tableRuntime.getLastPlanTime()
-                        < tableRuntime.getOptimizingConfig().getMinPlanInterval())
-        .forEach(tableRuntime -> originalSet.add(tableRuntime.getTableIdentifier()));
+  /**
+   * Calculate the time when the table is ready to be planned.
+   *
+   * @return a time not after currentTime if the table could be planned now
+   */
+  private long calculateReadyTime(TableRuntime tableRuntime, long currentTime) {
+    long planReadyTime =
+        tableRuntime.getLastPlanTime() + tableRuntime.getOptimizingConfig().getMinPlanInterval();
+    if (planReadyTime > currentTime) {
+      return planReadyTime;
+    }
+    if (!hasNewSnapshot(tableRuntime) || tableRuntime.isBlocked(BlockableOperation.OPTIMIZE)) {
+      return currentTime + RECHECK_INTERVAL;
+    }
+    return currentTime;
   }
 
-  private boolean isTablePending(TableRuntime tableRuntime) {
-    return tableRuntime.getOptimizingStatus() == OptimizingStatus.PENDING
-        && (tableRuntime.getLastOptimizedSnapshotId() != tableRuntime.getCurrentSnapshotId()
-            || tableRuntime.getLastOptimizedChangeSnapshotId()
-                != tableRuntime.getCurrentChangeSnapshotId());
+  private boolean hasNewSnapshot(TableRuntime tableRuntime) {
+    return tableRuntime.getLastOptimizedSnapshotId() != tableRuntime.getCurrentSnapshotId()
+        || tableRuntime.getLastOptimizedChangeSnapshotId()
+            != tableRuntime.getCurrentChangeSnapshotId();
   }
 
   public void addTable(TableRuntime tableRuntime) {
     tableLock.lock();
     try {
       tableRuntimeMap.put(tableRuntime.getTableIdentifier(), tableRuntime);
+      indexTable(tableRuntime);
+    } finally {
+      tableLock.unlock();
+    }
+  }
+
+  /**
+   * Index the table again if it is still managed by this policy, used when the status of the table
+   * may not be changed by the scheduling, e.g. planning is failed before it begins.
+   */
+  public void refreshTable(TableRuntime tableRuntime) {
+    tableLock.lock();
+    try {
+      if (tableRuntimeMap.get(tableRuntime.getTableIdentifier()) == tableRuntime) {
+        indexTable(tableRuntime);
+      }
     } finally {
       tableLock.unlock();
     }
@@ -152,13 +244,77 @@ public class SchedulingPolicy {
     tableLock.lock();
     try {
       tableRuntimeMap.remove(tableRuntime.getTableIdentifier());
+      indexedTables.remove(tableRuntime.getTableIdentifier());
     } finally {
       tableLock.unlock();
     }
   }
 
+  private void indexTable(TableRuntime tableRuntime) {
+    if (tableRuntime.getOptimizingStatus() != OptimizingStatus.PENDING) {
+      return;
+    }
+    IndexedTable indexedTable = indexedTables.get(tableRuntime.getTableIdentifier());
+    if (indexedTable != null && indexedTable.getTableRuntime() == tableRuntime) {
+      return;
+    }
+    indexedTable = new IndexedTable(tableRuntime);
+    indexedTables.put(tableRuntime.getTableIdentifier(), indexedTable);
+    pendingTables.offer(indexedTable);
+  }
+
+  private boolean isIndexed(IndexedTable indexedTable) {
+    return indexedTables.get(indexedTable.getTableRuntime().getTableIdentifier()) == indexedTable;
+  }
+
+  private void promoteDeferredTables(long currentTime) {
+    while (!deferredTables.isEmpty() && deferredTables.peek().getDeferredUntil() <= currentTime) {
+      IndexedTable indexedTable = deferredTables.poll();
+      if (isIndexed(indexedTable)) {
+        pendingTables.offer(indexedTable);
+      }
+    }
+  }
+
+  /**
+   * Rebuild the pending index with a new comparator, which refreshes the priorities of all tables
+   * and purges the entries removed lazily.
+   */
+  private void reindex(long currentTime) {
+    Comparator<TableRuntime> sorter = createSorterByPolicy();
+    PriorityQueue<IndexedTable> newPendingTables =
+        new PriorityQueue<>(
+            Math.max(indexedTables.size(), 1),
+            (one, another) -> sorter.compare(one.getTableRuntime(), another.getTableRuntime()));
+    pendingTables.stream().filter(this::isIndexed).forEach(newPendingTables::offer);
+    deferredTables.removeIf(indexedTable -> !isIndexed(indexedTable));
+    pendingTables = newPendingTables;
+    lastReindexTime = currentTime;
+  }
+
   @VisibleForTesting
   Map<ServerTableIdentifier, TableRuntime> getTableRuntimeMap() {
     return tableRuntimeMap;
   }
+
+  private static class IndexedTable {
+    private final TableRuntime tableRuntime;
+    private long deferredUntil;
+
+    IndexedTable(TableRuntime tableRuntime) {
+      this.tableRuntime = tableRuntime;
+    }
+
+    TableRuntime getTableRuntime() {
+      return tableRuntime;
+    }
+
+    long getDeferredUntil() {
+      return deferredUntil;
+    }
+
+    void setDeferredUntil(long deferredUntil) {
+      this.deferredUntil = deferredUntil;
+    }
+  }
 }
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.optimizing.maintainer;
+
+import org.apache.amoro.config.DataExpirationConfig;
+import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestReader;
+import org.apache.iceberg.PartitionField;
+import org.apache.iceberg.PartitionSpec;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.expressions.Expression;
+import org.apache.iceberg.expressions.Expressions;
+import org.apache.iceberg.expressions.ManifestEvaluator;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.SerializableFunction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Partition level filters of a data expiration, available when every live manifest partitions the
+ * expiration field by the same identity or time transform.
+ *
+ * <p>Partitions before the one containing the expiration boundary only hold expired rows, so they
+ * are dropped by a partition level delete, and only the boundary partition is left to be scanned
+ * file by file. Whether there is any expired partition is decided from the partition summaries of
+ * the manifests, and only manifests whose summaries overlap the expired partitions are opened.
+ */
+class ExpiredPartitionsFilter {
+
+  private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+  private static final Map<String, ChronoUnit> TIME_TRANSFORM_UNITS =
+      ImmutableMap.of(
+          "year", ChronoUnit.YEARS,
+          "month", ChronoUnit.MONTHS,
+          "day", ChronoUnit.DAYS,
+          "hour", ChronoUnit.HOURS);
+  private static final String IDENTITY_TRANSFORM = "identity";
+  // Date fields from the most significant, and the separators allowed between them
+  private static final String SORTABLE_FIELDS = "yMdHmsS";
+  private static final String SORTABLE_SEPARATORS = "-_/:. ";
+
+  private final Expression expiredPartitions;
+  private final Expression boundaryPartitions;
+  private final boolean hasExpiredFiles;
+
+  private ExpiredPartitionsFilter(
+      Expression expiredPartitions, Expression boundaryPartitions, boolean hasExpiredFiles) {
+    this.expiredPartitions = expiredPartitions;
+    this.boundaryPartitions = boundaryPartitions;
+    this.hasExpiredFiles = hasExpiredFiles;
+  }
+
+  /** Row filter matching exactly the rows of the partitions that are entirely expired. */
+  Expression expiredPartitions() {
+    return expiredPartitions;
+  }
+
+  /** Row filter matching the partitions that may still hold expired rows after the drop. */
+  Expression boundaryPartitions() {
+    return boundaryPartitions;
+  }
+
+  /** Whether any live file of the snapshot belongs to an entirely expired partition. */
+  boolean hasExpiredFiles() {
+    return hasExpiredFiles;
+  }
+
+  static Optional<ExpiredPartitionsFilter> of(
+      Table table,
+      Snapshot snapshot,
+      Types.NestedField field,
+      DataExpirationConfig expirationConfig,
+      long expireTimestamp) {
+    if (snapshot == null) {
+      return Optional.empty();
+    }
+    List<ManifestFile> manifests =
+        snapshot.allManifests(table.io()).stream()
+            .filter(m -> m.hasAddedFiles() || m.hasExistingFiles())
+            .collect(Collectors.toList());
+    List<PartitionField> partitionFields =
+        manifests.stream()
+            .map(m -> expirationPartitionField(table.specs().get(m.partitionSpecId()), field))
+            .collect(Collectors.toList());
+    if (partitionFields.isEmpty()
+        || partitionFields.contains(null)
+        || partitionFields.stream().map(f -> f.transform().toString()).distinct().count() > 1) {
+      return Optional.empty();
+    }
+    PartitionField partitionField = partitionFields.get(0);
+    String transform = partitionField.transform().toString();
+
+    Expression expiredPartitions;
+    Expression boundaryPartitions;
+    switch (field.type().typeId()) {
+      case TIMESTAMP:
+        ChronoUnit unit = TIME_TRANSFORM_UNITS.get(transform);
+        if (unit == null) {
+          return Optional.empty();
+        }
+        @SuppressWarnings("unchecked")
+        Integer boundaryOrdinal =
+            ((SerializableFunction<Long, Integer>) partitionField.transform().bind(field.type()))
+                .apply(expireTimestamp * 1000);
+        LocalDateTime boundaryStart = EPOCH.plus(boundaryOrdinal, unit);
+        expiredPartitions = Expressions.lessThan(field.name(), epochMicros(boundaryStart));
+        boundaryPartitions =
+            Expressions.lessThan(field.name(), epochMicros(boundaryStart.plus(1, unit)));
+        break;
+      case STRING:
+        // string partitions only sort in time order when the pattern does
+        if (!IDENTITY_TRANSFORM.equals(transform)
+            || !isSortableDatePattern(expirationConfig.getDateTimePattern())) {
+          return Optional.empty();
+        }
+        String expireValue =
+            LocalDateTime.ofInstant(
+                    Instant.ofEpochMilli(expireTimestamp),
+                    IcebergTableMaintainer.getDefaultZoneId(field))
+                .format(
+                    DateTimeFormatter.ofPattern(
+                        expirationConfig.getDateTimePattern(), Locale.getDefault()));
+        // each partition holds a single value, so no partition is left partially expired
+        expiredPartitions = Expressions.lessThanOrEqual(field.name(), expireValue);
+        boundaryPartitions = Expressions.alwaysFalse();
+        break;
+      default:
+        return Optional.empty();
+    }
+
+    boolean hasExpiredFiles =
+        manifests.stream()
+            .filter(
+                m ->
+                    ManifestEvaluator.forRowFilter(
+                            expiredPartitions, table.specs().get(m.partitionSpecId()), true)
+                        .eval(m))
+            .anyMatch(m -> containsFiles(table, m, expiredPartitions));
+    return Optional.of(
+        new ExpiredPartitionsFilter(expiredPartitions, boundaryPartitions, hasExpiredFiles));
+  }
+
+  /**
+   * Whether the values formatted by the pattern sort like the time they represent, that is the
+   * pattern is a zero-padded prefix of year, month, day, hour, minute, second and fraction, joined
+   * by plain separators.
+   */
+  @VisibleForTesting
+  static boolean isSortableDatePattern(String pattern) {
+    int fieldIndex = 0;
+    int i = 0;
+    while (i < pattern.length()) {
+      char c = pattern.charAt(i);
+      if (SORTABLE_SEPARATORS.indexOf(c) >= 0) {
+        i++;
+        continue;
+      }
+      if (fieldIndex >= SORTABLE_FIELDS.length() || c != SORTABLE_FIELDS.charAt(fieldIndex)) {
+        return false;
+      }
+      int start = i;
+      while (i < pattern.length() && pattern.charAt(i) == c) {
+        i++;
+      }
+      int width = i - start;
+      if (c == 'y' ? width != 4 : c == 'S' ? width < 1 : width != 2) {
+        return false;
+      }
+      fieldIndex++;
+    }
+    return fieldIndex > 0;
+  }
+
+  private static PartitionField expirationPartitionField(
+      PartitionSpec spec, Types.NestedField field) {
+    List<PartitionField> fields =
+        spec.fields().stream()
+            .filter(f -> f.sourceId() == field.fieldId())
+            .collect(Collectors.toList());
+    return fields.size() == 1 ? fields.get(0) : null;
+  }
+
+  // Partition summaries also cover deleted entries, so a live file must be found to be sure
+  private static boolean containsFiles(Table table, ManifestFile manifest, Expression rowFilter) {
+    try (ManifestReader<?> reader =
+        ExpiredSnapshotFilesCleaner.openManifest(table, manifest)
+            .filterRows(rowFilter)
+            .select(ImmutableList.of("file_path"))) {
+      return reader.iterator().hasNext();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read manifest " + manifest.path(), e);
+    }
+  }
+
+  private static long epochMicros(LocalDateTime dateTime) {
+    return ChronoUnit.MICROS.between(EPOCH, dateTime);
+  }
+}
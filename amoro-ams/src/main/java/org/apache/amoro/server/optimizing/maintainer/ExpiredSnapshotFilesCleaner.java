@@ -0,0 +1,332 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.optimizing.maintainer;
+
+import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.server.table.TableSnapshotExpiringMetrics;
+import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Sets;
+import org.apache.amoro.shade.guava32.com.google.common.hash.BloomFilter;
+import org.apache.amoro.shade.guava32.com.google.common.hash.Funnels;
+import org.apache.amoro.utils.TableFileUtil;
+import org.apache.hadoop.fs.Path;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.ManifestFile;
+import org.apache.iceberg.ManifestFiles;
+import org.apache.iceberg.ManifestReader;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.StatisticsFile;
+import org.apache.iceberg.Table;
+import org.apache.iceberg.util.ThreadPools;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cleans the files that are no longer reachable once snapshots have been expired.
+ *
+ * <p>The removed files are computed by diffing the manifest lists of the retained and the expired
+ * snapshots: only manifests no retained snapshot references are read, and a file of them is
+ * removed only when no retained manifest still references it. Files are deleted in batches while
+ * the expired manifests are read, so the paths held in memory are bounded by the batch size rather
+ * than by the number of expired files.
+ *
+ * <p>The retained manifests are read once per run into a bloom filter of their files. A file the
+ * filter does not contain is deleted at once, the others are collected and checked exactly by
+ * another pass over the retained manifests, which is only repeated when too many files have to be
+ * checked at once.
+ */
+class ExpiredSnapshotFilesCleaner {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ExpiredSnapshotFilesCleaner.class);
+
+  private static final int DELETE_BATCH_SIZE = 1000;
+  // A file referenced by several expired manifests is only deleted once if it is still remembered
+  private static final int MAX_REMEMBERED_DELETED_FILES = 100_000;
+  // Files that may be retained are checked exactly once this many of them are collected
+  private static final int MAX_SUSPECTED_FILES = 100_000;
+  private static final double RETAINED_FILES_FPP = 0.01;
+  // Files counted for a manifest without the counts of its files
+  private static final int UNKNOWN_MANIFEST_FILES = 1000;
+  private static final List<String> PATH_AND_SIZE_COLUMNS =
+      ImmutableList.of("file_path", "file_size_in_bytes");
+
+  private final Table table;
+  private final AuthenticatedFileIO io;
+  private final Set<String> exclude;
+  @Nullable private final TableSnapshotExpiringMetrics metrics;
+  private final int maxSuspectedFiles;
+
+  private final Set<String> parentDirectories = Sets.newHashSet();
+  private final Set<String> rememberedDeletedFiles =
+      Collections.newSetFromMap(
+          new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+              return size() > MAX_REMEMBERED_DELETED_FILES;
+            }
+          });
+  private Map<String, Long> batch = Maps.newHashMap();
+  private long batchBytes = 0L;
+  private int expected = 0;
+  private int deleted = 0;
+  private long bytesFreed = 0L;
+
+  /**
+   * @param table the table the expiration has already been committed to
+   * @param exclude paths and directories that must never be deleted
+   * @param metrics metrics to report to, null if the expiration is not bound to a table runtime
+   */
+  ExpiredSnapshotFilesCleaner(
+      Table table, Set<String> exclude, @Nullable TableSnapshotExpiringMetrics metrics) {
+    this(table, exclude, metrics, MAX_SUSPECTED_FILES);
+  }
+
+  @VisibleForTesting
+  ExpiredSnapshotFilesCleaner(
+      Table table,
+      Set<String> exclude,
+      @Nullable TableSnapshotExpiringMetrics metrics,
+      int maxSuspectedFiles) {
+    this.table = table;
+    this.io = (AuthenticatedFileIO) table.io();
+    this.exclude = exclude;
+    this.metrics = metrics;
+    this.maxSuspectedFiles = maxSuspectedFiles;
+  }
+
+  /**
+   * Delete the files only reachable from the given snapshots, which must have been removed from the
+   * table.
+   *
+   * @param expiredSnapshots snapshots removed by the expiration
+   * @param expiredStatisticsFiles statistics files removed by the expiration
+   */
+  void clean(List<Snapshot> expiredSnapshots, List<StatisticsFile> expiredStatisticsFiles) {
+    if (expiredSnapshots.isEmpty()) {
+      return;
+    }
+    long startTime = System.currentTimeMillis();
+
+    Map<String, ManifestFile> retainedManifests = Maps.newHashMap();
+    table
+        .snapshots()
+        .forEach(
+            snapshot ->
+                snapshot.allManifests(io).forEach(m -> retainedManifests.putIfAbsent(m.path(), m)));
+    Map<String, ManifestFile> expiredManifests = Maps.newHashMap();
+    expiredSnapshots.forEach(
+        snapshot ->
+            snapshot.allManifests(io).stream()
+                .filter(m -> !retainedManifests.containsKey(m.path()))
+                .forEach(m -> expiredManifests.putIfAbsent(m.path(), m)));
+
+    List<ManifestFile> manifestsToRead =
+        expiredManifests.values().stream()
+            .filter(ExpiredSnapshotFilesCleaner::hasLiveFiles)
+            .collect(Collectors.toList());
+    // A file written at sequence number N can only be referenced by manifests whose minimum
+    // sequence number is not greater than N, so newer retained manifests never need to be read
+    long maxExpiredSequenceNumber =
+        manifestsToRead.stream().mapToLong(ManifestFile::sequenceNumber).max().orElse(-1L);
+    List<ManifestFile> referencingManifests =
+        retainedManifests.values().stream()
+            .filter(ExpiredSnapshotFilesCleaner::hasLiveFiles)
+            .filter(m -> m.minSequenceNumber() <= maxExpiredSequenceNumber)
+            .collect(Collectors.toList());
+
+    BloomFilter<CharSequence> retainedFiles =
+        manifestsToRead.isEmpty() ? null : readRetainedFiles(referencingManifests);
+    Map<String, Long> suspects = Maps.newHashMap();
+    for (ManifestFile manifest : manifestsToRead) {
+      try (ManifestReader<?> reader = openManifest(manifest)) {
+        for (ContentFile<?> file : reader) {
+          String path = file.path().toString();
+          if (!retainedFiles.mightContain(path)) {
+            delete(path, file.fileSizeInBytes());
+            continue;
+          }
+          suspects.put(path, file.fileSizeInBytes());
+          if (suspects.size() >= maxSuspectedFiles) {
+            deleteUnreferenced(suspects, referencingManifests);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read manifest " + manifest.path(), e);
+      }
+    }
+    deleteUnreferenced(suspects, referencingManifests);
+
+    expiredManifests.values().forEach(m -> delete(m.path(), m.length()));
+    expiredSnapshots.stream()
+        .map(Snapshot::manifestListLocation)
+        .filter(Objects::nonNull)
+        .forEach(location -> delete(location, 0L));
+    expiredStatisticsFiles.forEach(f -> delete(f.path(), f.fileSizeInBytes()));
+    flush();
+
+    parentDirectories.forEach(
+        parent -> {
+          try {
+            TableFileUtil.deleteEmptyDirectory(io, parent, exclude);
+          } catch (Exception e) {
+            // Ignore exceptions to remove as many directories as possible
+            LOG.warn("Fail to delete empty directory {}", parent, e);
+          }
+        });
+
+    long cost = System.currentTimeMillis() - startTime;
+    if (metrics != null) {
+      metrics.expiringFinished(deleted, cost);
+    }
+    if (expected > 0) {
+      LOG.info(
+          "To delete {} files of {} expired snapshots in {}, success delete {} files, "
+              + "freed {} bytes in {} ms",
+          expected,
+          expiredSnapshots.size(),
+          table.name(),
+          deleted,
+          bytesFreed,
+          cost);
+    }
+  }
+
+  /** Read the files of the retained manifests into a bloom filter, sized by their file counts. */
+  private BloomFilter<CharSequence> readRetainedFiles(Collection<ManifestFile> manifests) {
+    long expectedFiles = 0;
+    for (ManifestFile manifest : manifests) {
+      expectedFiles += liveFilesCount(manifest);
+    }
+    BloomFilter<CharSequence> retainedFiles =
+        BloomFilter.create(
+            Funnels.stringFunnel(StandardCharsets.UTF_8),
+            Math.max(expectedFiles, 1L),
+            RETAINED_FILES_FPP);
+    for (ManifestFile manifest : manifests) {
+      try (ManifestReader<?> reader = openManifest(manifest)) {
+        reader.forEach(file -> retainedFiles.put(file.path().toString()));
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read manifest " + manifest.path(), e);
+      }
+    }
+    return retainedFiles;
+  }
+
+  /** Delete the suspected files that no retained manifest references, by one pass over them. */
+  private void deleteUnreferenced(
+      Map<String, Long> suspects, Collection<ManifestFile> referencingManifests) {
+    for (ManifestFile manifest : referencingManifests) {
+      if (suspects.isEmpty()) {
+        break;
+      }
+      try (ManifestReader<?> reader = openManifest(manifest)) {
+        for (ContentFile<?> file : reader) {
+          suspects.remove(file.path().toString());
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to read manifest " + manifest.path(), e);
+      }
+    }
+    suspects.forEach(this::delete);
+    suspects.clear();
+  }
+
+  private void delete(String file, long size) {
+    parentDirectories.add(new Path(file).getParent().toString());
+    if (!exclude.isEmpty()) {
+      String fileUriPath = TableFileUtil.getUriPath(file);
+      if (exclude.contains(fileUriPath)
+          || exclude.contains(new Path(fileUriPath).getParent().toString())) {
+        return;
+      }
+    }
+    if (!rememberedDeletedFiles.add(file)) {
+      return;
+    }
+    batch.put(file, size);
+    batchBytes += size;
+    if (batch.size() >= DELETE_BATCH_SIZE) {
+      flush();
+    }
+  }
+
+  private void flush() {
+    if (batch.isEmpty()) {
+      return;
+    }
+    int cleaned =
+        TableFileUtil.parallelDeleteFiles(io, batch.keySet(), ThreadPools.getWorkerPool());
+    // Bulk deletion only reports how many files failed, so the freed bytes of a partially failed
+    // batch are estimated from the proportion of the deleted files
+    long freed = cleaned == batch.size() ? batchBytes : batchBytes * cleaned / batch.size();
+    expected += batch.size();
+    deleted += cleaned;
+    bytesFreed += freed;
+    if (metrics != null) {
+      metrics.completeExpiredFiles(batch.size(), cleaned, freed);
+    }
+    batch = Maps.newHashMap();
+    batchBytes = 0L;
+  }
+
+  private ManifestReader<?> openManifest(ManifestFile manifest) {
+    return openManifest(table, manifest).select(PATH_AND_SIZE_COLUMNS);
+  }
+
+  /** Open a data or delete manifest of the table with the reader matching its content. */
+  static ManifestReader<?> openManifest(Table table, ManifestFile manifest) {
+    switch (manifest.content()) {
+      case DATA:
+        return ManifestFiles.read(manifest, table.io(), table.specs());
+      case DELETES:
+        return ManifestFiles.readDeleteManifest(manifest, table.io(), table.specs());
+      default:
+        throw new IllegalArgumentException("Unknown manifest content: " + manifest.content());
+    }
+  }
+
+  private static long liveFilesCount(ManifestFile manifest) {
+    Integer added = manifest.addedFilesCount();
+    Integer existing = manifest.existingFilesCount();
+    if (added == null || existing == null) {
+      return UNKNOWN_MANIFEST_FILES;
+    }
+    return (long) added + existing;
+  }
+
+  private static boolean hasLiveFiles(ManifestFile manifest) {
+    return manifest.hasAddedFiles() || manifest.hasExistingFiles();
+  }
+}
@@ -30,10 +30,13 @@ import org.apache.amoro.io.SupportsFileSystemOperations;
 import org.apache.amoro.server.table.TableConfigurations;
 import org.apache.amoro.server.table.TableOrphanFilesCleaningMetrics;
 import org.apache.amoro.server.table.TableRuntime;
+import org.apache.amoro.server.table.TableSnapshotExpiringMetrics;
 import org.apache.amoro.server.utils.IcebergTableUtil;
 import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
 import org.apache.amoro.shade.guava32.com.google.common.base.Strings;
+import org.apache.amoro.shade.guava32.com.google.common.base.Throwables;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Iterables;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Sets;
 import org.apache.amoro.utils.TableFileUtil;
@@ -52,6 +55,7 @@ import org.apache.iceberg.RewriteFiles;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.SnapshotSummary;
+import org.apache.iceberg.StatisticsFile;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.Table;
 import org.apache.iceberg.TableScan;
@@ -70,6 +74,8 @@ import org.apache.iceberg.util.ThreadPools;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.File;
 import java.io.IOException;
 import java.time.Instant;
@@ -78,8 +84,10 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
@@ -87,8 +95,11 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
 import java.util.concurrent.LinkedTransferQueue;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -110,6 +121,9 @@ public class IcebergTableMaintainer implements TableMaintainer {
   public static final String EXPIRE_TIMESTAMP_MS = "TIMESTAMP_MS";
   public static final String EXPIRE_TIMESTAMP_S = "TIMESTAMP_S";
 
+  // Orphan files are deleted in batches of this size while the data directory is still listed
+  private static final int ORPHAN_FILES_DELETE_BATCH_SIZE = 1000;
+
   public static final Set<String> AMORO_MAINTAIN_COMMITS =
       Sets.newHashSet(
           CommitMetaProducer.OPTIMIZE.name(),
@@ -174,7 +188,8 @@ public class IcebergTableMaintainer implements TableMaintainer {
     }
     expireSnapshots(
         mustOlderThan(tableRuntime, System.currentTimeMillis()),
-        tableRuntime.getTableConfiguration().getSnapshotMinCount());
+        tableRuntime.getTableConfiguration().getSnapshotMinCount(),
+        tableRuntime.getSnapshotExpiringMetrics());
   }
 
   protected boolean expireSnapshotEnabled(TableRuntime tableRuntime) {
@@ -184,63 +199,50 @@ public class IcebergTableMaintainer implements TableMaintainer {
 
   @VisibleForTesting
   void expireSnapshots(long mustOlderThan, int minCount) {
-    expireSnapshots(mustOlderThan, minCount, expireSnapshotNeedToExcludeFiles());
+    expireSnapshots(mustOlderThan, minCount, null);
+  }
+
+  void expireSnapshots(
+      long mustOlderThan, int minCount, @Nullable TableSnapshotExpiringMetrics metrics) {
+    expireSnapshots(mustOlderThan, minCount, expireSnapshotNeedToExcludeFiles(), metrics);
   }
 
-  private void expireSnapshots(long olderThan, int minCount, Set<String> exclude) {
+  private void expireSnapshots(
+      long olderThan,
+      int minCount,
+      Set<String> exclude,
+      @Nullable TableSnapshotExpiringMetrics metrics) {
     LOG.debug(
         "start expire snapshots older than {} and retain last {} snapshots, the exclude is {}",
         olderThan,
         minCount,
         exclude);
-    final AtomicInteger toDeleteFiles = new AtomicInteger(0);
-    Set<String> parentDirectories = new HashSet<>();
-    Set<String> expiredFiles = new HashSet<>();
+    List<Snapshot> snapshotsBefore = Lists.newArrayList(table.snapshots());
+    List<StatisticsFile> statisticsFilesBefore = table.statisticsFiles();
     table
         .expireSnapshots()
         .retainLast(Math.max(minCount, 1))
         .expireOlderThan(olderThan)
-        .deleteWith(
-            file -> {
-              if (exclude.isEmpty()) {
-                expiredFiles.add(file);
-              } else {
-                String fileUriPath = TableFileUtil.getUriPath(file);
-                if (!exclude.contains(fileUriPath)
-                    && !exclude.contains(new Path(fileUriPath).getParent().toString())) {
-                  expiredFiles.add(file);
-                }
-              }
-
-              parentDirectories.add(new Path(file).getParent().toString());
-              toDeleteFiles.incrementAndGet();
-            })
-        .cleanExpiredFiles(
-            true) /* enable clean only for collecting the expired files, will delete them later */
+        .cleanExpiredFiles(false) /* expired files are cleaned by diffing the manifests later */
         .commit();
 
-    // try to batch delete files
-    int deletedFiles =
-        TableFileUtil.parallelDeleteFiles(fileIO(), expiredFiles, ThreadPools.getWorkerPool());
-
-    parentDirectories.forEach(
-        parent -> {
-          try {
-            TableFileUtil.deleteEmptyDirectory(fileIO(), parent, exclude);
-          } catch (Exception e) {
-            // Ignore exceptions to remove as many directories as possible
-            LOG.warn("Fail to delete empty directory {}", parent, e);
-          }
-        });
-
-    runWithCondition(
-        toDeleteFiles.get() > 0,
-        () ->
-            LOG.info(
-                "To delete {} files in {}, success delete {} files",
-                toDeleteFiles.get(),
-                getTable().name(),
-                deletedFiles));
+    Set<Long> retainedSnapshots =
+        StreamSupport.stream(table.snapshots().spliterator(), false)
+            .map(Snapshot::snapshotId)
+            .collect(Collectors.toSet());
+    List<Snapshot> expiredSnapshots =
+        snapshotsBefore.stream()
+            .filter(snapshot -> !retainedSnapshots.contains(snapshot.snapshotId()))
+            .collect(Collectors.toList());
+    Set<String> retainedStatisticsFiles =
+        table.statisticsFiles().stream().map(StatisticsFile::path).collect(Collectors.toSet());
+    List<StatisticsFile> expiredStatisticsFiles =
+        statisticsFilesBefore.stream()
+            .filter(file -> !retainedStatisticsFiles.contains(file.path()))
+            .collect(Collectors.toList());
+
+    new ExpiredSnapshotFilesCleaner(table, exclude, metrics)
+        .clean(expiredSnapshots, expiredStatisticsFiles);
   }
 
   @Override
@@ -293,20 +295,57 @@ public class IcebergTableMaintainer implements TableMaintainer {
     }
 
     long expireTimestamp = instant.minusMillis(expirationConfig.getRetentionTime()).toEpochMilli();
+    Types.NestedField field = table.schema().findField(expirationConfig.getExpirationField());
     LOG.info(
         "Expiring data older than {} in table {} ",
-        Instant.ofEpochMilli(expireTimestamp)
-            .atZone(
-                getDefaultZoneId(table.schema().findField(expirationConfig.getExpirationField())))
-            .toLocalDateTime(),
+        Instant.ofEpochMilli(expireTimestamp).atZone(getDefaultZoneId(field)).toLocalDateTime(),
         table.name());
 
     Expression dataFilter = getDataExpression(table.schema(), expirationConfig, expireTimestamp);
 
+    Optional<ExpiredPartitionsFilter> partitionsFilter =
+        ExpiredPartitionsFilter.of(
+            table,
+            IcebergTableUtil.getSnapshot(table, false),
+            field,
+            expirationConfig,
+            expireTimestamp);
+    if (partitionsFilter.isPresent()) {
+      // Entirely expired partitions are dropped by their partition values, only the boundary
+      // partition is left to be scanned file by file
+      dropExpiredPartitions(partitionsFilter.get(), expireTimestamp);
+      dataFilter = Expressions.and(dataFilter, partitionsFilter.get().boundaryPartitions());
+      if (dataFilter.op() == Expression.Operation.FALSE) {
+        return;
+      }
+    }
+
     ExpireFiles expiredFiles = expiredFileScan(expirationConfig, dataFilter, expireTimestamp);
     expireFiles(expiredFiles, expireTimestamp);
   }
 
+  private void dropExpiredPartitions(
+      ExpiredPartitionsFilter partitionsFilter, long expireTimestamp) {
+    if (!partitionsFilter.hasExpiredFiles()) {
+      return;
+    }
+    DeleteFiles delete =
+        table.newDelete().deleteFromRowFilter(partitionsFilter.expiredPartitions());
+    delete.set(
+        org.apache.amoro.op.SnapshotSummary.SNAPSHOT_PRODUCER,
+        CommitMetaProducer.DATA_EXPIRATION.name());
+    delete.commit();
+
+    Snapshot snapshot = table.currentSnapshot();
+    LOG.info(
+        "Expired partitions of {} older than {} by {}, {} data files and {} delete files",
+        table.name(),
+        expireTimestamp,
+        partitionsFilter.expiredPartitions(),
+        snapshot.summary().getOrDefault(SnapshotSummary.DELETED_FILES_PROP, "0"),
+        snapshot.summary().getOrDefault(SnapshotSummary.REMOVED_DELETE_FILES_PROP, "0"));
+  }
+
   @Override
   public void autoCreateTags(TableRuntime tableRuntime) {
     new AutoCreateIcebergTagAction(
@@ -318,7 +357,8 @@ public class IcebergTableMaintainer implements TableMaintainer {
       long lastTime, TableOrphanFilesCleaningMetrics orphanFilesCleaningMetrics) {
     // For clean data files, should getRuntime valid files in the base store and the change store,
     // so acquire in advance
-    // to prevent repeated acquisition
+    // to prevent repeated acquisition. The valid files are kept as an exact set rather than a
+    // compact index, since the maintainers of every format build them from a table scan in memory.
     Set<String> validFiles = orphanFileCleanNeedToExcludeFiles();
     LOG.info("{} start cleaning orphan files in content", table.name());
     clearInternalTableContentsFiles(lastTime, validFiles, orphanFilesCleaningMetrics);
@@ -378,23 +418,20 @@ public class IcebergTableMaintainer implements TableMaintainer {
     int expected = 0, deleted = 0;
 
     try (AuthenticatedFileIO io = fileIO()) {
+      OrphanFilesDeleter deleter = new OrphanFilesDeleter(io, orphanFilesCleaningMetrics);
       // listPrefix will not return the directory and the orphan file clean should clean the empty
       // dir.
       if (io.supportFileSystemOperations()) {
         SupportsFileSystemOperations fio = io.asFileSystemIO();
-        Set<PathInfo> directories = new HashSet<>();
-        Set<String> filesToDelete =
-            deleteInvalidFilesInFs(fio, dataLocation, lastTime, exclude, directories);
-        expected = filesToDelete.size();
-        deleted = TableFileUtil.deleteFiles(io, filesToDelete);
-        /* delete empty directories */
-        deleteEmptyDirectories(fio, directories, lastTime, exclude);
+        deleteInvalidFilesInFs(fio, dataLocation, lastTime, exclude, deleter);
+        expected = deleter.expected;
+        deleted = deleter.deleted;
       } else if (io.supportPrefixOperations()) {
         SupportsPrefixOperations pio = io.asPrefixFileIO();
-        Set<String> filesToDelete =
-            deleteInvalidFilesByPrefix(pio, dataLocation, lastTime, exclude);
-        expected = filesToDelete.size();
-        deleted = TableFileUtil.deleteFiles(io, filesToDelete);
+        deleteInvalidFilesByPrefix(pio, dataLocation, lastTime, exclude, deleter);
+        deleter.flush();
+        expected = deleter.expected;
+        deleted = deleter.deleted;
       } else {
         LOG.warn(
             String.format(
@@ -413,7 +450,6 @@ public class IcebergTableMaintainer implements TableMaintainer {
               table.name(),
               finalExpected,
               finalDeleted);
-          orphanFilesCleaningMetrics.completeOrphanDataFiles(finalExpected, finalDeleted);
         });
   }
 
@@ -536,61 +572,100 @@ public class IcebergTableMaintainer implements TableMaintainer {
     return snapshot.map(Snapshot::timestampMillis).orElse(Long.MAX_VALUE);
   }
 
-  private Set<String> deleteInvalidFilesInFs(
+  /**
+   * List the directory tree under location with at most {@link
+   * ThreadPools#WORKER_THREAD_POOL_SIZE} directories listed concurrently, and hand orphan files to
+   * the deleter as soon as their directory is listed. A directory left empty is deleted as soon as
+   * its subtree is listed and the orphan files in it are deleted, so only the directories still in
+   * progress are kept in memory.
+   */
+  private void deleteInvalidFilesInFs(
       SupportsFileSystemOperations fio,
       String location,
       long lastTime,
       Set<String> excludes,
-      Set<PathInfo> directories) {
+      OrphanFilesDeleter deleter) {
     if (!fio.exists(location)) {
-      return Collections.emptySet();
+      return;
     }
 
-    Set<String> filesToDelete = new HashSet<>();
-    for (PathInfo p : fio.listDirectory(location)) {
-      String uriPath = TableFileUtil.getUriPath(p.location());
-      if (p.isDirectory()) {
-        directories.add(p);
-        filesToDelete.addAll(
-            deleteInvalidFilesInFs(fio, p.location(), lastTime, excludes, directories));
-      } else {
-        String parentLocation = TableFileUtil.getParent(p.location());
-        String parentUriPath = TableFileUtil.getUriPath(parentLocation);
-        if (!excludes.contains(uriPath)
-            && !excludes.contains(parentUriPath)
-            && p.createdAtMillis() < lastTime) {
-          filesToDelete.add(p.location());
+    EmptyDirectoriesDeleter emptyDirectories = new EmptyDirectoriesDeleter(fio, excludes);
+    deleter.onFlush(emptyDirectories::deleteWaiting);
+    CompletionService<ListedDirectory> listingService =
+        new ExecutorCompletionService<>(ThreadPools.getWorkerPool());
+    Deque<ListedDirectory> directoriesToList = new ArrayDeque<>();
+    directoriesToList.add(new ListedDirectory(location, null, false));
+    Set<Future<ListedDirectory>> listings = new HashSet<>();
+    try {
+      while (!directoriesToList.isEmpty() || !listings.isEmpty()) {
+        while (!directoriesToList.isEmpty()
+            && listings.size() < ThreadPools.WORKER_THREAD_POOL_SIZE) {
+          ListedDirectory directory = directoriesToList.poll();
+          listings.add(
+              listingService.submit(
+                  () ->
+                      directory.listed(Lists.newArrayList(fio.listDirectory(directory.location)))));
+        }
+        ListedDirectory directory = takeListing(listingService, listings);
+        for (PathInfo p : directory.takeChildren()) {
+          if (p.isDirectory()) {
+            boolean deletable =
+                !p.location().endsWith(METADATA_FOLDER_NAME)
+                    && !p.location().endsWith(DATA_FOLDER_NAME)
+                    && p.createdAtMillis() < lastTime;
+            directory.pending++;
+            directoriesToList.add(new ListedDirectory(p.location(), directory, deletable));
+          } else {
+            String uriPath = TableFileUtil.getUriPath(p.location());
+            String parentLocation = TableFileUtil.getParent(p.location());
+            String parentUriPath = TableFileUtil.getUriPath(parentLocation);
+            if (!excludes.contains(uriPath)
+                && !excludes.contains(parentUriPath)
+                && p.createdAtMillis() < lastTime) {
+              deleter.delete(p.location());
+              directory.waitsForFlush = true;
+            } else {
+              directory.mayBeEmpty = false;
+            }
+          }
         }
+        emptyDirectories.listed(directory);
       }
+    } finally {
+      // a failed listing aborts the cleaning, do not leave the other listings running
+      listings.forEach(listing -> listing.cancel(true));
     }
-    return filesToDelete;
+    deleter.flush();
+    emptyDirectories.deleteWaiting();
   }
 
-  private void deleteEmptyDirectories(
-      SupportsFileSystemOperations fio, Set<PathInfo> paths, long lastTime, Set<String> excludes) {
-    paths.forEach(
-        p -> {
-          if (fio.exists(p.location())
-              && !p.location().endsWith(METADATA_FOLDER_NAME)
-              && !p.location().endsWith(DATA_FOLDER_NAME)
-              && p.createdAtMillis() < lastTime
-              && fio.isEmptyDirectory(p.location())) {
-            TableFileUtil.deleteEmptyDirectory(fio, p.location(), excludes);
-          }
-        });
+  private static ListedDirectory takeListing(
+      CompletionService<ListedDirectory> listingService, Set<Future<ListedDirectory>> listings) {
+    try {
+      Future<ListedDirectory> listing = listingService.take();
+      listings.remove(listing);
+      return listing.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while listing directories", e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException("Failed to list directory", e.getCause());
+    }
   }
 
-  private Set<String> deleteInvalidFilesByPrefix(
-      SupportsPrefixOperations pio, String prefix, long lastTime, Set<String> excludes) {
-    Set<String> filesToDelete = new HashSet<>();
+  private void deleteInvalidFilesByPrefix(
+      SupportsPrefixOperations pio,
+      String prefix,
+      long lastTime,
+      Set<String> excludes,
+      OrphanFilesDeleter deleter) {
     for (FileInfo fileInfo : pio.listPrefix(prefix)) {
       String uriPath = TableFileUtil.getUriPath(fileInfo.location());
       if (!excludes.contains(uriPath) && fileInfo.createdAtMillis() < lastTime) {
-        filesToDelete.add(fileInfo.location());
+        deleter.delete(fileInfo.location());
       }
     }
-
-    return filesToDelete;
   }
 
   private static Set<String> getValidMetadataFiles(Table internalTable) {
@@ -1038,6 +1113,129 @@ public class IcebergTableMaintainer implements TableMaintainer {
     return ZoneOffset.UTC;
   }
 
+  /**
+   * Deletes orphan content files in batches, so that candidates never pile up in memory, and
+   * reports every batch to the metrics so the progress of a long cleaning is visible.
+   */
+  private static class OrphanFilesDeleter {
+    private final AuthenticatedFileIO io;
+    private final TableOrphanFilesCleaningMetrics metrics;
+    private Set<String> batch = new HashSet<>();
+    private Runnable flushListener = () -> {};
+    private int expected = 0;
+    private int deleted = 0;
+
+    OrphanFilesDeleter(AuthenticatedFileIO io, TableOrphanFilesCleaningMetrics metrics) {
+      this.io = io;
+      this.metrics = metrics;
+    }
+
+    /** Run the listener after every batch is deleted. */
+    void onFlush(Runnable listener) {
+      this.flushListener = listener;
+    }
+
+    void delete(String file) {
+      batch.add(file);
+      if (batch.size() >= ORPHAN_FILES_DELETE_BATCH_SIZE) {
+        flush();
+      }
+    }
+
+    void flush() {
+      if (batch.isEmpty()) {
+        return;
+      }
+      int cleaned = TableFileUtil.parallelDeleteFiles(io, batch, ThreadPools.getWorkerPool());
+      expected += batch.size();
+      deleted += cleaned;
+      metrics.completeOrphanDataFiles(batch.size(), cleaned);
+      batch = new HashSet<>();
+      flushListener.run();
+    }
+  }
+
+  /** A directory under cleaning, it is kept only until its whole subtree is listed. */
+  private static class ListedDirectory {
+    private final String location;
+    private final ListedDirectory parent;
+    private final boolean deletable;
+    private List<PathInfo> children;
+    // its own listing and the subdirectories whose subtree is not listed yet
+    private int pending = 1;
+    // false once a file or a subdirectory in it is kept
+    private boolean mayBeEmpty = true;
+    // orphan files in its subtree may still wait in the batch of the deleter
+    private boolean waitsForFlush = false;
+
+    ListedDirectory(String location, ListedDirectory parent, boolean deletable) {
+      this.location = location;
+      this.parent = parent;
+      this.deletable = deletable;
+    }
+
+    ListedDirectory listed(List<PathInfo> children) {
+      this.children = children;
+      return this;
+    }
+
+    List<PathInfo> takeChildren() {
+      List<PathInfo> listed = children;
+      children = null;
+      return listed;
+    }
+  }
+
+  /**
+   * Deletes a directory once its subtree is listed and everything in it has been deleted. One
+   * whose orphan files still wait in the deleter batch waits for the next flush, together with its
+   * ancestors, and the waiting ones are deleted children first.
+   */
+  private static class EmptyDirectoriesDeleter {
+    private final SupportsFileSystemOperations fio;
+    private final Set<String> excludes;
+    private final List<ListedDirectory> waiting = new ArrayList<>();
+
+    EmptyDirectoriesDeleter(SupportsFileSystemOperations fio, Set<String> excludes) {
+      this.fio = fio;
+      this.excludes = excludes;
+    }
+
+    void listed(ListedDirectory directory) {
+      if (--directory.pending == 0) {
+        finished(directory);
+      }
+    }
+
+    private void finished(ListedDirectory directory) {
+      ListedDirectory parent = directory.parent;
+      if (!directory.deletable || !directory.mayBeEmpty) {
+        if (parent != null) {
+          parent.mayBeEmpty = false;
+        }
+      } else if (directory.waitsForFlush) {
+        waiting.add(directory);
+        parent.waitsForFlush = true;
+      } else {
+        delete(directory);
+      }
+      if (parent != null) {
+        listed(parent);
+      }
+    }
+
+    void deleteWaiting() {
+      waiting.forEach(this::delete);
+      waiting.clear();
+    }
+
+    private void delete(ListedDirectory directory) {
+      if (fio.exists(directory.location) && fio.isEmptyDirectory(directory.location)) {
+        TableFileUtil.deleteEmptyDirectory(fio, directory.location, excludes);
+      }
+    }
+  }
+
   public static class FileEntry {
     private final ContentFile<?> file;
     private final Literal<Long> tsBound;
@@ -29,6 +29,7 @@ import org.apache.amoro.scan.TableEntriesScan;
 import org.apache.amoro.server.table.TableConfigurations;
 import org.apache.amoro.server.table.TableOrphanFilesCleaningMetrics;
 import org.apache.amoro.server.table.TableRuntime;
+import org.apache.amoro.server.table.TableSnapshotExpiringMetrics;
 import org.apache.amoro.server.utils.HiveLocationUtil;
 import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Iterables;
@@ -59,6 +60,8 @@ import org.apache.iceberg.util.StructLikeMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
+
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.time.Instant;
@@ -290,10 +293,10 @@ public class MixedTableMaintainer implements TableMaintainer {
     }
 
     @Override
-    @VisibleForTesting
-    void expireSnapshots(long mustOlderThan, int minCount) {
+    void expireSnapshots(
+        long mustOlderThan, int minCount, @Nullable TableSnapshotExpiringMetrics metrics) {
       expireFiles(mustOlderThan);
-      super.expireSnapshots(mustOlderThan, minCount);
+      super.expireSnapshots(mustOlderThan, minCount, metrics);
     }
 
     @Override
@@ -305,7 +308,8 @@ public class MixedTableMaintainer implements TableMaintainer {
       expireFiles(now - snapshotsKeepTime(tableRuntime));
       expireSnapshots(
           mustOlderThan(tableRuntime, now),
-          tableRuntime.getTableConfiguration().getSnapshotMinCount());
+          tableRuntime.getTableConfiguration().getSnapshotMinCount(),
+          tableRuntime.getSnapshotExpiringMetrics());
     }
 
     @Override
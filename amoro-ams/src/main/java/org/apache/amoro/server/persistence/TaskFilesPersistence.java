@@ -18,42 +18,88 @@
 
 package org.apache.amoro.server.persistence;
 
+import org.apache.amoro.exception.AmoroRuntimeException;
+import org.apache.amoro.exception.PersistenceException;
 import org.apache.amoro.optimizing.RewriteFilesInput;
 import org.apache.amoro.optimizing.RewriteFilesOutput;
 import org.apache.amoro.optimizing.RewriteStageTask;
 import org.apache.amoro.server.optimizing.TaskRuntime;
 import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
 import org.apache.amoro.server.utils.CompressUtil;
+import org.apache.amoro.shade.guava32.com.google.common.base.Throwables;
+import org.apache.amoro.shade.guava32.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.amoro.utils.SerializationUtil;
 
+import java.sql.PreparedStatement;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class TaskFilesPersistence {
 
+  private static final String UPDATE_TASK_INPUT =
+      "UPDATE task_runtime SET rewrite_input = ? WHERE process_id = ? AND task_id = ?";
+  // bound the encoded inputs held by the jdbc driver at once
+  private static final int UPDATE_BATCH_SIZE = 100;
+
   private static final DatabasePersistence persistence = new DatabasePersistence();
+  // decode inputs on own threads instead of the common pool shared by the whole ams
+  private static final ExecutorService decodePool =
+      Executors.newFixedThreadPool(
+          Math.max(1, Math.min(8, Runtime.getRuntime().availableProcessors())),
+          new ThreadFactoryBuilder()
+              .setNameFormat("task-input-decoder-%d")
+              .setDaemon(true)
+              .build());
 
+  /**
+   * Persist the input of each task into its own task_runtime row. Inputs are encoded one by one
+   * and written in jdbc batches within the current transaction, so persisting a large process
+   * neither holds a single huge blob in memory nor takes a round trip per task.
+   */
   public static void persistTaskInputs(
       long processId, Collection<TaskRuntime<RewriteStageTask>> tasks) {
-    persistence.persistTaskInputs(
-        processId,
-        tasks.stream()
-            .collect(
-                Collectors.toMap(
-                    e -> e.getTaskId().getTaskId(), task -> task.getTaskDescriptor().getInput())));
+    persistence.persistTaskInputs(processId, tasks);
   }
 
+  /**
+   * Load the inputs of all tasks of a process, decoded in parallel on a dedicated pool. Tasks of
+   * processes persisted by older versions have no input here, their process level blob can not be
+   * deserialized by this version any more.
+   */
   public static Map<Integer, RewriteFilesInput> loadTaskInputs(long processId) {
-    List<byte[]> bytes =
-        persistence.getAs(
-            OptimizingMapper.class, mapper -> mapper.selectProcessInputFiles(processId));
-    if (bytes == null || bytes.isEmpty()) {
-      return Collections.emptyMap();
-    } else {
-      return SerializationUtil.simpleDeserialize(CompressUtil.unGzip(bytes.get(0)));
+    List<TaskInputBytes> taskInputs =
+        persistence.getAs(OptimizingMapper.class, mapper -> mapper.selectTaskInputs(processId));
+    if (taskInputs == null || taskInputs.isEmpty()) {
+      return new HashMap<>();
+    }
+    return decodeInputs(taskInputs);
+  }
+
+  private static Map<Integer, RewriteFilesInput> decodeInputs(List<TaskInputBytes> taskInputs) {
+    Map<Integer, Future<RewriteFilesInput>> futures = new HashMap<>(taskInputs.size() * 2);
+    for (TaskInputBytes input : taskInputs) {
+      futures.put(input.getTaskId(), decodePool.submit(() -> decodeInput(input.getInput())));
+    }
+    Map<Integer, RewriteFilesInput> inputs = new HashMap<>(taskInputs.size() * 2);
+    try {
+      for (Map.Entry<Integer, Future<RewriteFilesInput>> entry : futures.entrySet()) {
+        inputs.put(entry.getKey(), entry.getValue().get());
+      }
+      return inputs;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while decoding task inputs", e);
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new RuntimeException("Failed to decode task inputs", e.getCause());
+    } finally {
+      futures.values().forEach(future -> future.cancel(true));
     }
   }
 
@@ -61,10 +107,62 @@ public class TaskFilesPersistence {
     return SerializationUtil.simpleDeserialize(content);
   }
 
+  static byte[] encodeInput(RewriteFilesInput input) {
+    return CompressUtil.deflate(SerializationUtil.simpleSerialize(input).array());
+  }
+
+  static RewriteFilesInput decodeInput(byte[] bytes) {
+    return SerializationUtil.simpleDeserialize(CompressUtil.inflate(bytes));
+  }
+
+  /** Compressed input of a single task, as stored in task_runtime. */
+  public static class TaskInputBytes {
+    private int taskId;
+    private byte[] input;
+
+    public int getTaskId() {
+      return taskId;
+    }
+
+    public void setTaskId(int taskId) {
+      this.taskId = taskId;
+    }
+
+    public byte[] getInput() {
+      return input;
+    }
+
+    public void setInput(byte[] input) {
+      this.input = input;
+    }
+  }
+
   private static class DatabasePersistence extends PersistentBase {
 
-    public void persistTaskInputs(long processId, Map<Integer, RewriteFilesInput> tasks) {
-      doAs(OptimizingMapper.class, mapper -> mapper.updateProcessInputFiles(processId, tasks));
+    public void persistTaskInputs(long processId, Collection<TaskRuntime<RewriteStageTask>> tasks) {
+      // a batch sql session would leave the transaction of the process, batch on its connection
+      try (NestedSqlSession session = beginSession()) {
+        try (PreparedStatement statement =
+            session.getSqlSession().getConnection().prepareStatement(UPDATE_TASK_INPUT)) {
+          int batched = 0;
+          for (TaskRuntime<RewriteStageTask> task : tasks) {
+            statement.setBytes(1, encodeInput(task.getTaskDescriptor().getInput()));
+            statement.setLong(2, processId);
+            statement.setInt(3, task.getTaskId().getTaskId());
+            statement.addBatch();
+            if (++batched % UPDATE_BATCH_SIZE == 0) {
+              statement.executeBatch();
+            }
+          }
+          if (batched % UPDATE_BATCH_SIZE != 0) {
+            statement.executeBatch();
+          }
+          session.commit();
+        } catch (Throwable t) {
+          session.rollback();
+          throw AmoroRuntimeException.wrap(t, PersistenceException::new);
+        }
+      }
     }
   }
 }
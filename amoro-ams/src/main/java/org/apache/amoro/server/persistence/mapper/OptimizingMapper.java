@@ -21,13 +21,13 @@ package org.apache.amoro.server.persistence.mapper;
 import org.apache.amoro.ServerTableIdentifier;
 import org.apache.amoro.optimizing.MetricsSummary;
 import org.apache.amoro.optimizing.OptimizingType;
-import org.apache.amoro.optimizing.RewriteFilesInput;
 import org.apache.amoro.optimizing.RewriteStageTask;
 import org.apache.amoro.process.ProcessStatus;
 import org.apache.amoro.process.StagedTaskDescriptor;
 import org.apache.amoro.server.optimizing.OptimizingProcessMeta;
 import org.apache.amoro.server.optimizing.OptimizingTaskMeta;
 import org.apache.amoro.server.optimizing.TaskRuntime;
+import org.apache.amoro.server.persistence.TaskFilesPersistence;
 import org.apache.amoro.server.persistence.converter.JsonObjectConverter;
 import org.apache.amoro.server.persistence.converter.Long2TsConverter;
 import org.apache.amoro.server.persistence.converter.Map2StringConverter;
@@ -44,6 +44,7 @@ import org.apache.ibatis.annotations.ResultMap;
 import org.apache.ibatis.annotations.Results;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.type.ByteArrayTypeHandler;
 import org.apache.ibatis.type.JdbcType;
 
 import java.util.Collection;
@@ -260,16 +261,18 @@ public interface OptimizingMapper {
   void deleteTaskRuntimesBefore(@Param("tableId") long tableId, @Param("time") long time);
 
   /** Optimizing rewrite input and output operations below */
-  @Update(
-      "UPDATE table_optimizing_process SET rewrite_input = #{input, jdbcType=BLOB,"
-          + " typeHandler=org.apache.amoro.server.persistence.converter.Object2ByteArrayConvert}"
-          + " WHERE process_id = #{processId}")
-  void updateProcessInputFiles(
-      @Param("processId") long processId, @Param("input") Map<Integer, RewriteFilesInput> input);
-
-  @Select("SELECT rewrite_input FROM table_optimizing_process WHERE process_id = #{processId}")
-  @Results({@Result(column = "rewrite_input", jdbcType = JdbcType.BLOB)})
-  List<byte[]> selectProcessInputFiles(@Param("processId") long processId);
+  @Select(
+      "SELECT task_id, rewrite_input FROM task_runtime WHERE process_id = #{processId}"
+          + " AND rewrite_input IS NOT NULL")
+  @Results({
+    @Result(property = "taskId", column = "task_id"),
+    @Result(
+        property = "input",
+        column = "rewrite_input",
+        jdbcType = JdbcType.BLOB,
+        typeHandler = ByteArrayTypeHandler.class)
+  })
+  List<TaskFilesPersistence.TaskInputBytes> selectTaskInputs(@Param("processId") long processId);
 
   /** Optimizing task quota operations below */
   @Select(
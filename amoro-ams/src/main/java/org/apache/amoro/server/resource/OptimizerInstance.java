@@ -18,10 +18,13 @@
 
 package org.apache.amoro.server.resource;
 
+import org.apache.amoro.OptimizerReportedMetrics;
 import org.apache.amoro.api.OptimizerRegisterInfo;
 import org.apache.amoro.resource.Resource;
 import org.apache.amoro.shade.guava32.com.google.common.base.MoreObjects;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
 
+import java.util.Map;
 import java.util.UUID;
 
 public class OptimizerInstance extends Resource {
@@ -29,6 +32,10 @@ public class OptimizerInstance extends Resource {
   private String token;
   private long startTime;
   private long touchTime;
+  private volatile Map<String, String> reportedMetrics = ImmutableMap.of();
+  private long metricsReportTime;
+  private volatile long inputBytesPerSecond;
+  private volatile long inputRecordsPerSecond;
 
   public OptimizerInstance() {}
 
@@ -44,6 +51,53 @@ public class OptimizerInstance extends Resource {
     return this;
   }
 
+  /**
+   * Update the metrics reported by the optimizer, throughput is computed from the growth of the
+   * totals since the last report.
+   */
+  public synchronized OptimizerInstance reportMetrics(Map<String, String> metrics) {
+    if (metrics == null || metrics.isEmpty()) {
+      return this;
+    }
+    long now = System.currentTimeMillis();
+    if (metricsReportTime > 0 && now > metricsReportTime) {
+      long interval = now - metricsReportTime;
+      inputBytesPerSecond =
+          increase(metrics, OptimizerReportedMetrics.INPUT_BYTES) * 1000 / interval;
+      inputRecordsPerSecond =
+          increase(metrics, OptimizerReportedMetrics.INPUT_RECORDS) * 1000 / interval;
+    }
+    reportedMetrics = ImmutableMap.copyOf(metrics);
+    metricsReportTime = now;
+    return this;
+  }
+
+  private long increase(Map<String, String> metrics, String name) {
+    // totals start over from 0 when the optimizer restarts with the same token
+    return Math.max(0, reportedMetric(metrics, name) - reportedMetric(reportedMetrics, name));
+  }
+
+  private static long reportedMetric(Map<String, String> metrics, String name) {
+    try {
+      return Long.parseLong(metrics.getOrDefault(name, "0"));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  /** Get a metric reported by the optimizer, 0 if it has not been reported. */
+  public long getReportedMetric(String name) {
+    return reportedMetric(reportedMetrics, name);
+  }
+
+  public long getInputBytesPerSecond() {
+    return inputBytesPerSecond;
+  }
+
+  public long getInputRecordsPerSecond() {
+    return inputRecordsPerSecond;
+  }
+
   public String getToken() {
     return token;
   }
@@ -72,6 +72,8 @@ public class DefaultTableService extends PersistentBase implements TableService
   private final long externalCatalogRefreshingInterval;
 
   private final Map<Long, TableRuntime> tableRuntimeMap = new ConcurrentHashMap<>();
+  // Tables whose runtime is served by other nodes when sharding is enabled
+  private final Set<Long> unownedTableIds = ConcurrentHashMap.newKeySet();
 
   private final ScheduledExecutorService tableExplorerScheduler =
       Executors.newSingleThreadScheduledExecutor(
@@ -82,14 +84,24 @@ public class DefaultTableService extends PersistentBase implements TableService
   private final CompletableFuture<Boolean> initialized = new CompletableFuture<>();
   private final Configurations serverConfiguration;
   private final CatalogManager catalogManager;
+  private final TableOwnership tableOwnership;
+  private final Runnable ownershipListener = this::syncOwnedTableRuntimes;
   private RuntimeHandlerChain headHandler;
   private ExecutorService tableExplorerExecutors;
 
   public DefaultTableService(Configurations configuration, CatalogManager catalogManager) {
+    this(configuration, catalogManager, TableOwnership.all());
+  }
+
+  public DefaultTableService(
+      Configurations configuration,
+      CatalogManager catalogManager,
+      TableOwnership tableOwnership) {
     this.catalogManager = catalogManager;
     this.externalCatalogRefreshingInterval =
         configuration.get(AmoroManagementConf.REFRESH_EXTERNAL_CATALOGS_INTERVAL).toMillis();
     this.serverConfiguration = configuration;
+    this.tableOwnership = tableOwnership;
   }
 
   @Override
@@ -99,14 +111,15 @@ public class DefaultTableService extends PersistentBase implements TableService
 
   @Override
   public void onTableDropped(InternalCatalog catalog, ServerTableIdentifier identifier) {
-    Optional.ofNullable(tableRuntimeMap.remove(identifier.getId()))
-        .ifPresent(
-            tableRuntime -> {
-              if (headHandler != null) {
-                headHandler.fireTableRemoved(tableRuntime);
-              }
-              tableRuntime.dispose();
-            });
+    TableRuntime tableRuntime = tableRuntimeMap.remove(identifier.getId());
+    if (tableRuntime != null) {
+      if (headHandler != null) {
+        headHandler.fireTableRemoved(tableRuntime);
+      }
+      tableRuntime.dispose();
+    } else {
+      disposeUnownedRuntime(identifier);
+    }
   }
 
   @Override
@@ -133,23 +146,47 @@ public class DefaultTableService extends PersistentBase implements TableService
     }
   }
 
+  @Override
+  public void handlePendingInputChanged(TableRuntime tableRuntime) {
+    if (headHandler != null) {
+      headHandler.firePendingInputChanged(tableRuntime);
+    }
+  }
+
+  @Override
+  public TableOwnership getTableOwnership() {
+    return tableOwnership;
+  }
+
   @Override
   public void initialize() {
     checkNotStarted();
+    if (tableOwnership.isSharded()) {
+      // Listeners run in order, the tables of acquired buckets are loaded before the handlers
+      // listening to the ownership are notified
+      tableOwnership.addListener(ownershipListener);
+    }
 
-    List<TableRuntimeMeta> tableRuntimeMetaList =
-        getAs(TableMetaMapper.class, TableMetaMapper::selectTableRuntimeMetas);
-    List<TableRuntime> tableRuntimes = new ArrayList<>(tableRuntimeMetaList.size());
-    tableRuntimeMetaList.forEach(
-        tableRuntimeMeta -> {
-          TableRuntime tableRuntime = new TableRuntime(tableRuntimeMeta, this);
-          tableRuntimeMap.put(tableRuntimeMeta.getTableId(), tableRuntime);
-          tableRuntime.registerMetric(MetricManager.getInstance().getGlobalRegistry());
-          tableRuntimes.add(tableRuntime);
-        });
+    // Bucket changes are applied after the initial runtimes are loaded
+    synchronized (this) {
+      List<TableRuntimeMeta> tableRuntimeMetaList =
+          getAs(TableMetaMapper.class, TableMetaMapper::selectTableRuntimeMetas);
+      List<TableRuntime> tableRuntimes = new ArrayList<>(tableRuntimeMetaList.size());
+      tableRuntimeMetaList.forEach(
+          tableRuntimeMeta -> {
+            if (!tableOwnership.owns(tableRuntimeMeta.getOptimizerGroup())) {
+              unownedTableIds.add(tableRuntimeMeta.getTableId());
+              return;
+            }
+            TableRuntime tableRuntime = new TableRuntime(tableRuntimeMeta, this);
+            tableRuntimeMap.put(tableRuntimeMeta.getTableId(), tableRuntime);
+            tableRuntime.registerMetric(MetricManager.getInstance().getGlobalRegistry());
+            tableRuntimes.add(tableRuntime);
+          });
 
-    if (headHandler != null) {
-      headHandler.initialize(tableRuntimes);
+      if (headHandler != null) {
+        headHandler.initialize(tableRuntimes);
+      }
     }
     if (tableExplorerExecutors == null) {
       int threadCount =
@@ -169,6 +206,9 @@ public class DefaultTableService extends PersistentBase implements TableService
                   .setDaemon(true)
                   .build());
     }
+    TableRuntimePersistence.getInstance()
+        .start(
+            serverConfiguration.get(AmoroManagementConf.TABLE_RUNTIME_FLUSH_INTERVAL).toMillis());
     tableExplorerScheduler.scheduleAtFixedRate(
         this::exploreTableRuntimes, 0, externalCatalogRefreshingInterval, TimeUnit.MILLISECONDS);
     initialized.complete(true);
@@ -202,6 +242,7 @@ public class DefaultTableService extends PersistentBase implements TableService
 
   @Override
   public void dispose() {
+    tableOwnership.removeListener(ownershipListener);
     tableExplorerScheduler.shutdown();
     if (tableExplorerExecutors != null) {
       tableExplorerExecutors.shutdown();
@@ -209,6 +250,7 @@ public class DefaultTableService extends PersistentBase implements TableService
     if (headHandler != null) {
       headHandler.dispose();
     }
+    TableRuntimePersistence.getInstance().stop();
   }
 
   @VisibleForTesting
@@ -217,22 +259,29 @@ public class DefaultTableService extends PersistentBase implements TableService
       throw new IllegalStateException("TableService is not initialized");
     }
     long start = System.currentTimeMillis();
-    List<ServerCatalog> externalCatalogs = catalogManager.getServerCatalogs();
-    List<String> externalCatalogNames =
-        externalCatalogs.stream().map(ServerCatalog::name).collect(Collectors.toList());
-    LOG.info("Syncing server catalogs: {}", String.join(",", externalCatalogNames));
-    for (ServerCatalog serverCatalog : externalCatalogs) {
-      try {
-        if (serverCatalog.isInternal()) {
-          exploreInternalCatalog((InternalCatalog) serverCatalog);
-        } else {
-          exploreExternalCatalog((ExternalCatalog) serverCatalog);
+    if (tableOwnership.isSharded()) {
+      syncOwnedTableRuntimes();
+    }
+    // Only the coordinator syncs catalogs into the database when sharding is enabled, the tables
+    // it finds are picked up by the nodes owning their optimizer groups
+    if (tableOwnership.isCoordinator()) {
+      List<ServerCatalog> externalCatalogs = catalogManager.getServerCatalogs();
+      List<String> externalCatalogNames =
+          externalCatalogs.stream().map(ServerCatalog::name).collect(Collectors.toList());
+      LOG.info("Syncing server catalogs: {}", String.join(",", externalCatalogNames));
+      for (ServerCatalog serverCatalog : externalCatalogs) {
+        try {
+          if (serverCatalog.isInternal()) {
+            exploreInternalCatalog((InternalCatalog) serverCatalog);
+          } else {
+            exploreExternalCatalog((ExternalCatalog) serverCatalog);
+          }
+        } catch (Throwable e) {
+          LOG.error(
+              "TableExplorer error when explore table runtimes for catalog:{}",
+              serverCatalog.name(),
+              e);
         }
-      } catch (Throwable e) {
-        LOG.error(
-            "TableExplorer error when explore table runtimes for catalog:{}",
-            serverCatalog.name(),
-            e);
       }
     }
 
@@ -255,6 +304,94 @@ public class DefaultTableService extends PersistentBase implements TableService
     LOG.info("Syncing external catalogs took {} ms.", end - start);
   }
 
+  /**
+   * Serve the tables of the owned optimizer groups which are new in the database, and release the
+   * tables which have been dropped or moved to an optimizer group served by another node. Called
+   * periodically and whenever the owned buckets change.
+   */
+  private synchronized void syncOwnedTableRuntimes() {
+    List<TableRuntimeMeta> tableRuntimeMetaList =
+        getAs(TableMetaMapper.class, TableMetaMapper::selectTableRuntimeMetas);
+    Set<Long> tableIds = new HashSet<>();
+    Set<Long> unownedIds = new HashSet<>();
+    int addedCount = 0;
+    for (TableRuntimeMeta tableRuntimeMeta : tableRuntimeMetaList) {
+      tableIds.add(tableRuntimeMeta.getTableId());
+      if (tableRuntimeMap.containsKey(tableRuntimeMeta.getTableId())) {
+        continue;
+      }
+      if (!tableOwnership.owns(tableRuntimeMeta.getOptimizerGroup())) {
+        unownedIds.add(tableRuntimeMeta.getTableId());
+        continue;
+      }
+      try {
+        TableRuntime tableRuntime = new TableRuntime(tableRuntimeMeta, this);
+        AmoroTable<?> table = loadTable(tableRuntime.getTableIdentifier());
+        tableRuntimeMap.put(tableRuntimeMeta.getTableId(), tableRuntime);
+        tableRuntime.registerMetric(MetricManager.getInstance().getGlobalRegistry());
+        if (headHandler != null) {
+          headHandler.fireTableAdded(table, tableRuntime);
+        }
+        addedCount++;
+      } catch (Throwable t) {
+        LOG.error("Failed to serve table {}", tableRuntimeMeta.getTableId(), t);
+      }
+    }
+    unownedTableIds.retainAll(unownedIds);
+    unownedTableIds.addAll(unownedIds);
+
+    // A table missing from the database has been dropped through another node, it may also be
+    // created after it was read, and is served again on the next sync in this case
+    Set<Long> droppedTableIds =
+        tableRuntimeMap.keySet().stream()
+            .filter(tableId -> !tableIds.contains(tableId))
+            .collect(Collectors.toSet());
+    droppedTableIds.forEach(tableId -> releaseTableRuntime(tableId, true));
+    Set<Long> movedTableIds =
+        tableRuntimeMap.values().stream()
+            .filter(tableRuntime -> !tableOwnership.owns(tableRuntime))
+            .map(tableRuntime -> tableRuntime.getTableIdentifier().getId())
+            .collect(Collectors.toSet());
+    movedTableIds.forEach(tableId -> releaseTableRuntime(tableId, false));
+    LOG.info(
+        "Sync owned table runtimes finished, {} tables are added, {} tables are dropped, {} tables"
+            + " are moved to other nodes.",
+        addedCount,
+        droppedTableIds.size(),
+        movedTableIds.size());
+  }
+
+  /**
+   * Stop serving a table on this node.
+   *
+   * @param tableId id of the table
+   * @param dropped whether the table has been dropped, a table moved to another node still exists
+   *     and its handlers are not notified, the optimizing queues of the groups served elsewhere
+   *     are released as a whole and keep the optimizing processes for the new owner
+   */
+  private void releaseTableRuntime(Long tableId, boolean dropped) {
+    Optional.ofNullable(tableRuntimeMap.remove(tableId))
+        .ifPresent(
+            tableRuntime -> {
+              if (!dropped) {
+                unownedTableIds.add(tableId);
+              } else if (headHandler != null) {
+                headHandler.fireTableRemoved(tableRuntime);
+              }
+              tableRuntime.release();
+            });
+  }
+
+  private void disposeUnownedRuntime(ServerTableIdentifier tableIdentifier) {
+    if (tableOwnership.isSharded()) {
+      // The node serving the table releases it once it is missing from the database
+      doAs(
+          TableMetaMapper.class,
+          mapper -> mapper.deleteOptimizingRuntime(tableIdentifier.getId()));
+      unownedTableIds.remove(tableIdentifier.getId());
+    }
+  }
+
   private void exploreExternalCatalog(ExternalCatalog externalCatalog) {
     final List<CompletableFuture<Set<TableIdentity>>> tableIdentifiersFutures =
         Lists.newArrayList();
@@ -358,7 +495,8 @@ public class DefaultTableService extends PersistentBase implements TableService
             TableMetaMapper.class, m -> m.selectTableIdentifiersByCatalog(internalCatalog.name()));
     AtomicInteger addedCount = new AtomicInteger();
     identifiers.stream()
-        .filter(i -> !tableRuntimeMap.containsKey(i.getId()))
+        .filter(
+            i -> !tableRuntimeMap.containsKey(i.getId()) && !unownedTableIds.contains(i.getId()))
         .peek(
             i ->
                 LOG.info(
@@ -439,6 +577,11 @@ public class DefaultTableService extends PersistentBase implements TableService
       }
     }
     TableRuntime tableRuntime = new TableRuntime(serverTableIdentifier, this, table.properties());
+    if (!tableOwnership.owns(tableRuntime)) {
+      // Served by the node owning its optimizer group since the runtime has been persisted
+      unownedTableIds.add(serverTableIdentifier.getId());
+      return true;
+    }
     tableRuntimeMap.put(serverTableIdentifier.getId(), tableRuntime);
     tableRuntime.registerMetric(MetricManager.getInstance().getGlobalRegistry());
     if (headHandler != null) {
@@ -454,6 +597,7 @@ public class DefaultTableService extends PersistentBase implements TableService
             tableIdentity.getDatabase(), tableIdentity.getTableName());
     if (tableIdentifier != null) {
       tableRuntimeMap.remove(tableIdentifier.getId());
+      unownedTableIds.remove(tableIdentifier.getId());
     }
   }
 
@@ -465,14 +609,15 @@ public class DefaultTableService extends PersistentBase implements TableService
                 tableIdentifier.getCatalog(),
                 tableIdentifier.getDatabase(),
                 tableIdentifier.getTableName()));
-    Optional.ofNullable(tableRuntimeMap.remove(tableIdentifier.getId()))
-        .ifPresent(
-            tableRuntime -> {
-              if (headHandler != null) {
-                headHandler.fireTableRemoved(tableRuntime);
-              }
-              tableRuntime.dispose();
-            });
+    TableRuntime tableRuntime = tableRuntimeMap.remove(tableIdentifier.getId());
+    if (tableRuntime != null) {
+      if (headHandler != null) {
+        headHandler.fireTableRemoved(tableRuntime);
+      }
+      tableRuntime.dispose();
+    } else {
+      disposeUnownedRuntime(tableIdentifier);
+    }
   }
 
   private static class TableIdentity {
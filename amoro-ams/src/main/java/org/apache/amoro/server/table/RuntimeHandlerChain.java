@@ -89,6 +89,19 @@ public abstract class RuntimeHandlerChain {
     }
   }
 
+  public final void firePendingInputChanged(TableRuntime tableRuntime) {
+    if (!initialized) {
+      return;
+    }
+
+    if (formatSupported(tableRuntime.getFormat())) {
+      doSilently(() -> handlePendingInputChanged(tableRuntime));
+    }
+    if (next != null) {
+      next.firePendingInputChanged(tableRuntime);
+    }
+  }
+
   public final void fireTableAdded(AmoroTable<?> table, TableRuntime tableRuntime) {
     if (!initialized) {
       return;
@@ -142,6 +155,12 @@ public abstract class RuntimeHandlerChain {
   protected abstract void handleConfigChanged(
       TableRuntime tableRuntime, TableConfiguration originalConfig);
 
+  /**
+   * Handle the pending input changed without changing the optimizing status, the changes together
+   * with the status are handled by {@link #handleStatusChanged}.
+   */
+  protected void handlePendingInputChanged(TableRuntime tableRuntime) {}
+
   protected abstract void handleTableAdded(AmoroTable<?> table, TableRuntime tableRuntime);
 
   protected abstract void handleTableRemoved(TableRuntime tableRuntime);
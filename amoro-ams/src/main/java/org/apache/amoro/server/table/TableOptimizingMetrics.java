@@ -20,6 +20,7 @@ package org.apache.amoro.server.table;
 
 import static org.apache.amoro.metrics.MetricDefine.defineCounter;
 import static org.apache.amoro.metrics.MetricDefine.defineGauge;
+import static org.apache.amoro.metrics.MetricDefine.defineTimer;
 
 import org.apache.amoro.ServerTableIdentifier;
 import org.apache.amoro.metrics.Counter;
@@ -27,6 +28,7 @@ import org.apache.amoro.metrics.Gauge;
 import org.apache.amoro.metrics.Metric;
 import org.apache.amoro.metrics.MetricDefine;
 import org.apache.amoro.metrics.MetricKey;
+import org.apache.amoro.metrics.Timer;
 import org.apache.amoro.optimizing.OptimizingType;
 import org.apache.amoro.server.AmoroServiceConstants;
 import org.apache.amoro.server.metrics.MetricRegistry;
@@ -39,6 +41,7 @@ import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.SnapshotSummary;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /** Table self optimizing metrics */
 public class TableOptimizingMetrics {
@@ -199,6 +202,20 @@ public class TableOptimizingMetrics {
           .withTags("catalog", "database", "table")
           .build();
 
+  // table optimizing duration distribution metrics
+  public static final MetricDefine TABLE_OPTIMIZING_PLANNING_DURATION =
+      defineTimer("table_optimizing_planning_duration_mills")
+          .withDescription("Distribution of durations in milliseconds of planning the table")
+          .withTags("catalog", "database", "table")
+          .build();
+
+  public static final MetricDefine TABLE_OPTIMIZING_COMMIT_DURATION =
+      defineTimer("table_optimizing_commit_duration_mills")
+          .withDescription(
+              "Distribution of durations in milliseconds of committing optimizing processes")
+          .withTags("catalog", "database", "table")
+          .build();
+
   private final Counter processTotalCount = new Counter();
   private final Counter processFailedCount = new Counter();
   private final Counter minorTotalCount = new Counter();
@@ -207,6 +224,8 @@ public class TableOptimizingMetrics {
   private final Counter majorFailedCount = new Counter();
   private final Counter fullTotalCount = new Counter();
   private final Counter fullFailedCount = new Counter();
+  private final Timer planningDuration = new Timer();
+  private final Timer commitDuration = new Timer();
 
   private final ServerTableIdentifier identifier;
 
@@ -297,6 +316,10 @@ public class TableOptimizingMetrics {
           registry, TABLE_OPTIMIZING_SINCE_LAST_OPTIMIZATION, new LastOptimizingDurationGauge());
       registerMetric(registry, TABLE_OPTIMIZING_LAG_DURATION, new OptimizingLagDurationGauge());
 
+      // register optimizing duration distribution metrics
+      registerMetric(registry, TABLE_OPTIMIZING_PLANNING_DURATION, planningDuration);
+      registerMetric(registry, TABLE_OPTIMIZING_COMMIT_DURATION, commitDuration);
+
       globalRegistry = registry;
     }
   }
@@ -365,6 +388,24 @@ public class TableOptimizingMetrics {
             Longs.max(lastMinorTime, lastMajorTime, lastFullTime));
   }
 
+  /**
+   * Handle table planning completed event.
+   *
+   * @param planningCost duration in milliseconds of the planning.
+   */
+  public void planningCompleted(long planningCost) {
+    planningDuration.update(planningCost, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Handle table self optimizing process committed event, whether the commit succeeded or not.
+   *
+   * @param commitCost duration in milliseconds of the commit.
+   */
+  public void commitCompleted(long commitCost) {
+    commitDuration.update(commitCost, TimeUnit.MILLISECONDS);
+  }
+
   /**
    * Handle table self optimizing process completed event.
    *
@@ -107,7 +107,7 @@ public class TableOrphanFilesCleaningMetrics {
   }
 
   public void completeOrphanDataFiles(int expected, int cleaned) {
-    expectedOrphanMetadataFilesCount.inc(expected);
+    expectedOrphanDataFilesCount.inc(expected);
     orphanDataFilesCount.inc(cleaned);
   }
 
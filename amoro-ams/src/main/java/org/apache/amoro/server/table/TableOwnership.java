@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table;
+
+import org.apache.amoro.client.BucketAssignment;
+import org.apache.amoro.shade.guava32.com.google.common.base.MoreObjects;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tables served by this AMS node. When sharding is enabled, a node only serves the tables whose
+ * optimizer group is hashed into one of its buckets. Otherwise it serves all tables.
+ */
+public class TableOwnership {
+
+  private static final TableOwnership ALL =
+      new TableOwnership(0, Collections.emptySet(), () -> true);
+
+  private final int bucketNum;
+  private final BooleanSupplier coordinator;
+  private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+  private volatile Set<Integer> buckets;
+
+  public TableOwnership(int bucketNum, Set<Integer> buckets, BooleanSupplier coordinator) {
+    this.bucketNum = bucketNum;
+    this.buckets = Collections.unmodifiableSet(new HashSet<>(buckets));
+    this.coordinator = coordinator;
+  }
+
+  /** Ownership of a node serving all tables, used when sharding is disabled. */
+  public static TableOwnership all() {
+    return ALL;
+  }
+
+  public boolean isSharded() {
+    return bucketNum > 0;
+  }
+
+  public boolean owns(String optimizerGroup) {
+    return !isSharded() || buckets.contains(BucketAssignment.bucketOf(optimizerGroup, bucketNum));
+  }
+
+  public boolean owns(TableRuntime tableRuntime) {
+    return owns(tableRuntime.getOptimizerGroup());
+  }
+
+  /** Whether this node explores catalogs and syncs their tables into the database. */
+  public boolean isCoordinator() {
+    return coordinator.getAsBoolean();
+  }
+
+  public Set<Integer> getBuckets() {
+    return buckets;
+  }
+
+  /**
+   * Change the owned buckets and notify the listeners, which load and release the affected tables
+   * before this method returns.
+   *
+   * @throws IllegalStateException if any listener failed, after all listeners are notified. The
+   *     tables of the changed buckets may then be partly loaded or released, so the caller must not
+   *     hand the released buckets over before the services are restarted
+   */
+  public void setBuckets(Set<Integer> buckets) {
+    this.buckets = Collections.unmodifiableSet(new HashSet<>(buckets));
+    IllegalStateException failure = null;
+    for (Runnable listener : listeners) {
+      try {
+        listener.run();
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure =
+              new IllegalStateException(
+                  "Failed to apply the change of owned buckets " + buckets, e);
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Listen to the changes of the owned buckets. Listeners are called in the order they are added,
+   * on the thread changing the buckets.
+   */
+  public void addListener(Runnable listener) {
+    listeners.add(listener);
+  }
+
+  public void removeListener(Runnable listener) {
+    listeners.remove(listener);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("bucketNum", bucketNum)
+        .add("buckets", buckets)
+        .toString();
+  }
+}
@@ -89,8 +89,13 @@ public class TableRuntime extends StatedPersistentBase {
   @StateField private volatile AbstractOptimizingEvaluator.PendingInput pendingInput;
   @StateField private volatile AbstractOptimizingEvaluator.PendingInput tableSummary;
   private volatile long lastPlanTime;
+  // State of the latest evaluation, which is reused to evaluate the pending input incrementally
+  private volatile AbstractOptimizingEvaluator.EvaluatedState lastEvaluatedState;
+  // Set once the table is served by another node, the state is no longer written from then on
+  private volatile boolean released = false;
   private final TableOptimizingMetrics optimizingMetrics;
   private final TableOrphanFilesCleaningMetrics orphanFilesCleaningMetrics;
+  private final TableSnapshotExpiringMetrics snapshotExpiringMetrics;
   private final TableSummaryMetrics tableSummaryMetrics;
   private long targetSnapshotId;
   private long targetChangeSnapshotId;
@@ -111,6 +116,7 @@ public class TableRuntime extends StatedPersistentBase {
     persistTableRuntime();
     optimizingMetrics = new TableOptimizingMetrics(tableIdentifier);
     orphanFilesCleaningMetrics = new TableOrphanFilesCleaningMetrics(tableIdentifier);
+    snapshotExpiringMetrics = new TableSnapshotExpiringMetrics(tableIdentifier);
     tableSummaryMetrics = new TableSummaryMetrics(tableIdentifier);
   }
 
@@ -149,6 +155,7 @@ public class TableRuntime extends StatedPersistentBase {
     optimizingMetrics.lastOptimizingTime(OptimizingType.MAJOR, this.lastMajorOptimizingTime);
     optimizingMetrics.lastOptimizingTime(OptimizingType.FULL, this.lastFullOptimizingTime);
     orphanFilesCleaningMetrics = new TableOrphanFilesCleaningMetrics(tableIdentifier);
+    snapshotExpiringMetrics = new TableSnapshotExpiringMetrics(tableIdentifier);
     tableSummaryMetrics = new TableSummaryMetrics(tableIdentifier);
     tableSummaryMetrics.refresh(tableSummary);
 
@@ -170,12 +177,14 @@ public class TableRuntime extends StatedPersistentBase {
   public void registerMetric(MetricRegistry metricRegistry) {
     this.optimizingMetrics.register(metricRegistry);
     this.orphanFilesCleaningMetrics.register(metricRegistry);
+    this.snapshotExpiringMetrics.register(metricRegistry);
     this.tableSummaryMetrics.register(metricRegistry);
   }
 
   public void dispose() {
     tableLock.lock();
     try {
+      TableRuntimePersistence.getInstance().markClean(this);
       doAsTransaction(
           () -> Optional.ofNullable(optimizingProcess).ifPresent(OptimizingProcess::close),
           () ->
@@ -185,8 +194,30 @@ public class TableRuntime extends StatedPersistentBase {
     } finally {
       tableLock.unlock();
     }
+    unregisterMetrics();
+  }
+
+  /**
+   * Stop serving the table on this node and keep its persisted runtime for the node serving it from
+   * now on. The state changed before the release is written, later changes stay in memory, so that
+   * tasks still running on this node never overwrite the state written by the new owner.
+   */
+  public void release() {
+    tableLock.lock();
+    try {
+      released = true;
+    } finally {
+      tableLock.unlock();
+    }
+    TableRuntimePersistence.getInstance().flush();
+    TableRuntimePersistence.getInstance().markClean(this);
+    unregisterMetrics();
+  }
+
+  private void unregisterMetrics() {
     optimizingMetrics.unregister();
     orphanFilesCleaningMetrics.unregister();
+    snapshotExpiringMetrics.unregister();
     tableSummaryMetrics.unregister();
   }
 
@@ -195,7 +226,7 @@ public class TableRuntime extends StatedPersistentBase {
         () -> {
           OptimizingStatus originalStatus = optimizingStatus;
           updateOptimizingStatus(OptimizingStatus.PLANNING);
-          persistUpdatingRuntime();
+          persistUpdatingRuntimeLazily();
           tableHandler.handleTableChanged(this, originalStatus);
         });
   }
@@ -206,7 +237,7 @@ public class TableRuntime extends StatedPersistentBase {
           () -> {
             OptimizingStatus originalStatus = optimizingStatus;
             updateOptimizingStatus(OptimizingStatus.PENDING);
-            persistUpdatingRuntime();
+            persistUpdatingRuntimeLazily();
             tableHandler.handleTableChanged(this, originalStatus);
           });
     } catch (Exception e) {
@@ -248,12 +279,14 @@ public class TableRuntime extends StatedPersistentBase {
           this.pendingInput = pendingInput;
           if (optimizingStatus == OptimizingStatus.IDLE) {
             updateOptimizingStatus(OptimizingStatus.PENDING);
-            persistUpdatingRuntime();
+            persistUpdatingRuntimeLazily();
             LOG.info(
                 "{} status changed from idle to pending with pendingInput {}",
                 tableIdentifier,
                 pendingInput);
             tableHandler.handleTableChanged(this, OptimizingStatus.IDLE);
+          } else {
+            tableHandler.handlePendingInputChanged(this);
           }
         });
   }
@@ -264,7 +297,7 @@ public class TableRuntime extends StatedPersistentBase {
           TableConfiguration configuration = tableConfiguration;
           boolean configChanged = updateConfigInternal(table.properties());
           if (refreshSnapshots(table) || configChanged) {
-            persistUpdatingRuntime();
+            persistUpdatingRuntimeLazily();
           }
           if (configChanged) {
             tableHandler.handleTableChanged(this, configuration);
@@ -278,7 +311,7 @@ public class TableRuntime extends StatedPersistentBase {
         () -> {
           this.tableSummary = tableSummary;
           tableSummaryMetrics.refresh(tableSummary);
-          persistUpdatingRuntime();
+          persistUpdatingRuntimeLazily();
         });
   }
 
@@ -295,7 +328,7 @@ public class TableRuntime extends StatedPersistentBase {
             updateOptimizingStatus(OptimizingStatus.IDLE);
             lastOptimizedSnapshotId = currentSnapshotId;
             lastOptimizedChangeSnapshotId = currentChangeSnapshotId;
-            persistUpdatingRuntime();
+            persistUpdatingRuntimeLazily();
             tableHandler.handleTableChanged(this, optimizingStatus);
           }
         });
@@ -307,7 +340,7 @@ public class TableRuntime extends StatedPersistentBase {
           if (optimizingStatus == OptimizingStatus.IDLE) {
             lastOptimizedSnapshotId = currentSnapshotId;
             lastOptimizedChangeSnapshotId = currentChangeSnapshotId;
-            persistUpdatingRuntime();
+            persistUpdatingRuntimeLazily();
           }
         });
   }
@@ -321,10 +354,18 @@ public class TableRuntime extends StatedPersistentBase {
     tableLock.lock();
     try {
       taskQuotas.clear();
+      // include the quotas which are still waiting to be written
       taskQuotas.addAll(
-          getAs(
-              OptimizingMapper.class,
-              mapper -> mapper.selectTaskQuotasByTime(tableIdentifier.getId(), startTimeMills)));
+          TableRuntimePersistence.getInstance()
+              .loadTaskQuotas(
+                  tableIdentifier.getId(),
+                  startTimeMills,
+                  () ->
+                      getAs(
+                          OptimizingMapper.class,
+                          mapper ->
+                              mapper.selectTaskQuotasByTime(
+                                  tableIdentifier.getId(), startTimeMills))));
     } finally {
       tableLock.unlock();
     }
@@ -419,6 +460,14 @@ public class TableRuntime extends StatedPersistentBase {
     return tableSummary;
   }
 
+  public AbstractOptimizingEvaluator.EvaluatedState getLastEvaluatedState() {
+    return lastEvaluatedState;
+  }
+
+  public void setLastEvaluatedState(AbstractOptimizingEvaluator.EvaluatedState lastEvaluatedState) {
+    this.lastEvaluatedState = lastEvaluatedState;
+  }
+
   private boolean updateConfigInternal(Map<String, String> properties) {
     TableConfiguration newTableConfig = TableConfigurations.parseTableConfig(properties);
     if (tableConfiguration.equals(newTableConfig)) {
@@ -436,7 +485,9 @@ public class TableRuntime extends StatedPersistentBase {
   }
 
   public void addTaskQuota(TaskRuntime.TaskQuota taskQuota) {
-    doAsIgnoreError(OptimizingMapper.class, mapper -> mapper.insertTaskQuota(taskQuota));
+    if (!TableRuntimePersistence.getInstance().addTaskQuota(taskQuota)) {
+      doAsIgnoreError(OptimizingMapper.class, mapper -> mapper.insertTaskQuota(taskQuota));
+    }
     taskQuotas.add(taskQuota);
     long validTime = System.currentTimeMillis() - AmoroServiceConstants.QUOTA_LOOK_BACK_TIME;
     this.taskQuotas.removeIf(task -> task.checkExpired(validTime));
@@ -446,8 +497,48 @@ public class TableRuntime extends StatedPersistentBase {
     doAs(TableMetaMapper.class, mapper -> mapper.insertTableRuntime(this));
   }
 
+  /**
+   * Persist the state synchronously, used by the transitions which must be durable before
+   * returning, e.g. the ones committed together with the optimizing process.
+   */
   private void persistUpdatingRuntime() {
-    doAs(TableMetaMapper.class, mapper -> mapper.updateTableRuntime(this));
+    if (released) {
+      return;
+    }
+    TableRuntimePersistence.getInstance()
+        .persistSynchronously(
+            this, () -> doAs(TableMetaMapper.class, mapper -> mapper.updateTableRuntime(this)));
+  }
+
+  /**
+   * Persist the state by the write-behind {@link TableRuntimePersistence}, the latest state will be
+   * written in the next flush. Falls back to synchronous writing if write-behind is disabled.
+   */
+  private void persistUpdatingRuntimeLazily() {
+    if (released) {
+      return;
+    }
+    if (!TableRuntimePersistence.getInstance().markDirty(this)) {
+      persistUpdatingRuntime();
+    }
+  }
+
+  /**
+   * Bind the current state to the batching mapper, invoked by {@link TableRuntimePersistence}.
+   *
+   * @return false if the table is being updated by another thread and the state is not bound
+   */
+  boolean persistUpdatingRuntime(TableMetaMapper mapper) {
+    // never wait for the table lock while flushing, its holder may be waiting for the flush
+    if (!tableLock.tryLock()) {
+      return false;
+    }
+    try {
+      mapper.updateTableRuntime(this);
+      return true;
+    } finally {
+      tableLock.unlock();
+    }
   }
 
   public OptimizingProcess getOptimizingProcess() {
@@ -526,6 +617,14 @@ public class TableRuntime extends StatedPersistentBase {
     return orphanFilesCleaningMetrics;
   }
 
+  public TableSnapshotExpiringMetrics getSnapshotExpiringMetrics() {
+    return snapshotExpiringMetrics;
+  }
+
+  public TableOptimizingMetrics getOptimizingMetrics() {
+    return optimizingMetrics;
+  }
+
   public void setCurrentChangeSnapshotId(long currentChangeSnapshotId) {
     this.currentChangeSnapshotId = currentChangeSnapshotId;
   }
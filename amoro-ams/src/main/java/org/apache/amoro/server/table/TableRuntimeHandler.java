@@ -28,4 +28,6 @@ public interface TableRuntimeHandler {
   void handleTableChanged(TableRuntime tableRuntime, OptimizingStatus originalStatus);
 
   void handleTableChanged(TableRuntime tableRuntime, TableConfiguration originalConfig);
+
+  void handlePendingInputChanged(TableRuntime tableRuntime);
 }
@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table;
+
+import org.apache.amoro.server.optimizing.TaskRuntime;
+import org.apache.amoro.server.persistence.SqlSessionFactoryProvider;
+import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
+import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
+import org.apache.amoro.shade.guava32.com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind persistence of {@link TableRuntime} states and task quotas. Dirty table runtimes
+ * are coalesced in memory so that only the latest state of each table is written, and all pending
+ * writes are flushed in one JDBC batch every flush interval. Before {@link #start(long)} is
+ * called, or after {@link #stop()}, every write is expected to be performed synchronously by the
+ * caller.
+ */
+public class TableRuntimePersistence {
+
+  private static final Logger LOG = LoggerFactory.getLogger(TableRuntimePersistence.class);
+
+  private static final TableRuntimePersistence INSTANCE = new TableRuntimePersistence();
+
+  public static TableRuntimePersistence getInstance() {
+    return INSTANCE;
+  }
+
+  private final Map<Long, TableRuntime> dirtyRuntimes = new ConcurrentHashMap<>();
+  private final Queue<TaskRuntime.TaskQuota> pendingQuotas = new ConcurrentLinkedQueue<>();
+  // held through a whole flush, so that flushes never commit out of order
+  private final Object flushLock = new Object();
+  // guards the tables and the task quotas written by the flush in progress
+  private final Object inFlightLock = new Object();
+  private final Set<Long> flushingTables = new HashSet<>();
+  private final List<TaskRuntime.TaskQuota> flushingQuotas = new ArrayList<>();
+  private volatile ScheduledExecutorService flushScheduler;
+
+  private TableRuntimePersistence() {}
+
+  /**
+   * Start flushing pending writes periodically, write-behind is disabled if the interval is not
+   * positive.
+   */
+  public synchronized void start(long flushIntervalMs) {
+    if (flushScheduler != null || flushIntervalMs <= 0) {
+      return;
+    }
+    flushScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder()
+                .setNameFormat("table-runtime-flusher-%d")
+                .setDaemon(true)
+                .build());
+    flushScheduler.scheduleWithFixedDelay(
+        this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    LOG.info("Table runtime write-behind persistence started with interval {}ms", flushIntervalMs);
+  }
+
+  /** Stop the periodic flushing and write all pending states to the database. */
+  public synchronized void stop() {
+    if (flushScheduler == null) {
+      return;
+    }
+    flushScheduler.shutdown();
+    try {
+      flushScheduler.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flushScheduler = null;
+    flushQuietly();
+  }
+
+  public boolean isEnabled() {
+    return flushScheduler != null;
+  }
+
+  /**
+   * Mark the state of the table runtime as changed, it will be written in the next flush.
+   *
+   * @return false if write-behind is disabled and the caller should persist the state itself
+   */
+  boolean markDirty(TableRuntime tableRuntime) {
+    if (!isEnabled()) {
+      return false;
+    }
+    dirtyRuntimes.put(tableRuntime.getTableIdentifier().getId(), tableRuntime);
+    return true;
+  }
+
+  /**
+   * Queue the task quota to be inserted in the next flush.
+   *
+   * @return false if write-behind is disabled and the caller should persist the quota itself
+   */
+  boolean addTaskQuota(TaskRuntime.TaskQuota taskQuota) {
+    if (!isEnabled()) {
+      return false;
+    }
+    pendingQuotas.add(taskQuota);
+    return true;
+  }
+
+  /**
+   * Load the task quotas of the table from the database together with the ones not written yet.
+   * No flush commits task quotas meanwhile, so that none is missed or counted twice.
+   *
+   * @param tableId table id
+   * @param startProcessId the same lower bound of process id as the one used to select quotas
+   * @param persistedQuotas selects the task quotas written to the database
+   */
+  List<TaskRuntime.TaskQuota> loadTaskQuotas(
+      long tableId, long startProcessId, Supplier<List<TaskRuntime.TaskQuota>> persistedQuotas) {
+    synchronized (inFlightLock) {
+      awaitInFlight(() -> !flushingQuotas.isEmpty());
+      List<TaskRuntime.TaskQuota> quotas = new ArrayList<>(persistedQuotas.get());
+      pendingQuotas.stream()
+          .filter(quota -> quota.getTableId() == tableId && quota.getProcessId() >= startProcessId)
+          .forEach(quotas::add);
+      return quotas;
+    }
+  }
+
+  /** Called when the pending state of the table runtime should not be written any more. */
+  void markClean(TableRuntime tableRuntime) {
+    dirtyRuntimes.remove(tableRuntime.getTableIdentifier().getId(), tableRuntime);
+  }
+
+  /**
+   * Persist the state of the table runtime synchronously. The write only waits for a flush whose
+   * batch contains an older state of the same table, so that the older state never overwrites the
+   * newer one. The caller holds the lock of the table runtime, so no flush binds its state
+   * meanwhile.
+   *
+   * @param tableRuntime table runtime whose state is written
+   * @param persist the synchronous write, performed while holding the lock of the table runtime
+   */
+  void persistSynchronously(TableRuntime tableRuntime, Runnable persist) {
+    long tableId = tableRuntime.getTableIdentifier().getId();
+    synchronized (inFlightLock) {
+      awaitInFlight(() -> flushingTables.contains(tableId));
+    }
+    persist.run();
+    markClean(tableRuntime);
+  }
+
+  /**
+   * Write all pending states and task quotas to the database in one batch. The batch is taken
+   * under a short lock and written outside of it. The state of a table runtime locked by another
+   * thread is left for the next flush.
+   */
+  public void flush() {
+    synchronized (flushLock) {
+      List<TableRuntime> runtimes = new ArrayList<>(dirtyRuntimes.size());
+      List<TaskRuntime.TaskQuota> quotas;
+      synchronized (inFlightLock) {
+        Iterator<TableRuntime> iterator = dirtyRuntimes.values().iterator();
+        while (iterator.hasNext()) {
+          TableRuntime runtime = iterator.next();
+          iterator.remove();
+          runtimes.add(runtime);
+          flushingTables.add(runtime.getTableIdentifier().getId());
+        }
+        // quotas stay visible to loadTaskQuotas as in flight until they are committed
+        TaskRuntime.TaskQuota quota;
+        while ((quota = pendingQuotas.poll()) != null) {
+          flushingQuotas.add(quota);
+        }
+        quotas = new ArrayList<>(flushingQuotas);
+      }
+      if (runtimes.isEmpty() && quotas.isEmpty()) {
+        return;
+      }
+
+      List<TableRuntime> written = new ArrayList<>(runtimes.size());
+      try (SqlSession session =
+          SqlSessionFactoryProvider.getInstance()
+              .get()
+              .openSession(ExecutorType.BATCH, TransactionIsolationLevel.READ_COMMITTED)) {
+        try {
+          TableMetaMapper tableMetaMapper = session.getMapper(TableMetaMapper.class);
+          for (TableRuntime runtime : runtimes) {
+            if (runtime.persistUpdatingRuntime(tableMetaMapper)) {
+              written.add(runtime);
+            } else {
+              // its lock holder may be waiting to write synchronously, let it go at once
+              dirtyRuntimes.putIfAbsent(runtime.getTableIdentifier().getId(), runtime);
+              completeInFlight(runtime);
+            }
+          }
+          OptimizingMapper optimizingMapper = session.getMapper(OptimizingMapper.class);
+          quotas.forEach(optimizingMapper::insertTaskQuota);
+          session.flushStatements();
+          session.commit();
+          LOG.debug("Flushed {} table runtimes and {} task quotas", written.size(), quotas.size());
+        } catch (Throwable t) {
+          session.rollback();
+          // keep the newer states marked since the drain, task quotas are best-effort as before
+          // and are dropped
+          runtimes.forEach(
+              runtime -> dirtyRuntimes.putIfAbsent(runtime.getTableIdentifier().getId(), runtime));
+          LOG.error(
+              "Failed to flush {} table runtimes, dropped {} task quotas",
+              runtimes.size(),
+              quotas.size(),
+              t);
+        }
+      } finally {
+        synchronized (inFlightLock) {
+          flushingTables.clear();
+          flushingQuotas.clear();
+          inFlightLock.notifyAll();
+        }
+      }
+    }
+  }
+
+  private void completeInFlight(TableRuntime runtime) {
+    synchronized (inFlightLock) {
+      flushingTables.remove(runtime.getTableIdentifier().getId());
+      inFlightLock.notifyAll();
+    }
+  }
+
+  /** Wait on the in-flight lock, which must be held, until the flush writes what is waited for. */
+  private void awaitInFlight(BooleanSupplier inFlight) {
+    boolean interrupted = false;
+    while (inFlight.getAsBoolean()) {
+      try {
+        inFlightLock.wait();
+      } catch (InterruptedException e) {
+        // the write must not overtake the flush, wait on and restore the interrupt afterwards
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (Throwable t) {
+      LOG.error("Unexpected error when flushing table runtimes", t);
+    }
+  }
+}
@@ -38,6 +38,15 @@ public interface TableService extends TableRuntimeHandler {
     return getRuntime(tableId) != null;
   }
 
+  /**
+   * Tables served by this AMS node.
+   *
+   * @return all tables unless AMS sharding is enabled
+   */
+  default TableOwnership getTableOwnership() {
+    return TableOwnership.all();
+  }
+
   /**
    * load a table via server catalog.
    *
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table;
+
+import static org.apache.amoro.metrics.MetricDefine.defineCounter;
+import static org.apache.amoro.metrics.MetricDefine.defineGauge;
+
+import org.apache.amoro.ServerTableIdentifier;
+import org.apache.amoro.metrics.Counter;
+import org.apache.amoro.metrics.Gauge;
+import org.apache.amoro.metrics.Metric;
+import org.apache.amoro.metrics.MetricDefine;
+import org.apache.amoro.metrics.MetricKey;
+import org.apache.amoro.server.metrics.MetricRegistry;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+
+import java.util.List;
+
+/** Table snapshot expiring metrics. */
+public class TableSnapshotExpiringMetrics {
+
+  private final Counter expiredFilesCount = new Counter();
+  private final Counter expectedExpiredFilesCount = new Counter();
+  private final Counter expiredFilesBytes = new Counter();
+  private volatile long lastFilesPerSecond = 0L;
+
+  private final ServerTableIdentifier identifier;
+
+  public TableSnapshotExpiringMetrics(ServerTableIdentifier identifier) {
+    this.identifier = identifier;
+  }
+
+  public static final MetricDefine TABLE_EXPIRED_FILE_CLEANING_COUNT =
+      defineCounter("table_expired_file_cleaning_count")
+          .withDescription(
+              "Count of files of expired snapshots cleaned in the table since ams started")
+          .withTags("catalog", "database", "table")
+          .build();
+
+  public static final MetricDefine TABLE_EXPECTED_EXPIRED_FILE_CLEANING_COUNT =
+      defineCounter("table_expected_expired_file_cleaning_count")
+          .withDescription(
+              "Expected count of files of expired snapshots cleaned in the table since ams started")
+          .withTags("catalog", "database", "table")
+          .build();
+
+  public static final MetricDefine TABLE_EXPIRED_FILE_CLEANING_BYTES =
+      defineCounter("table_expired_file_cleaning_bytes")
+          .withDescription(
+              "Bytes freed by cleaning files of expired snapshots in the table since ams started")
+          .withTags("catalog", "database", "table")
+          .build();
+
+  public static final MetricDefine TABLE_EXPIRED_FILE_CLEANING_RATE =
+      defineGauge("table_expired_file_cleaning_files_per_second")
+          .withDescription("Files cleaned per second by the last snapshot expiration of the table")
+          .withTags("catalog", "database", "table")
+          .build();
+
+  private final List<MetricKey> registeredMetricKeys = Lists.newArrayList();
+  private MetricRegistry globalRegistry;
+
+  private void registerMetric(MetricRegistry registry, MetricDefine define, Metric metric) {
+    MetricKey key =
+        registry.register(
+            define,
+            ImmutableMap.of(
+                "catalog",
+                identifier.getCatalog(),
+                "database",
+                identifier.getDatabase(),
+                "table",
+                identifier.getTableName()),
+            metric);
+    registeredMetricKeys.add(key);
+  }
+
+  public void register(MetricRegistry registry) {
+    if (globalRegistry == null) {
+      registerMetric(registry, TABLE_EXPIRED_FILE_CLEANING_COUNT, expiredFilesCount);
+      registerMetric(
+          registry, TABLE_EXPECTED_EXPIRED_FILE_CLEANING_COUNT, expectedExpiredFilesCount);
+      registerMetric(registry, TABLE_EXPIRED_FILE_CLEANING_BYTES, expiredFilesBytes);
+      registerMetric(
+          registry, TABLE_EXPIRED_FILE_CLEANING_RATE, (Gauge<Long>) () -> lastFilesPerSecond);
+      globalRegistry = registry;
+    }
+  }
+
+  public void completeExpiredFiles(int expected, int cleaned, long bytesFreed) {
+    expectedExpiredFilesCount.inc(expected);
+    expiredFilesCount.inc(cleaned);
+    expiredFilesBytes.inc(bytesFreed);
+  }
+
+  public void expiringFinished(long cleaned, long costMillis) {
+    lastFilesPerSecond = costMillis > 0 ? cleaned * 1000 / costMillis : cleaned;
+  }
+
+  public long getExpiredFilesCount() {
+    return expiredFilesCount.getCount();
+  }
+
+  public long getExpiredFilesBytes() {
+    return expiredFilesBytes.getCount();
+  }
+
+  public long getLastFilesPerSecond() {
+    return lastFilesPerSecond;
+  }
+
+  public void unregister() {
+    registeredMetricKeys.forEach(globalRegistry::unregister);
+    registeredMetricKeys.clear();
+    globalRegistry = null;
+  }
+}
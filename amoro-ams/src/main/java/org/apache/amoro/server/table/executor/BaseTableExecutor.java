@@ -107,7 +107,8 @@ public abstract class BaseTableExecutor extends RuntimeHandlerChain {
   }
 
   private boolean isExecutable(TableRuntime tableRuntime) {
-    return tableService.contains(tableRuntime.getTableIdentifier().getId())
+    // the runtime is replaced when a table released by this node is served by it again
+    return tableService.getRuntime(tableRuntime.getTableIdentifier().getId()) == tableRuntime
         && enabled(tableRuntime);
   }
 
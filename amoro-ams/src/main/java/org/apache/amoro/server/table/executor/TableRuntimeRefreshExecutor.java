@@ -54,7 +54,10 @@ public class TableRuntimeRefreshExecutor extends BaseTableExecutor {
   private void tryEvaluatingPendingInput(TableRuntime tableRuntime, MixedTable table) {
     if (tableRuntime.isOptimizingEnabled() && !tableRuntime.getOptimizingStatus().isProcessing()) {
       AbstractOptimizingEvaluator evaluator =
-          IcebergTableUtil.createOptimizingEvaluator(tableRuntime, table, maxPendingPartitions);
+          IcebergTableUtil.createOptimizingEvaluator(tableRuntime, table, maxPendingPartitions)
+              .withPreviousState(tableRuntime.getLastEvaluatedState());
+      // drop the cached state first, it is invalid once the evaluation fails
+      tableRuntime.setLastEvaluatedState(null);
       if (evaluator.isNecessary()) {
         AbstractOptimizingEvaluator.PendingInput pendingInput =
             evaluator.getOptimizingPendingInput();
@@ -67,6 +70,9 @@ public class TableRuntimeRefreshExecutor extends BaseTableExecutor {
         tableRuntime.optimizingNotNecessary();
       }
       tableRuntime.setTableSummary(evaluator.getPendingInput());
+      tableRuntime.setLastEvaluatedState(evaluator.getEvaluatedState());
+    } else {
+      tableRuntime.setLastEvaluatedState(null);
     }
   }
 
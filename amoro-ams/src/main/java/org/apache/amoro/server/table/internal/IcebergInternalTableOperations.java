@@ -78,7 +78,9 @@ public class IcebergInternalTableOperations extends PersistentBase implements Ta
     if (StringUtils.isBlank(metadataFileLocation)) {
       return null;
     }
-    this.current = TableMetadataParser.read(io, metadataFileLocation);
+    this.current =
+        IcebergTableMetadataCache.get(
+            metadataFileLocation, location -> TableMetadataParser.read(io, location));
     return this.current;
   }
 
@@ -103,6 +105,7 @@ public class IcebergInternalTableOperations extends PersistentBase implements Ta
       commitTableInternal(tableMetadata, base, metadata, newMetadataFileLocation);
       org.apache.amoro.server.table.TableMetadata updatedMetadata = doCommit();
       checkCommitSuccess(updatedMetadata, newMetadataFileLocation);
+      IcebergTableMetadataCache.invalidate(base.metadataFileLocation());
     } catch (Exception e) {
       io.deleteFile(newMetadataFileLocation);
     } finally {
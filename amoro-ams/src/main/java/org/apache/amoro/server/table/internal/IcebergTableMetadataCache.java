@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.table.internal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.TableMetadata;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of the iceberg table metadata of internal tables, keyed by the metadata file
+ * location. A metadata file is never rewritten once committed, so a cached entry stays valid until
+ * a commit replaces the location of the table.
+ *
+ * <p>The cache is bounded by the estimated heap of the cached metadata rather than by the number
+ * of tables, since the metadata of a table with a long snapshot history is much larger.
+ */
+public class IcebergTableMetadataCache {
+
+  // Budget of the estimated heap held by the cached metadata
+  private static final long MAX_CACHED_METADATA_BYTES = 256L * 1024 * 1024;
+  private static final Duration EXPIRE_AFTER_ACCESS = Duration.ofMinutes(30);
+
+  private static final Cache<String, TableMetadata> CACHE =
+      Caffeine.newBuilder()
+          .maximumWeight(MAX_CACHED_METADATA_BYTES)
+          .weigher(IcebergTableMetadataCache::estimatedBytes)
+          .expireAfterAccess(EXPIRE_AFTER_ACCESS)
+          .build();
+
+  private IcebergTableMetadataCache() {}
+
+  /**
+   * Get the table metadata of a metadata file, loading it on a cache miss.
+   *
+   * @param metadataFileLocation Location of the metadata file
+   * @param loader Function to read the metadata file
+   * @return The table metadata
+   */
+  public static TableMetadata get(
+      String metadataFileLocation, Function<String, TableMetadata> loader) {
+    return CACHE.get(metadataFileLocation, loader);
+  }
+
+  /** Invalidate the table metadata of a metadata file replaced by a commit. */
+  public static void invalidate(String metadataFileLocation) {
+    if (metadataFileLocation != null) {
+      CACHE.invalidate(metadataFileLocation);
+    }
+  }
+
+  /** Rough heap size of the metadata, dominated by the snapshots and their summaries. */
+  private static int estimatedBytes(String location, TableMetadata metadata) {
+    long bytes = 1024L + 2L * location.length();
+    bytes += 1024L * metadata.snapshots().size();
+    bytes += 64L * metadata.snapshotLog().size();
+    bytes += 256L * metadata.previousFiles().size();
+    bytes += 256L * metadata.statisticsFiles().size();
+    bytes += 256L * metadata.partitionStatisticsFiles().size();
+    bytes += 256L * (metadata.specs().size() + metadata.sortOrders().size());
+    for (Schema schema : metadata.schemas()) {
+      bytes += 128L * schema.highestFieldId();
+    }
+    for (Map.Entry<String, String> property : metadata.properties().entrySet()) {
+      bytes += 64L + 2L * (property.getKey().length() + property.getValue().length());
+    }
+    return (int) Math.min(bytes, Integer.MAX_VALUE);
+  }
+}
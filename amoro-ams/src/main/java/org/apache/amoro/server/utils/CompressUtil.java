@@ -21,8 +21,11 @@ package org.apache.amoro.server.utils;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
 
 public class CompressUtil {
 
@@ -59,4 +62,54 @@ public class CompressUtil {
     }
     return byteArrayOutputStream.toByteArray();
   }
+
+  /**
+   * Compress the given data using deflate at the fastest level, which trades a little ratio
+   * for much cheaper compression than {@link #gzip(byte[])}.
+   */
+  public static byte[] deflate(byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    try {
+      deflater.setInput(bytes);
+      deflater.finish();
+      ByteArrayOutputStream byteArrayOutputStream =
+          new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+      byte[] buffer = new byte[8192];
+      while (!deflater.finished()) {
+        int len = deflater.deflate(buffer);
+        byteArrayOutputStream.write(buffer, 0, len);
+      }
+      return byteArrayOutputStream.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /** Decompress the given data compressed by {@link #deflate(byte[])}. */
+  public static byte[] inflate(byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(bytes);
+      ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(bytes.length * 4);
+      byte[] buffer = new byte[8192];
+      while (!inflater.finished()) {
+        int len = inflater.inflate(buffer);
+        if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IllegalArgumentException("Truncated deflate data");
+        }
+        byteArrayOutputStream.write(buffer, 0, len);
+      }
+      return byteArrayOutputStream.toByteArray();
+    } catch (DataFormatException e) {
+      throw new IllegalArgumentException("Invalid deflate data", e);
+    } finally {
+      inflater.end();
+    }
+  }
 }
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.utils;
+
+import org.apache.amoro.shade.thrift.org.apache.thrift.AsyncProcessFunction;
+import org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException;
+import org.apache.amoro.shade.thrift.org.apache.thrift.TBase;
+import org.apache.amoro.shade.thrift.org.apache.thrift.TBaseAsyncProcessor;
+import org.apache.amoro.shade.thrift.org.apache.thrift.TException;
+import org.apache.amoro.shade.thrift.org.apache.thrift.TMultiplexedProcessor;
+import org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback;
+import org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessage;
+import org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType;
+import org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMultiplexedProtocol;
+import org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol;
+import org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolException;
+import org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil;
+import org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType;
+import org.apache.amoro.shade.thrift.org.apache.thrift.server.AbstractNonblockingServer.AsyncFrameBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+
+/**
+ * The asynchronous counterpart of {@link TMultiplexedProcessor} for a single service. AMS clients
+ * call through {@link TMultiplexedProtocol}, which prefixes method names with the service name,
+ * while thrift only ships a synchronous multiplexed processor. This processor strips the prefix
+ * and dispatches the call to the {@link AsyncProcessFunction} of the method.
+ */
+public class MultiplexedAsyncProcessor<I> extends TBaseAsyncProcessor<I> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MultiplexedAsyncProcessor.class);
+
+  private final String methodPrefix;
+  private final I iface;
+  private final Map<String, AsyncProcessFunction<I, ? extends TBase, ?>> processMap;
+
+  public MultiplexedAsyncProcessor(String serviceName, TBaseAsyncProcessor<I> processor, I iface) {
+    super(iface, processor.getProcessMapView());
+    this.methodPrefix = serviceName + TMultiplexedProtocol.SEPARATOR;
+    this.iface = iface;
+    this.processMap = processor.getProcessMapView();
+  }
+
+  @Override
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public void process(AsyncFrameBuffer fb) throws TException {
+    TProtocol in = fb.getInputProtocol();
+    TMessage message = in.readMessageBegin();
+    AsyncProcessFunction function =
+        message.name.startsWith(methodPrefix)
+            ? processMap.get(message.name.substring(methodPrefix.length()))
+            : null;
+    if (function == null) {
+      TProtocolUtil.skip(in, TType.STRUCT);
+      in.readMessageEnd();
+      writeException(
+          fb,
+          message,
+          new TApplicationException(
+              TApplicationException.UNKNOWN_METHOD,
+              "Invalid method name: '" + message.name + "'"));
+      return;
+    }
+
+    TBase args = function.getEmptyArgsInstance();
+    try {
+      args.read(in);
+    } catch (TProtocolException e) {
+      in.readMessageEnd();
+      writeException(
+          fb,
+          message,
+          new TApplicationException(TApplicationException.PROTOCOL_ERROR, e.getMessage()));
+      return;
+    }
+    in.readMessageEnd();
+
+    AsyncMethodCallback resultHandler = function.getResultHandler(fb, message.seqid);
+    try {
+      function.start(iface, args, resultHandler);
+    } catch (Exception e) {
+      LOG.error("Failed to start thrift method {}", message.name, e);
+      resultHandler.onError(e);
+    }
+  }
+
+  private void writeException(AsyncFrameBuffer fb, TMessage message, TApplicationException e)
+      throws TException {
+    TProtocol out = fb.getOutputProtocol();
+    out.writeMessageBegin(new TMessage(message.name, TMessageType.EXCEPTION, message.seqid));
+    e.write(out);
+    out.writeMessageEnd();
+    out.getTransport().flush();
+    fb.responseReady();
+  }
+}
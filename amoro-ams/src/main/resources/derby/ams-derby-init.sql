@@ -157,6 +157,7 @@ CREATE TABLE task_runtime (
     fail_reason     VARCHAR(4096),
     optimizer_token VARCHAR(50),
     thread_id       INT,
+    rewrite_input   BLOB,
     rewrite_output  BLOB,
     metrics_summary CLOB,
     properties      CLOB,
@@ -270,6 +270,7 @@ CREATE TABLE task_runtime
     fail_reason VARCHAR(4096),
     optimizer_token VARCHAR(50),
     thread_id INT,
+    rewrite_input BYTEA,
     rewrite_output BYTEA,
     metrics_summary TEXT,
     properties TEXT,
@@ -291,6 +292,7 @@ COMMENT ON COLUMN task_runtime.status IS 'Optimize Status: PLANNED, SCHEDULED, A
 COMMENT ON COLUMN task_runtime.fail_reason IS 'Error message after task failure';
 COMMENT ON COLUMN task_runtime.optimizer_token IS 'Job type';
 COMMENT ON COLUMN task_runtime.thread_id IS 'Job ID';
+COMMENT ON COLUMN task_runtime.rewrite_input IS 'Rewrite files input';
 COMMENT ON COLUMN task_runtime.rewrite_output IS 'Rewrite files output';
 COMMENT ON COLUMN task_runtime.metrics_summary IS 'Metrics summary';
 COMMENT ON COLUMN task_runtime.properties IS 'Task properties';
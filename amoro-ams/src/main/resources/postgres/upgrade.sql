@@ -119,4 +119,7 @@ SET properties = jsonb_set(
         '{flink-conf.taskmanager.memory.process.size}',
         ('"' || (properties::jsonb->>'flink-conf.taskmanager.memory.process.size') || 'MB"')::jsonb
     )
-WHERE (properties::jsonb->>'flink-conf.taskmanager.memory.process.size') ~ '^[0-9]+$';
\ No newline at end of file
+WHERE (properties::jsonb->>'flink-conf.taskmanager.memory.process.size') ~ '^[0-9]+$';
+-- persist rewrite input per task
+ALTER TABLE task_runtime ADD COLUMN rewrite_input BYTEA;
+COMMENT ON COLUMN task_runtime.rewrite_input IS 'Rewrite files input';
@@ -86,6 +86,15 @@ public class TestAmoroManagementConfValidator {
 
     configurations.setString(AmoroManagementConf.HA_ZOOKEEPER_ADDRESS, "127.0.0.1:2181");
     AmoroManagementConfValidator.validateConfig(configurations);
+
+    configurations.setBoolean(AmoroManagementConf.HA_SHARDING_ENABLED, true);
+    configurations.setInteger(AmoroManagementConf.HA_SHARDING_BUCKET_NUM, 0);
+    Assert.assertThrows(
+        IllegalArgumentException.class,
+        () -> AmoroManagementConfValidator.validateConfig(configurations));
+
+    configurations.setInteger(AmoroManagementConf.HA_SHARDING_BUCKET_NUM, 64);
+    AmoroManagementConfValidator.validateConfig(configurations);
   }
 
   @Test
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server;
+
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableSet;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TestBucketAssigner {
+
+  @Test
+  public void testAssignWithoutPreviousAssignment() {
+    Map<String, List<Integer>> assignment =
+        BucketAssigner.assign(
+            8, Collections.emptyMap(), Lists.newArrayList("a", "b", "c"), Collections.emptySet());
+    Assert.assertEquals(3, assignment.size());
+    assertAllAssigned(8, assignment);
+    assignment.values().forEach(buckets -> Assert.assertTrue(buckets.size() >= 2));
+    assignment.values().forEach(buckets -> Assert.assertTrue(buckets.size() <= 3));
+  }
+
+  @Test
+  public void testAssignWithoutMembers() {
+    Assert.assertTrue(
+        BucketAssigner.assign(
+                8, Collections.emptyMap(), Collections.emptyList(), Collections.emptySet())
+            .isEmpty());
+  }
+
+  @Test
+  public void testMemberJoined() {
+    Map<String, List<Integer>> previous =
+        ImmutableMap.of("a", Lists.newArrayList(0, 1, 2, 3), "b", Lists.newArrayList(4, 5, 6, 7));
+    Map<String, List<Integer>> assignment =
+        BucketAssigner.assign(
+            8, previous, Lists.newArrayList("a", "b", "c"), Collections.emptySet());
+    assertAllAssigned(8, assignment);
+    Assert.assertEquals(2, assignment.get("c").size());
+    Assert.assertTrue(previous.get("a").containsAll(assignment.get("a")));
+    Assert.assertTrue(previous.get("b").containsAll(assignment.get("b")));
+  }
+
+  @Test
+  public void testMemberLeft() {
+    Map<String, List<Integer>> previous =
+        ImmutableMap.of(
+            "a", Lists.newArrayList(0, 1, 2),
+            "b", Lists.newArrayList(3, 4, 5),
+            "c", Lists.newArrayList(6, 7, 8));
+    Map<String, List<Integer>> assignment =
+        BucketAssigner.assign(9, previous, Lists.newArrayList("a", "b"), Collections.emptySet());
+    assertAllAssigned(9, assignment);
+    Assert.assertFalse(assignment.containsKey("c"));
+    Assert.assertTrue(assignment.get("a").containsAll(previous.get("a")));
+    Assert.assertTrue(assignment.get("b").containsAll(previous.get("b")));
+  }
+
+  @Test
+  public void testBalanceOccupiedBuckets() {
+    Map<String, List<Integer>> previous =
+        ImmutableMap.of("a", Lists.newArrayList(0, 1, 2, 3), "b", Lists.newArrayList(4, 5, 6, 7));
+    Set<Integer> occupiedBuckets = ImmutableSet.of(0, 1);
+    Map<String, List<Integer>> assignment =
+        BucketAssigner.assign(8, previous, Lists.newArrayList("a", "b"), occupiedBuckets);
+    assertAllAssigned(8, assignment);
+    Assert.assertEquals(4, assignment.get("a").size());
+    Assert.assertEquals(4, assignment.get("b").size());
+    assignment
+        .values()
+        .forEach(
+            buckets ->
+                Assert.assertEquals(
+                    1, buckets.stream().filter(occupiedBuckets::contains).count()));
+  }
+
+  @Test
+  public void testFenceHeldBuckets() {
+    Map<String, List<Integer>> assignment =
+        ImmutableMap.of("a", Lists.newArrayList(0, 1, 2), "b", Lists.newArrayList(3, 4, 5));
+    // bucket 3 moves from a to b and bucket 2 from b to a, neither is released yet
+    Map<String, Set<Integer>> heldBuckets =
+        ImmutableMap.of("a", ImmutableSet.of(0, 1, 3), "b", ImmutableSet.of(2, 4));
+    Map<String, List<Integer>> fenced = BucketAssigner.fence(assignment, heldBuckets);
+    Assert.assertEquals(Lists.newArrayList(0, 1), fenced.get("a"));
+    Assert.assertEquals(Lists.newArrayList(4, 5), fenced.get("b"));
+  }
+
+  private void assertAllAssigned(int bucketNum, Map<String, List<Integer>> assignment) {
+    List<Integer> assignedBuckets =
+        assignment.values().stream()
+            .flatMap(List::stream)
+            .sorted()
+            .collect(Collectors.toList());
+    Assert.assertEquals(
+        IntStream.range(0, bucketNum).boxed().collect(Collectors.toList()), assignedBuckets);
+  }
+}
@@ -32,6 +32,8 @@ import org.apache.amoro.api.OptimizingTaskId;
 import org.apache.amoro.api.OptimizingTaskResult;
 import org.apache.amoro.catalog.BasicCatalogTestHelper;
 import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.client.BucketAssignment;
+import org.apache.amoro.config.Configurations;
 import org.apache.amoro.exception.IllegalTaskStateException;
 import org.apache.amoro.exception.PluginRetryAuthException;
 import org.apache.amoro.io.MixedDataTestHelpers;
@@ -40,14 +42,18 @@ import org.apache.amoro.optimizing.RewriteFilesOutput;
 import org.apache.amoro.optimizing.TableOptimizing;
 import org.apache.amoro.optimizing.plan.AbstractOptimizingEvaluator;
 import org.apache.amoro.process.ProcessStatus;
+import org.apache.amoro.resource.ResourceGroup;
 import org.apache.amoro.server.dashboard.model.TableOptimizingInfo;
 import org.apache.amoro.server.optimizing.OptimizingProcess;
 import org.apache.amoro.server.optimizing.OptimizingStatus;
 import org.apache.amoro.server.optimizing.TaskRuntime;
 import org.apache.amoro.server.resource.OptimizerInstance;
 import org.apache.amoro.server.table.AMSTableTestBase;
+import org.apache.amoro.server.table.DefaultTableService;
 import org.apache.amoro.server.table.TableManager;
+import org.apache.amoro.server.table.TableOwnership;
 import org.apache.amoro.server.table.TableRuntime;
+import org.apache.amoro.server.table.TableRuntimePersistence;
 import org.apache.amoro.server.table.executor.TableRuntimeRefreshExecutor;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
@@ -72,6 +78,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RunWith(Parameterized.class)
 public class TestDefaultOptimizingService extends AMSTableTestBase {
@@ -231,7 +239,7 @@ public class TestDefaultOptimizingService extends AMSTableTestBase {
     OptimizerInstance optimizer = optimizerManager().listOptimizers().get(0);
     long oldTouchTime = optimizer.getTouchTime();
     Thread.sleep(1);
-    optimizingService().touch(token);
+    optimizingService().touch(token, Collections.emptyMap());
     OptimizerInstance optimizerAfterTouched = optimizerManager().listOptimizers().get(0);
     Assertions.assertTrue(optimizerAfterTouched.getTouchTime() > oldTouchTime);
   }
@@ -243,7 +251,9 @@ public class TestDefaultOptimizingService extends AMSTableTestBase {
     toucher.stop();
     toucher = null;
     Thread.sleep(1000);
-    Assertions.assertThrows(PluginRetryAuthException.class, () -> optimizingService().touch(token));
+    Assertions.assertThrows(
+        PluginRetryAuthException.class,
+        () -> optimizingService().touch(token, Collections.emptyMap()));
     Assertions.assertThrows(
         PluginRetryAuthException.class, () -> optimizingService().pollTask(token, THREAD_ID));
     assertTaskStatus(TaskRuntime.Status.SCHEDULED);
@@ -637,6 +647,55 @@ public class TestDefaultOptimizingService extends AMSTableTestBase {
     Assert.assertTrue(res.getLeft().isEmpty());
   }
 
+  @Test
+  public void testPollWhileGroupMovedAway() {
+    String group = "sharded";
+    int bucketNum = 8;
+    TableOwnership ownership =
+        new TableOwnership(
+            bucketNum,
+            Collections.singleton(BucketAssignment.bucketOf(group, bucketNum)),
+            () -> false);
+    DefaultTableService shardedTableService =
+        new DefaultTableService(new Configurations(), CATALOG_MANAGER, ownership);
+    DefaultOptimizingService shardedService =
+        new DefaultOptimizingService(
+            new Configurations(),
+            CATALOG_MANAGER,
+            TABLE_MANAGER,
+            OPTIMIZER_MANAGER,
+            shardedTableService);
+    shardedTableService.addHandlerChain(shardedService.getTableRuntimeHandler());
+    shardedTableService.initialize();
+    OptimizerRegisterInfo registerInfo = buildRegisterInfo();
+    registerInfo.setGroupName(group);
+    registerInfo.setResourceId(group);
+    try {
+      shardedService.createResourceGroup(new ResourceGroup.Builder(group, "local").build());
+      String shardedToken = shardedService.authenticate(registerInfo);
+      CompletableFuture<OptimizingTask> poll =
+          shardedService.pollTaskAsync(shardedToken, THREAD_ID);
+      Assert.assertFalse(poll.isDone());
+
+      // the group moves to another node while the optimizer is waiting for a task
+      ownership.setBuckets(Collections.emptySet());
+      CompletionException exception = Assert.assertThrows(CompletionException.class, poll::join);
+      Assert.assertTrue(exception.getCause() instanceof PluginRetryAuthException);
+      Assert.assertThrows(
+          PluginRetryAuthException.class, () -> shardedService.pollTask(shardedToken, THREAD_ID));
+      Assert.assertThrows(
+          PluginRetryAuthException.class, () -> shardedService.authenticate(registerInfo));
+    } finally {
+      optimizingService().deleteOptimizer(group, group);
+      optimizerManager().deleteResourceGroup(group);
+      shardedService.dispose();
+      shardedTableService.dispose();
+      // the shared persistence is stopped by the disposed service
+      TableRuntimePersistence.getInstance()
+          .start(AmoroManagementConf.TABLE_RUNTIME_FLUSH_INTERVAL.defaultValue().toMillis());
+    }
+  }
+
   private OptimizerRegisterInfo buildRegisterInfo() {
     OptimizerRegisterInfo registerInfo = new OptimizerRegisterInfo();
     Map<String, String> registerProperties = Maps.newHashMap();
@@ -748,7 +807,7 @@ public class TestDefaultOptimizingService extends AMSTableTestBase {
           Thread.sleep(300);
           synchronized (this) {
             if (!suspend) {
-              optimizingService().touch(token);
+              optimizingService().touch(token, Collections.emptyMap());
             }
           }
         } catch (PluginRetryAuthException e) {
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server;
+
+import org.apache.amoro.config.Configurations;
+import org.apache.amoro.server.table.DerbyPersistence;
+import org.apache.curator.test.TestingServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TestHighAvailabilityContainer {
+
+  @ClassRule public static DerbyPersistence DERBY = new DerbyPersistence();
+
+  private static final int BUCKET_NUM = 4;
+  private static final long TIMEOUT = TimeUnit.SECONDS.toMillis(30);
+
+  private final List<HighAvailabilityContainer> containers = new ArrayList<>();
+  private TestingServer zkServer;
+
+  @Before
+  public void startZookeeper() throws Exception {
+    zkServer = new TestingServer(true);
+  }
+
+  @After
+  public void stopZookeeper() throws IOException {
+    containers.forEach(HighAvailabilityContainer::close);
+    containers.clear();
+    zkServer.close();
+  }
+
+  @Test(timeout = 120000)
+  public void testHandOverBucketsAfterRelease() throws Exception {
+    HighAvailabilityContainer first = createContainer(1);
+    first.waitLeaderShip();
+    Assert.assertEquals(allBuckets(), first.getTableOwnership().getBuckets());
+
+    // the first node is slow to release the tables of the buckets moving away
+    CountDownLatch released = new CountDownLatch(1);
+    first.getTableOwnership().addListener(() -> awaitQuietly(released));
+    HighAvailabilityContainer second = createContainer(2);
+    CompletableFuture<Void> secondServing = waitLeaderShipAsync(second);
+    waitUntil(() -> first.getTableOwnership().getBuckets().size() < BUCKET_NUM);
+    Thread.sleep(1000);
+    Assert.assertFalse(secondServing.isDone());
+
+    released.countDown();
+    secondServing.get(TIMEOUT, TimeUnit.MILLISECONDS);
+    assertBucketsShared(first, second);
+
+    // buckets of a leaving node are taken over by the remaining node
+    closeContainer(second);
+    waitUntil(() -> first.getTableOwnership().getBuckets().equals(allBuckets()));
+  }
+
+  @Test(timeout = 120000)
+  public void testRestartWhenReleaseFailed() throws Exception {
+    HighAvailabilityContainer first = createContainer(1);
+    first.waitLeaderShip();
+    Runnable failingListener =
+        () -> {
+          throw new IllegalStateException("Release tables failed");
+        };
+    first.getTableOwnership().addListener(failingListener);
+
+    HighAvailabilityContainer second = createContainer(2);
+    CompletableFuture<Void> secondServing = waitLeaderShipAsync(second);
+    // the first node restarts and keeps holding its buckets until its services are disposed
+    first.waitFollowerShip();
+    Thread.sleep(1000);
+    Assert.assertFalse(secondServing.isDone());
+
+    first.getTableOwnership().removeListener(failingListener);
+    first.waitLeaderShip();
+    secondServing.get(TIMEOUT, TimeUnit.MILLISECONDS);
+    assertBucketsShared(first, second);
+  }
+
+  @Test(timeout = 120000)
+  public void testStopServingWhenDisconnected() throws Exception {
+    HighAvailabilityContainer container = createContainer(1);
+    container.waitLeaderShip();
+    Assert.assertEquals(allBuckets(), container.getTableOwnership().getBuckets());
+
+    zkServer.stop();
+    container.waitFollowerShip();
+    Assert.assertTrue(container.getTableOwnership().getBuckets().isEmpty());
+
+    zkServer.restart();
+    container.waitLeaderShip();
+    Assert.assertEquals(allBuckets(), container.getTableOwnership().getBuckets());
+  }
+
+  private HighAvailabilityContainer createContainer(int node) throws Exception {
+    Configurations serviceConfig = new Configurations();
+    serviceConfig.set(AmoroManagementConf.HA_ENABLE, true);
+    serviceConfig.set(AmoroManagementConf.HA_ZOOKEEPER_ADDRESS, zkServer.getConnectString());
+    serviceConfig.set(AmoroManagementConf.HA_CLUSTER_NAME, "test");
+    serviceConfig.set(AmoroManagementConf.HA_SHARDING_ENABLED, true);
+    serviceConfig.set(AmoroManagementConf.HA_SHARDING_BUCKET_NUM, BUCKET_NUM);
+    serviceConfig.set(AmoroManagementConf.SERVER_EXPOSE_HOST, "127.0.0.1");
+    serviceConfig.set(AmoroManagementConf.TABLE_SERVICE_THRIFT_BIND_PORT, 1260 + node * 10);
+    serviceConfig.set(AmoroManagementConf.OPTIMIZING_SERVICE_THRIFT_BIND_PORT, 1261 + node * 10);
+    HighAvailabilityContainer container = new HighAvailabilityContainer(serviceConfig);
+    containers.add(container);
+    return container;
+  }
+
+  private void closeContainer(HighAvailabilityContainer container) {
+    containers.remove(container);
+    container.close();
+  }
+
+  private static CompletableFuture<Void> waitLeaderShipAsync(HighAvailabilityContainer container) {
+    return CompletableFuture.runAsync(
+        () -> {
+          try {
+            container.waitLeaderShip();
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        });
+  }
+
+  private static void assertBucketsShared(
+      HighAvailabilityContainer first, HighAvailabilityContainer second) {
+    Set<Integer> firstBuckets = first.getTableOwnership().getBuckets();
+    Set<Integer> secondBuckets = second.getTableOwnership().getBuckets();
+    Assert.assertEquals(BUCKET_NUM / 2, firstBuckets.size());
+    Assert.assertEquals(BUCKET_NUM / 2, secondBuckets.size());
+    Set<Integer> buckets = new HashSet<>(firstBuckets);
+    buckets.addAll(secondBuckets);
+    Assert.assertEquals(allBuckets(), buckets);
+  }
+
+  private static Set<Integer> allBuckets() {
+    return IntStream.range(0, BUCKET_NUM).boxed().collect(Collectors.toSet());
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + TIMEOUT;
+    while (!condition.getAsBoolean()) {
+      Assert.assertTrue(
+          "Timed out waiting for the condition", System.currentTimeMillis() < deadline);
+      Thread.sleep(100);
+    }
+  }
+}
@@ -50,6 +50,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -223,5 +225,45 @@ public class TestInternalIcebergCatalogService extends RestCatalogServiceTestBas
           MixedDataTestHelpers.readBaseStore(mixedTable, reader, Expressions.alwaysTrue());
       Assertions.assertEquals(newRecords.size(), records.size());
     }
+
+    @Test
+    public void testLoadTableNotModified() throws IOException {
+      Table tbl = nsCatalog.createTable(identifier, schema);
+
+      HttpURLConnection connection = openLoadTable(null);
+      Assertions.assertEquals(200, connection.getResponseCode());
+      String etag = connection.getHeaderField("ETag");
+      Assertions.assertNotNull(etag);
+
+      LOG.info("Assert unchanged table is not modified");
+      connection = openLoadTable(etag);
+      Assertions.assertEquals(304, connection.getResponseCode());
+      Assertions.assertEquals(etag, connection.getHeaderField("ETag"));
+
+      LOG.info("Assert committed table is modified");
+      tbl.updateProperties().set("k1", "v1").commit();
+      connection = openLoadTable(etag);
+      Assertions.assertEquals(200, connection.getResponseCode());
+      Assertions.assertNotEquals(etag, connection.getHeaderField("ETag"));
+      Assertions.assertEquals("v1", nsCatalog.loadTable(identifier).properties().get("k1"));
+    }
+
+    private HttpURLConnection openLoadTable(String ifNoneMatch) throws IOException {
+      URL url =
+          new URL(
+              ams.getHttpUrl()
+                  + restCatalogUri
+                  + "/v1/catalogs/"
+                  + catalogName()
+                  + "/namespaces/"
+                  + database
+                  + "/tables/"
+                  + table);
+      HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      if (ifNoneMatch != null) {
+        connection.setRequestProperty("If-None-Match", ifNoneMatch);
+      }
+      return connection;
+    }
   }
 }
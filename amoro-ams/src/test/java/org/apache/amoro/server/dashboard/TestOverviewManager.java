@@ -31,7 +31,10 @@ import org.apache.amoro.catalog.BasicCatalogTestHelper;
 import org.apache.amoro.catalog.CatalogTestHelper;
 import org.apache.amoro.io.MixedDataTestHelpers;
 import org.apache.amoro.server.dashboard.model.OverviewTopTableItem;
+import org.apache.amoro.server.optimizing.OptimizingStatus;
+import org.apache.amoro.server.persistence.TableRuntimeMeta;
 import org.apache.amoro.server.table.AMSTableTestBase;
+import org.apache.amoro.server.table.RuntimeHandlerChain;
 import org.apache.amoro.server.table.TableRuntime;
 import org.apache.amoro.server.table.executor.TableRuntimeRefreshExecutor;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
@@ -49,6 +52,8 @@ import org.junit.runners.Parameterized;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 @RunWith(Parameterized.class)
@@ -71,7 +76,7 @@ public class TestOverviewManager extends AMSTableTestBase {
   public void prepare() {
     createDatabase();
     createTable();
-    this.overviewManager = new OverviewManager(10, Duration.ofMinutes(0));
+    this.overviewManager = new OverviewManager(10, Duration.ofMinutes(0), Duration.ofMinutes(0));
     this.overviewManager.refresh();
   }
 
@@ -150,4 +155,99 @@ public class TestOverviewManager extends AMSTableTestBase {
     allTopTableItem = overviewManager.getAllTopTableItem();
     Assertions.assertEquals(100, allTopTableItem.get(0).getHealthScore());
   }
+
+  @Test
+  public void testOverviewUpdatedByEvents() {
+    OverviewManager eventOverviewManager =
+        new OverviewManager(10, Duration.ofMinutes(0), Duration.ofHours(1));
+    RuntimeHandlerChain handler = eventOverviewManager.getTableRuntimeHandler();
+    TableRuntime runtime = tableService().getRuntime(serverTableIdentifier().getId());
+    handler.initialize(Collections.singletonList(runtime));
+    try {
+      Assertions.assertEquals(1, eventOverviewManager.getTotalTableCount());
+      Assertions.assertEquals(0, eventOverviewManager.getTotalDataSize());
+      Assertions.assertEquals(1, eventOverviewManager.getOptimizingStatus().get(STATUS_IDLE));
+
+      // insert data, the overview is updated by the status changed event without refreshing
+      initTableWithFiles();
+      refreshPending();
+      handler.fireStatusChanged(runtime, OptimizingStatus.IDLE);
+
+      Assertions.assertTrue(eventOverviewManager.getTotalDataSize() > 0);
+      Assertions.assertEquals(1, eventOverviewManager.getOptimizingStatus().get(STATUS_PENDING));
+      Assertions.assertEquals(0, eventOverviewManager.getOptimizingStatus().get(STATUS_IDLE));
+      List<OverviewTopTableItem> topTableItems =
+          eventOverviewManager.getTopTableItems(
+              Comparator.comparingLong(OverviewTopTableItem::getTableSize).reversed(), 10);
+      Assertions.assertEquals(1, topTableItems.size());
+      Assertions.assertEquals(
+          eventOverviewManager.getTotalDataSize(), topTableItems.get(0).getTableSize());
+
+      // insert more data, the table stays pending and only the pending input changes
+      long pendingDataSize = eventOverviewManager.getTotalDataSize();
+      appendData(
+          ((MixedTable) tableService().loadTable(serverTableIdentifier()).originalTable())
+              .asUnkeyedTable(),
+          3);
+      runtime.refresh(tableService().loadTable(serverTableIdentifier()));
+      refreshPending();
+      Assertions.assertEquals(OptimizingStatus.PENDING, runtime.getOptimizingStatus());
+      handler.firePendingInputChanged(runtime);
+
+      Assertions.assertTrue(eventOverviewManager.getTotalDataSize() > pendingDataSize);
+      Assertions.assertEquals(1, eventOverviewManager.getOptimizingStatus().get(STATUS_PENDING));
+
+      handler.fireTableRemoved(runtime);
+      Assertions.assertEquals(0, eventOverviewManager.getTotalTableCount());
+      Assertions.assertEquals(0, eventOverviewManager.getTotalDataSize());
+      Assertions.assertEquals(0, eventOverviewManager.getOptimizingStatus().get(STATUS_PENDING));
+    } finally {
+      handler.dispose();
+    }
+  }
+
+  @Test
+  public void testReconcileKeepsNewerEvents() {
+    OverviewManager eventOverviewManager =
+        new OverviewManager(10, Duration.ofMinutes(0), Duration.ofHours(1));
+    RuntimeHandlerChain handler = eventOverviewManager.getTableRuntimeHandler();
+    TableRuntime runtime = tableService().getRuntime(serverTableIdentifier().getId());
+    handler.initialize(Collections.singletonList(runtime));
+    try {
+      // the row read from the database still lags behind the pending event
+      long readSequence = eventOverviewManager.eventSequence();
+      TableRuntimeMeta laggingMeta = new TableRuntimeMeta();
+      laggingMeta.setTableId(serverTableIdentifier().getId());
+      laggingMeta.setCatalogName(serverTableIdentifier().getCatalog());
+      laggingMeta.setDbName(serverTableIdentifier().getDatabase());
+      laggingMeta.setTableName(serverTableIdentifier().getTableName());
+      laggingMeta.setTableStatus(OptimizingStatus.IDLE);
+      initTableWithFiles();
+      refreshPending();
+      handler.fireStatusChanged(runtime, OptimizingStatus.IDLE);
+      long pendingDataSize = eventOverviewManager.getTotalDataSize();
+      Assertions.assertTrue(pendingDataSize > 0);
+
+      eventOverviewManager.reconcileTables(Collections.singletonList(laggingMeta), readSequence);
+      Assertions.assertEquals(1, eventOverviewManager.getTotalTableCount());
+      Assertions.assertEquals(pendingDataSize, eventOverviewManager.getTotalDataSize());
+      Assertions.assertEquals(1, eventOverviewManager.getOptimizingStatus().get(STATUS_PENDING));
+      Assertions.assertEquals(0, eventOverviewManager.getOptimizingStatus().get(STATUS_IDLE));
+
+      // a read after the event is applied
+      eventOverviewManager.reconcileTables(
+          Collections.singletonList(laggingMeta), eventOverviewManager.eventSequence());
+      Assertions.assertEquals(0, eventOverviewManager.getTotalDataSize());
+      Assertions.assertEquals(0, eventOverviewManager.getOptimizingStatus().get(STATUS_PENDING));
+      Assertions.assertEquals(1, eventOverviewManager.getOptimizingStatus().get(STATUS_IDLE));
+
+      // a table removed after the read is not restored from the database
+      readSequence = eventOverviewManager.eventSequence();
+      handler.fireTableRemoved(runtime);
+      eventOverviewManager.reconcileTables(Collections.singletonList(laggingMeta), readSequence);
+      Assertions.assertEquals(0, eventOverviewManager.getTotalTableCount());
+    } finally {
+      handler.dispose();
+    }
+  }
 }
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.optimizing;
+
+import org.apache.amoro.ServerTableIdentifier;
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.api.BlockableOperation;
+import org.apache.amoro.config.TableConfiguration;
+import org.apache.amoro.resource.ResourceGroup;
+import org.apache.amoro.server.optimizing.sorter.QuotaOccupySorter;
+import org.apache.amoro.server.persistence.TableRuntimeMeta;
+import org.apache.amoro.server.table.RuntimeHandlerChain;
+import org.apache.amoro.server.table.TableConfigurations;
+import org.apache.amoro.server.table.TableRuntime;
+import org.apache.amoro.server.table.TableRuntimeHandler;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for picking the next table to plan from an optimizer group, comparing the indexed
+ * {@link SchedulingPolicy} with the full scan of all tables which was used before.
+ *
+ * <p>Run it with {@code main} method from the test classpath, the blocker checking is skipped for
+ * both implementations as it needs a database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class SchedulingPolicyBenchmark {
+
+  @Param({"1000", "10000", "100000"})
+  private int tableCount;
+
+  private final List<TableRuntime> tableRuntimes = new ArrayList<>();
+  private SchedulingPolicy schedulingPolicy;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    TableConfiguration tableConfiguration = TableConfigurations.parseTableConfig(Maps.newHashMap());
+    for (long id = 1; id <= tableCount; id++) {
+      TableRuntimeMeta meta = new TableRuntimeMeta();
+      meta.setTableId(id);
+      meta.setCatalogName("catalog");
+      meta.setDbName("db");
+      meta.setTableName("table" + id);
+      meta.setFormat(TableFormat.ICEBERG);
+      meta.setTableStatus(id % 2 == 0 ? OptimizingStatus.PENDING : OptimizingStatus.IDLE);
+      meta.setCurrentSnapshotId(id);
+      meta.setLastMinorOptimizingTime(id);
+      meta.setTableConfig(tableConfiguration);
+      meta.setOptimizerGroup("benchmark");
+      tableRuntimes.add(new BenchmarkTableRuntime(meta));
+    }
+    schedulingPolicy =
+        new SchedulingPolicy(new ResourceGroup.Builder("benchmark", "local").build());
+    tableRuntimes.forEach(schedulingPolicy::addTable);
+  }
+
+  @Benchmark
+  public TableRuntime indexedSchedule() {
+    TableRuntime tableRuntime = schedulingPolicy.scheduleTable(new HashSet<>());
+    // Index the table again as what is done after planning
+    schedulingPolicy.addTable(tableRuntime);
+    return tableRuntime;
+  }
+
+  @Benchmark
+  public TableRuntime fullScanSchedule() {
+    Set<ServerTableIdentifier> skipSet = new HashSet<>();
+    long currentTime = System.currentTimeMillis();
+    tableRuntimes.stream()
+        .filter(
+            tableRuntime ->
+                !isTablePending(tableRuntime)
+                    || tableRuntime.isBlocked(BlockableOperation.OPTIMIZE)
+                    || currentTime - tableRuntime.getLastPlanTime()
+                        < tableRuntime.getOptimizingConfig().getMinPlanInterval())
+        .forEach(tableRuntime -> skipSet.add(tableRuntime.getTableIdentifier()));
+    Comparator<TableRuntime> sorter = new QuotaOccupySorter().createComparator();
+    return tableRuntimes.stream()
+        .filter(tableRuntime -> !skipSet.contains(tableRuntime.getTableIdentifier()))
+        .min(sorter)
+        .orElse(null);
+  }
+
+  private static boolean isTablePending(TableRuntime tableRuntime) {
+    return tableRuntime.getOptimizingStatus() == OptimizingStatus.PENDING
+        && (tableRuntime.getLastOptimizedSnapshotId() != tableRuntime.getCurrentSnapshotId()
+            || tableRuntime.getLastOptimizedChangeSnapshotId()
+                != tableRuntime.getCurrentChangeSnapshotId());
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    Options options =
+        new OptionsBuilder().include(SchedulingPolicyBenchmark.class.getSimpleName()).build();
+    new Runner(options).run();
+  }
+
+  private static class BenchmarkTableRuntime extends TableRuntime {
+
+    BenchmarkTableRuntime(TableRuntimeMeta meta) {
+      super(meta, new NoopTableRuntimeHandler());
+    }
+
+    @Override
+    public boolean isBlocked(BlockableOperation operation) {
+      return false;
+    }
+  }
+
+  private static class NoopTableRuntimeHandler implements TableRuntimeHandler {
+
+    @Override
+    public void addHandlerChain(RuntimeHandlerChain handler) {}
+
+    @Override
+    public void handleTableChanged(TableRuntime tableRuntime, OptimizingStatus originalStatus) {}
+
+    @Override
+    public void handleTableChanged(TableRuntime tableRuntime, TableConfiguration originalConfig) {}
+
+    @Override
+    public void handlePendingInputChanged(TableRuntime tableRuntime) {}
+  }
+}
@@ -23,14 +23,20 @@ import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER
 import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_EXECUTING_TABLES;
 import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_EXECUTING_TASKS;
 import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_IDLE_TABLES;
+import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_INPUT_BYTES_PER_SECOND;
+import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_INPUT_RECORDS_PER_SECOND;
 import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_MEMORY_BYTES_ALLOCATED;
 import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_OPTIMIZER_INSTANCES;
 import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_PENDING_TABLES;
 import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_PENDING_TASKS;
 import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_PLANING_TABLES;
+import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_POLL_TASK_DURATION;
+import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_SPILL_BYTES;
+import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_TASK_EXECUTE_DURATION;
 import static org.apache.amoro.server.optimizing.OptimizerGroupMetrics.OPTIMIZER_GROUP_THREADS;
 
 import org.apache.amoro.BasicTableTestHelper;
+import org.apache.amoro.OptimizerReportedMetrics;
 import org.apache.amoro.TableFormat;
 import org.apache.amoro.TableTestHelper;
 import org.apache.amoro.api.OptimizerRegisterInfo;
@@ -41,6 +47,7 @@ import org.apache.amoro.catalog.CatalogTestHelper;
 import org.apache.amoro.io.MixedDataTestHelpers;
 import org.apache.amoro.metrics.Gauge;
 import org.apache.amoro.metrics.MetricKey;
+import org.apache.amoro.metrics.Timer;
 import org.apache.amoro.optimizing.RewriteFilesOutput;
 import org.apache.amoro.optimizing.TableOptimizing;
 import org.apache.amoro.process.ProcessStatus;
@@ -72,8 +79,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(Parameterized.class)
 public class TestOptimizingQueue extends AMSTableTestBase {
@@ -201,6 +210,29 @@ public class TestOptimizingQueue extends AMSTableTestBase {
     queue.dispose();
   }
 
+  @Test
+  public void testRetryTaskWakesOneWaiter() throws Exception {
+    TableRuntime tableRuntimeMeta = initTableWithFiles();
+    OptimizingQueue queue = buildOptimizingGroupService(tableRuntimeMeta);
+    TaskRuntime<?> task = queue.pollTask(MAX_POLLING_TIME);
+    Assert.assertNotNull(task);
+
+    CompletableFuture<List<TaskRuntime<?>>> firstPoll = queue.pollTasksAsync(MAX_POLLING_TIME, 1);
+    CompletableFuture<List<TaskRuntime<?>>> secondPoll = queue.pollTasksAsync(MAX_POLLING_TIME, 1);
+    Assert.assertFalse(firstPoll.isDone());
+    Assert.assertFalse(secondPoll.isDone());
+
+    // the retried task is handed over to the earliest waiter only
+    queue.retryTask(task);
+    List<TaskRuntime<?>> tasks = firstPoll.get(MAX_POLLING_TIME, TimeUnit.MILLISECONDS);
+    Assert.assertEquals(1, tasks.size());
+    Assert.assertEquals(task.getTaskId(), tasks.get(0).getTaskId());
+    Assert.assertFalse(secondPoll.isDone());
+
+    queue.dispose();
+    Assert.assertTrue(secondPoll.get(MAX_POLLING_TIME, TimeUnit.MILLISECONDS).isEmpty());
+  }
+
   @Test
   public void testCommitTask() {
     TableRuntime tableRuntime = initTableWithFiles();
@@ -276,6 +308,14 @@ public class TestOptimizingQueue extends AMSTableTestBase {
     Gauge<Long> committingTablesGauge =
         (Gauge<Long>)
             registry.getMetrics().get(new MetricKey(OPTIMIZER_GROUP_COMMITTING_TABLES, tagValues));
+    Timer pollTaskTimer =
+        (Timer)
+            registry.getMetrics().get(new MetricKey(OPTIMIZER_GROUP_POLL_TASK_DURATION, tagValues));
+    Timer taskExecuteTimer =
+        (Timer)
+            registry
+                .getMetrics()
+                .get(new MetricKey(OPTIMIZER_GROUP_TASK_EXECUTE_DURATION, tagValues));
 
     Assert.assertEquals(0, queueTasksGauge.getValue().longValue());
     Assert.assertEquals(0, executingTasksGauge.getValue().longValue());
@@ -287,6 +327,7 @@ public class TestOptimizingQueue extends AMSTableTestBase {
 
     TaskRuntime task = queue.pollTask(MAX_POLLING_TIME);
     Assert.assertNotNull(task);
+    Assert.assertEquals(1, pollTaskTimer.getHistogram().getCount());
     task.schedule(optimizerThread);
     Assert.assertEquals(1, queueTasksGauge.getValue().longValue());
     Assert.assertEquals(0, executingTasksGauge.getValue().longValue());
@@ -308,6 +349,7 @@ public class TestOptimizingQueue extends AMSTableTestBase {
     task.complete(
         optimizerThread,
         buildOptimizingTaskResult(task.getTaskId(), optimizerThread.getThreadId()));
+    Assert.assertEquals(1, taskExecuteTimer.getHistogram().getCount());
     Assert.assertEquals(0, queueTasksGauge.getValue().longValue());
     Assert.assertEquals(0, executingTasksGauge.getValue().longValue());
     Assert.assertEquals(0, planingTablesGauge.getValue().longValue());
@@ -364,6 +406,61 @@ public class TestOptimizingQueue extends AMSTableTestBase {
     queue.dispose();
   }
 
+  @Test
+  public void testOptimizerReportedMetrics() throws InterruptedException {
+    OptimizingQueue queue = buildOptimizingGroupService();
+    MetricRegistry registry = MetricManager.getInstance().getGlobalRegistry();
+    Map<String, String> tagValues = ImmutableMap.of(GROUP_TAG, testResourceGroup().getName());
+    OptimizerRegisterInfo optimizerRegisterInfo =
+        new OptimizerRegisterInfo(
+            2, 2048, System.currentTimeMillis(), testResourceGroup().getName());
+    OptimizerInstance optimizer = new OptimizerInstance(optimizerRegisterInfo, "test_container");
+    queue.addOptimizer(optimizer);
+
+    Gauge<Long> bytesPerSecondGauge =
+        (Gauge<Long>)
+            registry
+                .getMetrics()
+                .get(new MetricKey(OPTIMIZER_GROUP_INPUT_BYTES_PER_SECOND, tagValues));
+    Gauge<Long> recordsPerSecondGauge =
+        (Gauge<Long>)
+            registry
+                .getMetrics()
+                .get(new MetricKey(OPTIMIZER_GROUP_INPUT_RECORDS_PER_SECOND, tagValues));
+    Gauge<Long> spillBytesGauge =
+        (Gauge<Long>)
+            registry.getMetrics().get(new MetricKey(OPTIMIZER_GROUP_SPILL_BYTES, tagValues));
+
+    optimizer.reportMetrics(
+        ImmutableMap.of(
+            OptimizerReportedMetrics.INPUT_BYTES,
+            "0",
+            OptimizerReportedMetrics.INPUT_RECORDS,
+            "0",
+            OptimizerReportedMetrics.SPILL_BYTES,
+            "0"));
+    Assert.assertEquals(0, bytesPerSecondGauge.getValue().longValue());
+    Assert.assertEquals(0, recordsPerSecondGauge.getValue().longValue());
+
+    Thread.sleep(10);
+    optimizer.reportMetrics(
+        ImmutableMap.of(
+            OptimizerReportedMetrics.INPUT_BYTES,
+            "1000000",
+            OptimizerReportedMetrics.INPUT_RECORDS,
+            "10000",
+            OptimizerReportedMetrics.SPILL_BYTES,
+            "1024"));
+    Assert.assertTrue(bytesPerSecondGauge.getValue() > 0);
+    Assert.assertTrue(recordsPerSecondGauge.getValue() > 0);
+    Assert.assertEquals(1024, spillBytesGauge.getValue().longValue());
+
+    queue.removeOptimizer(optimizer);
+    Assert.assertEquals(0, bytesPerSecondGauge.getValue().longValue());
+    Assert.assertEquals(0, spillBytesGauge.getValue().longValue());
+    queue.dispose();
+  }
+
   protected TableRuntime initTableWithFiles() {
     MixedTable mixedTable =
         (MixedTable) tableService().loadTable(serverTableIdentifier()).originalTable();
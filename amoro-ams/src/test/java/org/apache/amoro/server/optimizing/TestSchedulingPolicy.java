@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.optimizing;
+
+import org.apache.amoro.ServerTableIdentifier;
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.api.BlockableOperation;
+import org.apache.amoro.config.OptimizingConfig;
+import org.apache.amoro.resource.ResourceGroup;
+import org.apache.amoro.server.table.TableRuntime;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class TestSchedulingPolicy {
+
+  private final SchedulingPolicy policy =
+      new SchedulingPolicy(
+          new ResourceGroup.Builder("test", "local")
+              .addProperty("scheduling-policy", "balanced")
+              .build());
+
+  @Test
+  public void testScheduleByPriority() {
+    TableRuntime table1 = mockTableRuntime(1L, OptimizingStatus.PENDING, 3000L);
+    TableRuntime table2 = mockTableRuntime(2L, OptimizingStatus.PENDING, 1000L);
+    TableRuntime table3 = mockTableRuntime(3L, OptimizingStatus.PENDING, 2000L);
+    policy.addTable(table1);
+    policy.addTable(table2);
+    policy.addTable(table3);
+
+    Assertions.assertSame(table2, policy.scheduleTable(new HashSet<>()));
+    Assertions.assertSame(table3, policy.scheduleTable(new HashSet<>()));
+    Assertions.assertSame(table1, policy.scheduleTable(new HashSet<>()));
+    Assertions.assertNull(policy.scheduleTable(new HashSet<>()));
+    Assertions.assertEquals(3, policy.getTableRuntimeMap().size());
+  }
+
+  @Test
+  public void testSkipTables() {
+    TableRuntime table1 = mockTableRuntime(1L, OptimizingStatus.PENDING, 1000L);
+    TableRuntime table2 = mockTableRuntime(2L, OptimizingStatus.PENDING, 2000L);
+    policy.addTable(table1);
+    policy.addTable(table2);
+
+    Set<ServerTableIdentifier> skipSet = new HashSet<>();
+    skipSet.add(table1.getTableIdentifier());
+    Assertions.assertSame(table2, policy.scheduleTable(skipSet));
+    // The skipped table is still in the index
+    Assertions.assertSame(table1, policy.scheduleTable(new HashSet<>()));
+  }
+
+  @Test
+  public void testIndexByStatusChanging() {
+    TableRuntime table = mockTableRuntime(1L, OptimizingStatus.IDLE, 1000L);
+    policy.addTable(table);
+    Assertions.assertNull(policy.scheduleTable(new HashSet<>()));
+
+    Mockito.when(table.getOptimizingStatus()).thenReturn(OptimizingStatus.PENDING);
+    policy.addTable(table);
+    Assertions.assertSame(table, policy.scheduleTable(new HashSet<>()));
+
+    // Tables removed from the policy should not be scheduled any more
+    policy.addTable(table);
+    policy.removeTable(table);
+    Assertions.assertNull(policy.scheduleTable(new HashSet<>()));
+    Assertions.assertTrue(policy.getTableRuntimeMap().isEmpty());
+  }
+
+  @Test
+  public void testDeferTables() {
+    TableRuntime planned = mockTableRuntime(1L, OptimizingStatus.PENDING, 1000L);
+    Mockito.when(planned.getLastPlanTime()).thenReturn(System.currentTimeMillis());
+    TableRuntime blocked = mockTableRuntime(2L, OptimizingStatus.PENDING, 2000L);
+    Mockito.when(blocked.isBlocked(BlockableOperation.OPTIMIZE)).thenReturn(true);
+    TableRuntime noNewSnapshot = mockTableRuntime(3L, OptimizingStatus.PENDING, 3000L);
+    Mockito.when(noNewSnapshot.getCurrentSnapshotId()).thenReturn(0L);
+    policy.addTable(planned);
+    policy.addTable(blocked);
+    policy.addTable(noNewSnapshot);
+
+    Set<ServerTableIdentifier> skipSet = new HashSet<>();
+    Assertions.assertNull(policy.scheduleTable(skipSet));
+    Assertions.assertEquals(3, skipSet.size());
+
+    // Deferred tables are not checked again before they are ready
+    Assertions.assertNull(policy.scheduleTable(new HashSet<>()));
+    Mockito.verify(blocked, Mockito.times(1)).isBlocked(BlockableOperation.OPTIMIZE);
+  }
+
+  private TableRuntime mockTableRuntime(long id, OptimizingStatus status, long lastOptimizingTime) {
+    TableRuntime tableRuntime = Mockito.mock(TableRuntime.class);
+    ServerTableIdentifier identifier =
+        ServerTableIdentifier.of(id, "catalog", "db", "table" + id, TableFormat.ICEBERG);
+    Mockito.when(tableRuntime.getTableIdentifier()).thenReturn(identifier);
+    Mockito.when(tableRuntime.getOptimizingStatus()).thenReturn(status);
+    Mockito.when(tableRuntime.getOptimizingConfig())
+        .thenReturn(new OptimizingConfig().setMinPlanInterval(60000));
+    Mockito.when(tableRuntime.getCurrentSnapshotId()).thenReturn(1L);
+    Mockito.when(tableRuntime.getLastOptimizedSnapshotId()).thenReturn(0L);
+    Mockito.when(tableRuntime.getLastMinorOptimizingTime()).thenReturn(lastOptimizingTime);
+    return tableRuntime;
+  }
+}
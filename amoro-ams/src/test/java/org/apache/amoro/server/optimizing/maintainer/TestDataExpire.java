@@ -481,6 +481,43 @@ public class TestDataExpire extends ExecutorTestBase {
     testPartitionLevel();
   }
 
+  @Test
+  public void testDropExpiredPartitions() {
+    assumeTrue(getTestFormat().equals(TableFormat.ICEBERG));
+    assumeTrue(tableTestHelper().partitionSpec().isPartitioned());
+
+    List<Record> records =
+        Lists.newArrayList(
+            createRecord(1, "111", parseMillis("2022-01-01T12:00:00"), "2022-01-01T12:00:00"),
+            createRecord(2, "222", parseMillis("2022-01-03T12:00:00"), "2022-01-03T12:00:00"),
+            createRecord(4, "444", parseMillis("2022-01-02T19:00:00"), "2022-01-02T19:00:00"));
+    OptimizingTestHelpers.appendBase(
+        getMixedTable(), tableTestHelper().writeBaseStore(getMixedTable(), 0, records, false));
+    DataExpirationConfig config = parseDataExpirationConfig(getMixedTable());
+
+    getMaintainerAndExpire(config, "2022-01-03T18:00:00.000");
+
+    List<Record> expected;
+    if (expireByStringDate()) {
+      // the partition of the boundary date is expired as a whole
+      expected =
+          Lists.newArrayList(
+              createRecord(2, "222", parseMillis("2022-01-03T12:00:00"), "2022-01-03T12:00:00"));
+    } else {
+      expected =
+          Lists.newArrayList(
+              createRecord(2, "222", parseMillis("2022-01-03T12:00:00"), "2022-01-03T12:00:00"),
+              createRecord(4, "444", parseMillis("2022-01-02T19:00:00"), "2022-01-02T19:00:00"));
+    }
+    Assert.assertEquals(expected, readSortedBaseRecords(getMixedTable()));
+
+    // no live file is left in the expired partitions, so expiring again commits nothing
+    long snapshotId = getMixedTable().asUnkeyedTable().currentSnapshot().snapshotId();
+    getMaintainerAndExpire(config, "2022-01-03T18:00:00.000");
+    Assert.assertEquals(
+        snapshotId, getMixedTable().asUnkeyedTable().currentSnapshot().snapshotId());
+  }
+
   @Test
   public void testGcDisabled() {
     MixedTable testTable = getMixedTable();
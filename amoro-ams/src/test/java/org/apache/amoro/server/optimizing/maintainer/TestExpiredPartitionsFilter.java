@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.optimizing.maintainer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestExpiredPartitionsFilter {
+
+  @Test
+  public void testSortableDatePattern() {
+    Assert.assertTrue(ExpiredPartitionsFilter.isSortableDatePattern("yyyy-MM-dd"));
+    Assert.assertTrue(ExpiredPartitionsFilter.isSortableDatePattern("yyyyMMdd"));
+    Assert.assertTrue(ExpiredPartitionsFilter.isSortableDatePattern("yyyy-MM"));
+    Assert.assertTrue(ExpiredPartitionsFilter.isSortableDatePattern("yyyy/MM/dd HH:mm:ss.SSS"));
+
+    // not zero-padded
+    Assert.assertFalse(ExpiredPartitionsFilter.isSortableDatePattern("yyyy-M-d"));
+    Assert.assertFalse(ExpiredPartitionsFilter.isSortableDatePattern("yy-MM-dd"));
+    // not year first
+    Assert.assertFalse(ExpiredPartitionsFilter.isSortableDatePattern("dd-MM-yyyy"));
+    Assert.assertFalse(ExpiredPartitionsFilter.isSortableDatePattern("MM/dd/yyyy"));
+    // skipped or textual fields
+    Assert.assertFalse(ExpiredPartitionsFilter.isSortableDatePattern("yyyy-dd"));
+    Assert.assertFalse(ExpiredPartitionsFilter.isSortableDatePattern("yyyy-MMM-dd"));
+    Assert.assertFalse(ExpiredPartitionsFilter.isSortableDatePattern("yyyy-MM-dd'T'HH"));
+    Assert.assertFalse(ExpiredPartitionsFilter.isSortableDatePattern(""));
+  }
+}
@@ -20,6 +20,8 @@ package org.apache.amoro.server.optimizing.maintainer;
 
 import static org.apache.amoro.server.optimizing.maintainer.IcebergTableMaintainer.DATA_FOLDER_NAME;
 import static org.apache.amoro.server.optimizing.maintainer.IcebergTableMaintainer.FLINK_JOB_ID;
+import static org.apache.amoro.server.table.TableOrphanFilesCleaningMetrics.TABLE_EXPECTED_ORPHAN_CONTENT_FILE_CLEANING_COUNT;
+import static org.apache.amoro.server.table.TableOrphanFilesCleaningMetrics.TABLE_ORPHAN_CONTENT_FILE_CLEANING_COUNT;
 
 import org.apache.amoro.BasicTableTestHelper;
 import org.apache.amoro.ServerTableIdentifier;
@@ -27,10 +29,14 @@ import org.apache.amoro.TableFormat;
 import org.apache.amoro.TableTestHelper;
 import org.apache.amoro.catalog.BasicCatalogTestHelper;
 import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.metrics.Counter;
+import org.apache.amoro.metrics.MetricDefine;
+import org.apache.amoro.server.metrics.MetricRegistry;
 import org.apache.amoro.server.table.TableConfigurations;
 import org.apache.amoro.server.table.TableOrphanFilesCleaningMetrics;
 import org.apache.amoro.server.table.TableRuntime;
 import org.apache.amoro.server.table.executor.ExecutorTestBase;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.table.TableIdentifier;
 import org.apache.amoro.table.TableProperties;
 import org.apache.amoro.table.UnkeyedTable;
@@ -159,6 +165,61 @@ public class TestOrphanFileClean extends ExecutorTestBase {
     }
   }
 
+  @Test
+  public void orphanDataFileCleanInNestedDirectories() throws IOException {
+    if (isKeyedTable()) {
+      writeAndCommitBaseAndChange(getMixedTable());
+    } else {
+      writeAndCommitBaseStore(getMixedTable());
+    }
+
+    UnkeyedTable baseTable =
+        isKeyedTable()
+            ? getMixedTable().asKeyedTable().baseTable()
+            : getMixedTable().asUnkeyedTable();
+    String nestedDir =
+        baseTable.location() + File.separator + DATA_FOLDER_NAME + File.separator + "nested";
+    List<String> orphanFiles = Lists.newArrayList();
+    for (int i = 0; i < 3; i++) {
+      String dir = nestedDir + File.separator + "level1=" + i;
+      for (int j = 0; j < 2; j++) {
+        String leafDir = dir + File.separator + "level2=" + j;
+        String orphanFilePath = leafDir + File.separator + "orphan-" + i + "-" + j + ".parquet";
+        getMixedTable().io().newOutputFile(orphanFilePath).createOrOverwrite().close();
+        orphanFiles.add(orphanFilePath);
+      }
+    }
+    orphanFiles.forEach(f -> Assert.assertTrue(getMixedTable().io().exists(f)));
+
+    TableIdentifier tableIdentifier = getMixedTable().id();
+    TableOrphanFilesCleaningMetrics orphanFilesCleaningMetrics =
+        new TableOrphanFilesCleaningMetrics(
+            ServerTableIdentifier.of(
+                tableIdentifier.getCatalog(),
+                tableIdentifier.getDatabase(),
+                tableIdentifier.getTableName(),
+                getTestFormat()));
+    MetricRegistry registry = new MetricRegistry();
+    orphanFilesCleaningMetrics.register(registry);
+    new MixedTableMaintainer(getMixedTable())
+        .cleanContentFiles(System.currentTimeMillis(), orphanFilesCleaningMetrics);
+
+    orphanFiles.forEach(f -> Assert.assertFalse(getMixedTable().io().exists(f)));
+    Assert.assertFalse(getMixedTable().io().exists(nestedDir));
+    // files referenced by the table are excluded from cleaning
+    baseTable
+        .newScan()
+        .planFiles()
+        .forEach(
+            task -> Assert.assertTrue(getMixedTable().io().exists(task.file().path().toString())));
+    Assert.assertEquals(
+        orphanFiles.size(),
+        counterValue(registry, TABLE_EXPECTED_ORPHAN_CONTENT_FILE_CLEANING_COUNT));
+    Assert.assertEquals(
+        orphanFiles.size(), counterValue(registry, TABLE_ORPHAN_CONTENT_FILE_CLEANING_COUNT));
+    orphanFilesCleaningMetrics.unregister();
+  }
+
   @Test
   public void orphanMetadataFileClean() throws IOException {
     if (isKeyedTable()) {
@@ -445,4 +506,11 @@ public class TestOrphanFileClean extends ExecutorTestBase {
 
     return statisticsFile;
   }
+
+  private static long counterValue(MetricRegistry registry, MetricDefine define) {
+    return registry.getMetrics().entrySet().stream()
+        .filter(e -> e.getKey().getDefine().equals(define))
+        .mapToLong(e -> ((Counter) e.getValue()).getCount())
+        .sum();
+  }
 }
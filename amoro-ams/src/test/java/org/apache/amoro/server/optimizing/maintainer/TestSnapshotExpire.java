@@ -32,9 +32,11 @@ import org.apache.amoro.server.optimizing.OptimizingProcess;
 import org.apache.amoro.server.optimizing.OptimizingStatus;
 import org.apache.amoro.server.table.TableConfigurations;
 import org.apache.amoro.server.table.TableRuntime;
+import org.apache.amoro.server.table.TableSnapshotExpiringMetrics;
 import org.apache.amoro.server.table.executor.ExecutorTestBase;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Iterables;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Iterators;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.table.BaseTable;
 import org.apache.amoro.table.KeyedTable;
 import org.apache.amoro.table.TableProperties;
@@ -58,6 +60,7 @@ import org.junit.runners.Parameterized;
 import org.mockito.Mockito;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -334,6 +337,78 @@ public class TestSnapshotExpire extends ExecutorTestBase {
     newDataFiles.forEach(file -> Assert.assertTrue(table.io().exists(file.path().toString())));
   }
 
+  @Test
+  public void testExpireTableFilesReportMetrics() {
+    UnkeyedTable table =
+        isKeyedTable()
+            ? getMixedTable().asKeyedTable().baseTable()
+            : getMixedTable().asUnkeyedTable();
+    table.updateProperties().set(TableProperties.BASE_SNAPSHOT_KEEP_MINUTES, "0").commit();
+    List<DataFile> dataFiles = writeAndCommitBaseStore(table);
+    DeleteFiles deleteFiles = table.newDelete();
+    dataFiles.forEach(deleteFiles::deleteFile);
+    deleteFiles.commit();
+    List<DataFile> newDataFiles = writeAndCommitBaseStore(table);
+
+    ServerTableIdentifier identifier = ServerTableIdentifier.of(table.id(), getTestFormat());
+    TableSnapshotExpiringMetrics metrics = new TableSnapshotExpiringMetrics(identifier);
+    TableRuntime tableRuntime = Mockito.mock(TableRuntime.class);
+    Mockito.when(tableRuntime.getTableIdentifier()).thenReturn(identifier);
+    Mockito.when(tableRuntime.getOptimizingStatus()).thenReturn(OptimizingStatus.IDLE);
+    Mockito.when(tableRuntime.getTableConfiguration())
+        .thenReturn(TableConfigurations.parseTableConfig(table.properties()));
+    Mockito.when(tableRuntime.getSnapshotExpiringMetrics()).thenReturn(metrics);
+
+    new MixedTableMaintainer(table).expireSnapshots(tableRuntime);
+    Assert.assertEquals(1, Iterables.size(table.snapshots()));
+
+    dataFiles.forEach(file -> Assert.assertFalse(table.io().exists(file.path().toString())));
+    newDataFiles.forEach(file -> Assert.assertTrue(table.io().exists(file.path().toString())));
+    // expired data files, manifests and manifest lists are all counted
+    Assert.assertTrue(metrics.getExpiredFilesCount() > dataFiles.size());
+    Assert.assertTrue(
+        metrics.getExpiredFilesBytes()
+            >= dataFiles.stream().mapToLong(DataFile::fileSizeInBytes).sum());
+  }
+
+  @Test
+  public void testExpireFilesCheckedInSeveralPasses() {
+    UnkeyedTable table =
+        isKeyedTable()
+            ? getMixedTable().asKeyedTable().baseTable()
+            : getMixedTable().asUnkeyedTable();
+    List<DataFile> dataFiles = writeAndCommitBaseStore(table);
+    // The rewritten manifest is retained, so every file of the expired manifests is suspected
+    table.rewriteManifests().clusterBy(file -> "all").commit();
+    DataFile deletedFile = dataFiles.get(0);
+    table.newDelete().deleteFile(deletedFile).commit();
+
+    List<Snapshot> snapshots = Lists.newArrayList(table.snapshots());
+    table
+        .expireSnapshots()
+        .expireOlderThan(Long.MAX_VALUE)
+        .retainLast(1)
+        .cleanExpiredFiles(false)
+        .commit();
+    long currentSnapshotId = table.currentSnapshot().snapshotId();
+    List<Snapshot> expiredSnapshots =
+        snapshots.stream()
+            .filter(snapshot -> snapshot.snapshotId() != currentSnapshotId)
+            .collect(Collectors.toList());
+    Assert.assertEquals(2, expiredSnapshots.size());
+
+    // Check the suspected files one by one, so the retained manifests are read once per file
+    new ExpiredSnapshotFilesCleaner(table, Collections.emptySet(), null, 1)
+        .clean(expiredSnapshots, Collections.emptyList());
+
+    Assert.assertFalse(table.io().exists(deletedFile.path().toString()));
+    dataFiles.stream()
+        .filter(file -> file != deletedFile)
+        .forEach(file -> Assert.assertTrue(table.io().exists(file.path().toString())));
+    expiredSnapshots.forEach(
+        snapshot -> Assert.assertFalse(table.io().exists(snapshot.manifestListLocation())));
+  }
+
   @Test
   public void testExpireTableFilesRepeatedly() {
     Assume.assumeTrue(isKeyedTable());
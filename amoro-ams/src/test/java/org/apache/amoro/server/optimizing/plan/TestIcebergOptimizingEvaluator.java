@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.optimizing.plan;
+
+import org.apache.amoro.BasicTableTestHelper;
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.TableTestHelper;
+import org.apache.amoro.catalog.BasicCatalogTestHelper;
+import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.optimizing.plan.AbstractOptimizingEvaluator;
+import org.apache.amoro.server.optimizing.OptimizingTestHelpers;
+import org.apache.iceberg.data.Record;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runners.Parameterized;
+
+import java.util.List;
+
+public class TestIcebergOptimizingEvaluator extends TestOptimizingEvaluator {
+
+  public TestIcebergOptimizingEvaluator(
+      CatalogTestHelper catalogTestHelper, TableTestHelper tableTestHelper) {
+    super(catalogTestHelper, tableTestHelper);
+  }
+
+  @Parameterized.Parameters(name = "{0}, {1}")
+  public static Object[][] parameters() {
+    return new Object[][] {
+      {new BasicCatalogTestHelper(TableFormat.ICEBERG), new BasicTableTestHelper(false, true)},
+      {new BasicCatalogTestHelper(TableFormat.ICEBERG), new BasicTableTestHelper(false, false)}
+    };
+  }
+
+  @Test
+  public void testIncrementalEvaluating() {
+    closeFullOptimizingInterval();
+    appendRecords(1, 4);
+    AbstractOptimizingEvaluator previousEvaluator = buildOptimizingEvaluator();
+    Assert.assertFalse(previousEvaluator.isNecessary());
+
+    // append more files and evaluate based on the previous evaluator
+    appendRecords(5, 8);
+    AbstractOptimizingEvaluator incrementalEvaluator =
+        buildOptimizingEvaluator().withPreviousState(previousEvaluator.getEvaluatedState());
+    AbstractOptimizingEvaluator fullEvaluator = buildOptimizingEvaluator();
+    Assert.assertTrue(incrementalEvaluator.isNecessary());
+    Assert.assertTrue(fullEvaluator.isNecessary());
+    assertSameInput(
+        fullEvaluator.getOptimizingPendingInput(),
+        incrementalEvaluator.getOptimizingPendingInput());
+    assertSameInput(fullEvaluator.getPendingInput(), incrementalEvaluator.getPendingInput());
+  }
+
+  private void appendRecords(int from, int to) {
+    List<Record> newRecords =
+        OptimizingTestHelpers.generateRecord(tableTestHelper(), from, to, "2022-01-01T12:00:00");
+    long transactionId = beginTransaction();
+    OptimizingTestHelpers.appendBase(
+        getMixedTable(),
+        tableTestHelper().writeBaseStore(getMixedTable(), transactionId, newRecords, false));
+  }
+
+  private void assertSameInput(
+      AbstractOptimizingEvaluator.PendingInput expected,
+      AbstractOptimizingEvaluator.PendingInput actual) {
+    Assert.assertEquals(expected.getPartitions(), actual.getPartitions());
+    Assert.assertEquals(expected.getDataFileCount(), actual.getDataFileCount());
+    Assert.assertEquals(expected.getDataFileSize(), actual.getDataFileSize());
+    Assert.assertEquals(expected.getDataFileRecords(), actual.getDataFileRecords());
+    Assert.assertEquals(expected.getHealthScore(), actual.getHealthScore());
+    Assert.assertEquals(expected.getTotalFileCount(), actual.getTotalFileCount());
+  }
+}
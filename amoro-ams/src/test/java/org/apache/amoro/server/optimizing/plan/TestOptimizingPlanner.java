@@ -30,14 +30,17 @@ import org.apache.amoro.optimizing.OptimizingType;
 import org.apache.amoro.optimizing.RewriteStageTask;
 import org.apache.amoro.optimizing.plan.AbstractOptimizingPlanner;
 import org.apache.amoro.optimizing.scan.TableFileScanHelper;
+import org.apache.amoro.server.optimizing.OptimizingTestHelpers;
 import org.apache.amoro.server.utils.IcebergTableUtil;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
 import org.apache.iceberg.DataFile;
+import org.apache.iceberg.data.Record;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -100,6 +103,40 @@ public class TestOptimizingPlanner extends TestOptimizingEvaluator {
         Collections.emptyList());
   }
 
+  @Test
+  public void testPlanInParallel() {
+    closeFullOptimizingInterval();
+    updateBaseHashBucket(1);
+    for (int day = 1; day <= 4; day++) {
+      String opTime = "2022-01-0" + day + "T12:00:00";
+      for (int i = 0; i < 2; i++) {
+        List<Record> newRecords =
+            OptimizingTestHelpers.generateRecord(tableTestHelper(), i * 4 + 1, i * 4 + 4, opTime);
+        long transactionId = beginTransaction();
+        OptimizingTestHelpers.appendBase(
+            getMixedTable(),
+            tableTestHelper().writeBaseStore(getMixedTable(), transactionId, newRecords, false));
+      }
+    }
+
+    List<RewriteStageTask> expectedTasks = buildOptimizingEvaluator().planTasks();
+    AbstractOptimizingPlanner planner = buildOptimizingEvaluator();
+    planner.withPlanningParallelism(4);
+    List<RewriteStageTask> actualTasks = planner.planTasks();
+    Assert.assertFalse(actualTasks.isEmpty());
+    Assert.assertEquals(expectedTasks.size(), actualTasks.size());
+    for (int i = 0; i < expectedTasks.size(); i++) {
+      Assert.assertEquals(expectedTasks.get(i).getPartition(), actualTasks.get(i).getPartition());
+      Assert.assertEquals(
+          filePaths(expectedTasks.get(i).getInput().rewrittenDataFiles()),
+          filePaths(actualTasks.get(i).getInput().rewrittenDataFiles()));
+    }
+  }
+
+  private static List<String> filePaths(DataFile[] files) {
+    return Arrays.stream(files).map(file -> file.path().toString()).collect(Collectors.toList());
+  }
+
   @Override
   protected AbstractOptimizingPlanner buildOptimizingEvaluator() {
     return IcebergTableUtil.createOptimizingPlanner(
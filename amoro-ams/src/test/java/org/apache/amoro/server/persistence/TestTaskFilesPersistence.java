@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.server.persistence;
+
+import org.apache.amoro.BasicTableTestHelper;
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.TableTestHelper;
+import org.apache.amoro.api.OptimizingTaskId;
+import org.apache.amoro.catalog.BasicCatalogTestHelper;
+import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.catalog.TableTestBase;
+import org.apache.amoro.optimizing.RewriteFilesInput;
+import org.apache.amoro.optimizing.RewriteStageTask;
+import org.apache.amoro.server.optimizing.TaskRuntime;
+import org.apache.amoro.server.persistence.mapper.OptimizingMapper;
+import org.apache.amoro.server.table.DerbyPersistence;
+import org.apache.amoro.server.utils.CompressUtil;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.amoro.utils.SerializationUtil;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.ibatis.session.SqlSession;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(Parameterized.class)
+public class TestTaskFilesPersistence extends TableTestBase {
+
+  @ClassRule public static DerbyPersistence DERBY = new DerbyPersistence();
+
+  private static final long PROCESS_ID = 1L;
+  private static final long LEGACY_PROCESS_ID = 2L;
+  private static final int TASK_COUNT = 3;
+
+  private final PersistentBase persistence = new PersistentBase() {};
+
+  public TestTaskFilesPersistence(
+      CatalogTestHelper catalogTestHelper, TableTestHelper tableTestHelper) {
+    super(catalogTestHelper, tableTestHelper);
+  }
+
+  @Parameterized.Parameters(name = "{0}, {1}")
+  public static Object[][] parameters() {
+    return new Object[][] {
+      {new BasicCatalogTestHelper(TableFormat.ICEBERG), new BasicTableTestHelper(false, false)}
+    };
+  }
+
+  @Test
+  public void testPersistAndLoadTaskInputs() {
+    List<TaskRuntime<RewriteStageTask>> tasks = Lists.newArrayList();
+    for (int taskId = 0; taskId < TASK_COUNT; taskId++) {
+      RewriteStageTask task =
+          new RewriteStageTask(1L, "", newInput(taskId), Collections.emptyMap());
+      tasks.add(new TaskRuntime<>(new OptimizingTaskId(PROCESS_ID, taskId), task));
+    }
+    persistence.doAs(OptimizingMapper.class, mapper -> mapper.insertTaskRuntimes(tasks));
+    // rows without input are not loaded as task inputs
+    Assert.assertTrue(TaskFilesPersistence.loadTaskInputs(PROCESS_ID).isEmpty());
+
+    TaskFilesPersistence.persistTaskInputs(PROCESS_ID, tasks);
+    assertInputs(TaskFilesPersistence.loadTaskInputs(PROCESS_ID));
+  }
+
+  @Test
+  public void testIgnoreProcessLevelInputs() throws SQLException {
+    // processes persisted by older versions keep all inputs in the process row, which can not be
+    // deserialized any more, so their tasks have no input and the process is closed on loading
+    Map<Integer, RewriteFilesInput> inputs = Maps.newHashMap();
+    for (int taskId = 0; taskId < TASK_COUNT; taskId++) {
+      inputs.put(taskId, newInput(taskId));
+    }
+    byte[] processInput = CompressUtil.gzip(SerializationUtil.simpleSerialize(inputs).array());
+    try (SqlSession sqlSession = SqlSessionFactoryProvider.getInstance().get().openSession(true);
+        Connection connection = sqlSession.getConnection();
+        PreparedStatement statement =
+            connection.prepareStatement(
+                "INSERT INTO table_optimizing_process (process_id, table_id, catalog_name,"
+                    + " db_name, table_name, target_snapshot_id, target_change_snapshot_id,"
+                    + " status, optimizing_type, rewrite_input)"
+                    + " VALUES (?, 1, 'catalog', 'db', 'table', 1, -1, 'RUNNING', 'MINOR', ?)")) {
+      statement.setLong(1, LEGACY_PROCESS_ID);
+      statement.setBytes(2, processInput);
+      statement.executeUpdate();
+    }
+
+    Assert.assertTrue(TaskFilesPersistence.loadTaskInputs(LEGACY_PROCESS_ID).isEmpty());
+  }
+
+  private RewriteFilesInput newInput(int taskId) {
+    DataFile dataFile =
+        DataFiles.builder(getMixedTable().spec())
+            .withPath(getMixedTable().location() + "/data/file-" + taskId + ".parquet")
+            .withFormat(FileFormat.PARQUET)
+            .withFileSizeInBytes(1024L * (taskId + 1))
+            .withRecordCount(taskId + 1)
+            .build();
+    return new RewriteFilesInput(
+        new DataFile[] {dataFile},
+        new DataFile[] {},
+        new ContentFile<?>[] {},
+        new ContentFile<?>[] {},
+        getMixedTable());
+  }
+
+  private void assertInputs(Map<Integer, RewriteFilesInput> inputs) {
+    Assert.assertEquals(TASK_COUNT, inputs.size());
+    for (int taskId = 0; taskId < TASK_COUNT; taskId++) {
+      RewriteFilesInput expected = newInput(taskId);
+      RewriteFilesInput actual = inputs.get(taskId);
+      Assert.assertNotNull(actual);
+      Assert.assertEquals(1, actual.rewrittenDataFiles().length);
+      Assert.assertEquals(
+          expected.rewrittenDataFiles()[0].path().toString(),
+          actual.rewrittenDataFiles()[0].path().toString());
+      Assert.assertEquals(
+          expected.rewrittenDataFiles()[0].recordCount(),
+          actual.rewrittenDataFiles()[0].recordCount());
+      Assert.assertEquals(0, actual.rePosDeletedDataFiles().length);
+    }
+  }
+}
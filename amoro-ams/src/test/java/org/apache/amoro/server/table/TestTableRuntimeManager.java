@@ -22,16 +22,28 @@ import org.apache.amoro.BasicTableTestHelper;
 import org.apache.amoro.ServerTableIdentifier;
 import org.apache.amoro.TableFormat;
 import org.apache.amoro.TableTestHelper;
+import org.apache.amoro.api.OptimizingTaskId;
 import org.apache.amoro.catalog.BasicCatalogTestHelper;
 import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.client.BucketAssignment;
+import org.apache.amoro.config.Configurations;
 import org.apache.amoro.exception.ObjectNotExistsException;
 import org.apache.amoro.hive.catalog.HiveCatalogTestHelper;
 import org.apache.amoro.hive.catalog.HiveTableTestHelper;
+import org.apache.amoro.server.AmoroManagementConf;
+import org.apache.amoro.server.optimizing.OptimizingStatus;
+import org.apache.amoro.server.optimizing.TaskRuntime;
+import org.apache.amoro.server.persistence.PersistentBase;
+import org.apache.amoro.server.persistence.TableRuntimeMeta;
+import org.apache.amoro.server.persistence.mapper.TableMetaMapper;
 import org.apache.amoro.table.MixedTable;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
+import org.mockito.Mockito;
+
+import java.util.Collections;
 
 @RunWith(Parameterized.class)
 public class TestTableRuntimeManager extends AMSTableTestBase {
@@ -74,4 +86,108 @@ public class TestTableRuntimeManager extends AMSTableTestBase {
     TableRuntime tableRuntime = tableService().getRuntime(serverTableIdentifier().getId());
     validateTableRuntime(tableRuntime);
   }
+
+  @Test
+  public void testWriteBehindPersistence() {
+    TableRuntime tableRuntime = tableService().getRuntime(serverTableIdentifier().getId());
+    TableRuntimePersistence persistence = TableRuntimePersistence.getInstance();
+    persistence.stop();
+    // never flush automatically in this test
+    persistence.start(Long.MAX_VALUE / 2);
+    try {
+      Assert.assertEquals(OptimizingStatus.IDLE, persistedStatus());
+      tableRuntime.beginPlanning();
+      Assert.assertEquals(OptimizingStatus.PLANNING, tableRuntime.getOptimizingStatus());
+      Assert.assertEquals(OptimizingStatus.IDLE, persistedStatus());
+
+      persistence.flush();
+      Assert.assertEquals(OptimizingStatus.PLANNING, persistedStatus());
+
+      tableRuntime.completeEmptyProcess();
+      Assert.assertEquals(OptimizingStatus.PLANNING, persistedStatus());
+    } finally {
+      persistence.stop();
+      persistence.start(AmoroManagementConf.TABLE_RUNTIME_FLUSH_INTERVAL.defaultValue().toMillis());
+    }
+    // pending states are flushed when stopping
+    Assert.assertEquals(OptimizingStatus.IDLE, persistedStatus());
+  }
+
+  @Test
+  public void testLoadPendingTaskQuotas() {
+    TableRuntime tableRuntime = tableService().getRuntime(serverTableIdentifier().getId());
+    TableRuntimePersistence persistence = TableRuntimePersistence.getInstance();
+    persistence.stop();
+    // never flush automatically in this test
+    persistence.start(Long.MAX_VALUE / 2);
+    try {
+      long now = System.currentTimeMillis();
+      TaskRuntime<?> task = Mockito.mock(TaskRuntime.class);
+      Mockito.when(task.getTaskId()).thenReturn(new OptimizingTaskId(now, 1));
+      Mockito.when(task.getTableId()).thenReturn(serverTableIdentifier().getId());
+      Mockito.when(task.getStartTime()).thenReturn(now - 2000);
+      Mockito.when(task.getEndTime()).thenReturn(now - 1000);
+      tableRuntime.addTaskQuota(new TaskRuntime.TaskQuota(task));
+
+      // the quota is counted once whether it is pending or written
+      tableRuntime.resetTaskQuotas(now);
+      Assert.assertEquals(1000, tableRuntime.getQuotaTime());
+      persistence.flush();
+      tableRuntime.resetTaskQuotas(now);
+      Assert.assertEquals(1000, tableRuntime.getQuotaTime());
+    } finally {
+      persistence.stop();
+      persistence.start(AmoroManagementConf.TABLE_RUNTIME_FLUSH_INTERVAL.defaultValue().toMillis());
+    }
+  }
+
+  @Test
+  public void testSyncOwnedTableRuntimes() {
+    long tableId = serverTableIdentifier().getId();
+    TableRuntime tableRuntime = tableService().getRuntime(tableId);
+    int bucketNum = 8;
+    int bucket = BucketAssignment.bucketOf(tableRuntime.getOptimizerGroup(), bucketNum);
+    TableOwnership ownership = new TableOwnership(bucketNum, Collections.emptySet(), () -> false);
+    DefaultTableService shardedService =
+        new DefaultTableService(new Configurations(), CATALOG_MANAGER, ownership);
+    shardedService.initialize();
+    try {
+      Assert.assertNull(shardedService.getRuntime(tableId));
+
+      // hand the table over from the table service of this test
+      tableRuntime.release();
+      ownership.setBuckets(Collections.singleton(bucket));
+      TableRuntime ownedRuntime = shardedService.getRuntime(tableId);
+      Assert.assertNotNull(ownedRuntime);
+      Assert.assertEquals(tableRuntime.getOptimizingStatus(), ownedRuntime.getOptimizingStatus());
+      ownedRuntime.beginPlanning();
+
+      // the state is written when the bucket is released, and never after
+      ownership.setBuckets(Collections.emptySet());
+      Assert.assertNull(shardedService.getRuntime(tableId));
+      Assert.assertEquals(OptimizingStatus.PLANNING, persistedStatus());
+      ownedRuntime.completeEmptyProcess();
+      TableRuntimePersistence.getInstance().flush();
+      Assert.assertEquals(OptimizingStatus.PLANNING, persistedStatus());
+    } finally {
+      shardedService.dispose();
+      // the shared persistence is stopped by the disposed service
+      TableRuntimePersistence.getInstance()
+          .start(AmoroManagementConf.TABLE_RUNTIME_FLUSH_INTERVAL.defaultValue().toMillis());
+    }
+  }
+
+  private OptimizingStatus persistedStatus() {
+    return new RuntimeMetaReader().load(serverTableIdentifier().getId()).getTableStatus();
+  }
+
+  private static class RuntimeMetaReader extends PersistentBase {
+
+    TableRuntimeMeta load(long tableId) {
+      return getAs(TableMetaMapper.class, TableMetaMapper::selectTableRuntimeMetas).stream()
+          .filter(meta -> meta.getTableId() == tableId)
+          .findFirst()
+          .orElseThrow(() -> new IllegalStateException("Table runtime not found: " + tableId));
+    }
+  }
 }
@@ -35,4 +35,20 @@ public class TestCompressUtil {
     byte[] unGzip = CompressUtil.unGzip(gzip);
     Assertions.assertArrayEquals(unGzip, bytes);
   }
+
+  @Test
+  public void deflateAndInflate() {
+    byte[] bytes = new byte[64 * 1024];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) (i % 17);
+    }
+    byte[] deflate = CompressUtil.deflate(bytes);
+    Assertions.assertTrue(deflate.length < bytes.length);
+    Assertions.assertArrayEquals(bytes, CompressUtil.inflate(deflate));
+    Assertions.assertArrayEquals(
+        new byte[0], CompressUtil.inflate(CompressUtil.deflate(new byte[0])));
+    Assertions.assertThrows(
+        IllegalArgumentException.class,
+        () -> CompressUtil.inflate(Arrays.copyOf(deflate, deflate.length / 2)));
+  }
 }
@@ -14,7 +14,7 @@ public class OptimizingService {
 
     public void ping() throws org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 
-    public void touch(java.lang.String authToken) throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException;
+    public void touch(java.lang.String authToken, java.util.Map<java.lang.String,java.lang.String> metrics) throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 
     public OptimizingTask pollTask(java.lang.String authToken, int threadId) throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 
@@ -26,13 +26,17 @@ public class OptimizingService {
 
     public boolean cancelProcess(long processId) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 
+    public java.util.List<OptimizingTask> pollTasks(java.lang.String authToken, int threadId, int maxTasks) throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException;
+
+    public java.util.List<OptimizingTaskId> completeTasks(java.lang.String authToken, java.util.List<OptimizingTaskResult> taskResults) throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException;
+
   }
 
   public interface AsyncIface {
 
     public void ping(org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 
-    public void touch(java.lang.String authToken, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException;
+    public void touch(java.lang.String authToken, java.util.Map<java.lang.String,java.lang.String> metrics, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 
     public void pollTask(java.lang.String authToken, int threadId, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<OptimizingTask> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 
@@ -44,6 +48,10 @@ public class OptimizingService {
 
     public void cancelProcess(long processId, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.lang.Boolean> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 
+    public void pollTasks(java.lang.String authToken, int threadId, int maxTasks, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTask>> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException;
+
+    public void completeTasks(java.lang.String authToken, java.util.List<OptimizingTaskResult> taskResults, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTaskId>> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException;
+
   }
 
   public static class Client extends org.apache.amoro.shade.thrift.org.apache.thrift.TServiceClient implements Iface {
@@ -89,16 +97,17 @@ public class OptimizingService {
     }
 
     @Override
-    public void touch(java.lang.String authToken) throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException
+    public void touch(java.lang.String authToken, java.util.Map<java.lang.String,java.lang.String> metrics) throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException
     {
-      send_touch(authToken);
+      send_touch(authToken, metrics);
       recv_touch();
     }
 
-    public void send_touch(java.lang.String authToken) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException
+    public void send_touch(java.lang.String authToken, java.util.Map<java.lang.String,java.lang.String> metrics) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException
     {
       touch_args args = new touch_args();
       args.setAuthToken(authToken);
+      args.setMetrics(metrics);
       sendBase("touch", args);
     }
 
@@ -242,6 +251,63 @@ public class OptimizingService {
       throw new org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException(org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException.MISSING_RESULT, "cancelProcess failed: unknown result");
     }
 
+    @Override
+    public java.util.List<OptimizingTask> pollTasks(java.lang.String authToken, int threadId, int maxTasks) throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException
+    {
+      send_pollTasks(authToken, threadId, maxTasks);
+      return recv_pollTasks();
+    }
+
+    public void send_pollTasks(java.lang.String authToken, int threadId, int maxTasks) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException
+    {
+      pollTasks_args args = new pollTasks_args();
+      args.setAuthToken(authToken);
+      args.setThreadId(threadId);
+      args.setMaxTasks(maxTasks);
+      sendBase("pollTasks", args);
+    }
+
+    public java.util.List<OptimizingTask> recv_pollTasks() throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException
+    {
+      pollTasks_result result = new pollTasks_result();
+      receiveBase(result, "pollTasks");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      if (result.e1 != null) {
+        throw result.e1;
+      }
+      throw new org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException(org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException.MISSING_RESULT, "pollTasks failed: unknown result");
+    }
+
+    @Override
+    public java.util.List<OptimizingTaskId> completeTasks(java.lang.String authToken, java.util.List<OptimizingTaskResult> taskResults) throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException
+    {
+      send_completeTasks(authToken, taskResults);
+      return recv_completeTasks();
+    }
+
+    public void send_completeTasks(java.lang.String authToken, java.util.List<OptimizingTaskResult> taskResults) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException
+    {
+      completeTasks_args args = new completeTasks_args();
+      args.setAuthToken(authToken);
+      args.setTaskResults(taskResults);
+      sendBase("completeTasks", args);
+    }
+
+    public java.util.List<OptimizingTaskId> recv_completeTasks() throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException
+    {
+      completeTasks_result result = new completeTasks_result();
+      receiveBase(result, "completeTasks");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      if (result.e1 != null) {
+        throw result.e1;
+      }
+      throw new org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException(org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException.MISSING_RESULT, "completeTasks failed: unknown result");
+    }
+
   }
   public static class AsyncClient extends org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncClient implements AsyncIface {
     public static class Factory implements org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncClientFactory<AsyncClient> {
@@ -295,18 +361,20 @@ public class OptimizingService {
     }
 
     @Override
-    public void touch(java.lang.String authToken, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+    public void touch(java.lang.String authToken, java.util.Map<java.lang.String,java.lang.String> metrics, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
       checkReady();
-      touch_call method_call = new touch_call(authToken, resultHandler, this, ___protocolFactory, ___transport);
+      touch_call method_call = new touch_call(authToken, metrics, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
 
     public static class touch_call extends org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncMethodCall<Void> {
       private java.lang.String authToken;
-      public touch_call(java.lang.String authToken, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler, org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncClient client, org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.amoro.shade.thrift.org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      private java.util.Map<java.lang.String,java.lang.String> metrics;
+      public touch_call(java.lang.String authToken, java.util.Map<java.lang.String,java.lang.String> metrics, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler, org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncClient client, org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.amoro.shade.thrift.org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this.authToken = authToken;
+        this.metrics = metrics;
       }
 
       @Override
@@ -314,6 +382,7 @@ public class OptimizingService {
         prot.writeMessageBegin(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessage("touch", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.CALL, 0));
         touch_args args = new touch_args();
         args.setAuthToken(authToken);
+        args.setMetrics(metrics);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -519,6 +588,85 @@ public class OptimizingService {
       }
     }
 
+    @Override
+    public void pollTasks(java.lang.String authToken, int threadId, int maxTasks, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTask>> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      checkReady();
+      pollTasks_call method_call = new pollTasks_call(authToken, threadId, maxTasks, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class pollTasks_call extends org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncMethodCall<java.util.List<OptimizingTask>> {
+      private java.lang.String authToken;
+      private int threadId;
+      private int maxTasks;
+      public pollTasks_call(java.lang.String authToken, int threadId, int maxTasks, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTask>> resultHandler, org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncClient client, org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.amoro.shade.thrift.org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.authToken = authToken;
+        this.threadId = threadId;
+        this.maxTasks = maxTasks;
+      }
+
+      @Override
+      public void write_args(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessage("pollTasks", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.CALL, 0));
+        pollTasks_args args = new pollTasks_args();
+        args.setAuthToken(authToken);
+        args.setThreadId(threadId);
+        args.setMaxTasks(maxTasks);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      @Override
+      public java.util.List<OptimizingTask> getResult() throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        if (getState() != org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new java.lang.IllegalStateException("Method call not finished!");
+        }
+        org.apache.amoro.shade.thrift.org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_pollTasks();
+      }
+    }
+
+    @Override
+    public void completeTasks(java.lang.String authToken, java.util.List<OptimizingTaskResult> taskResults, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTaskId>> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      checkReady();
+      completeTasks_call method_call = new completeTasks_call(authToken, taskResults, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class completeTasks_call extends org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncMethodCall<java.util.List<OptimizingTaskId>> {
+      private java.lang.String authToken;
+      private java.util.List<OptimizingTaskResult> taskResults;
+      public completeTasks_call(java.lang.String authToken, java.util.List<OptimizingTaskResult> taskResults, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTaskId>> resultHandler, org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncClient client, org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.amoro.shade.thrift.org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this.authToken = authToken;
+        this.taskResults = taskResults;
+      }
+
+      @Override
+      public void write_args(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessage("completeTasks", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.CALL, 0));
+        completeTasks_args args = new completeTasks_args();
+        args.setAuthToken(authToken);
+        args.setTaskResults(taskResults);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      @Override
+      public java.util.List<OptimizingTaskId> getResult() throws org.apache.amoro.api.AmoroException, org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        if (getState() != org.apache.amoro.shade.thrift.org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new java.lang.IllegalStateException("Method call not finished!");
+        }
+        org.apache.amoro.shade.thrift.org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_completeTasks();
+      }
+    }
+
   }
 
   public static class Processor<I extends Iface> extends org.apache.amoro.shade.thrift.org.apache.thrift.TBaseProcessor<I> implements org.apache.amoro.shade.thrift.org.apache.thrift.TProcessor {
@@ -539,6 +687,8 @@ public class OptimizingService {
       processMap.put("completeTask", new completeTask());
       processMap.put("authenticate", new authenticate());
       processMap.put("cancelProcess", new cancelProcess());
+      processMap.put("pollTasks", new pollTasks());
+      processMap.put("completeTasks", new completeTasks());
       return processMap;
     }
 
@@ -594,7 +744,7 @@ public class OptimizingService {
       public touch_result getResult(I iface, touch_args args) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
         touch_result result = new touch_result();
         try {
-          iface.touch(args.authToken);
+          iface.touch(args.authToken, args.metrics);
         } catch (org.apache.amoro.api.AmoroException e1) {
           result.e1 = e1;
         }
@@ -759,6 +909,70 @@ public class OptimizingService {
       }
     }
 
+    public static class pollTasks<I extends Iface> extends org.apache.amoro.shade.thrift.org.apache.thrift.ProcessFunction<I, pollTasks_args> {
+      public pollTasks() {
+        super("pollTasks");
+      }
+
+      @Override
+      public pollTasks_args getEmptyArgsInstance() {
+        return new pollTasks_args();
+      }
+
+      @Override
+      protected boolean isOneway() {
+        return false;
+      }
+
+      @Override
+      protected boolean rethrowUnhandledExceptions() {
+        return false;
+      }
+
+      @Override
+      public pollTasks_result getResult(I iface, pollTasks_args args) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        pollTasks_result result = new pollTasks_result();
+        try {
+          result.success = iface.pollTasks(args.authToken, args.threadId, args.maxTasks);
+        } catch (org.apache.amoro.api.AmoroException e1) {
+          result.e1 = e1;
+        }
+        return result;
+      }
+    }
+
+    public static class completeTasks<I extends Iface> extends org.apache.amoro.shade.thrift.org.apache.thrift.ProcessFunction<I, completeTasks_args> {
+      public completeTasks() {
+        super("completeTasks");
+      }
+
+      @Override
+      public completeTasks_args getEmptyArgsInstance() {
+        return new completeTasks_args();
+      }
+
+      @Override
+      protected boolean isOneway() {
+        return false;
+      }
+
+      @Override
+      protected boolean rethrowUnhandledExceptions() {
+        return false;
+      }
+
+      @Override
+      public completeTasks_result getResult(I iface, completeTasks_args args) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        completeTasks_result result = new completeTasks_result();
+        try {
+          result.success = iface.completeTasks(args.authToken, args.taskResults);
+        } catch (org.apache.amoro.api.AmoroException e1) {
+          result.e1 = e1;
+        }
+        return result;
+      }
+    }
+
   }
 
   public static class AsyncProcessor<I extends AsyncIface> extends org.apache.amoro.shade.thrift.org.apache.thrift.TBaseAsyncProcessor<I> {
@@ -779,6 +993,8 @@ public class OptimizingService {
       processMap.put("completeTask", new completeTask());
       processMap.put("authenticate", new authenticate());
       processMap.put("cancelProcess", new cancelProcess());
+      processMap.put("pollTasks", new pollTasks());
+      processMap.put("completeTasks", new completeTasks());
       return processMap;
     }
 
@@ -914,7 +1130,7 @@ public class OptimizingService {
 
       @Override
       public void start(I iface, touch_args args, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<Void> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
-        iface.touch(args.authToken,resultHandler);
+        iface.touch(args.authToken, args.metrics,resultHandler);
       }
     }
 
@@ -1268,85 +1484,228 @@ public class OptimizingService {
       }
     }
 
-  }
-
-  @SuppressWarnings({"cast", "rawtypes", "serial", "unchecked", "unused"})
-  public static class ping_args implements org.apache.amoro.shade.thrift.org.apache.thrift.TBase<ping_args, ping_args._Fields>, java.io.Serializable, Cloneable, Comparable<ping_args>   {
-    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct("ping_args");
-
-
-    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new ping_argsStandardSchemeFactory();
-    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new ping_argsTupleSchemeFactory();
-
-
-    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
-    public enum _Fields implements org.apache.amoro.shade.thrift.org.apache.thrift.TFieldIdEnum {
-;
 
-      private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
+    public static class pollTasks<I extends AsyncIface> extends org.apache.amoro.shade.thrift.org.apache.thrift.AsyncProcessFunction<I, pollTasks_args, java.util.List<OptimizingTask>> {
+      public pollTasks() {
+        super("pollTasks");
+      }
 
-      static {
-        for (_Fields field : java.util.EnumSet.allOf(_Fields.class)) {
-          byName.put(field.getFieldName(), field);
-        }
+      @Override
+      public pollTasks_args getEmptyArgsInstance() {
+        return new pollTasks_args();
       }
 
-      /**
-       * Find the _Fields constant that matches fieldId, or null if its not found.
-       */
-      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
-      public static _Fields findByThriftId(int fieldId) {
-        switch(fieldId) {
-          default:
-            return null;
-        }
+      @Override
+      public org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTask>> getResultHandler(final org.apache.amoro.shade.thrift.org.apache.thrift.server.AbstractNonblockingServer.AsyncFrameBuffer fb, final int seqid) {
+        final org.apache.amoro.shade.thrift.org.apache.thrift.AsyncProcessFunction fcall = this;
+        return new org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTask>>() { 
+          @Override
+          public void onComplete(java.util.List<OptimizingTask> o) {
+            pollTasks_result result = new pollTasks_result();
+            result.success = o;
+            try {
+              fcall.sendResponse(fb, result, org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.REPLY,seqid);
+            } catch (org.apache.amoro.shade.thrift.org.apache.thrift.transport.TTransportException e) {
+              _LOGGER.error("TTransportException writing to internal frame buffer", e);
+              fb.close();
+            } catch (java.lang.Exception e) {
+              _LOGGER.error("Exception writing to internal frame buffer", e);
+              onError(e);
+            }
+          }
+          @Override
+          public void onError(java.lang.Exception e) {
+            byte msgType = org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.REPLY;
+            org.apache.amoro.shade.thrift.org.apache.thrift.TSerializable msg;
+            pollTasks_result result = new pollTasks_result();
+            if (e instanceof org.apache.amoro.api.AmoroException) {
+              result.e1 = (org.apache.amoro.api.AmoroException) e;
+              result.setE1IsSet(true);
+              msg = result;
+            } else if (e instanceof org.apache.amoro.shade.thrift.org.apache.thrift.transport.TTransportException) {
+              _LOGGER.error("TTransportException inside handler", e);
+              fb.close();
+              return;
+            } else if (e instanceof org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException) {
+              _LOGGER.error("TApplicationException inside handler", e);
+              msgType = org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.EXCEPTION;
+              msg = (org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException)e;
+            } else {
+              _LOGGER.error("Exception inside handler", e);
+              msgType = org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.EXCEPTION;
+              msg = new org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException(org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException.INTERNAL_ERROR, e.getMessage());
+            }
+            try {
+              fcall.sendResponse(fb,msg,msgType,seqid);
+            } catch (java.lang.Exception ex) {
+              _LOGGER.error("Exception writing to internal frame buffer", ex);
+              fb.close();
+            }
+          }
+        };
       }
 
-      /**
-       * Find the _Fields constant that matches fieldId, throwing an exception
-       * if it is not found.
-       */
-      public static _Fields findByThriftIdOrThrow(int fieldId) {
-        _Fields fields = findByThriftId(fieldId);
-        if (fields == null) throw new java.lang.IllegalArgumentException("Field " + fieldId + " doesn't exist!");
-        return fields;
+      @Override
+      protected boolean isOneway() {
+        return false;
       }
 
-      /**
-       * Find the _Fields constant that matches name, or null if its not found.
-       */
-      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
-      public static _Fields findByName(java.lang.String name) {
-        return byName.get(name);
+      @Override
+      public void start(I iface, pollTasks_args args, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTask>> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        iface.pollTasks(args.authToken, args.threadId, args.maxTasks,resultHandler);
       }
+    }
 
-      private final short _thriftId;
-      private final java.lang.String _fieldName;
 
-      _Fields(short thriftId, java.lang.String fieldName) {
-        _thriftId = thriftId;
-        _fieldName = fieldName;
+    public static class completeTasks<I extends AsyncIface> extends org.apache.amoro.shade.thrift.org.apache.thrift.AsyncProcessFunction<I, completeTasks_args, java.util.List<OptimizingTaskId>> {
+      public completeTasks() {
+        super("completeTasks");
       }
 
       @Override
-      public short getThriftFieldId() {
-        return _thriftId;
+      public completeTasks_args getEmptyArgsInstance() {
+        return new completeTasks_args();
       }
 
       @Override
-      public java.lang.String getFieldName() {
-        return _fieldName;
-      }
-    }
-    public static final java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
-    static {
-      java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
-      metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
-      org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(ping_args.class, metaDataMap);
-    }
-
-    public ping_args() {
-    }
+      public org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTaskId>> getResultHandler(final org.apache.amoro.shade.thrift.org.apache.thrift.server.AbstractNonblockingServer.AsyncFrameBuffer fb, final int seqid) {
+        final org.apache.amoro.shade.thrift.org.apache.thrift.AsyncProcessFunction fcall = this;
+        return new org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTaskId>>() { 
+          @Override
+          public void onComplete(java.util.List<OptimizingTaskId> o) {
+            completeTasks_result result = new completeTasks_result();
+            result.success = o;
+            try {
+              fcall.sendResponse(fb, result, org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.REPLY,seqid);
+            } catch (org.apache.amoro.shade.thrift.org.apache.thrift.transport.TTransportException e) {
+              _LOGGER.error("TTransportException writing to internal frame buffer", e);
+              fb.close();
+            } catch (java.lang.Exception e) {
+              _LOGGER.error("Exception writing to internal frame buffer", e);
+              onError(e);
+            }
+          }
+          @Override
+          public void onError(java.lang.Exception e) {
+            byte msgType = org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.REPLY;
+            org.apache.amoro.shade.thrift.org.apache.thrift.TSerializable msg;
+            completeTasks_result result = new completeTasks_result();
+            if (e instanceof org.apache.amoro.api.AmoroException) {
+              result.e1 = (org.apache.amoro.api.AmoroException) e;
+              result.setE1IsSet(true);
+              msg = result;
+            } else if (e instanceof org.apache.amoro.shade.thrift.org.apache.thrift.transport.TTransportException) {
+              _LOGGER.error("TTransportException inside handler", e);
+              fb.close();
+              return;
+            } else if (e instanceof org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException) {
+              _LOGGER.error("TApplicationException inside handler", e);
+              msgType = org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.EXCEPTION;
+              msg = (org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException)e;
+            } else {
+              _LOGGER.error("Exception inside handler", e);
+              msgType = org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMessageType.EXCEPTION;
+              msg = new org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException(org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException.INTERNAL_ERROR, e.getMessage());
+            }
+            try {
+              fcall.sendResponse(fb,msg,msgType,seqid);
+            } catch (java.lang.Exception ex) {
+              _LOGGER.error("Exception writing to internal frame buffer", ex);
+              fb.close();
+            }
+          }
+        };
+      }
+
+      @Override
+      protected boolean isOneway() {
+        return false;
+      }
+
+      @Override
+      public void start(I iface, completeTasks_args args, org.apache.amoro.shade.thrift.org.apache.thrift.async.AsyncMethodCallback<java.util.List<OptimizingTaskId>> resultHandler) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        iface.completeTasks(args.authToken, args.taskResults,resultHandler);
+      }
+    }
+  }
+
+  @SuppressWarnings({"cast", "rawtypes", "serial", "unchecked", "unused"})
+  public static class ping_args implements org.apache.amoro.shade.thrift.org.apache.thrift.TBase<ping_args, ping_args._Fields>, java.io.Serializable, Cloneable, Comparable<ping_args>   {
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct("ping_args");
+
+
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new ping_argsStandardSchemeFactory();
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new ping_argsTupleSchemeFactory();
+
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.amoro.shade.thrift.org.apache.thrift.TFieldIdEnum {
+;
+
+      private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
+
+      static {
+        for (_Fields field : java.util.EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new java.lang.IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByName(java.lang.String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final java.lang.String _fieldName;
+
+      _Fields(short thriftId, java.lang.String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      @Override
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      @Override
+      public java.lang.String getFieldName() {
+        return _fieldName;
+      }
+    }
+    public static final java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
+      org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(ping_args.class, metaDataMap);
+    }
+
+    public ping_args() {
+    }
 
     /**
      * Performs a deep copy on <i>other</i>.
@@ -1806,15 +2165,18 @@ public class OptimizingService {
     private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct("touch_args");
 
     private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField AUTH_TOKEN_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("authToken", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING, (short)1);
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField METRICS_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("metrics", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.MAP, (short)2);
 
     private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new touch_argsStandardSchemeFactory();
     private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new touch_argsTupleSchemeFactory();
 
     public @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.String authToken; // required
+    public @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.util.Map<java.lang.String,java.lang.String> metrics; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.amoro.shade.thrift.org.apache.thrift.TFieldIdEnum {
-      AUTH_TOKEN((short)1, "authToken");
+      AUTH_TOKEN((short)1, "authToken"),
+      METRICS((short)2, "metrics");
 
       private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
 
@@ -1832,6 +2194,8 @@ public class OptimizingService {
         switch(fieldId) {
           case 1: // AUTH_TOKEN
             return AUTH_TOKEN;
+          case 2: // METRICS
+            return METRICS;
           default:
             return null;
         }
@@ -1880,6 +2244,10 @@ public class OptimizingService {
       java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.AUTH_TOKEN, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("authToken", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldValueMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields.METRICS, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("metrics", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.MapMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.MAP, 
+              new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldValueMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING), 
+              new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldValueMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING))));
       metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
       org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(touch_args.class, metaDataMap);
     }
@@ -1888,10 +2256,12 @@ public class OptimizingService {
     }
 
     public touch_args(
-      java.lang.String authToken)
+      java.lang.String authToken,
+      java.util.Map<java.lang.String,java.lang.String> metrics)
     {
       this();
       this.authToken = authToken;
+      this.metrics = metrics;
     }
 
     /**
@@ -1901,6 +2271,10 @@ public class OptimizingService {
       if (other.isSetAuthToken()) {
         this.authToken = other.authToken;
       }
+      if (other.isSetMetrics()) {
+        java.util.Map<java.lang.String,java.lang.String> __this__metrics = new java.util.HashMap<java.lang.String,java.lang.String>(other.metrics);
+        this.metrics = __this__metrics;
+      }
     }
 
     @Override
@@ -1911,6 +2285,7 @@ public class OptimizingService {
     @Override
     public void clear() {
       this.authToken = null;
+      this.metrics = null;
     }
 
     @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
@@ -1938,6 +2313,42 @@ public class OptimizingService {
       }
     }
 
+    public int getMetricsSize() {
+      return (this.metrics == null) ? 0 : this.metrics.size();
+    }
+
+    public void putToMetrics(java.lang.String key, java.lang.String val) {
+      if (this.metrics == null) {
+        this.metrics = new java.util.HashMap<java.lang.String,java.lang.String>();
+      }
+      this.metrics.put(key, val);
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public java.util.Map<java.lang.String,java.lang.String> getMetrics() {
+      return this.metrics;
+    }
+
+    public touch_args setMetrics(@org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.util.Map<java.lang.String,java.lang.String> metrics) {
+      this.metrics = metrics;
+      return this;
+    }
+
+    public void unsetMetrics() {
+      this.metrics = null;
+    }
+
+    /** Returns true if field metrics is set (has been assigned a value) and false otherwise */
+    public boolean isSetMetrics() {
+      return this.metrics != null;
+    }
+
+    public void setMetricsIsSet(boolean value) {
+      if (!value) {
+        this.metrics = null;
+      }
+    }
+
     @Override
     public void setFieldValue(_Fields field, @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.Object value) {
       switch (field) {
@@ -1949,6 +2360,14 @@ public class OptimizingService {
         }
         break;
 
+      case METRICS:
+        if (value == null) {
+          unsetMetrics();
+        } else {
+          setMetrics((java.util.Map<java.lang.String,java.lang.String>)value);
+        }
+        break;
+
       }
     }
 
@@ -1959,6 +2378,9 @@ public class OptimizingService {
       case AUTH_TOKEN:
         return getAuthToken();
 
+      case METRICS:
+        return getMetrics();
+
       }
       throw new java.lang.IllegalStateException();
     }
@@ -1973,6 +2395,8 @@ public class OptimizingService {
       switch (field) {
       case AUTH_TOKEN:
         return isSetAuthToken();
+      case METRICS:
+        return isSetMetrics();
       }
       throw new java.lang.IllegalStateException();
     }
@@ -1999,6 +2423,15 @@ public class OptimizingService {
           return false;
       }
 
+      boolean this_present_metrics = true && this.isSetMetrics();
+      boolean that_present_metrics = true && that.isSetMetrics();
+      if (this_present_metrics || that_present_metrics) {
+        if (!(this_present_metrics && that_present_metrics))
+          return false;
+        if (!this.metrics.equals(that.metrics))
+          return false;
+      }
+
       return true;
     }
 
@@ -2010,6 +2443,10 @@ public class OptimizingService {
       if (isSetAuthToken())
         hashCode = hashCode * 8191 + authToken.hashCode();
 
+      hashCode = hashCode * 8191 + ((isSetMetrics()) ? 131071 : 524287);
+      if (isSetMetrics())
+        hashCode = hashCode * 8191 + metrics.hashCode();
+
       return hashCode;
     }
 
@@ -2031,6 +2468,16 @@ public class OptimizingService {
           return lastComparison;
         }
       }
+      lastComparison = java.lang.Boolean.compare(isSetMetrics(), other.isSetMetrics());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetMetrics()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.metrics, other.metrics);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -2062,6 +2509,14 @@ public class OptimizingService {
         sb.append(this.authToken);
       }
       first = false;
+      if (!first) sb.append(", ");
+      sb.append("metrics:");
+      if (this.metrics == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.metrics);
+      }
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -2115,6 +2570,26 @@ public class OptimizingService {
                 org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
+            case 2: // METRICS
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.MAP) {
+                {
+                  org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMap _map0 = iprot.readMapBegin();
+                  struct.metrics = new java.util.HashMap<java.lang.String,java.lang.String>(2*_map0.size);
+                  @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.String _key1;
+                  @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.String _val2;
+                  for (int _i3 = 0; _i3 < _map0.size; ++_i3)
+                  {
+                    _key1 = iprot.readString();
+                    _val2 = iprot.readString();
+                    struct.metrics.put(_key1, _val2);
+                  }
+                  iprot.readMapEnd();
+                }
+                struct.setMetricsIsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
             default:
               org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
           }
@@ -2136,6 +2611,19 @@ public class OptimizingService {
           oprot.writeString(struct.authToken);
           oprot.writeFieldEnd();
         }
+        if (struct.metrics != null) {
+          oprot.writeFieldBegin(METRICS_FIELD_DESC);
+          {
+            oprot.writeMapBegin(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMap(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING, org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING, struct.metrics.size()));
+            for (java.util.Map.Entry<java.lang.String, java.lang.String> _iter4 : struct.metrics.entrySet())
+            {
+              oprot.writeString(_iter4.getKey());
+              oprot.writeString(_iter4.getValue());
+            }
+            oprot.writeMapEnd();
+          }
+          oprot.writeFieldEnd();
+        }
         oprot.writeFieldStop();
         oprot.writeStructEnd();
       }
@@ -2158,20 +2646,48 @@ public class OptimizingService {
         if (struct.isSetAuthToken()) {
           optionals.set(0);
         }
-        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetMetrics()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
         if (struct.isSetAuthToken()) {
           oprot.writeString(struct.authToken);
         }
+        if (struct.isSetMetrics()) {
+          {
+            oprot.writeI32(struct.metrics.size());
+            for (java.util.Map.Entry<java.lang.String, java.lang.String> _iter5 : struct.metrics.entrySet())
+            {
+              oprot.writeString(_iter5.getKey());
+              oprot.writeString(_iter5.getValue());
+            }
+          }
+        }
       }
 
       @Override
       public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot, touch_args struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
         org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol iprot = (org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol) prot;
-        java.util.BitSet incoming = iprot.readBitSet(1);
+        java.util.BitSet incoming = iprot.readBitSet(2);
         if (incoming.get(0)) {
           struct.authToken = iprot.readString();
           struct.setAuthTokenIsSet(true);
         }
+        if (incoming.get(1)) {
+          {
+            org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TMap _map6 = iprot.readMapBegin(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING, org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING); 
+            struct.metrics = new java.util.HashMap<java.lang.String,java.lang.String>(2*_map6.size);
+            @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.String _key7;
+            @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.String _val8;
+            for (int _i9 = 0; _i9 < _map6.size; ++_i9)
+            {
+              _key7 = iprot.readString();
+              _val8 = iprot.readString();
+              struct.metrics.put(_key7, _val8);
+            }
+          }
+          struct.setMetricsIsSet(true);
+        }
       }
     }
 
@@ -6985,4 +7501,2201 @@ public class OptimizingService {
     }
   }
 
+
+  @SuppressWarnings({"cast", "rawtypes", "serial", "unchecked", "unused"})
+  public static class pollTasks_args implements org.apache.amoro.shade.thrift.org.apache.thrift.TBase<pollTasks_args, pollTasks_args._Fields>, java.io.Serializable, Cloneable, Comparable<pollTasks_args>   {
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct("pollTasks_args");
+
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField AUTH_TOKEN_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("authToken", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING, (short)1);
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField THREAD_ID_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("threadId", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.I32, (short)2);
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField MAX_TASKS_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("maxTasks", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.I32, (short)3);
+
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new pollTasks_argsStandardSchemeFactory();
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new pollTasks_argsTupleSchemeFactory();
+
+    public @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.String authToken; // required
+    public int threadId; // required
+    public int maxTasks; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.amoro.shade.thrift.org.apache.thrift.TFieldIdEnum {
+      AUTH_TOKEN((short)1, "authToken"),
+      THREAD_ID((short)2, "threadId"),
+      MAX_TASKS((short)3, "maxTasks");
+
+      private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
+
+      static {
+        for (_Fields field : java.util.EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // AUTH_TOKEN
+            return AUTH_TOKEN;
+          case 2: // THREAD_ID
+            return THREAD_ID;
+          case 3: // MAX_TASKS
+            return MAX_TASKS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new java.lang.IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByName(java.lang.String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final java.lang.String _fieldName;
+
+      _Fields(short thriftId, java.lang.String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      @Override
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      @Override
+      public java.lang.String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int __THREADID_ISSET_ID = 0;
+    private static final int __MAXTASKS_ISSET_ID = 1;
+    private byte __isset_bitfield = 0;
+    public static final java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.AUTH_TOKEN, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("authToken", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldValueMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields.THREAD_ID, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("threadId", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldValueMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.I32)));
+      tmpMap.put(_Fields.MAX_TASKS, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("maxTasks", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldValueMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.I32)));
+      metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
+      org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(pollTasks_args.class, metaDataMap);
+    }
+
+    public pollTasks_args() {
+    }
+
+    public pollTasks_args(
+      java.lang.String authToken,
+      int threadId,
+      int maxTasks)
+    {
+      this();
+      this.authToken = authToken;
+      this.threadId = threadId;
+      setThreadIdIsSet(true);
+      this.maxTasks = maxTasks;
+      setMaxTasksIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public pollTasks_args(pollTasks_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      if (other.isSetAuthToken()) {
+        this.authToken = other.authToken;
+      }
+      this.threadId = other.threadId;
+      this.maxTasks = other.maxTasks;
+    }
+
+    @Override
+    public pollTasks_args deepCopy() {
+      return new pollTasks_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.authToken = null;
+      setThreadIdIsSet(false);
+      this.threadId = 0;
+      setMaxTasksIsSet(false);
+      this.maxTasks = 0;
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public java.lang.String getAuthToken() {
+      return this.authToken;
+    }
+
+    public pollTasks_args setAuthToken(@org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.String authToken) {
+      this.authToken = authToken;
+      return this;
+    }
+
+    public void unsetAuthToken() {
+      this.authToken = null;
+    }
+
+    /** Returns true if field authToken is set (has been assigned a value) and false otherwise */
+    public boolean isSetAuthToken() {
+      return this.authToken != null;
+    }
+
+    public void setAuthTokenIsSet(boolean value) {
+      if (!value) {
+        this.authToken = null;
+      }
+    }
+
+    public int getThreadId() {
+      return this.threadId;
+    }
+
+    public pollTasks_args setThreadId(int threadId) {
+      this.threadId = threadId;
+      setThreadIdIsSet(true);
+      return this;
+    }
+
+    public void unsetThreadId() {
+      __isset_bitfield = org.apache.amoro.shade.thrift.org.apache.thrift.EncodingUtils.clearBit(__isset_bitfield, __THREADID_ISSET_ID);
+    }
+
+    /** Returns true if field threadId is set (has been assigned a value) and false otherwise */
+    public boolean isSetThreadId() {
+      return org.apache.amoro.shade.thrift.org.apache.thrift.EncodingUtils.testBit(__isset_bitfield, __THREADID_ISSET_ID);
+    }
+
+    public void setThreadIdIsSet(boolean value) {
+      __isset_bitfield = org.apache.amoro.shade.thrift.org.apache.thrift.EncodingUtils.setBit(__isset_bitfield, __THREADID_ISSET_ID, value);
+    }
+
+    public int getMaxTasks() {
+      return this.maxTasks;
+    }
+
+    public pollTasks_args setMaxTasks(int maxTasks) {
+      this.maxTasks = maxTasks;
+      setMaxTasksIsSet(true);
+      return this;
+    }
+
+    public void unsetMaxTasks() {
+      __isset_bitfield = org.apache.amoro.shade.thrift.org.apache.thrift.EncodingUtils.clearBit(__isset_bitfield, __MAXTASKS_ISSET_ID);
+    }
+
+    /** Returns true if field maxTasks is set (has been assigned a value) and false otherwise */
+    public boolean isSetMaxTasks() {
+      return org.apache.amoro.shade.thrift.org.apache.thrift.EncodingUtils.testBit(__isset_bitfield, __MAXTASKS_ISSET_ID);
+    }
+
+    public void setMaxTasksIsSet(boolean value) {
+      __isset_bitfield = org.apache.amoro.shade.thrift.org.apache.thrift.EncodingUtils.setBit(__isset_bitfield, __MAXTASKS_ISSET_ID, value);
+    }
+
+    @Override
+    public void setFieldValue(_Fields field, @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.Object value) {
+      switch (field) {
+      case AUTH_TOKEN:
+        if (value == null) {
+          unsetAuthToken();
+        } else {
+          setAuthToken((java.lang.String)value);
+        }
+        break;
+
+      case THREAD_ID:
+        if (value == null) {
+          unsetThreadId();
+        } else {
+          setThreadId((java.lang.Integer)value);
+        }
+        break;
+
+      case MAX_TASKS:
+        if (value == null) {
+          unsetMaxTasks();
+        } else {
+          setMaxTasks((java.lang.Integer)value);
+        }
+        break;
+
+      }
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    @Override
+    public java.lang.Object getFieldValue(_Fields field) {
+      switch (field) {
+      case AUTH_TOKEN:
+        return getAuthToken();
+
+      case THREAD_ID:
+        return getThreadId();
+
+      case MAX_TASKS:
+        return getMaxTasks();
+
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    @Override
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new java.lang.IllegalArgumentException();
+      }
+
+      switch (field) {
+      case AUTH_TOKEN:
+        return isSetAuthToken();
+      case THREAD_ID:
+        return isSetThreadId();
+      case MAX_TASKS:
+        return isSetMaxTasks();
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(java.lang.Object that) {
+      if (that instanceof pollTasks_args)
+        return this.equals((pollTasks_args)that);
+      return false;
+    }
+
+    public boolean equals(pollTasks_args that) {
+      if (that == null)
+        return false;
+      if (this == that)
+        return true;
+
+      boolean this_present_authToken = true && this.isSetAuthToken();
+      boolean that_present_authToken = true && that.isSetAuthToken();
+      if (this_present_authToken || that_present_authToken) {
+        if (!(this_present_authToken && that_present_authToken))
+          return false;
+        if (!this.authToken.equals(that.authToken))
+          return false;
+      }
+
+      boolean this_present_threadId = true;
+      boolean that_present_threadId = true;
+      if (this_present_threadId || that_present_threadId) {
+        if (!(this_present_threadId && that_present_threadId))
+          return false;
+        if (this.threadId != that.threadId)
+          return false;
+      }
+
+      boolean this_present_maxTasks = true;
+      boolean that_present_maxTasks = true;
+      if (this_present_maxTasks || that_present_maxTasks) {
+        if (!(this_present_maxTasks && that_present_maxTasks))
+          return false;
+        if (this.maxTasks != that.maxTasks)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hashCode = 1;
+
+      hashCode = hashCode * 8191 + ((isSetAuthToken()) ? 131071 : 524287);
+      if (isSetAuthToken())
+        hashCode = hashCode * 8191 + authToken.hashCode();
+
+      hashCode = hashCode * 8191 + threadId;
+
+      hashCode = hashCode * 8191 + maxTasks;
+
+      return hashCode;
+    }
+
+    @Override
+    public int compareTo(pollTasks_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = java.lang.Boolean.compare(isSetAuthToken(), other.isSetAuthToken());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetAuthToken()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.authToken, other.authToken);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = java.lang.Boolean.compare(isSetThreadId(), other.isSetThreadId());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetThreadId()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.threadId, other.threadId);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = java.lang.Boolean.compare(isSetMaxTasks(), other.isSetMaxTasks());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetMaxTasks()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.maxTasks, other.maxTasks);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    @Override
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    @Override
+    public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol iprot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      scheme(iprot).read(iprot, this);
+    }
+
+    @Override
+    public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol oprot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      scheme(oprot).write(oprot, this);
+    }
+
+    @Override
+    public java.lang.String toString() {
+      java.lang.StringBuilder sb = new java.lang.StringBuilder("pollTasks_args(");
+      boolean first = true;
+
+      sb.append("authToken:");
+      if (this.authToken == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.authToken);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("threadId:");
+      sb.append(this.threadId);
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("maxTasks:");
+      sb.append(this.maxTasks);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TCompactProtocol(new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.amoro.shade.thrift.org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, java.lang.ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TCompactProtocol(new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.amoro.shade.thrift.org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class pollTasks_argsStandardSchemeFactory implements org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory {
+      @Override
+      public pollTasks_argsStandardScheme getScheme() {
+        return new pollTasks_argsStandardScheme();
+      }
+    }
+
+    private static class pollTasks_argsStandardScheme extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.StandardScheme<pollTasks_args> {
+
+      @Override
+      public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol iprot, pollTasks_args struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // AUTH_TOKEN
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING) {
+                struct.authToken = iprot.readString();
+                struct.setAuthTokenIsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // THREAD_ID
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.I32) {
+                struct.threadId = iprot.readI32();
+                struct.setThreadIdIsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 3: // MAX_TASKS
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.I32) {
+                struct.maxTasks = iprot.readI32();
+                struct.setMaxTasksIsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      @Override
+      public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol oprot, pollTasks_args struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.authToken != null) {
+          oprot.writeFieldBegin(AUTH_TOKEN_FIELD_DESC);
+          oprot.writeString(struct.authToken);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldBegin(THREAD_ID_FIELD_DESC);
+        oprot.writeI32(struct.threadId);
+        oprot.writeFieldEnd();
+        oprot.writeFieldBegin(MAX_TASKS_FIELD_DESC);
+        oprot.writeI32(struct.maxTasks);
+        oprot.writeFieldEnd();
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class pollTasks_argsTupleSchemeFactory implements org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory {
+      @Override
+      public pollTasks_argsTupleScheme getScheme() {
+        return new pollTasks_argsTupleScheme();
+      }
+    }
+
+    private static class pollTasks_argsTupleScheme extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.TupleScheme<pollTasks_args> {
+
+      @Override
+      public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot, pollTasks_args struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol oprot = (org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet optionals = new java.util.BitSet();
+        if (struct.isSetAuthToken()) {
+          optionals.set(0);
+        }
+        if (struct.isSetThreadId()) {
+          optionals.set(1);
+        }
+        if (struct.isSetMaxTasks()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
+        if (struct.isSetAuthToken()) {
+          oprot.writeString(struct.authToken);
+        }
+        if (struct.isSetThreadId()) {
+          oprot.writeI32(struct.threadId);
+        }
+        if (struct.isSetMaxTasks()) {
+          oprot.writeI32(struct.maxTasks);
+        }
+      }
+
+      @Override
+      public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot, pollTasks_args struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol iprot = (org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet incoming = iprot.readBitSet(3);
+        if (incoming.get(0)) {
+          struct.authToken = iprot.readString();
+          struct.setAuthTokenIsSet(true);
+        }
+        if (incoming.get(1)) {
+          struct.threadId = iprot.readI32();
+          struct.setThreadIdIsSet(true);
+        }
+        if (incoming.get(2)) {
+          struct.maxTasks = iprot.readI32();
+          struct.setMaxTasksIsSet(true);
+        }
+      }
+    }
+
+    private static <S extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.IScheme> S scheme(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol proto) {
+      return (org.apache.amoro.shade.thrift.org.apache.thrift.scheme.StandardScheme.class.equals(proto.getScheme()) ? STANDARD_SCHEME_FACTORY : TUPLE_SCHEME_FACTORY).getScheme();
+    }
+  }
+
+  @SuppressWarnings({"cast", "rawtypes", "serial", "unchecked", "unused"})
+  public static class pollTasks_result implements org.apache.amoro.shade.thrift.org.apache.thrift.TBase<pollTasks_result, pollTasks_result._Fields>, java.io.Serializable, Cloneable, Comparable<pollTasks_result>   {
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct("pollTasks_result");
+
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("success", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.LIST, (short)0);
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField E1_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("e1", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, (short)1);
+
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new pollTasks_resultStandardSchemeFactory();
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new pollTasks_resultTupleSchemeFactory();
+
+    public @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.util.List<OptimizingTask> success; // required
+    public @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable org.apache.amoro.api.AmoroException e1; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.amoro.shade.thrift.org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success"),
+      E1((short)1, "e1");
+
+      private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
+
+      static {
+        for (_Fields field : java.util.EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          case 1: // E1
+            return E1;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new java.lang.IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByName(java.lang.String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final java.lang.String _fieldName;
+
+      _Fields(short thriftId, java.lang.String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      @Override
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      @Override
+      public java.lang.String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("success", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.ListMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.StructMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, OptimizingTask.class))));
+      tmpMap.put(_Fields.E1, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("e1", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.StructMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, org.apache.amoro.api.AmoroException.class)));
+      metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
+      org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(pollTasks_result.class, metaDataMap);
+    }
+
+    public pollTasks_result() {
+    }
+
+    public pollTasks_result(
+      java.util.List<OptimizingTask> success,
+      org.apache.amoro.api.AmoroException e1)
+    {
+      this();
+      this.success = success;
+      this.e1 = e1;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public pollTasks_result(pollTasks_result other) {
+      if (other.isSetSuccess()) {
+        java.util.List<OptimizingTask> __this__success = new java.util.ArrayList<OptimizingTask>(other.success.size());
+        for (OptimizingTask other_element : other.success) {
+          __this__success.add(new OptimizingTask(other_element));
+        }
+        this.success = __this__success;
+      }
+      if (other.isSetE1()) {
+        this.e1 = new org.apache.amoro.api.AmoroException(other.e1);
+      }
+    }
+
+    @Override
+    public pollTasks_result deepCopy() {
+      return new pollTasks_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+      this.e1 = null;
+    }
+
+    public int getSuccessSize() {
+      return (this.success == null) ? 0 : this.success.size();
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public java.util.Iterator<OptimizingTask> getSuccessIterator() {
+      return (this.success == null) ? null : this.success.iterator();
+    }
+
+    public void addToSuccess(OptimizingTask elem) {
+      if (this.success == null) {
+        this.success = new java.util.ArrayList<OptimizingTask>();
+      }
+      this.success.add(elem);
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public java.util.List<OptimizingTask> getSuccess() {
+      return this.success;
+    }
+
+    public pollTasks_result setSuccess(@org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.util.List<OptimizingTask> success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public org.apache.amoro.api.AmoroException getE1() {
+      return this.e1;
+    }
+
+    public pollTasks_result setE1(@org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable org.apache.amoro.api.AmoroException e1) {
+      this.e1 = e1;
+      return this;
+    }
+
+    public void unsetE1() {
+      this.e1 = null;
+    }
+
+    /** Returns true if field e1 is set (has been assigned a value) and false otherwise */
+    public boolean isSetE1() {
+      return this.e1 != null;
+    }
+
+    public void setE1IsSet(boolean value) {
+      if (!value) {
+        this.e1 = null;
+      }
+    }
+
+    @Override
+    public void setFieldValue(_Fields field, @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((java.util.List<OptimizingTask>)value);
+        }
+        break;
+
+      case E1:
+        if (value == null) {
+          unsetE1();
+        } else {
+          setE1((org.apache.amoro.api.AmoroException)value);
+        }
+        break;
+
+      }
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    @Override
+    public java.lang.Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      case E1:
+        return getE1();
+
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    @Override
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new java.lang.IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      case E1:
+        return isSetE1();
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(java.lang.Object that) {
+      if (that instanceof pollTasks_result)
+        return this.equals((pollTasks_result)that);
+      return false;
+    }
+
+    public boolean equals(pollTasks_result that) {
+      if (that == null)
+        return false;
+      if (this == that)
+        return true;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      boolean this_present_e = true && this.isSetE1();
+      boolean that_present_e = true && that.isSetE1();
+      if (this_present_e || that_present_e) {
+        if (!(this_present_e && that_present_e))
+          return false;
+        if (!this.e1.equals(that.e1))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hashCode = 1;
+
+      hashCode = hashCode * 8191 + ((isSetSuccess()) ? 131071 : 524287);
+      if (isSetSuccess())
+        hashCode = hashCode * 8191 + success.hashCode();
+
+      hashCode = hashCode * 8191 + ((isSetE1()) ? 131071 : 524287);
+      if (isSetE1())
+        hashCode = hashCode * 8191 + e1.hashCode();
+
+      return hashCode;
+    }
+
+    @Override
+    public int compareTo(pollTasks_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = java.lang.Boolean.compare(isSetSuccess(), other.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.success, other.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = java.lang.Boolean.compare(isSetE1(), other.isSetE1());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetE1()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.e1, other.e1);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    @Override
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    @Override
+    public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol iprot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      scheme(iprot).read(iprot, this);
+    }
+
+    public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol oprot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      scheme(oprot).write(oprot, this);
+      }
+
+    @Override
+    public java.lang.String toString() {
+      java.lang.StringBuilder sb = new java.lang.StringBuilder("pollTasks_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("e1:");
+      if (this.e1 == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.e1);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TCompactProtocol(new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.amoro.shade.thrift.org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, java.lang.ClassNotFoundException {
+      try {
+        read(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TCompactProtocol(new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.amoro.shade.thrift.org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class pollTasks_resultStandardSchemeFactory implements org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory {
+      @Override
+      public pollTasks_resultStandardScheme getScheme() {
+        return new pollTasks_resultStandardScheme();
+      }
+    }
+
+    private static class pollTasks_resultStandardScheme extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.StandardScheme<pollTasks_result> {
+
+      @Override
+      public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol iprot, pollTasks_result struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TList _list10 = iprot.readListBegin();
+                  struct.success = new java.util.ArrayList<OptimizingTask>(_list10.size);
+                  @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable OptimizingTask _elem11;
+                  for (int _i12 = 0; _i12 < _list10.size; ++_i12)
+                  {
+                    _elem11 = new OptimizingTask();
+                    _elem11.read(iprot);
+                    struct.success.add(_elem11);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 1: // E1
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT) {
+                struct.e1 = new org.apache.amoro.api.AmoroException();
+                struct.e1.read(iprot);
+                struct.setE1IsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      @Override
+      public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol oprot, pollTasks_result struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TList(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, struct.success.size()));
+            for (OptimizingTask _iter13 : struct.success)
+            {
+              _iter13.write(oprot);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        if (struct.e1 != null) {
+          oprot.writeFieldBegin(E1_FIELD_DESC);
+          struct.e1.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class pollTasks_resultTupleSchemeFactory implements org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory {
+      @Override
+      public pollTasks_resultTupleScheme getScheme() {
+        return new pollTasks_resultTupleScheme();
+      }
+    }
+
+    private static class pollTasks_resultTupleScheme extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.TupleScheme<pollTasks_result> {
+
+      @Override
+      public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot, pollTasks_result struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol oprot = (org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet optionals = new java.util.BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        if (struct.isSetE1()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.isSetSuccess()) {
+          {
+            oprot.writeI32(struct.success.size());
+            for (OptimizingTask _iter14 : struct.success)
+            {
+              _iter14.write(oprot);
+            }
+          }
+        }
+        if (struct.isSetE1()) {
+          struct.e1.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot, pollTasks_result struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol iprot = (org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          {
+            org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TList _list15 = iprot.readListBegin(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT);
+            struct.success = new java.util.ArrayList<OptimizingTask>(_list15.size);
+            @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable OptimizingTask _elem16;
+            for (int _i17 = 0; _i17 < _list15.size; ++_i17)
+            {
+              _elem16 = new OptimizingTask();
+              _elem16.read(iprot);
+              struct.success.add(_elem16);
+            }
+          }
+          struct.setSuccessIsSet(true);
+        }
+        if (incoming.get(1)) {
+          struct.e1 = new org.apache.amoro.api.AmoroException();
+          struct.e1.read(iprot);
+          struct.setE1IsSet(true);
+        }
+      }
+    }
+
+    private static <S extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.IScheme> S scheme(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol proto) {
+      return (org.apache.amoro.shade.thrift.org.apache.thrift.scheme.StandardScheme.class.equals(proto.getScheme()) ? STANDARD_SCHEME_FACTORY : TUPLE_SCHEME_FACTORY).getScheme();
+    }
+  }
+
+
+  @SuppressWarnings({"cast", "rawtypes", "serial", "unchecked", "unused"})
+  public static class completeTasks_args implements org.apache.amoro.shade.thrift.org.apache.thrift.TBase<completeTasks_args, completeTasks_args._Fields>, java.io.Serializable, Cloneable, Comparable<completeTasks_args>   {
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct("completeTasks_args");
+
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField AUTH_TOKEN_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("authToken", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING, (short)1);
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField TASK_RESULTS_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("taskResults", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.LIST, (short)2);
+
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new completeTasks_argsStandardSchemeFactory();
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new completeTasks_argsTupleSchemeFactory();
+
+    public @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.String authToken; // required
+    public @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.util.List<OptimizingTaskResult> taskResults; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.amoro.shade.thrift.org.apache.thrift.TFieldIdEnum {
+      AUTH_TOKEN((short)1, "authToken"),
+      TASK_RESULTS((short)2, "taskResults");
+
+      private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
+
+      static {
+        for (_Fields field : java.util.EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // AUTH_TOKEN
+            return AUTH_TOKEN;
+          case 2: // TASK_RESULTS
+            return TASK_RESULTS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new java.lang.IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByName(java.lang.String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final java.lang.String _fieldName;
+
+      _Fields(short thriftId, java.lang.String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      @Override
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      @Override
+      public java.lang.String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.AUTH_TOKEN, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("authToken", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldValueMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields.TASK_RESULTS, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("taskResults", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.ListMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.StructMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, OptimizingTaskResult.class))));
+      metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
+      org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(completeTasks_args.class, metaDataMap);
+    }
+
+    public completeTasks_args() {
+    }
+
+    public completeTasks_args(
+      java.lang.String authToken,
+      java.util.List<OptimizingTaskResult> taskResults)
+    {
+      this();
+      this.authToken = authToken;
+      this.taskResults = taskResults;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public completeTasks_args(completeTasks_args other) {
+      if (other.isSetAuthToken()) {
+        this.authToken = other.authToken;
+      }
+      if (other.isSetTaskResults()) {
+        java.util.List<OptimizingTaskResult> __this__taskResults = new java.util.ArrayList<OptimizingTaskResult>(other.taskResults.size());
+        for (OptimizingTaskResult other_element : other.taskResults) {
+          __this__taskResults.add(new OptimizingTaskResult(other_element));
+        }
+        this.taskResults = __this__taskResults;
+      }
+    }
+
+    @Override
+    public completeTasks_args deepCopy() {
+      return new completeTasks_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this.authToken = null;
+      this.taskResults = null;
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public java.lang.String getAuthToken() {
+      return this.authToken;
+    }
+
+    public completeTasks_args setAuthToken(@org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.String authToken) {
+      this.authToken = authToken;
+      return this;
+    }
+
+    public void unsetAuthToken() {
+      this.authToken = null;
+    }
+
+    /** Returns true if field authToken is set (has been assigned a value) and false otherwise */
+    public boolean isSetAuthToken() {
+      return this.authToken != null;
+    }
+
+    public void setAuthTokenIsSet(boolean value) {
+      if (!value) {
+        this.authToken = null;
+      }
+    }
+
+    public int getTaskResultsSize() {
+      return (this.taskResults == null) ? 0 : this.taskResults.size();
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public java.util.Iterator<OptimizingTaskResult> getTaskResultsIterator() {
+      return (this.taskResults == null) ? null : this.taskResults.iterator();
+    }
+
+    public void addToTaskResults(OptimizingTaskResult elem) {
+      if (this.taskResults == null) {
+        this.taskResults = new java.util.ArrayList<OptimizingTaskResult>();
+      }
+      this.taskResults.add(elem);
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public java.util.List<OptimizingTaskResult> getTaskResults() {
+      return this.taskResults;
+    }
+
+    public completeTasks_args setTaskResults(@org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.util.List<OptimizingTaskResult> taskResults) {
+      this.taskResults = taskResults;
+      return this;
+    }
+
+    public void unsetTaskResults() {
+      this.taskResults = null;
+    }
+
+    /** Returns true if field taskResults is set (has been assigned a value) and false otherwise */
+    public boolean isSetTaskResults() {
+      return this.taskResults != null;
+    }
+
+    public void setTaskResultsIsSet(boolean value) {
+      if (!value) {
+        this.taskResults = null;
+      }
+    }
+
+    @Override
+    public void setFieldValue(_Fields field, @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.Object value) {
+      switch (field) {
+      case AUTH_TOKEN:
+        if (value == null) {
+          unsetAuthToken();
+        } else {
+          setAuthToken((java.lang.String)value);
+        }
+        break;
+
+      case TASK_RESULTS:
+        if (value == null) {
+          unsetTaskResults();
+        } else {
+          setTaskResults((java.util.List<OptimizingTaskResult>)value);
+        }
+        break;
+
+      }
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    @Override
+    public java.lang.Object getFieldValue(_Fields field) {
+      switch (field) {
+      case AUTH_TOKEN:
+        return getAuthToken();
+
+      case TASK_RESULTS:
+        return getTaskResults();
+
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    @Override
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new java.lang.IllegalArgumentException();
+      }
+
+      switch (field) {
+      case AUTH_TOKEN:
+        return isSetAuthToken();
+      case TASK_RESULTS:
+        return isSetTaskResults();
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(java.lang.Object that) {
+      if (that instanceof completeTasks_args)
+        return this.equals((completeTasks_args)that);
+      return false;
+    }
+
+    public boolean equals(completeTasks_args that) {
+      if (that == null)
+        return false;
+      if (this == that)
+        return true;
+
+      boolean this_present_authToken = true && this.isSetAuthToken();
+      boolean that_present_authToken = true && that.isSetAuthToken();
+      if (this_present_authToken || that_present_authToken) {
+        if (!(this_present_authToken && that_present_authToken))
+          return false;
+        if (!this.authToken.equals(that.authToken))
+          return false;
+      }
+
+      boolean this_present_taskResults = true && this.isSetTaskResults();
+      boolean that_present_taskResults = true && that.isSetTaskResults();
+      if (this_present_taskResults || that_present_taskResults) {
+        if (!(this_present_taskResults && that_present_taskResults))
+          return false;
+        if (!this.taskResults.equals(that.taskResults))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hashCode = 1;
+
+      hashCode = hashCode * 8191 + ((isSetAuthToken()) ? 131071 : 524287);
+      if (isSetAuthToken())
+        hashCode = hashCode * 8191 + authToken.hashCode();
+
+      hashCode = hashCode * 8191 + ((isSetTaskResults()) ? 131071 : 524287);
+      if (isSetTaskResults())
+        hashCode = hashCode * 8191 + taskResults.hashCode();
+
+      return hashCode;
+    }
+
+    @Override
+    public int compareTo(completeTasks_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = java.lang.Boolean.compare(isSetAuthToken(), other.isSetAuthToken());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetAuthToken()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.authToken, other.authToken);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = java.lang.Boolean.compare(isSetTaskResults(), other.isSetTaskResults());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetTaskResults()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.taskResults, other.taskResults);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    @Override
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    @Override
+    public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol iprot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      scheme(iprot).read(iprot, this);
+    }
+
+    @Override
+    public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol oprot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      scheme(oprot).write(oprot, this);
+    }
+
+    @Override
+    public java.lang.String toString() {
+      java.lang.StringBuilder sb = new java.lang.StringBuilder("completeTasks_args(");
+      boolean first = true;
+
+      sb.append("authToken:");
+      if (this.authToken == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.authToken);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("taskResults:");
+      if (this.taskResults == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.taskResults);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TCompactProtocol(new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.amoro.shade.thrift.org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, java.lang.ClassNotFoundException {
+      try {
+        read(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TCompactProtocol(new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.amoro.shade.thrift.org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class completeTasks_argsStandardSchemeFactory implements org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory {
+      @Override
+      public completeTasks_argsStandardScheme getScheme() {
+        return new completeTasks_argsStandardScheme();
+      }
+    }
+
+    private static class completeTasks_argsStandardScheme extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.StandardScheme<completeTasks_args> {
+
+      @Override
+      public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol iprot, completeTasks_args struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // AUTH_TOKEN
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRING) {
+                struct.authToken = iprot.readString();
+                struct.setAuthTokenIsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // TASK_RESULTS
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TList _list19 = iprot.readListBegin();
+                  struct.taskResults = new java.util.ArrayList<OptimizingTaskResult>(_list19.size);
+                  @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable OptimizingTaskResult _elem20;
+                  for (int _i21 = 0; _i21 < _list19.size; ++_i21)
+                  {
+                    _elem20 = new OptimizingTaskResult();
+                    _elem20.read(iprot);
+                    struct.taskResults.add(_elem20);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.setTaskResultsIsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      @Override
+      public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol oprot, completeTasks_args struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.authToken != null) {
+          oprot.writeFieldBegin(AUTH_TOKEN_FIELD_DESC);
+          oprot.writeString(struct.authToken);
+          oprot.writeFieldEnd();
+        }
+        if (struct.taskResults != null) {
+          oprot.writeFieldBegin(TASK_RESULTS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TList(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, struct.taskResults.size()));
+            for (OptimizingTaskResult _iter22 : struct.taskResults)
+            {
+              _iter22.write(oprot);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class completeTasks_argsTupleSchemeFactory implements org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory {
+      @Override
+      public completeTasks_argsTupleScheme getScheme() {
+        return new completeTasks_argsTupleScheme();
+      }
+    }
+
+    private static class completeTasks_argsTupleScheme extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.TupleScheme<completeTasks_args> {
+
+      @Override
+      public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot, completeTasks_args struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol oprot = (org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet optionals = new java.util.BitSet();
+        if (struct.isSetAuthToken()) {
+          optionals.set(0);
+        }
+        if (struct.isSetTaskResults()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.isSetAuthToken()) {
+          oprot.writeString(struct.authToken);
+        }
+        if (struct.isSetTaskResults()) {
+          {
+            oprot.writeI32(struct.taskResults.size());
+            for (OptimizingTaskResult _iter23 : struct.taskResults)
+            {
+              _iter23.write(oprot);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot, completeTasks_args struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol iprot = (org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          struct.authToken = iprot.readString();
+          struct.setAuthTokenIsSet(true);
+        }
+        if (incoming.get(1)) {
+          {
+            org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TList _list24 = iprot.readListBegin(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT);
+            struct.taskResults = new java.util.ArrayList<OptimizingTaskResult>(_list24.size);
+            @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable OptimizingTaskResult _elem25;
+            for (int _i26 = 0; _i26 < _list24.size; ++_i26)
+            {
+              _elem25 = new OptimizingTaskResult();
+              _elem25.read(iprot);
+              struct.taskResults.add(_elem25);
+            }
+          }
+          struct.setTaskResultsIsSet(true);
+        }
+      }
+    }
+
+    private static <S extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.IScheme> S scheme(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol proto) {
+      return (org.apache.amoro.shade.thrift.org.apache.thrift.scheme.StandardScheme.class.equals(proto.getScheme()) ? STANDARD_SCHEME_FACTORY : TUPLE_SCHEME_FACTORY).getScheme();
+    }
+  }
+
+  @SuppressWarnings({"cast", "rawtypes", "serial", "unchecked", "unused"})
+  public static class completeTasks_result implements org.apache.amoro.shade.thrift.org.apache.thrift.TBase<completeTasks_result, completeTasks_result._Fields>, java.io.Serializable, Cloneable, Comparable<completeTasks_result>   {
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TStruct("completeTasks_result");
+
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("success", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.LIST, (short)0);
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField E1_FIELD_DESC = new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField("e1", org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, (short)1);
+
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory STANDARD_SCHEME_FACTORY = new completeTasks_resultStandardSchemeFactory();
+    private static final org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory TUPLE_SCHEME_FACTORY = new completeTasks_resultTupleSchemeFactory();
+
+    public @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.util.List<OptimizingTaskId> success; // required
+    public @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable org.apache.amoro.api.AmoroException e1; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.amoro.shade.thrift.org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success"),
+      E1((short)1, "e1");
+
+      private static final java.util.Map<java.lang.String, _Fields> byName = new java.util.HashMap<java.lang.String, _Fields>();
+
+      static {
+        for (_Fields field : java.util.EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          case 1: // E1
+            return E1;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new java.lang.IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+      public static _Fields findByName(java.lang.String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final java.lang.String _fieldName;
+
+      _Fields(short thriftId, java.lang.String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      @Override
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      @Override
+      public java.lang.String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      java.util.Map<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData> tmpMap = new java.util.EnumMap<_Fields, org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("success", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.ListMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.StructMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, OptimizingTaskId.class))));
+      tmpMap.put(_Fields.E1, new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData("e1", org.apache.amoro.shade.thrift.org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.StructMetaData(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, org.apache.amoro.api.AmoroException.class)));
+      metaDataMap = java.util.Collections.unmodifiableMap(tmpMap);
+      org.apache.amoro.shade.thrift.org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(completeTasks_result.class, metaDataMap);
+    }
+
+    public completeTasks_result() {
+    }
+
+    public completeTasks_result(
+      java.util.List<OptimizingTaskId> success,
+      org.apache.amoro.api.AmoroException e1)
+    {
+      this();
+      this.success = success;
+      this.e1 = e1;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public completeTasks_result(completeTasks_result other) {
+      if (other.isSetSuccess()) {
+        java.util.List<OptimizingTaskId> __this__success = new java.util.ArrayList<OptimizingTaskId>(other.success.size());
+        for (OptimizingTaskId other_element : other.success) {
+          __this__success.add(new OptimizingTaskId(other_element));
+        }
+        this.success = __this__success;
+      }
+      if (other.isSetE1()) {
+        this.e1 = new org.apache.amoro.api.AmoroException(other.e1);
+      }
+    }
+
+    @Override
+    public completeTasks_result deepCopy() {
+      return new completeTasks_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+      this.e1 = null;
+    }
+
+    public int getSuccessSize() {
+      return (this.success == null) ? 0 : this.success.size();
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public java.util.Iterator<OptimizingTaskId> getSuccessIterator() {
+      return (this.success == null) ? null : this.success.iterator();
+    }
+
+    public void addToSuccess(OptimizingTaskId elem) {
+      if (this.success == null) {
+        this.success = new java.util.ArrayList<OptimizingTaskId>();
+      }
+      this.success.add(elem);
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public java.util.List<OptimizingTaskId> getSuccess() {
+      return this.success;
+    }
+
+    public completeTasks_result setSuccess(@org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.util.List<OptimizingTaskId> success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    public org.apache.amoro.api.AmoroException getE1() {
+      return this.e1;
+    }
+
+    public completeTasks_result setE1(@org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable org.apache.amoro.api.AmoroException e1) {
+      this.e1 = e1;
+      return this;
+    }
+
+    public void unsetE1() {
+      this.e1 = null;
+    }
+
+    /** Returns true if field e1 is set (has been assigned a value) and false otherwise */
+    public boolean isSetE1() {
+      return this.e1 != null;
+    }
+
+    public void setE1IsSet(boolean value) {
+      if (!value) {
+        this.e1 = null;
+      }
+    }
+
+    @Override
+    public void setFieldValue(_Fields field, @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable java.lang.Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((java.util.List<OptimizingTaskId>)value);
+        }
+        break;
+
+      case E1:
+        if (value == null) {
+          unsetE1();
+        } else {
+          setE1((org.apache.amoro.api.AmoroException)value);
+        }
+        break;
+
+      }
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    @Override
+    public java.lang.Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      case E1:
+        return getE1();
+
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    @Override
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new java.lang.IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      case E1:
+        return isSetE1();
+      }
+      throw new java.lang.IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(java.lang.Object that) {
+      if (that instanceof completeTasks_result)
+        return this.equals((completeTasks_result)that);
+      return false;
+    }
+
+    public boolean equals(completeTasks_result that) {
+      if (that == null)
+        return false;
+      if (this == that)
+        return true;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      boolean this_present_e = true && this.isSetE1();
+      boolean that_present_e = true && that.isSetE1();
+      if (this_present_e || that_present_e) {
+        if (!(this_present_e && that_present_e))
+          return false;
+        if (!this.e1.equals(that.e1))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int hashCode = 1;
+
+      hashCode = hashCode * 8191 + ((isSetSuccess()) ? 131071 : 524287);
+      if (isSetSuccess())
+        hashCode = hashCode * 8191 + success.hashCode();
+
+      hashCode = hashCode * 8191 + ((isSetE1()) ? 131071 : 524287);
+      if (isSetE1())
+        hashCode = hashCode * 8191 + e1.hashCode();
+
+      return hashCode;
+    }
+
+    @Override
+    public int compareTo(completeTasks_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = java.lang.Boolean.compare(isSetSuccess(), other.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.success, other.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = java.lang.Boolean.compare(isSetE1(), other.isSetE1());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetE1()) {
+        lastComparison = org.apache.amoro.shade.thrift.org.apache.thrift.TBaseHelper.compareTo(this.e1, other.e1);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable
+    @Override
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    @Override
+    public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol iprot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      scheme(iprot).read(iprot, this);
+    }
+
+    public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol oprot) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      scheme(oprot).write(oprot, this);
+      }
+
+    @Override
+    public java.lang.String toString() {
+      java.lang.StringBuilder sb = new java.lang.StringBuilder("completeTasks_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("e1:");
+      if (this.e1 == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.e1);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TCompactProtocol(new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.amoro.shade.thrift.org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, java.lang.ClassNotFoundException {
+      try {
+        read(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TCompactProtocol(new org.apache.amoro.shade.thrift.org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.amoro.shade.thrift.org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class completeTasks_resultStandardSchemeFactory implements org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory {
+      @Override
+      public completeTasks_resultStandardScheme getScheme() {
+        return new completeTasks_resultStandardScheme();
+      }
+    }
+
+    private static class completeTasks_resultStandardScheme extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.StandardScheme<completeTasks_result> {
+
+      @Override
+      public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol iprot, completeTasks_result struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TList _list10 = iprot.readListBegin();
+                  struct.success = new java.util.ArrayList<OptimizingTaskId>(_list10.size);
+                  @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable OptimizingTaskId _elem11;
+                  for (int _i12 = 0; _i12 < _list10.size; ++_i12)
+                  {
+                    _elem11 = new OptimizingTaskId();
+                    _elem11.read(iprot);
+                    struct.success.add(_elem11);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 1: // E1
+              if (schemeField.type == org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT) {
+                struct.e1 = new org.apache.amoro.api.AmoroException();
+                struct.e1.read(iprot);
+                struct.setE1IsSet(true);
+              } else { 
+                org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      @Override
+      public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol oprot, completeTasks_result struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TList(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT, struct.success.size()));
+            for (OptimizingTaskId _iter13 : struct.success)
+            {
+              _iter13.write(oprot);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        if (struct.e1 != null) {
+          oprot.writeFieldBegin(E1_FIELD_DESC);
+          struct.e1.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class completeTasks_resultTupleSchemeFactory implements org.apache.amoro.shade.thrift.org.apache.thrift.scheme.SchemeFactory {
+      @Override
+      public completeTasks_resultTupleScheme getScheme() {
+        return new completeTasks_resultTupleScheme();
+      }
+    }
+
+    private static class completeTasks_resultTupleScheme extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.TupleScheme<completeTasks_result> {
+
+      @Override
+      public void write(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot, completeTasks_result struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol oprot = (org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet optionals = new java.util.BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        if (struct.isSetE1()) {
+          optionals.set(1);
+        }
+        oprot.writeBitSet(optionals, 2);
+        if (struct.isSetSuccess()) {
+          {
+            oprot.writeI32(struct.success.size());
+            for (OptimizingTaskId _iter14 : struct.success)
+            {
+              _iter14.write(oprot);
+            }
+          }
+        }
+        if (struct.isSetE1()) {
+          struct.e1.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol prot, completeTasks_result struct) throws org.apache.amoro.shade.thrift.org.apache.thrift.TException {
+        org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol iprot = (org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TTupleProtocol) prot;
+        java.util.BitSet incoming = iprot.readBitSet(2);
+        if (incoming.get(0)) {
+          {
+            org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TList _list15 = iprot.readListBegin(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TType.STRUCT);
+            struct.success = new java.util.ArrayList<OptimizingTaskId>(_list15.size);
+            @org.apache.amoro.shade.thrift.org.apache.thrift.annotation.Nullable OptimizingTaskId _elem16;
+            for (int _i17 = 0; _i17 < _list15.size; ++_i17)
+            {
+              _elem16 = new OptimizingTaskId();
+              _elem16.read(iprot);
+              struct.success.add(_elem16);
+            }
+          }
+          struct.setSuccessIsSet(true);
+        }
+        if (incoming.get(1)) {
+          struct.e1 = new org.apache.amoro.api.AmoroException();
+          struct.e1.read(iprot);
+          struct.setE1IsSet(true);
+        }
+      }
+    }
+
+    private static <S extends org.apache.amoro.shade.thrift.org.apache.thrift.scheme.IScheme> S scheme(org.apache.amoro.shade.thrift.org.apache.thrift.protocol.TProtocol proto) {
+      return (org.apache.amoro.shade.thrift.org.apache.thrift.scheme.StandardScheme.class.equals(proto.getScheme()) ? STANDARD_SCHEME_FACTORY : TUPLE_SCHEME_FACTORY).getScheme();
+    }
+  }
+
+
 }
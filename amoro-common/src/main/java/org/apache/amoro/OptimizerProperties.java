@@ -37,6 +37,18 @@ public class OptimizerProperties {
   public static final boolean OPTIMIZER_EXTEND_DISK_STORAGE_DEFAULT = false;
   public static final String OPTIMIZER_DISK_STORAGE_PATH = "disk-storage-path";
   public static final String OPTIMIZER_MEMORY_STORAGE_SIZE = "memory-storage-size";
+  public static final String OPTIMIZER_SPILL_BACKEND = "spill-backend";
+  public static final String OPTIMIZER_SPILL_BACKEND_DEFAULT = "rocksdb";
+  public static final String OPTIMIZER_PREFETCH_TASK_COUNT = "prefetch-task-count";
+  public static final int OPTIMIZER_PREFETCH_TASK_COUNT_DEFAULT = 1;
+  public static final String OPTIMIZER_SPLIT_TASK_SIZE = "split-task-size";
+  public static final long OPTIMIZER_SPLIT_TASK_SIZE_DEFAULT = 0; // never split
+  public static final String OPTIMIZER_PIPELINED_REWRITE = "pipelined-rewrite";
+  public static final boolean OPTIMIZER_PIPELINED_REWRITE_DEFAULT = false;
+  public static final String OPTIMIZER_METRICS_PORT = "metrics-port";
+  public static final int OPTIMIZER_METRICS_PORT_DEFAULT = 0; // disabled
   public static final String MAX_INPUT_FILE_SIZE_PER_THREAD = "max-input-file-size-per-thread";
   public static final Long MAX_INPUT_FILE_SIZE_PER_THREAD_DEFAULT = 512 * 1024 * 1024L; // 512MB
+  public static final String PLANNING_PARALLELISM_PER_TABLE = "planning-parallelism-per-table";
+  public static final int PLANNING_PARALLELISM_PER_TABLE_DEFAULT = 1;
 }
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro;
+
+/**
+ * Names of the metrics an optimizer reports to ams along with its heartbeat. All values are totals
+ * since the optimizer started, except the delete index memory which is the largest one of the
+ * latest tasks.
+ */
+public class OptimizerReportedMetrics {
+
+  public static final String TASKS_COMPLETED = "tasks-completed";
+  public static final String TASKS_FAILED = "tasks-failed";
+  public static final String INPUT_BYTES = "input-bytes";
+  public static final String OUTPUT_BYTES = "output-bytes";
+  public static final String INPUT_RECORDS = "input-records";
+  public static final String SPILL_BYTES = "spill-bytes";
+  public static final String DELETE_INDEX_MEMORY_BYTES = "delete-index-memory-bytes";
+}
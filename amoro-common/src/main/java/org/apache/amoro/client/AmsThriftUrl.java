@@ -38,6 +38,7 @@ import java.util.regex.Pattern;
 
 public class AmsThriftUrl {
   public static final String PARAM_SOCKET_TIMEOUT = "socketTimeout";
+  public static final String PARAM_RESOURCE_GROUP = "resourceGroup";
   public static final int DEFAULT_SOCKET_TIMEOUT = 5000;
   public static final String ZOOKEEPER_FLAG = "zookeeper";
   public static final String THRIFT_FLAG = "thrift";
@@ -131,10 +132,12 @@ public class AmsThriftUrl {
         zkServerAddress = m.group(1);
         cluster = m.group(2);
       }
+      String resourceGroup = getQueryParam(query, PARAM_RESOURCE_GROUP);
       int retryCount = 0;
       while (retryCount < MAX_RETRIES) {
         try {
-          AmsServerInfo serverInfo = findAmsServerInfo(serviceName, zkServerAddress, cluster);
+          AmsServerInfo serverInfo =
+              findAmsServerInfo(serviceName, zkServerAddress, cluster, resourceGroup);
           url =
               String.format(
                   THRIFT_URL_FORMAT,
@@ -190,8 +193,37 @@ public class AmsThriftUrl {
     return null;
   }
 
+  /**
+   * Add the optimizer group to a zookeeper url, so that the optimizing service serving the group is
+   * resolved when AMS sharding is enabled. Thrift urls and urls with a group are returned as is.
+   *
+   * @param url - ams url
+   * @param resourceGroup - optimizer group
+   * @return -
+   */
+  public static String withResourceGroup(String url, String resourceGroup) {
+    if (url == null
+        || resourceGroup == null
+        || !url.startsWith(ZOOKEEPER_FLAG)
+        || url.contains(PARAM_RESOURCE_GROUP + "=")) {
+      return url;
+    }
+    return url + (url.contains("?") ? "&" : "?") + PARAM_RESOURCE_GROUP + "=" + resourceGroup;
+  }
+
+  private static String getQueryParam(String query, String name) {
+    for (String paramExpression : query.replace("?", "").split("&")) {
+      String[] paramSplit = paramExpression.split("=");
+      if (paramSplit.length == 2 && paramSplit[0].equalsIgnoreCase(name)) {
+        return paramSplit[1];
+      }
+    }
+    return null;
+  }
+
   private static AmsServerInfo findAmsServerInfo(
-      String serviceName, String zkServerAddress, String cluster) throws Exception {
+      String serviceName, String zkServerAddress, String cluster, String resourceGroup)
+      throws Exception {
     switch (serviceName) {
       case Constants.THRIFT_TABLE_SERVICE_NAME:
         return JacksonUtil.parseObject(
@@ -199,6 +231,13 @@ public class AmsThriftUrl {
                 .getData(AmsHAProperties.getTableServiceMasterPath(cluster)),
             AmsServerInfo.class);
       case Constants.THRIFT_OPTIMIZING_SERVICE_NAME:
+        if (resourceGroup != null) {
+          AmsServerInfo shardServerInfo =
+              findShardOptimizingServerInfo(zkServerAddress, cluster, resourceGroup);
+          if (shardServerInfo != null) {
+            return shardServerInfo;
+          }
+        }
         return JacksonUtil.parseObject(
             ZookeeperService.getInstance(zkServerAddress)
                 .getData(AmsHAProperties.getOptimizingServiceMasterPath(cluster)),
@@ -208,6 +247,18 @@ public class AmsThriftUrl {
     }
   }
 
+  private static AmsServerInfo findShardOptimizingServerInfo(
+      String zkServerAddress, String cluster, String resourceGroup) throws Exception {
+    ZookeeperService zookeeperService = ZookeeperService.getInstance(zkServerAddress);
+    String assignmentPath = AmsHAProperties.getBucketAssignmentPath(cluster);
+    if (!zookeeperService.exist(assignmentPath)) {
+      return null;
+    }
+    BucketAssignment assignment =
+        JacksonUtil.parseObject(zookeeperService.getData(assignmentPath), BucketAssignment.class);
+    return assignment.optimizingServiceOf(resourceGroup);
+  }
+
   public String schema() {
     return schema;
   }
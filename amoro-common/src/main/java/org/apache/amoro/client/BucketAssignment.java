@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.client;
+
+import org.apache.amoro.shade.guava32.com.google.common.base.MoreObjects;
+import org.apache.amoro.shade.guava32.com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Assignment of buckets to live AMS nodes, published to ZooKeeper by the coordinating AMS when
+ * sharding is enabled. Tables are hashed into buckets by their optimizer group, so all tables of a
+ * group and the optimizers serving it are handled by the same node. An optimizer polls the tasks of
+ * its group from one node, so a group is never split across nodes, and the number of nodes serving
+ * tables is bounded by the number of optimizer groups.
+ */
+public class BucketAssignment {
+  private int bucketNum;
+  private Map<String, AmsServerInfo> optimizingServices = new HashMap<>();
+  private Map<String, List<Integer>> buckets = new HashMap<>();
+
+  public int getBucketNum() {
+    return bucketNum;
+  }
+
+  public void setBucketNum(int bucketNum) {
+    this.bucketNum = bucketNum;
+  }
+
+  public Map<String, AmsServerInfo> getOptimizingServices() {
+    return optimizingServices;
+  }
+
+  public void setOptimizingServices(Map<String, AmsServerInfo> optimizingServices) {
+    this.optimizingServices = optimizingServices;
+  }
+
+  public Map<String, List<Integer>> getBuckets() {
+    return buckets;
+  }
+
+  public void setBuckets(Map<String, List<Integer>> buckets) {
+    this.buckets = buckets;
+  }
+
+  /** Hash an optimizer group into one of {@code bucketNum} buckets. */
+  public static int bucketOf(String optimizerGroup, int bucketNum) {
+    return Math.floorMod(
+        Hashing.murmur3_32_fixed().hashString(optimizerGroup, StandardCharsets.UTF_8).asInt(),
+        bucketNum);
+  }
+
+  /** Return the node owning the bucket, or null if the bucket is not assigned. */
+  public String ownerOf(int bucket) {
+    for (Map.Entry<String, List<Integer>> entry : buckets.entrySet()) {
+      if (entry.getValue().contains(bucket)) {
+        return entry.getKey();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Return the optimizing service of the node serving the optimizer group, or null if no node
+   * serves it yet.
+   */
+  public AmsServerInfo optimizingServiceOf(String optimizerGroup) {
+    if (bucketNum <= 0) {
+      return null;
+    }
+    String owner = ownerOf(bucketOf(optimizerGroup, bucketNum));
+    return owner == null ? null : optimizingServices.get(owner);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BucketAssignment that = (BucketAssignment) o;
+    return bucketNum == that.bucketNum
+        && Objects.equals(optimizingServices, that.optimizingServices)
+        && Objects.equals(buckets, that.buckets);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(bucketNum, optimizingServices, buckets);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("bucketNum", bucketNum)
+        .add("optimizingServices", optimizingServices)
+        .add("buckets", buckets)
+        .toString();
+  }
+}
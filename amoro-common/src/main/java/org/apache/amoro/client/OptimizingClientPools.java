@@ -38,6 +38,17 @@ public class OptimizingClientPools {
     return Objects.requireNonNull(CLIENT_POOLS.get(metastoreUrl)).iface();
   }
 
+  /**
+   * Close the pooled connections of the url, so that the next client resolves the ams server again.
+   * Used when the server rejects the optimizer, e.g. because its group moved to another server.
+   */
+  public static void invalidate(String metastoreUrl) {
+    ThriftClientPool<OptimizingService.Client> pool = CLIENT_POOLS.asMap().remove(metastoreUrl);
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
   @SuppressWarnings("unchecked")
   private static ThriftClientPool<OptimizingService.Client> buildClient(String url) {
     PoolConfig<OptimizingService.Client> poolConfig =
@@ -165,6 +165,11 @@ public class ThriftClientPool<
         poolConfig.getMaxMessageSize());
   }
 
+  /** Close the idle clients, clients in use are closed when they are returned. */
+  public void close() {
+    pool.close();
+  }
+
   /**
    * Get a client's IFace from pool
    *
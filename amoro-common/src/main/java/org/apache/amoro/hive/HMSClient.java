@@ -57,6 +57,9 @@ public interface HMSClient {
 
   List<String> listPartitionNames(String dbName, String tblName, short maxParts) throws TException;
 
+  List<Partition> getPartitionsByNames(String dbName, String tblName, List<String> partNames)
+      throws TException;
+
   void createDatabase(Database db) throws TException;
 
   void dropDatabase(String name, boolean deleteData, boolean ignoreUnknownDb, boolean cascade)
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram metric which records the distribution of values. Values are counted in buckets whose
+ * upper bounds are powers of two, the bucket of a value is found by bit operations, so recording
+ * neither locks nor allocates. Values greater than the last bound are counted in an overflow
+ * bucket.
+ */
+public class Histogram implements Metric {
+
+  /** With the default buckets, the largest bound is 2^23, about 2.3 hours in milliseconds. */
+  public static final int DEFAULT_BUCKET_COUNT = 24;
+
+  private final int bucketCount;
+  // The last element is the overflow bucket
+  private final AtomicLongArray buckets;
+  private final LongAdder sum = new LongAdder();
+
+  public Histogram() {
+    this(DEFAULT_BUCKET_COUNT);
+  }
+
+  /** @param bucketCount number of bounded buckets, the bound of bucket i is 2^i */
+  public Histogram(int bucketCount) {
+    if (bucketCount <= 0 || bucketCount > 62) {
+      throw new IllegalArgumentException("Bucket count must be in [1, 62], but is " + bucketCount);
+    }
+    this.bucketCount = bucketCount;
+    this.buckets = new AtomicLongArray(bucketCount + 1);
+  }
+
+  /**
+   * Record a value, negative values are recorded as 0.
+   *
+   * @param value the value to record
+   */
+  public void update(long value) {
+    value = Math.max(0, value);
+    buckets.incrementAndGet(bucketIndex(value));
+    sum.add(value);
+  }
+
+  /**
+   * Returns the number of bounded buckets.
+   *
+   * @return the number of bounded buckets
+   */
+  public int getBucketCount() {
+    return bucketCount;
+  }
+
+  /**
+   * Returns the inclusive upper bound of a bucket.
+   *
+   * @param index index of the bucket, less than {@link #getBucketCount()}
+   * @return the upper bound of the bucket
+   */
+  public long getBucketBound(int index) {
+    return 1L << index;
+  }
+
+  /**
+   * Returns the number of values recorded in each bucket. The array has one more element than
+   * {@link #getBucketCount()}, which counts the values greater than all bounds.
+   *
+   * @return the non-cumulative counts of the buckets
+   */
+  public long[] getBucketCounts() {
+    long[] counts = new long[buckets.length()];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = buckets.get(i);
+    }
+    return counts;
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return the number of recorded values
+   */
+  public long getCount() {
+    long count = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      count += buckets.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * Returns the sum of recorded values.
+   *
+   * @return the sum of recorded values
+   */
+  public long getSum() {
+    return sum.sum();
+  }
+
+  private int bucketIndex(long value) {
+    if (value <= 1) {
+      return 0;
+    }
+    // The smallest i with value <= 2^i
+    int index = Long.SIZE - Long.numberOfLeadingZeros(value - 1);
+    return Math.min(index, bucketCount);
+  }
+}
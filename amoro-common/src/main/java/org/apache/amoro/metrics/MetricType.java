@@ -21,8 +21,9 @@ package org.apache.amoro.metrics;
 /** Metric type defines. */
 public enum MetricType {
   Counter,
-  Gauge;
-  // More metric type is not defined.
+  Gauge,
+  Histogram,
+  Timer;
 
   public boolean isType(Metric metric) {
     switch (this) {
@@ -30,6 +31,10 @@ public enum MetricType {
         return metric instanceof Counter;
       case Gauge:
         return metric instanceof Gauge;
+      case Histogram:
+        return metric instanceof Histogram;
+      case Timer:
+        return metric instanceof Timer;
     }
     return false;
   }
@@ -39,6 +44,10 @@ public enum MetricType {
       return Counter;
     } else if (metric instanceof Gauge) {
       return Gauge;
+    } else if (metric instanceof Histogram) {
+      return Histogram;
+    } else if (metric instanceof Timer) {
+      return Timer;
     }
     throw new IllegalStateException("Unknown type of metric: " + metric.getClass().getName());
   }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/** A timer metric which records the distribution of durations in milliseconds. */
+public class Timer implements Metric {
+
+  private final Histogram histogram;
+
+  public Timer() {
+    this(new Histogram());
+  }
+
+  public Timer(Histogram histogram) {
+    this.histogram = histogram;
+  }
+
+  /**
+   * Record a duration.
+   *
+   * @param duration the duration
+   * @param unit time unit of the duration
+   */
+  public void update(long duration, TimeUnit unit) {
+    histogram.update(unit.toMillis(duration));
+  }
+
+  /**
+   * Start timing, the duration is recorded when the returned context is closed.
+   *
+   * @return a timing context
+   */
+  public Context time() {
+    return new Context();
+  }
+
+  /**
+   * Returns the histogram of durations in milliseconds.
+   *
+   * @return the histogram of durations in milliseconds
+   */
+  public Histogram getHistogram() {
+    return histogram;
+  }
+
+  /** A timing context started by {@link #time()}. */
+  public class Context implements AutoCloseable {
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Record the duration since this context was started.
+     *
+     * @return the duration in milliseconds
+     */
+    public long stop() {
+      long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+      histogram.update(duration);
+      return duration;
+    }
+
+    @Override
+    public void close() {
+      stop();
+    }
+  }
+}
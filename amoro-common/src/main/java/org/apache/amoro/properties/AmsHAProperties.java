@@ -25,6 +25,9 @@ public class AmsHAProperties {
   private static final String LEADER_PATH = "/leader";
   private static final String TABLE_SERVICE_MASTER_PATH = "/master";
   private static final String OPTIMIZING_SERVICE_MASTER_PATH = "/optimizing-service-master";
+  private static final String SHARDING_MEMBERS_PATH = "/members";
+  private static final String BUCKET_ASSIGNMENT_PATH = "/bucket-assignment";
+  private static final String HELD_BUCKETS_PATH = "/held-buckets";
   private static final String NAMESPACE_DEFAULT = "default";
 
   private static String getBasePath(String namespace) {
@@ -45,4 +48,16 @@ public class AmsHAProperties {
   public static String getLeaderPath(String namespace) {
     return getBasePath(namespace) + LEADER_PATH;
   }
+
+  public static String getShardingMembersPath(String namespace) {
+    return getBasePath(namespace) + SHARDING_MEMBERS_PATH;
+  }
+
+  public static String getBucketAssignmentPath(String namespace) {
+    return getBasePath(namespace) + BUCKET_ASSIGNMENT_PATH;
+  }
+
+  public static String getHeldBucketsPath(String namespace) {
+    return getBasePath(namespace) + HELD_BUCKETS_PATH;
+  }
 }
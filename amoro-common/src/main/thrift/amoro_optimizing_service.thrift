@@ -52,7 +52,9 @@ service OptimizingService {
 
     void ping()
 
-    void touch(1: string authToken) throws(1: amoro_commons.AmoroException e1)
+    // metrics are the totals of the optimizer reported with every heartbeat
+    void touch(1: string authToken, 2: map<string, string> metrics)
+            throws(1: amoro_commons.AmoroException e1)
 
     OptimizingTask pollTask(1: string authToken, 2: i32 threadId)
             throws (1: amoro_commons.AmoroException e1)
@@ -67,4 +69,12 @@ service OptimizingService {
             throws (1: amoro_commons.AmoroException e1)
 
     bool cancelProcess(1:i64 processId)
+
+    // poll at most maxTasks tasks in one round trip, returned tasks are acked implicitly
+    list<OptimizingTask> pollTasks(1: string authToken, 2: i32 threadId, 3: i32 maxTasks)
+            throws (1: amoro_commons.AmoroException e1)
+
+    // complete every result it can, returns the ids of the tasks whose results are rejected
+    list<OptimizingTaskId> completeTasks(1: string authToken, 2: list<OptimizingTaskResult> taskResults)
+            throws (1: amoro_commons.AmoroException e1)
 }
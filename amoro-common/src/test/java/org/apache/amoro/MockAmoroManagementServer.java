@@ -55,6 +55,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Random;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
@@ -412,6 +413,7 @@ public class MockAmoroManagementServer implements Runnable {
         new ConcurrentHashMap<>();
     private final Map<String, List<OptimizingTaskResult>> completedTasks =
         new ConcurrentHashMap<>();
+    private final Set<OptimizingTaskId> tasksToReject = ConcurrentHashMap.newKeySet();
 
     public void cleanUp() {}
 
@@ -419,7 +421,7 @@ public class MockAmoroManagementServer implements Runnable {
     public void ping() {}
 
     @Override
-    public void touch(String authToken) throws TException {
+    public void touch(String authToken, Map<String, String> metrics) throws TException {
       checkToken(authToken);
     }
 
@@ -457,6 +459,35 @@ public class MockAmoroManagementServer implements Runnable {
       completeTaskList.add(taskResult);
     }
 
+    @Override
+    public List<OptimizingTask> pollTasks(String authToken, int threadId, int maxTasks)
+        throws TException {
+      checkToken(authToken);
+      List<OptimizingTask> tasks = new ArrayList<>();
+      OptimizingTask task;
+      while (tasks.size() < maxTasks && (task = pendingTasks.poll()) != null) {
+        tasks.add(task);
+      }
+      return tasks;
+    }
+
+    @Override
+    public List<OptimizingTaskId> completeTasks(
+        String authToken, List<OptimizingTaskResult> taskResults) throws TException {
+      checkToken(authToken);
+      // tasks polled in batch are not tracked as executing since they are acked implicitly
+      completedTasks.computeIfAbsent(authToken, token -> new CopyOnWriteArrayList<>());
+      List<OptimizingTaskId> rejectedTasks = new ArrayList<>();
+      for (OptimizingTaskResult taskResult : taskResults) {
+        if (tasksToReject.remove(taskResult.getTaskId())) {
+          rejectedTasks.add(taskResult.getTaskId());
+        } else {
+          completedTasks.get(authToken).add(taskResult);
+        }
+      }
+      return rejectedTasks;
+    }
+
     @Override
     public String authenticate(OptimizerRegisterInfo registerInfo) throws TException {
       String token = UUID.randomUUID().toString();
@@ -473,6 +504,11 @@ public class MockAmoroManagementServer implements Runnable {
       return registeredOptimizers;
     }
 
+    /** Reject the next result reported for the task by {@link #completeTasks}. */
+    public void rejectTaskOnce(OptimizingTaskId taskId) {
+      tasksToReject.add(taskId);
+    }
+
     public boolean offerTask(OptimizingTask task) {
       return pendingTasks.offer(task);
     }
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class TestHistogram {
+
+  @Test
+  void testBuckets() {
+    Histogram histogram = new Histogram(4);
+    assertEquals(8, histogram.getBucketBound(3));
+
+    // buckets: <=1, <=2, <=4, <=8, overflow
+    histogram.update(-1);
+    histogram.update(1);
+    histogram.update(2);
+    histogram.update(3);
+    histogram.update(4);
+    histogram.update(8);
+    histogram.update(9);
+    histogram.update(100);
+
+    assertArrayEquals(new long[] {2, 1, 2, 1, 2}, histogram.getBucketCounts());
+    assertEquals(8, histogram.getCount());
+    assertEquals(127, histogram.getSum());
+  }
+
+  @Test
+  void testTimer() {
+    Timer timer = new Timer();
+    timer.update(3, TimeUnit.SECONDS);
+    try (Timer.Context ignored = timer.time()) {
+      // nothing to time
+    }
+
+    assertEquals(2, timer.getHistogram().getCount());
+    assertEquals(1, timer.getHistogram().getBucketCounts()[12]);
+    assertEquals(3000, timer.getHistogram().getSum(), 100);
+  }
+}
@@ -33,6 +33,8 @@ import org.apache.amoro.shade.guava32.com.google.common.hash.BloomFilter;
 import org.apache.amoro.utils.ContentFiles;
 import org.apache.amoro.utils.map.StructLikeBaseMap;
 import org.apache.amoro.utils.map.StructLikeCollections;
+import org.apache.amoro.utils.map.StructLikeOffHeapLongMap;
+import org.apache.amoro.utils.map.StructLikeSpillableMap;
 import org.apache.iceberg.Accessor;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DeleteFile;
@@ -55,7 +57,6 @@ import org.apache.iceberg.parquet.Parquet;
 import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.util.Filter;
 import org.apache.iceberg.util.StructProjection;
-import org.roaringbitmap.longlong.Roaring64Bitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -99,7 +100,7 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
   private final Multimap<Set<Integer>, DeleteFile> eqDeleteFilesByDeleteIds =
       Multimaps.newMultimap(Maps.newHashMap(), Lists::newArrayList);
 
-  private Map<String, Roaring64Bitmap> positionMap;
+  private PositionDeleteIndex positionIndex;
 
   private final Set<String> positionPathSets;
 
@@ -118,6 +119,9 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
   private final long dataRecordCnt;
   private final boolean filterEqDelete;
 
+  private long deleteIndexMemorySize;
+  private long deleteIndexSpillSize;
+
   protected CombinedDeleteFilter(
       RewriteFilesInput rewriteFilesInput,
       Schema tableSchema,
@@ -197,8 +201,28 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
     return posDeletes != null && !posDeletes.isEmpty();
   }
 
+  /**
+   * Get the memory size of the delete index built by this filter, including the position bitmaps
+   * and the off-heap equality delete maps. The size is kept after the filter is closed.
+   *
+   * @return memory size in bytes
+   */
+  public long deleteIndexMemorySize() {
+    return deleteIndexMemorySize;
+  }
+
+  /**
+   * Get the bytes of the equality delete maps spilled to disk by this filter. The size is kept
+   * after the filter is closed.
+   *
+   * @return spilled size in bytes
+   */
+  public long deleteIndexSpillSize() {
+    return deleteIndexSpillSize;
+  }
+
   public void close() {
-    positionMap = null;
+    positionIndex = null;
     try {
       if (eqPredicate != null) {
         eqPredicate.close();
@@ -326,7 +350,7 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
             RecordWithLsn::recordCopy);
 
     StructLikeBaseMap<Long> structLikeMap =
-        structLikeCollections.createStructLikeMap(deleteSchema.asStruct());
+        structLikeCollections.createStructLikeLongMap(deleteSchema.asStruct());
 
     // init map
     try (CloseableIterable<RecordWithLsn> deletes = deleteRecords) {
@@ -348,6 +372,11 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
       throw new RuntimeException(e);
     }
     structMapCloseable.add(structLikeMap);
+    if (structLikeMap instanceof StructLikeOffHeapLongMap) {
+      deleteIndexMemorySize += ((StructLikeOffHeapLongMap) structLikeMap).memorySize();
+    } else if (structLikeMap instanceof StructLikeSpillableMap) {
+      deleteIndexSpillSize += ((StructLikeSpillableMap<Long>) structLikeMap).sizeOfFileOnDisk();
+    }
 
     return structForDelete -> {
       StructProjection deleteProjection =
@@ -398,29 +427,25 @@ public abstract class CombinedDeleteFilter<T extends StructLike> {
       return record -> false;
     }
 
-    if (positionMap == null) {
-      positionMap = new HashMap<>();
+    if (positionIndex == null) {
+      // Position deletes of files out of the input are skipped by the index
+      PositionDeleteIndex index = new PositionDeleteIndex(positionPathSets);
       List<CloseableIterable<Record>> deletes = Lists.transform(posDeletes, this::openPosDeletes);
       CloseableIterator<Record> iterator = CloseableIterable.concat(deletes).iterator();
       while (iterator.hasNext()) {
         Record deleteRecord = iterator.next();
-        String path = FILENAME_ACCESSOR.get(deleteRecord).toString();
-        if (positionPathSets != null && !positionPathSets.contains(path)) {
-          continue;
-        }
-        Roaring64Bitmap posBitMap = positionMap.computeIfAbsent(path, k -> new Roaring64Bitmap());
-        posBitMap.add((Long) POSITION_ACCESSOR.get(deleteRecord));
+        index.add(
+            FILENAME_ACCESSOR.get(deleteRecord).toString(),
+            (Long) POSITION_ACCESSOR.get(deleteRecord));
       }
+      index.freeze();
+      deleteIndexMemorySize += index.memorySize();
+      positionIndex = index;
     }
 
-    return structLikeForDelete -> {
-      Roaring64Bitmap posSet = positionMap.get(structLikeForDelete.filePath());
-
-      if (posSet == null || posSet.isEmpty()) {
-        return false;
-      }
-      return posSet.contains(structLikeForDelete.getPosition());
-    };
+    PositionDeleteIndex index = positionIndex;
+    return structLikeForDelete ->
+        index.isDeleted(structLikeForDelete.filePath(), structLikeForDelete.getPosition());
   }
 
   private CloseableIterable<StructForDelete<T>> applyPosDeletesBase(
@@ -157,6 +157,16 @@ public class GenericCombinedIcebergDataReader implements OptimizingDataReader {
     return iterable;
   }
 
+  @Override
+  public long deleteIndexMemorySize() {
+    return deleteFilter.deleteIndexMemorySize();
+  }
+
+  @Override
+  public long deleteIndexSpillSize() {
+    return deleteFilter.deleteIndexSpillSize();
+  }
+
   public void close() {
     deleteFilter.close();
   }
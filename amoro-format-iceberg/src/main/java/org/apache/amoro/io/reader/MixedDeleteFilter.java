@@ -99,6 +99,7 @@ public abstract class MixedDeleteFilter<T> {
   private final Schema deleteSchema;
   private final Filter<Record> deleteNodeFilter;
   private CloseablePredicate<T> eqPredicate;
+  private StructLikeBaseMap<ChangedLsn> eqDeleteMap;
   private Map<String, Set<Long>> positionMap;
   private final Accessor<StructLike> posAccessor;
   private final Accessor<StructLike> filePathAccessor;
@@ -222,6 +223,36 @@ public abstract class MixedDeleteFilter<T> {
     this.currentPosSet = null;
   }
 
+  /** @return The primary key fields in the order of the required schema */
+  protected Schema primaryKeySchema() {
+    return TypeUtil.select(requiredSchema, primaryKeyId);
+  }
+
+  /**
+   * Look up the latest equality delete of a primary key, the key must be laid out as {@link
+   * #primaryKeySchema()}.
+   *
+   * @return The LSN of the latest delete, or null if the key is not deleted
+   */
+  protected ChangedLsn equalityDeleteLsn(StructLike primaryKey) {
+    if (eqDeletes.isEmpty()) {
+      return null;
+    }
+    return equalityDeleteMap().get(primaryKey);
+  }
+
+  /** @return The deleted positions of the current data file, or null if there are none */
+  protected Set<Long> currentPositionDeletes() {
+    Preconditions.checkState(currentDataPath != null, "The current data path is not set");
+    if (posDeletes.isEmpty()) {
+      return null;
+    }
+    if (currentPosSet == null) {
+      currentPosSet = positionMap().get(currentDataPath);
+    }
+    return currentPosSet;
+  }
+
   private ChangedLsn deleteLSN(StructLike structLike) {
     Long transactionId = (Long) deleteTransactionIdAccessor.get(structLike);
     Long deleteOffset = (Long) deleteOffsetAccessor.get(structLike);
@@ -243,10 +274,34 @@ public abstract class MixedDeleteFilter<T> {
       return record -> false;
     }
 
-    Schema pkSchema = TypeUtil.select(requiredSchema, primaryKeyId);
+    StructProjection dataPKProjectRow = StructProjection.create(requiredSchema, primaryKeySchema());
+    StructLikeBaseMap<ChangedLsn> structLikeMap = equalityDeleteMap();
+
+    Predicate<T> isInDeleteSet =
+        record -> {
+          StructLike data = asStructLike(record);
+          StructLike dataPk = dataPKProjectRow.copyFor(data);
+          ChangedLsn dataLSN = dataLSN(data);
+          ChangedLsn deleteLsn = structLikeMap.get(dataPk);
+          if (deleteLsn == null) {
+            return false;
+          }
+
+          return deleteLsn.compareTo(dataLSN) > 0;
+        };
+
+    this.eqPredicate = new CloseablePredicate<>(isInDeleteSet, structLikeMap);
+    return isInDeleteSet;
+  }
+
+  private StructLikeBaseMap<ChangedLsn> equalityDeleteMap() {
+    if (eqDeleteMap != null) {
+      return eqDeleteMap;
+    }
+
+    Schema pkSchema = primaryKeySchema();
     // a projection to select and reorder fields of the file schema to match the delete rows
     StructProjection deletePKProjectRow = StructProjection.create(deleteSchema, pkSchema);
-    StructProjection dataPKProjectRow = StructProjection.create(requiredSchema, pkSchema);
 
     Iterable<CloseableIterable<Record>> deleteRecords =
         Iterables.transform(eqDeletes, this::openDeletes);
@@ -283,21 +338,8 @@ public abstract class MixedDeleteFilter<T> {
       throw new RuntimeException(e);
     }
 
-    Predicate<T> isInDeleteSet =
-        record -> {
-          StructLike data = asStructLike(record);
-          StructLike dataPk = dataPKProjectRow.copyFor(data);
-          ChangedLsn dataLSN = dataLSN(data);
-          ChangedLsn deleteLsn = structLikeMap.get(dataPk);
-          if (deleteLsn == null) {
-            return false;
-          }
-
-          return deleteLsn.compareTo(dataLSN) > 0;
-        };
-
-    this.eqPredicate = new CloseablePredicate<>(isInDeleteSet, structLikeMap);
-    return isInDeleteSet;
+    this.eqDeleteMap = structLikeMap;
+    return structLikeMap;
   }
 
   private CloseableIterable<T> applyEqDeletes(
@@ -365,6 +407,26 @@ public abstract class MixedDeleteFilter<T> {
       return record -> false;
     }
 
+    Map<String, Set<Long>> positionMap = positionMap();
+    return item -> {
+      Set<Long> posSet;
+      if (currentDataPath != null) {
+        if (currentPosSet == null) {
+          currentPosSet = positionMap.get(currentDataPath);
+        }
+        posSet = currentPosSet;
+      } else {
+        posSet = positionMap.get(filePath(item));
+      }
+
+      if (posSet == null) {
+        return false;
+      }
+      return posSet.contains(pos(item));
+    };
+  }
+
+  private Map<String, Set<Long>> positionMap() {
     // if there are fewer deletes than a reasonable number to keep in memory, use a set
     if (positionMap == null) {
       positionMap = new HashMap<>();
@@ -384,23 +446,7 @@ public abstract class MixedDeleteFilter<T> {
         posSet.add((Long) POSITION_ACCESSOR.get(deleteRecord));
       }
     }
-
-    return item -> {
-      Set<Long> posSet;
-      if (currentDataPath != null) {
-        if (currentPosSet == null) {
-          currentPosSet = positionMap.get(currentDataPath);
-        }
-        posSet = currentPosSet;
-      } else {
-        posSet = positionMap.get(filePath(item));
-      }
-
-      if (posSet == null) {
-        return false;
-      }
-      return posSet.contains(pos(item));
-    };
+    return positionMap;
   }
 
   private CloseableIterable<T> apply(CloseableIterable<T> records, Predicate<T> predicate) {
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.io.reader;
+
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.buffer.ImmutableRoaringBitmap;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of deleted positions for a fixed set of data files. Data file paths are interned to int
+ * ids, and the bitmaps are serialized into one direct buffer once the index is built by {@link
+ * #freeze()}, so a large number of position deletes does not stay on the heap.
+ *
+ * <p>Positions beyond the unsigned int range fall back to an on-heap {@link Roaring64Bitmap}.
+ */
+class PositionDeleteIndex {
+
+  private static final long MAX_INT_POSITION = 0xFFFFFFFFL;
+
+  private final Map<String, Integer> pathIds;
+  private RoaringBitmap[] buildingBitmaps;
+  private ImmutableRoaringBitmap[] frozenBitmaps;
+  private final Roaring64Bitmap[] overflowBitmaps;
+  private ByteBuffer frozenBuffer;
+
+  // Rows of the same data file are read together, cache the id of the last path
+  private String lastPath;
+  private int lastPathId = -1;
+
+  PositionDeleteIndex(Collection<String> dataFilePaths) {
+    this.pathIds = new HashMap<>(dataFilePaths.size() * 2);
+    for (String path : dataFilePaths) {
+      pathIds.putIfAbsent(path, pathIds.size());
+    }
+    this.buildingBitmaps = new RoaringBitmap[pathIds.size()];
+    this.overflowBitmaps = new Roaring64Bitmap[pathIds.size()];
+  }
+
+  /**
+   * Add a deleted position.
+   *
+   * @return false if the path is not one of the data files of this index
+   */
+  boolean add(String path, long position) {
+    Preconditions.checkState(frozenBitmaps == null, "Can not add positions to a frozen index");
+    Integer id = pathIds.get(path);
+    if (id == null) {
+      return false;
+    }
+    if (position >= 0 && position <= MAX_INT_POSITION) {
+      if (buildingBitmaps[id] == null) {
+        buildingBitmaps[id] = new RoaringBitmap();
+      }
+      buildingBitmaps[id].add((int) position);
+    } else {
+      if (overflowBitmaps[id] == null) {
+        overflowBitmaps[id] = new Roaring64Bitmap();
+      }
+      overflowBitmaps[id].addLong(position);
+    }
+    return true;
+  }
+
+  /** Serialize all bitmaps into a direct buffer, no positions can be added after that. */
+  void freeze() {
+    if (frozenBitmaps != null) {
+      return;
+    }
+    int totalSize = 0;
+    for (RoaringBitmap bitmap : buildingBitmaps) {
+      if (bitmap != null) {
+        bitmap.runOptimize();
+        totalSize += bitmap.serializedSizeInBytes();
+      }
+    }
+
+    frozenBuffer = ByteBuffer.allocateDirect(totalSize);
+    frozenBitmaps = new ImmutableRoaringBitmap[buildingBitmaps.length];
+    for (int i = 0; i < buildingBitmaps.length; i++) {
+      RoaringBitmap bitmap = buildingBitmaps[i];
+      if (bitmap == null || bitmap.isEmpty()) {
+        continue;
+      }
+      int start = frozenBuffer.position();
+      bitmap.serialize(frozenBuffer);
+      ByteBuffer slice = frozenBuffer.duplicate();
+      slice.position(start).limit(frozenBuffer.position());
+      frozenBitmaps[i] = new ImmutableRoaringBitmap(slice.slice());
+    }
+    buildingBitmaps = null;
+  }
+
+  boolean isDeleted(String path, long position) {
+    Preconditions.checkState(frozenBitmaps != null, "The index has not been frozen");
+    int id = pathId(path);
+    if (id < 0) {
+      return false;
+    }
+    if (position >= 0 && position <= MAX_INT_POSITION) {
+      ImmutableRoaringBitmap bitmap = frozenBitmaps[id];
+      return bitmap != null && bitmap.contains((int) position);
+    }
+    Roaring64Bitmap overflow = overflowBitmaps[id];
+    return overflow != null && overflow.contains(position);
+  }
+
+  /** @return the size of the serialized bitmaps in bytes. */
+  long memorySize() {
+    long size = frozenBuffer == null ? 0 : frozenBuffer.capacity();
+    for (Roaring64Bitmap bitmap : overflowBitmaps) {
+      if (bitmap != null) {
+        size += bitmap.serializedSizeInBytes();
+      }
+    }
+    return size;
+  }
+
+  private int pathId(String path) {
+    if (path == null) {
+      return -1;
+    }
+    if (!path.equals(lastPath)) {
+      Integer id = pathIds.get(path);
+      lastPath = path;
+      lastPathId = id == null ? -1 : id;
+    }
+    return lastPathId;
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.log;
+
+import org.apache.amoro.log.data.LogArrayData;
+import org.apache.amoro.log.data.LogMapData;
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tool class used to convert from the binary layout written by {@link LogDataToBinaryConverters}
+ * to {@link LogData}. {@link T} indicate an actual value wrapped within {@link LogData}
+ */
+public class BinaryToLogDataConverters<T> implements Serializable {
+
+  private static final long serialVersionUID = 4183523722045906383L;
+  LogData.Factory<T> factory;
+  LogArrayData.Factory arrayFactory;
+  LogMapData.Factory mapFactory;
+
+  public BinaryToLogDataConverters(
+      LogData.Factory<T> factory,
+      LogArrayData.Factory arrayFactory,
+      LogMapData.Factory mapFactory) {
+    this.factory = Preconditions.checkNotNull(factory);
+    this.arrayFactory = Preconditions.checkNotNull(arrayFactory);
+    this.mapFactory = Preconditions.checkNotNull(mapFactory);
+  }
+
+  /**
+   * Converter to read log data from {@link MessageBytesReader}.
+   *
+   * @param <T> to indicate the log data type
+   */
+  interface BinaryToLogDataConverter<T> extends Converter<MessageBytesReader, Object, Void, T> {}
+
+  public BinaryToLogDataConverter<T> createConverter(Type type) {
+    return wrapIntoNullableConverter(createNotNullConverter(type));
+  }
+
+  private BinaryToLogDataConverter<T> createNotNullConverter(Type type) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+        return (reader, context) -> reader.readByte() != 0;
+      case INTEGER:
+      case DATE:
+        return (reader, context) -> reader.readVarInt();
+      case LONG:
+      case TIME:
+        return (reader, context) -> reader.readVarLong();
+      case FLOAT:
+        return (reader, context) -> Float.intBitsToFloat(reader.readInt());
+      case DOUBLE:
+        return (reader, context) -> Double.longBitsToDouble(reader.readLong());
+      case TIMESTAMP:
+        Types.TimestampType timestamp = (Types.TimestampType) type;
+        if (timestamp.shouldAdjustToUTC()) {
+          return (reader, context) -> readInstant(reader);
+        } else {
+          return (reader, context) -> LocalDateTime.ofInstant(readInstant(reader), ZoneOffset.UTC);
+        }
+      case STRING:
+        return (reader, context) -> new String(readLengthPrefixed(reader), StandardCharsets.UTF_8);
+      case UUID:
+      case FIXED:
+      case BINARY:
+        return (reader, context) -> readLengthPrefixed(reader);
+      case DECIMAL:
+        return (reader, context) -> {
+          int scale = reader.readVarInt();
+          return new BigDecimal(new BigInteger(readLengthPrefixed(reader)), scale);
+        };
+      case LIST:
+        return createListConverter(type);
+      case MAP:
+        return createMapConverter(type);
+      case STRUCT:
+        return createStructConverter(type);
+      default:
+        throw new UnsupportedOperationException("Not Support to parse type: " + type);
+    }
+  }
+
+  private BinaryToLogDataConverter<T> createStructConverter(Type type) {
+    final List<Types.NestedField> fields = type.asNestedType().asStructType().fields();
+    final Type[] fieldTypes = fields.stream().map(Types.NestedField::type).toArray(Type[]::new);
+    final int arity = fieldTypes.length;
+    final BinaryToLogDataConverter<T>[] fieldConverters = new BinaryToLogDataConverter[arity];
+    for (int i = 0; i < arity; i++) {
+      fieldConverters[i] = createConverter(fieldTypes[i]);
+    }
+
+    return (reader, context) -> {
+      Object[] struct = new Object[arity];
+      for (int i = 0; i < arity; i++) {
+        struct[i] = fieldConverters[i].convert(reader, context);
+      }
+      return factory.createActualValue(struct, fieldTypes);
+    };
+  }
+
+  private BinaryToLogDataConverter<T> createMapConverter(Type type) {
+    Types.MapType map = type.asNestedType().asMapType();
+    Type keyType = map.field(map.keyId()).type();
+    Type valueType = map.field(map.valueId()).type();
+    final BinaryToLogDataConverter<T> keyConverter = createConverter(keyType);
+    final BinaryToLogDataConverter<T> valueConverter = createConverter(valueType);
+    return (reader, context) -> {
+      int numElements = reader.readVarInt();
+      Map<Object, Object> result = new HashMap<>();
+      for (int i = 0; i < numElements; i++) {
+        Object key = factory.convertIfNecessary(keyType, keyConverter.convert(reader, context));
+        Object value =
+            factory.convertIfNecessary(valueType, valueConverter.convert(reader, context));
+        result.put(key, value);
+      }
+      return mapFactory.create(result);
+    };
+  }
+
+  private BinaryToLogDataConverter<T> createListConverter(Type type) {
+    Types.ListType list = type.asNestedType().asListType();
+    Type elementType = list.field(list.elementId()).type();
+    BinaryToLogDataConverter<T> elementConverter = createConverter(elementType);
+
+    return (reader, context) -> {
+      int numElements = reader.readVarInt();
+      Object[] array = null;
+      for (int i = 0; i < numElements; i++) {
+        Object value =
+            factory.convertIfNecessary(elementType, elementConverter.convert(reader, context));
+        if (value != null) {
+          if (array == null) {
+            array = (Object[]) Array.newInstance(value.getClass(), numElements);
+          }
+          array[i] = value;
+        }
+      }
+      array = array == null ? new Object[numElements] : array;
+      return arrayFactory.create(array);
+    };
+  }
+
+  private static Instant readInstant(MessageBytesReader reader) {
+    long epochSecond = reader.readVarLong();
+    return Instant.ofEpochSecond(epochSecond, reader.readVarInt());
+  }
+
+  private static byte[] readLengthPrefixed(MessageBytesReader reader) {
+    return reader.readBytes(reader.readVarInt());
+  }
+
+  private static <T> BinaryToLogDataConverter<T> wrapIntoNullableConverter(
+      BinaryToLogDataConverter<T> converter) {
+    return (reader, context) -> {
+      if (reader.readByte() == LogDataToBinaryConverters.NULL_VALUE) {
+        return null;
+      }
+      return converter.convert(reader, context);
+    };
+  }
+}
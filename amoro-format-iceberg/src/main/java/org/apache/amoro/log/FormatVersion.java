@@ -24,7 +24,10 @@ import java.util.Arrays;
 
 /** Log format version. */
 public enum FormatVersion {
-  FORMAT_VERSION_V1(new MessageBytes().append(LogData.MAGIC_NUMBER).append((byte) 1).toBytes());
+  /** Rows are encoded as JSON objects. */
+  FORMAT_VERSION_V1(new MessageBytes().append(LogData.MAGIC_NUMBER).append((byte) 1).toBytes()),
+  /** Rows are encoded in the schema driven binary layout of {@link LogDataToBinaryConverters}. */
+  FORMAT_VERSION_V2(new MessageBytes().append(LogData.MAGIC_NUMBER).append((byte) 2).toBytes());
 
   /**
    * the version of log format, contains a fixed magic number and actual version number, the byte
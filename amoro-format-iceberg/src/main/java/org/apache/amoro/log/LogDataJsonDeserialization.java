@@ -38,8 +38,10 @@ import java.io.IOException;
 import java.io.Serializable;
 
 /**
- * Deserialization that deserializes a JSON bytes array into an instance of {@link LogData} through
- * {@link LogData.Factory#create(Object, Object...)}
+ * Deserialization that deserializes a bytes array into an instance of {@link LogData} through
+ * {@link LogData.Factory#create(Object, Object...)}. The row is decoded according to the version
+ * bytes of each message, so messages of {@link FormatVersion#FORMAT_VERSION_V1} and {@link
+ * FormatVersion#FORMAT_VERSION_V2} can be read from the same topic.
  */
 public class LogDataJsonDeserialization<T> implements Serializable {
   private static final long serialVersionUID = -5741370033707067127L;
@@ -47,6 +49,7 @@ public class LogDataJsonDeserialization<T> implements Serializable {
   private static final int ROW_BEGINNING_POS = 18;
 
   private final JsonToLogDataConverters.JsonToLogDataConverter<T> jsonToLogDataConverter;
+  private final BinaryToLogDataConverters.BinaryToLogDataConverter<T> binaryToLogDataConverter;
   private final LogData.Factory<T> factory;
 
   /** Object mapper for parsing the JSON. */
@@ -61,6 +64,9 @@ public class LogDataJsonDeserialization<T> implements Serializable {
     this.jsonToLogDataConverter =
         new JsonToLogDataConverters<>(factory, arrayFactory, mapFactory)
             .createConverter(schema.asStruct());
+    this.binaryToLogDataConverter =
+        new BinaryToLogDataConverters<>(factory, arrayFactory, mapFactory)
+            .createConverter(schema.asStruct());
     boolean hasDecimalType = hasDecimalType(schema.asStruct());
     if (hasDecimalType) {
       objectMapper.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
@@ -101,9 +107,14 @@ public class LogDataJsonDeserialization<T> implements Serializable {
         return factory.create(null, versionBytes, upstreamIdBytes, epicNo, true, changeActionByte);
       }
 
-      byte[] actualValueBytes = Bytes.subByte(message, 18, message.length - 18);
-      final JsonNode root = objectMapper.readTree(actualValueBytes);
-      actualValue = (T) jsonToLogDataConverter.convert(root, null);
+      if (FormatVersion.fromBytes(versionBytes) == FormatVersion.FORMAT_VERSION_V2) {
+        MessageBytesReader reader = new MessageBytesReader(message, ROW_BEGINNING_POS);
+        actualValue = (T) binaryToLogDataConverter.convert(reader, null);
+      } else {
+        final JsonNode root =
+            objectMapper.readTree(message, ROW_BEGINNING_POS, message.length - ROW_BEGINNING_POS);
+        actualValue = (T) jsonToLogDataConverter.convert(root, null);
+      }
       return factory.create(
           actualValue, versionBytes, upstreamIdBytes, epicNo, false, changeActionByte);
     } catch (Throwable t) {
@@ -25,10 +25,17 @@ import org.apache.iceberg.Schema;
 
 import java.io.Serializable;
 
-/** Serialization that serializes an instance of {@link LogData} into a JSON bytes. */
+/**
+ * Serialization that serializes an instance of {@link LogData} into bytes. The row is encoded as
+ * JSON for {@link FormatVersion#FORMAT_VERSION_V1} and in the compact binary layout for {@link
+ * FormatVersion#FORMAT_VERSION_V2}, according to the version of the log data.
+ */
 public class LogDataJsonSerialization<T> implements Serializable {
   private static final long serialVersionUID = 66420071549145794L;
+  private static final int INITIAL_MESSAGE_CAPACITY = 256;
+
   private transient LogDataToJsonConverters.LogDataToJsonConverter<T> logDataToJsonConverter;
+  private transient LogDataToBinaryConverters.LogDataToBinaryConverter<T> logDataToBinaryConverter;
 
   private final Schema schema;
   private final LogData.FieldGetterFactory<T> fieldGetterFactory;
@@ -41,6 +48,9 @@ public class LogDataJsonSerialization<T> implements Serializable {
   private transient LogDataToJsonConverters.LogDataToJsonConverter.FormatConverterContext
       converterContext;
 
+  /** Reusable message buffer, only the bytes of the last message are copied out. */
+  private transient MessageBytes messageBytes;
+
   public LogDataJsonSerialization(Schema schema, FieldGetterFactory<T> fieldGetterFactory) {
     this.schema = schema;
     this.fieldGetterFactory = fieldGetterFactory;
@@ -51,12 +61,19 @@ public class LogDataJsonSerialization<T> implements Serializable {
       this.logDataToJsonConverter =
           LogDataToJsonConverters.createConverter(schema.asStruct(), fieldGetterFactory);
     }
+    if (this.logDataToBinaryConverter == null) {
+      this.logDataToBinaryConverter =
+          LogDataToBinaryConverters.createConverter(schema.asStruct(), fieldGetterFactory);
+    }
   }
 
   public byte[] serialize(LogData<T> element) {
     // 4 bytes version + 4 bytes upstreamId + 8 bytes EpicNo + 1 byte flip + 1 byte rowKind + n
     // bytes object data
-    MessageBytes messageBytes = new MessageBytes();
+    if (messageBytes == null) {
+      messageBytes = new MessageBytes(INITIAL_MESSAGE_CAPACITY);
+    }
+    messageBytes.reset();
 
     messageBytes
         .append(element.getVersionBytes())
@@ -71,16 +88,20 @@ public class LogDataJsonSerialization<T> implements Serializable {
     }
 
     // append n bytes data bytes
-    if (node == null) {
-      node = mapper.createObjectNode();
-      converterContext =
-          new LogDataToJsonConverters.LogDataToJsonConverter.FormatConverterContext(mapper, node);
-    }
-
     try {
-      convertRow(element);
-      byte[] actualDataBytes = mapper.writeValueAsBytes(node);
-      messageBytes.append(actualDataBytes);
+      if (FormatVersion.fromBytes(element.getVersionBytes()) == FormatVersion.FORMAT_VERSION_V2) {
+        init();
+        logDataToBinaryConverter.convert(element.getActualValue(), messageBytes);
+      } else {
+        if (node == null) {
+          node = mapper.createObjectNode();
+          converterContext =
+              new LogDataToJsonConverters.LogDataToJsonConverter.FormatConverterContext(
+                  mapper, node);
+        }
+        convertRow(element);
+        mapper.writeValue(messageBytes, node);
+      }
     } catch (Throwable t) {
       throw new RuntimeException("Could not serialize row '" + element + "'. ", t);
     }
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.log;
+
+import org.apache.amoro.log.data.LogArrayData;
+import org.apache.amoro.log.data.LogMapData;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tool class used to convert from {@link LogData} to the compact binary layout of {@link
+ * FormatVersion#FORMAT_VERSION_V2}. The layout is driven by the schema, so no field names are
+ * written:
+ *
+ * <ul>
+ *   <li>every value starts with one byte, 0 for null and 1 for a present value
+ *   <li>boolean takes one byte, float and double take 4 and 8 bytes
+ *   <li>int, long, date and time are zig-zag variable-length integers
+ *   <li>timestamp is the epoch second as a variable-length integer followed by the nano of second
+ *   <li>string, binary and the unscaled value of decimal are length prefixed, decimal is preceded
+ *       by its scale
+ *   <li>list and map are prefixed by the number of elements, map entries are written as key and
+ *       value
+ *   <li>struct writes its fields in order
+ * </ul>
+ */
+public class LogDataToBinaryConverters implements Serializable {
+  private static final long serialVersionUID = -2209430911618163420L;
+
+  static final byte NULL_VALUE = 0;
+  static final byte PRESENT_VALUE = 1;
+
+  /**
+   * Runtime converter that appends {@link LogData} to a {@link MessageBytes}
+   *
+   * @param <T> indicate an actual value wrapped within {@link LogData}
+   */
+  interface LogDataToBinaryConverter<T> extends Converter<Object, MessageBytes, MessageBytes, T> {}
+
+  public static <T> LogDataToBinaryConverter<T> createConverter(
+      Type type, LogData.FieldGetterFactory<T> fieldGetterFactory) {
+    return wrapIntoNullableConverter(createNotNullConverter(type, fieldGetterFactory));
+  }
+
+  private static <T> LogDataToBinaryConverter<T> createNotNullConverter(
+      Type type, LogData.FieldGetterFactory<T> fieldGetterFactory) {
+    switch (type.typeId()) {
+      case BOOLEAN:
+        return (source, bytes) -> bytes.append((boolean) source ? (byte) 1 : (byte) 0);
+      case INTEGER:
+      case DATE:
+        return (source, bytes) -> bytes.appendVarInt((int) source);
+      case LONG:
+      case TIME:
+        return (source, bytes) -> bytes.appendVarLong((long) source);
+      case FLOAT:
+        return (source, bytes) -> bytes.appendInt(Float.floatToIntBits((float) source));
+      case DOUBLE:
+        return (source, bytes) -> bytes.appendLong(Double.doubleToLongBits((double) source));
+      case TIMESTAMP:
+        Types.TimestampType timestamp = (Types.TimestampType) type;
+        if (timestamp.shouldAdjustToUTC()) {
+          return (source, bytes) -> appendInstant((Instant) source, bytes);
+        } else {
+          return (source, bytes) ->
+              appendInstant(((LocalDateTime) source).toInstant(ZoneOffset.UTC), bytes);
+        }
+      case STRING:
+        return (source, bytes) ->
+            appendLengthPrefixed(source.toString().getBytes(StandardCharsets.UTF_8), bytes);
+      case UUID:
+      case FIXED:
+      case BINARY:
+        return (source, bytes) -> appendLengthPrefixed((byte[]) source, bytes);
+      case DECIMAL:
+        return (source, bytes) -> {
+          BigDecimal decimal = (BigDecimal) source;
+          bytes.appendVarInt(decimal.scale());
+          return appendLengthPrefixed(decimal.unscaledValue().toByteArray(), bytes);
+        };
+      case LIST:
+        return createListConverter(type, fieldGetterFactory);
+      case MAP:
+        return createMapConverter(type, fieldGetterFactory);
+      case STRUCT:
+        return createStructConverter(type, fieldGetterFactory);
+      default:
+        throw new UnsupportedOperationException("Not Support to parse type: " + type);
+    }
+  }
+
+  private static <T> LogDataToBinaryConverter<T> createListConverter(
+      Type type, LogData.FieldGetterFactory<T> fieldGetterFactory) {
+    Types.ListType list = type.asNestedType().asListType();
+    Types.NestedField elementField = list.field(list.elementId());
+    LogDataToBinaryConverter<T> elementConverter =
+        createConverter(elementField.type(), fieldGetterFactory);
+    LogArrayData.ElementGetter elementGetter = LogArrayData.createElementGetter(elementField);
+
+    return (source, bytes) -> {
+      LogArrayData array = (LogArrayData) source;
+      int numElements = array.size();
+      bytes.appendVarInt(numElements);
+      for (int i = 0; i < numElements; i++) {
+        elementConverter.convert(elementGetter.getElementOrNull(array, i), bytes);
+      }
+      return bytes;
+    };
+  }
+
+  private static <T> LogDataToBinaryConverter<T> createMapConverter(
+      Type type, LogData.FieldGetterFactory<T> fieldGetterFactory) {
+    Types.MapType map = type.asNestedType().asMapType();
+    Types.NestedField keyField = map.field(map.keyId());
+    Types.NestedField valueField = map.field(map.valueId());
+    final LogDataToBinaryConverter<T> keyConverter =
+        createConverter(keyField.type(), fieldGetterFactory);
+    final LogDataToBinaryConverter<T> valueConverter =
+        createConverter(valueField.type(), fieldGetterFactory);
+    final LogArrayData.ElementGetter keyGetter = LogArrayData.createElementGetter(keyField);
+    final LogArrayData.ElementGetter valueGetter = LogArrayData.createElementGetter(valueField);
+
+    return (source, bytes) -> {
+      LogMapData mapData = (LogMapData) source;
+      LogArrayData keyArray = mapData.keyArray();
+      LogArrayData valueArray = mapData.valueArray();
+      int numElements = mapData.size();
+      bytes.appendVarInt(numElements);
+      for (int i = 0; i < numElements; i++) {
+        keyConverter.convert(keyGetter.getElementOrNull(keyArray, i), bytes);
+        valueConverter.convert(valueGetter.getElementOrNull(valueArray, i), bytes);
+      }
+      return bytes;
+    };
+  }
+
+  private static <T> LogDataToBinaryConverter<T> createStructConverter(
+      Type type, LogData.FieldGetterFactory<T> fieldGetterFactory) {
+    final List<Types.NestedField> fields = type.asNestedType().asStructType().fields();
+    final int fieldCount = fields.size();
+    final List<LogDataToBinaryConverter<T>> fieldConverterList = new ArrayList<>(fieldCount);
+    final List<LogData.FieldGetter<T>> fieldGetterList = new ArrayList<>(fieldCount);
+    for (int i = 0; i < fieldCount; i++) {
+      Type fieldType = fields.get(i).type();
+      fieldConverterList.add(createConverter(fieldType, fieldGetterFactory));
+      fieldGetterList.add(fieldGetterFactory.createFieldGetter(fieldType, i));
+    }
+
+    return (source, bytes) -> {
+      T actualValue = (T) source;
+      for (int i = 0; i < fieldCount; i++) {
+        try {
+          Object field = fieldGetterList.get(i).getFieldOrNull(actualValue, i);
+          fieldConverterList.get(i).convert(field, bytes);
+        } catch (Throwable t) {
+          throw new RuntimeException(
+              String.format("Fail to serialize at field: %s.", fields.get(i).name()), t);
+        }
+      }
+      return bytes;
+    };
+  }
+
+  private static MessageBytes appendInstant(Instant instant, MessageBytes bytes) {
+    return bytes.appendVarLong(instant.getEpochSecond()).appendVarInt(instant.getNano());
+  }
+
+  private static MessageBytes appendLengthPrefixed(byte[] value, MessageBytes bytes) {
+    return bytes.appendVarInt(value.length).append(value);
+  }
+
+  private static <T> LogDataToBinaryConverter<T> wrapIntoNullableConverter(
+      LogDataToBinaryConverter<T> converter) {
+    return (source, bytes) -> {
+      if (source == null) {
+        return bytes.append(NULL_VALUE);
+      }
+      return converter.convert(source, bytes.append(PRESENT_VALUE));
+    };
+  }
+}
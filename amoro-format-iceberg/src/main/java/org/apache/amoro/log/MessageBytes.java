@@ -18,25 +18,105 @@
 
 package org.apache.amoro.log;
 
-/** An util class for appending bytes array. */
-public class MessageBytes {
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A growable byte buffer for building log messages. The buffer grows by doubling instead of
+ * copying on every append, and can be {@link #reset()} to be reused across messages.
+ */
+public class MessageBytes extends OutputStream {
+  private static final int DEFAULT_CAPACITY = 64;
+
   private byte[] data;
+  private int size;
 
   public MessageBytes() {
-    data = new byte[0];
+    this(DEFAULT_CAPACITY);
+  }
+
+  public MessageBytes(int initialCapacity) {
+    data = new byte[initialCapacity];
   }
 
   public MessageBytes append(byte[] newData) {
-    data = Bytes.mergeByte(data, newData);
+    return append(newData, 0, newData.length);
+  }
+
+  public MessageBytes append(byte[] newData, int offset, int length) {
+    ensureCapacity(size + length);
+    System.arraycopy(newData, offset, data, size, length);
+    size += length;
     return this;
   }
 
   public MessageBytes append(byte newData) {
-    data = Bytes.mergeByte(data, newData);
+    ensureCapacity(size + 1);
+    data[size++] = newData;
+    return this;
+  }
+
+  /** Append an int in 4 bytes, big-endian. */
+  public MessageBytes appendInt(int value) {
+    ensureCapacity(size + 4);
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      data[size++] = (byte) (value >>> shift);
+    }
+    return this;
+  }
+
+  /** Append a long in 8 bytes, big-endian. */
+  public MessageBytes appendLong(long value) {
+    ensureCapacity(size + 8);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      data[size++] = (byte) (value >>> shift);
+    }
+    return this;
+  }
+
+  /** Append an int as a zig-zag encoded variable-length integer, taking 1 to 5 bytes. */
+  public MessageBytes appendVarInt(int value) {
+    return appendVarLong(value);
+  }
+
+  /** Append a long as a zig-zag encoded variable-length integer, taking 1 to 10 bytes. */
+  public MessageBytes appendVarLong(long value) {
+    ensureCapacity(size + 10);
+    long zigZag = (value << 1) ^ (value >> 63);
+    while ((zigZag & ~0x7FL) != 0) {
+      data[size++] = (byte) ((zigZag & 0x7F) | 0x80);
+      zigZag >>>= 7;
+    }
+    data[size++] = (byte) zigZag;
     return this;
   }
 
+  @Override
+  public void write(int b) {
+    append((byte) b);
+  }
+
+  @Override
+  public void write(byte[] b, int off, int len) {
+    append(b, off, len);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** Discard the appended bytes and keep the allocated buffer. */
+  public void reset() {
+    size = 0;
+  }
+
   public byte[] toBytes() {
-    return data;
+    return Arrays.copyOf(data, size);
+  }
+
+  private void ensureCapacity(int minCapacity) {
+    if (minCapacity > data.length) {
+      data = Arrays.copyOf(data, Math.max(minCapacity, data.length << 1));
+    }
   }
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.log;
+
+import java.util.Arrays;
+
+/** Reads back the values appended by {@link MessageBytes}, starting from a given position. */
+public class MessageBytesReader {
+  private final byte[] data;
+  private int position;
+
+  public MessageBytesReader(byte[] data, int position) {
+    this.data = data;
+    this.position = position;
+  }
+
+  public byte readByte() {
+    checkAvailable(1);
+    return data[position++];
+  }
+
+  public byte[] readBytes(int length) {
+    checkAvailable(length);
+    byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+    position += length;
+    return bytes;
+  }
+
+  public int readInt() {
+    checkAvailable(4);
+    int value = 0;
+    for (int i = 0; i < 4; i++) {
+      value = (value << 8) | (data[position++] & 0xFF);
+    }
+    return value;
+  }
+
+  public long readLong() {
+    checkAvailable(8);
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | (data[position++] & 0xFF);
+    }
+    return value;
+  }
+
+  public int readVarInt() {
+    return (int) readVarLong();
+  }
+
+  public long readVarLong() {
+    long zigZag = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = readByte();
+      zigZag |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+      }
+    }
+    throw new IllegalArgumentException("Malformed variable-length integer at position " + position);
+  }
+
+  public int remaining() {
+    return data.length - position;
+  }
+
+  private void checkAvailable(int length) {
+    if (length < 0 || length > remaining()) {
+      throw new IllegalArgumentException(
+          String.format(
+              "Can not read %d bytes at position %d, only %d bytes left",
+              length, position, remaining()));
+    }
+  }
+}
@@ -56,6 +56,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * An abstract OptimizingExecutor implementation that rewrites the rewrittenDataFiles in
@@ -66,6 +67,13 @@ public abstract class AbstractRewriteFilesExecutor
 
   private static final Logger LOG = LoggerFactory.getLogger(AbstractRewriteFilesExecutor.class);
 
+  private static final int PIPELINE_BATCH_SIZE = 1024;
+
+  private static final int PIPELINE_MAX_QUEUE_CAPACITY = 64;
+
+  // Decoded records take several times the space they take in the compressed columnar files
+  private static final int DECODED_RECORD_SIZE_RATIO = 4;
+
   protected final RewriteFilesInput input;
 
   protected MixedTable table;
@@ -76,6 +84,10 @@ public abstract class AbstractRewriteFilesExecutor
 
   protected StructLikeCollections structLikeCollections;
 
+  private long pipelineMemoryBudget = 0;
+
+  private PipelineMetrics pipelineMetrics;
+
   public AbstractRewriteFilesExecutor(
       RewriteFilesInput input, MixedTable table, StructLikeCollections structLikeCollections) {
     this.input = input;
@@ -91,6 +103,16 @@ public abstract class AbstractRewriteFilesExecutor
 
   protected abstract TaskWriter<Record> dataWriter();
 
+  /**
+   * Read and filter the rewritten records on a separate thread while they are written, so that
+   * reading and encoding do not wait for each other.
+   *
+   * @param memoryBudget max bytes of the records queued between the reading and writing threads
+   */
+  public void enablePipeline(long memoryBudget) {
+    this.pipelineMemoryBudget = memoryBudget;
+  }
+
   @Override
   public RewriteFilesOutput execute() {
     LOG.info("Start processing table optimize task: {}", input);
@@ -143,13 +165,24 @@ public abstract class AbstractRewriteFilesExecutor
   }
 
   private List<DataFile> rewriterDataFiles() throws Exception {
+    List<DataFile> copiedDataFiles = copyDataFiles();
+    if (copiedDataFiles != null) {
+      return copiedDataFiles;
+    }
+
     List<DataFile> result = Lists.newArrayList();
     TaskWriter<Record> writer = dataWriter();
 
-    try (CloseableIterator<Record> records = dataReader.readData().iterator()) {
-      while (records.hasNext()) {
-        Record record = records.next();
-        writer.write(record);
+    try {
+      if (pipelineMemoryBudget > 0) {
+        pipelineRecords(writer);
+      } else {
+        try (CloseableIterator<Record> records = dataReader.readData().iterator()) {
+          while (records.hasNext()) {
+            Record record = records.next();
+            writer.write(record);
+          }
+        }
       }
     } finally {
       writer.close();
@@ -160,6 +193,51 @@ public abstract class AbstractRewriteFilesExecutor
     return result;
   }
 
+  private void pipelineRecords(TaskWriter<Record> writer) throws Exception {
+    long writeNanos = 0;
+    try (PipelinedRecordReader reader =
+        new PipelinedRecordReader(
+            io, dataReader.readData(), PIPELINE_BATCH_SIZE, pipelineQueueCapacity())) {
+      reader.start();
+      List<Record> batch;
+      while ((batch = reader.nextBatch()) != null) {
+        long start = System.nanoTime();
+        for (Record record : batch) {
+          writer.write(record);
+        }
+        writeNanos += System.nanoTime() - start;
+      }
+      pipelineMetrics =
+          new PipelineMetrics(
+              reader.readMillis(),
+              reader.readWaitMillis(),
+              TimeUnit.NANOSECONDS.toMillis(writeNanos),
+              reader.consumeWaitMillis());
+    }
+  }
+
+  /** Number of batches that could be queued within the memory budget, estimated by file stats. */
+  private int pipelineQueueCapacity() {
+    long recordCount = 0;
+    long fileSize = 0;
+    for (DataFile dataFile : input.rewrittenDataFiles()) {
+      recordCount += dataFile.recordCount();
+      fileSize += dataFile.fileSizeInBytes();
+    }
+    long recordSize = Math.max(1, fileSize / Math.max(1, recordCount)) * DECODED_RECORD_SIZE_RATIO;
+    long capacity = pipelineMemoryBudget / (recordSize * PIPELINE_BATCH_SIZE);
+    return (int) Math.max(1, Math.min(capacity, PIPELINE_MAX_QUEUE_CAPACITY));
+  }
+
+  /**
+   * Rewrite the rewrittenDataFiles by copying their content without decoding records.
+   *
+   * @return the new data files, or null if the data files of this task could not be copied
+   */
+  protected List<DataFile> copyDataFiles() throws Exception {
+    return null;
+  }
+
   protected FileFormat dataFileFormat() {
     String formatAsString =
         table.properties().getOrDefault(DEFAULT_FILE_FORMAT, DEFAULT_FILE_FORMAT_DEFAULT);
@@ -240,7 +318,43 @@ public abstract class AbstractRewriteFilesExecutor
     summary.setPosDeleteFileCnt(posDeleteFileCnt);
     summary.setPosDeleteFileTotalSize(posDeleteFileTotalSize);
     summary.setExecuteDuration(duration);
+    summary.setDeleteIndexMemorySize(dataReader.deleteIndexMemorySize());
+    summary.setDeleteIndexSpillSize(dataReader.deleteIndexSpillSize());
+    long inputFileTotalSize = 0;
+    long inputRecordCnt = 0;
+    for (DataFile inputFile : input.dataFiles()) {
+      inputFileTotalSize += inputFile.fileSizeInBytes();
+      inputRecordCnt += inputFile.recordCount();
+    }
+    summary.setInputFileTotalSize(inputFileTotalSize);
+    summary.setInputRecordCnt(inputRecordCnt);
+    long inputDeleteFileTotalSize = 0;
+    for (ContentFile<?> inputFile : input.deleteFiles()) {
+      inputDeleteFileTotalSize += inputFile.fileSizeInBytes();
+    }
+    summary.setInputDeleteFileTotalSize(inputDeleteFileTotalSize);
+    if (pipelineMetrics != null) {
+      summary.setReadDuration(pipelineMetrics.readDuration);
+      summary.setReadWaitDuration(pipelineMetrics.readWaitDuration);
+      summary.setWriteDuration(pipelineMetrics.writeDuration);
+      summary.setWriteWaitDuration(pipelineMetrics.writeWaitDuration);
+    }
 
     return summary.getSummary();
   }
+
+  private static class PipelineMetrics {
+    private final long readDuration;
+    private final long readWaitDuration;
+    private final long writeDuration;
+    private final long writeWaitDuration;
+
+    private PipelineMetrics(
+        long readDuration, long readWaitDuration, long writeDuration, long writeWaitDuration) {
+      this.readDuration = readDuration;
+      this.readWaitDuration = readWaitDuration;
+      this.writeDuration = writeDuration;
+      this.writeWaitDuration = writeWaitDuration;
+    }
+  }
 }
@@ -23,23 +23,43 @@ import org.apache.amoro.io.writer.GenericIcebergPartitionedFanoutWriter;
 import org.apache.amoro.io.writer.IcebergFanoutPosDeleteWriter;
 import org.apache.amoro.table.MixedTable;
 import org.apache.amoro.utils.map.StructLikeCollections;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.MetricsConfig;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.TableProperties;
 import org.apache.iceberg.data.GenericAppenderFactory;
 import org.apache.iceberg.data.IdentityPartitionConverters;
 import org.apache.iceberg.data.Record;
 import org.apache.iceberg.deletes.PositionDelete;
+import org.apache.iceberg.encryption.PlaintextEncryptionManager;
 import org.apache.iceberg.io.DeleteWriteResult;
 import org.apache.iceberg.io.FileWriter;
+import org.apache.iceberg.io.OutputFile;
 import org.apache.iceberg.io.OutputFileFactory;
 import org.apache.iceberg.io.TaskWriter;
 import org.apache.iceberg.io.UnpartitionedWriter;
+import org.apache.iceberg.parquet.ParquetFileMerger;
+import org.apache.iceberg.parquet.ParquetUtil;
+import org.apache.iceberg.util.PropertyUtil;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /** OptimizingExecutor for iceberg format. */
 public class IcebergRewriteExecutor extends AbstractRewriteFilesExecutor {
 
+  private static final Logger LOG = LoggerFactory.getLogger(IcebergRewriteExecutor.class);
+
   public IcebergRewriteExecutor(
       RewriteFilesInput input, MixedTable table, StructLikeCollections structLikeCollections) {
     super(input, table, structLikeCollections);
@@ -95,6 +115,146 @@ public class IcebergRewriteExecutor extends AbstractRewriteFilesExecutor {
     }
   }
 
+  /**
+   * Merge parquet data files into files of target size by copying their row groups, which is only
+   * possible when no delete file is applied and all files share the schema and compression codec.
+   * Metrics of new files are collected from their footers. If merging fails, all files written so
+   * far are deleted.
+   */
+  @Override
+  protected List<DataFile> copyDataFiles() throws IOException {
+    if (!canCopyDataFiles()) {
+      return null;
+    }
+    DataFile[] rewrittenDataFiles = input.rewrittenDataFiles();
+    List<ParquetMetadata> footers = new ArrayList<>(rewrittenDataFiles.length);
+    for (DataFile dataFile : rewrittenDataFiles) {
+      footers.add(ParquetFileMerger.readFooter(io.newInputFile(dataFile.path().toString())));
+    }
+    if (!ParquetFileMerger.canMerge(footers)) {
+      LOG.info("Data files do not share the same schema or compression, rewrite them by records");
+      return null;
+    }
+
+    FileMetaData fileMetaData = footers.get(0).getFileMetaData();
+    PartitionSpec spec = table.spec();
+    OutputFileFactory outputFileFactory =
+        OutputFileFactory.builderFor(table.asUnkeyedTable(), spec.specId(), 0)
+            .format(FileFormat.PARQUET)
+            .build();
+    MetricsConfig metricsConfig = MetricsConfig.forTable(table.asUnkeyedTable());
+    long rowGroupSize =
+        PropertyUtil.propertyAsLong(
+            table.properties(),
+            TableProperties.PARQUET_ROW_GROUP_SIZE_BYTES,
+            TableProperties.PARQUET_ROW_GROUP_SIZE_BYTES_DEFAULT);
+
+    List<DataFile> result = new ArrayList<>();
+    ParquetFileMerger merger = null;
+    OutputFile outputFile = null;
+    long mergedSize = 0;
+    boolean merged = false;
+    try {
+      for (DataFile dataFile : rewrittenDataFiles) {
+        if (merger != null && mergedSize + dataFile.fileSizeInBytes() > targetSize()) {
+          DataFile mergedFile = finishDataFile(merger, outputFile, fileMetaData, metricsConfig);
+          merger = null;
+          outputFile = null;
+          result.add(mergedFile);
+        }
+        if (merger == null) {
+          outputFile =
+              spec.isUnpartitioned()
+                  ? outputFileFactory.newOutputFile().encryptingOutputFile()
+                  : outputFileFactory.newOutputFile(spec, partition()).encryptingOutputFile();
+          merger = new ParquetFileMerger(outputFile, fileMetaData.getSchema(), rowGroupSize);
+          mergedSize = 0;
+        }
+        merger.append(io.newInputFile(dataFile.path().toString()));
+        mergedSize += dataFile.fileSizeInBytes();
+      }
+      result.add(finishDataFile(merger, outputFile, fileMetaData, metricsConfig));
+      merged = true;
+    } finally {
+      if (!merged) {
+        abortCopy(merger, outputFile, result);
+      }
+    }
+    LOG.info(
+        "Merged {} data files into {} files by copying row groups",
+        rewrittenDataFiles.length,
+        result.size());
+    return result;
+  }
+
+  private boolean canCopyDataFiles() {
+    boolean enabled =
+        PropertyUtil.propertyAsBoolean(
+            table.properties(),
+            org.apache.amoro.table.TableProperties.SELF_OPTIMIZING_BINARY_COPY_ENABLED,
+            org.apache.amoro.table.TableProperties.SELF_OPTIMIZING_BINARY_COPY_ENABLED_DEFAULT);
+    if (!enabled
+        || dataFileFormat() != FileFormat.PARQUET
+        || !ArrayUtils.isEmpty(input.rePosDeletedDataFiles())
+        || !ArrayUtils.isEmpty(input.readOnlyDeleteFiles())
+        || !ArrayUtils.isEmpty(input.rewrittenDeleteFiles())
+        || !(table.asUnkeyedTable().encryption() instanceof PlaintextEncryptionManager)) {
+      return false;
+    }
+    for (DataFile dataFile : input.rewrittenDataFiles()) {
+      if (dataFile.format() != FileFormat.PARQUET
+          || dataFile.specId() != table.spec().specId()
+          || dataFile.keyMetadata() != null) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void abortCopy(
+      ParquetFileMerger merger, OutputFile unfinishedFile, List<DataFile> finishedFiles) {
+    List<String> paths = new ArrayList<>();
+    if (merger != null) {
+      try {
+        merger.close();
+      } catch (IOException e) {
+        LOG.warn("Failed to close the unfinished merged file {}", unfinishedFile.location(), e);
+      }
+    }
+    if (unfinishedFile != null) {
+      paths.add(unfinishedFile.location());
+    }
+    finishedFiles.forEach(file -> paths.add(file.path().toString()));
+    for (String path : paths) {
+      try {
+        io.deleteFile(path);
+      } catch (RuntimeException e) {
+        LOG.warn("Failed to delete the merged file {} of a failed copy", path, e);
+      }
+    }
+  }
+
+  private DataFile finishDataFile(
+      ParquetFileMerger merger,
+      OutputFile outputFile,
+      FileMetaData fileMetaData,
+      MetricsConfig metricsConfig)
+      throws IOException {
+    merger.finish(fileMetaData.getKeyValueMetaData());
+    PartitionSpec spec = table.spec();
+    DataFiles.Builder builder =
+        DataFiles.builder(spec)
+            .withPath(outputFile.location())
+            .withFormat(FileFormat.PARQUET)
+            .withFileSizeInBytes(merger.length())
+            .withMetrics(ParquetUtil.footerMetrics(merger.footer(), Stream.empty(), metricsConfig))
+            .withSplitOffsets(ParquetUtil.getSplitOffsets(merger.footer()));
+    if (spec.isPartitioned()) {
+      builder.withPartition(partition());
+    }
+    return builder.build();
+  }
+
   private PartitionSpec fileSpec() {
     return table.asUnkeyedTable().specs().get(input.allFiles()[0].specId());
   }
@@ -34,10 +34,15 @@ public class MixedIcebergRewriteExecutorFactory
   @Override
   public OptimizingExecutor<RewriteFilesOutput> createExecutor(RewriteFilesInput input) {
     OptimizingInputProperties optimizingConfig = OptimizingInputProperties.parse(properties);
-    return new MixedIcebergRewriteExecutor(
-        input,
-        input.getTable(),
-        optimizingConfig.getStructLikeCollections(),
-        optimizingConfig.getOutputDir());
+    MixedIcebergRewriteExecutor executor =
+        new MixedIcebergRewriteExecutor(
+            input,
+            input.getTable(),
+            optimizingConfig.getStructLikeCollections(),
+            optimizingConfig.getOutputDir());
+    if (optimizingConfig.isPipelinedRewrite()) {
+      executor.enablePipeline(optimizingConfig.getPipelineMemoryBudget());
+    }
+    return executor;
   }
 }
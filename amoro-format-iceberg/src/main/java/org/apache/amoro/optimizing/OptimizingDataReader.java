@@ -38,6 +38,16 @@ public interface OptimizingDataReader extends Closeable {
    */
   CloseableIterable<Record> readDeletedData();
 
+  /** Memory size in bytes of the delete index built to apply deletes, 0 if not tracked. */
+  default long deleteIndexMemorySize() {
+    return 0;
+  }
+
+  /** Bytes of the delete index spilled to disk, 0 if not tracked. */
+  default long deleteIndexSpillSize() {
+    return 0;
+  }
+
   /** Close the reader */
   void close();
 }
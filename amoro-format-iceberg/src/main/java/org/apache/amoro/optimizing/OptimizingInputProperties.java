@@ -19,6 +19,7 @@
 package org.apache.amoro.optimizing;
 
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+import org.apache.amoro.utils.map.SpillBackend;
 import org.apache.amoro.utils.map.StructLikeCollections;
 import org.apache.commons.lang3.StringUtils;
 
@@ -33,12 +34,18 @@ public class OptimizingInputProperties {
 
   public static final String SPILL_MAP_PATH = "spill_map_path";
 
+  public static final String SPILL_MAP_BACKEND = "spill_map_backend";
+
+  public static final String PIPELINED_REWRITE = "pipelined_rewrite";
+
   public static final String OUTPUT_DIR = "output_location";
 
   public static final String MOVE_FILE_TO_HIVE_LOCATION = "move-files-to-hive-location";
 
   public static final String TASK_EXECUTOR_FACTORY_IMPL = "task-executor-factory-impl";
 
+  private static final long DEFAULT_MAX_IN_MEMORY_SIZE = 512 * 1024 * 1024L;
+
   private final Map<String, String> properties;
 
   private OptimizingInputProperties(Map<String, String> properties) {
@@ -68,6 +75,16 @@ public class OptimizingInputProperties {
     return this;
   }
 
+  public OptimizingInputProperties setSpillMapBackend(String backend) {
+    properties.put(SPILL_MAP_BACKEND, backend);
+    return this;
+  }
+
+  public OptimizingInputProperties enablePipelinedRewrite() {
+    properties.put(PIPELINED_REWRITE, "true");
+    return this;
+  }
+
   public OptimizingInputProperties setOutputDir(String outputDir) {
     properties.put(OUTPUT_DIR, outputDir);
     return this;
@@ -92,7 +109,24 @@ public class OptimizingInputProperties {
 
     String spillMapPath = properties.get(SPILL_MAP_PATH);
 
-    return new StructLikeCollections(enableSpillMap, maxInMemory, spillMapPath);
+    SpillBackend.Type spillBackend = SpillBackend.Type.fromName(properties.get(SPILL_MAP_BACKEND));
+
+    return new StructLikeCollections(enableSpillMap, maxInMemory, spillMapPath, spillBackend);
+  }
+
+  public boolean isPipelinedRewrite() {
+    return Boolean.parseBoolean(properties.get(PIPELINED_REWRITE));
+  }
+
+  /**
+   * Records queued between the reading and writing threads of a pipelined rewrite may take a
+   * quarter of the memory size, the rest is left to the delete index.
+   */
+  public long getPipelineMemoryBudget() {
+    String maxInMemoryStr = properties.get(MAX_IN_MEMORY_SIZE_IN_BYTES);
+    long maxInMemory =
+        maxInMemoryStr == null ? DEFAULT_MAX_IN_MEMORY_SIZE : Long.parseLong(maxInMemoryStr);
+    return maxInMemory / 4;
   }
 
   public String getOutputDir() {
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.optimizing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
+import org.apache.amoro.table.MixedTable;
+import org.apache.amoro.utils.SerializationUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded caches of tables shipped with optimizing inputs, keyed by {@link TableHandle} and sharing
+ * in jvm.
+ *
+ * <p>The planner side serializes a table version only once for all tasks of a process, and the
+ * executor side deserializes it only once, so repeated tasks of the same table reuse one loaded
+ * table and its file io.
+ *
+ * <p>A cached {@link MixedTable} is shared by all threads executing tasks of its version. Executors
+ * only read its schema, spec, properties and file io, which are immutable for a loaded version, and
+ * must never refresh or update it. Iceberg file ios are safe for concurrent use.
+ */
+public class OptimizingTableCache {
+
+  private static final int MAX_CACHED_TABLES = 32;
+  private static final long EXPIRE_AFTER_ACCESS_MINUTES = 10;
+
+  private static final Cache<TableHandle, byte[]> SERIALIZED_TABLES =
+      Caffeine.newBuilder()
+          .maximumSize(MAX_CACHED_TABLES)
+          .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+          .build();
+
+  private static final Cache<TableHandle, MixedTable> TABLES =
+      Caffeine.newBuilder()
+          .maximumSize(MAX_CACHED_TABLES)
+          .expireAfterAccess(EXPIRE_AFTER_ACCESS_MINUTES, TimeUnit.MINUTES)
+          .build();
+
+  private OptimizingTableCache() {}
+
+  /** Returns the serialized bytes of the table version referred by the handle. */
+  public static byte[] serialize(TableHandle handle, MixedTable table) {
+    if (!handle.isVersioned()) {
+      return SerializationUtil.simpleSerialize(table).array();
+    }
+    return SERIALIZED_TABLES.get(handle, h -> SerializationUtil.simpleSerialize(table).array());
+  }
+
+  /**
+   * Returns the table version referred by the handle, the bytes are only deserialized if the
+   * version is not loaded yet.
+   */
+  public static MixedTable deserialize(TableHandle handle, byte[] tableBytes) {
+    if (!handle.isVersioned()) {
+      return SerializationUtil.simpleDeserialize(tableBytes);
+    }
+    return TABLES.get(handle, h -> SerializationUtil.simpleDeserialize(tableBytes));
+  }
+
+  @VisibleForTesting
+  static void invalidateAll() {
+    SERIALIZED_TABLES.invalidateAll();
+    TABLES.invalidateAll();
+  }
+}
@@ -37,6 +37,24 @@ public class OptimizingTaskSummary {
 
   public static final String EXECUTE_DURATION = "executor_duration";
 
+  public static final String DELETE_INDEX_MEMORY_SIZE = "delete_index_memory_size";
+
+  public static final String DELETE_INDEX_SPILL_SIZE = "delete_index_spill_size";
+
+  public static final String INPUT_FILE_TOTAL_SIZE = "input_file_total_size";
+
+  public static final String INPUT_RECORD_CNT = "input_record_cnt";
+
+  public static final String INPUT_DELETE_FILE_TOTAL_SIZE = "input_delete_file_total_size";
+
+  public static final String READ_DURATION = "read_duration";
+
+  public static final String READ_WAIT_DURATION = "read_wait_duration";
+
+  public static final String WRITE_DURATION = "write_duration";
+
+  public static final String WRITE_WAIT_DURATION = "write_wait_duration";
+
   private final Map<String, String> summary = new HashMap<>();
 
   public void setDataFileCnt(int dataFileCnt) {
@@ -67,6 +85,42 @@ public class OptimizingTaskSummary {
     summary.put(EXECUTE_DURATION, String.valueOf(executeDuration));
   }
 
+  public void setDeleteIndexMemorySize(long deleteIndexMemorySize) {
+    summary.put(DELETE_INDEX_MEMORY_SIZE, String.valueOf(deleteIndexMemorySize));
+  }
+
+  public void setDeleteIndexSpillSize(long deleteIndexSpillSize) {
+    summary.put(DELETE_INDEX_SPILL_SIZE, String.valueOf(deleteIndexSpillSize));
+  }
+
+  public void setInputFileTotalSize(long inputFileTotalSize) {
+    summary.put(INPUT_FILE_TOTAL_SIZE, String.valueOf(inputFileTotalSize));
+  }
+
+  public void setInputRecordCnt(long inputRecordCnt) {
+    summary.put(INPUT_RECORD_CNT, String.valueOf(inputRecordCnt));
+  }
+
+  public void setInputDeleteFileTotalSize(long inputDeleteFileTotalSize) {
+    summary.put(INPUT_DELETE_FILE_TOTAL_SIZE, String.valueOf(inputDeleteFileTotalSize));
+  }
+
+  public void setReadDuration(long readDuration) {
+    summary.put(READ_DURATION, String.valueOf(readDuration));
+  }
+
+  public void setReadWaitDuration(long readWaitDuration) {
+    summary.put(READ_WAIT_DURATION, String.valueOf(readWaitDuration));
+  }
+
+  public void setWriteDuration(long writeDuration) {
+    summary.put(WRITE_DURATION, String.valueOf(writeDuration));
+  }
+
+  public void setWriteWaitDuration(long writeWaitDuration) {
+    summary.put(WRITE_WAIT_DURATION, String.valueOf(writeWaitDuration));
+  }
+
   public Map<String, String> getSummary() {
     return summary;
   }
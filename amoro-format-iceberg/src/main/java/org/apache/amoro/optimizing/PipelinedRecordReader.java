@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.optimizing;
+
+import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.shade.guava32.com.google.common.base.Throwables;
+import org.apache.iceberg.data.Record;
+import org.apache.iceberg.io.CloseableIterable;
+import org.apache.iceberg.io.CloseableIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads records on a background thread and hands them to the consumer in batches through a bounded
+ * queue. The reading thread blocks while the queue is full, so at most queueCapacity + 2 batches
+ * are held in memory: the queued ones, the one being filled and the one being consumed.
+ */
+class PipelinedRecordReader implements Closeable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PipelinedRecordReader.class);
+
+  private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+  // Compared by identity, marks that the reading thread has finished
+  private static final List<Record> END_OF_DATA = new ArrayList<>(0);
+
+  private final AuthenticatedFileIO io;
+  private final CloseableIterable<Record> records;
+  private final int batchSize;
+  private final BlockingQueue<List<Record>> queue;
+  private final Thread readThread;
+
+  private volatile boolean closed = false;
+  private volatile Throwable failure;
+  // Only updated by the reading thread, read after END_OF_DATA is taken
+  private volatile long readNanos = 0;
+  private volatile long readWaitNanos = 0;
+  private long consumeWaitNanos = 0;
+  private boolean finished = false;
+
+  PipelinedRecordReader(
+      AuthenticatedFileIO io, CloseableIterable<Record> records, int batchSize, int queueCapacity) {
+    this.io = io;
+    this.records = records;
+    this.batchSize = batchSize;
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.readThread =
+        new Thread(this::run, "optimizing-record-reader-" + THREAD_ID.incrementAndGet());
+    this.readThread.setDaemon(true);
+  }
+
+  void start() {
+    readThread.start();
+  }
+
+  /**
+   * Take the next batch of records, blocking until the reading thread produces one.
+   *
+   * @return the next batch, or null if all records have been read
+   */
+  List<Record> nextBatch() throws InterruptedException {
+    if (finished) {
+      return null;
+    }
+    long start = System.nanoTime();
+    List<Record> batch = queue.take();
+    consumeWaitNanos += System.nanoTime() - start;
+    if (batch == END_OF_DATA) {
+      finished = true;
+      if (failure != null) {
+        Throwables.throwIfUnchecked(failure);
+        throw new RuntimeException("Failed to read records", failure);
+      }
+      return null;
+    }
+    return batch;
+  }
+
+  /** Time spent by the reading thread on reading, decoding and filtering records. */
+  long readMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(readNanos);
+  }
+
+  /** Time the reading thread was blocked by a full queue, i.e. waiting for the consumer. */
+  long readWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(readWaitNanos);
+  }
+
+  /** Time the consumer was blocked by an empty queue, i.e. waiting for the reading thread. */
+  long consumeWaitMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(consumeWaitNanos);
+  }
+
+  private void run() {
+    try {
+      io.doAs(
+          () -> {
+            readRecords();
+            return null;
+          });
+    } catch (Throwable t) {
+      if (!closed) {
+        failure = t;
+      }
+    } finally {
+      if (!closed) {
+        try {
+          queue.put(END_OF_DATA);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  private void readRecords() throws Exception {
+    try (CloseableIterator<Record> iterator = records.iterator()) {
+      List<Record> batch = new ArrayList<>(batchSize);
+      long start = System.nanoTime();
+      while (!closed && iterator.hasNext()) {
+        batch.add(iterator.next());
+        if (batch.size() >= batchSize) {
+          start = offer(batch, start);
+          batch = new ArrayList<>(batchSize);
+        }
+      }
+      if (!batch.isEmpty() && !closed) {
+        offer(batch, start);
+      } else {
+        readNanos += System.nanoTime() - start;
+      }
+    }
+  }
+
+  private long offer(List<Record> batch, long readStart) throws InterruptedException {
+    long putStart = System.nanoTime();
+    readNanos += putStart - readStart;
+    queue.put(batch);
+    long putEnd = System.nanoTime();
+    readWaitNanos += putEnd - putStart;
+    return putEnd;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    if (!finished) {
+      // The consumer gives up early, the reading thread may be blocked by the full queue
+      readThread.interrupt();
+    }
+    try {
+      readThread.join();
+    } catch (InterruptedException e) {
+      LOG.warn("Interrupted while waiting for the record reading thread to stop");
+      Thread.currentThread().interrupt();
+    }
+    queue.clear();
+  }
+}
@@ -27,18 +27,23 @@ import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
 import org.apache.iceberg.DeleteFile;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class RewriteFilesInput extends BaseOptimizingInput {
-  private static final long serialVersionUID = -696610318564333923L;
+  private static final long serialVersionUID = 2807361207158474384L;
   private final DataFile[] rewrittenDataFiles;
   private final DataFile[] rePosDeletedDataFiles;
   private final ContentFile<?>[] readOnlyDeleteFiles;
   private final ContentFile<?>[] rewrittenDeleteFiles;
-  private final MixedTable table;
+  private final TableHandle tableHandle;
+  // serialized separately so that tasks of the same table version share one loaded table
+  private transient MixedTable table;
 
   public RewriteFilesInput(
       DataFile[] rewrittenDataFiles,
@@ -51,6 +56,7 @@ public class RewriteFilesInput extends BaseOptimizingInput {
     this.readOnlyDeleteFiles = readOnlyDeleteFiles;
     this.rewrittenDeleteFiles = rewrittenDeleteFiles;
     this.table = table;
+    this.tableHandle = TableHandle.of(table);
   }
 
   public DataFile[] rewrittenDataFiles() {
@@ -152,6 +158,24 @@ public class RewriteFilesInput extends BaseOptimizingInput {
     return table;
   }
 
+  public TableHandle getTableHandle() {
+    return tableHandle;
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    byte[] tableBytes = OptimizingTableCache.serialize(tableHandle, table);
+    out.writeInt(tableBytes.length);
+    out.write(tableBytes);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    byte[] tableBytes = new byte[in.readInt()];
+    in.readFully(tableBytes);
+    this.table = OptimizingTableCache.deserialize(tableHandle, tableBytes);
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.optimizing;
+
+import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.io.AuthenticatedHadoopFileIO;
+import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
+import org.apache.amoro.shade.guava32.com.google.common.base.MoreObjects;
+import org.apache.amoro.table.MixedTable;
+import org.apache.amoro.table.TableIdentifier;
+import org.apache.amoro.table.TableMetaStore;
+import org.apache.amoro.table.UnkeyedTable;
+import org.apache.iceberg.HasTableOperations;
+import org.apache.iceberg.Snapshot;
+import org.apache.iceberg.TableMetadata;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A lightweight reference to one version of a table, made of its identifier, the metadata file
+ * locations, the current snapshot id and a hash of the environment it is accessed with. Every
+ * commit writes a new metadata file, so two equal handles always refer to the same table metadata
+ * and could share one loaded table.
+ *
+ * <p>The environment hash covers the catalog properties passed to the file io and the
+ * authentication configs, so that a table loaded with other credentials or endpoints is never
+ * shared.
+ */
+public final class TableHandle implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final TableIdentifier identifier;
+  private final String metadataLocation;
+  private final String changeMetadataLocation;
+  private final long snapshotId;
+  private final int environmentHash;
+
+  private TableHandle(
+      TableIdentifier identifier,
+      String metadataLocation,
+      String changeMetadataLocation,
+      long snapshotId,
+      int environmentHash) {
+    this.identifier = identifier;
+    this.metadataLocation = metadataLocation;
+    this.changeMetadataLocation = changeMetadataLocation;
+    this.snapshotId = snapshotId;
+    this.environmentHash = environmentHash;
+  }
+
+  public static TableHandle of(MixedTable table) {
+    UnkeyedTable baseTable;
+    String changeMetadataLocation = null;
+    if (table.isKeyedTable()) {
+      baseTable = table.asKeyedTable().baseTable();
+      changeMetadataLocation = metadataLocation(table.asKeyedTable().changeTable());
+    } else if (table.isUnkeyedTable()) {
+      baseTable = table.asUnkeyedTable();
+    } else {
+      return new TableHandle(table.id(), null, null, -1, environmentHash(table.io()));
+    }
+    Snapshot snapshot = baseTable.currentSnapshot();
+    return new TableHandle(
+        table.id(),
+        metadataLocation(baseTable),
+        changeMetadataLocation,
+        snapshot == null ? -1 : snapshot.snapshotId(),
+        environmentHash(table.io()));
+  }
+
+  @VisibleForTesting
+  static int environmentHash(AuthenticatedFileIO io) {
+    if (io == null) {
+      return 0;
+    }
+    Map<String, String> ioProperties;
+    try {
+      ioProperties = io.properties();
+    } catch (UnsupportedOperationException e) {
+      ioProperties = null;
+    }
+    TableMetaStore metaStore =
+        io instanceof AuthenticatedHadoopFileIO
+            ? ((AuthenticatedHadoopFileIO) io).getTableMetaStore()
+            : null;
+    return Objects.hash(io.getClass().getName(), ioProperties, metaStore);
+  }
+
+  private static String metadataLocation(UnkeyedTable table) {
+    if (table instanceof HasTableOperations) {
+      try {
+        TableMetadata metadata = ((HasTableOperations) table).operations().current();
+        return metadata == null ? null : metadata.metadataFileLocation();
+      } catch (UnsupportedOperationException e) {
+        return null;
+      }
+    }
+    return null;
+  }
+
+  public TableIdentifier identifier() {
+    return identifier;
+  }
+
+  public String metadataLocation() {
+    return metadataLocation;
+  }
+
+  public String changeMetadataLocation() {
+    return changeMetadataLocation;
+  }
+
+  public long snapshotId() {
+    return snapshotId;
+  }
+
+  /** Returns true if the handle pins a table version and could be used as a cache key. */
+  public boolean isVersioned() {
+    return metadataLocation != null;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TableHandle that = (TableHandle) o;
+    return snapshotId == that.snapshotId
+        && environmentHash == that.environmentHash
+        && Objects.equals(identifier, that.identifier)
+        && Objects.equals(metadataLocation, that.metadataLocation)
+        && Objects.equals(changeMetadataLocation, that.changeMetadataLocation);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        identifier, metadataLocation, changeMetadataLocation, snapshotId, environmentHash);
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("identifier", identifier)
+        .add("metadataLocation", metadataLocation)
+        .add("changeMetadataLocation", changeMetadataLocation)
+        .add("snapshotId", snapshotId)
+        .add("environmentHash", environmentHash)
+        .toString();
+  }
+}
@@ -21,34 +21,54 @@ package org.apache.amoro.optimizing.plan;
 import org.apache.amoro.ServerTableIdentifier;
 import org.apache.amoro.TableFormat;
 import org.apache.amoro.config.OptimizingConfig;
+import org.apache.amoro.iceberg.Constants;
 import org.apache.amoro.optimizing.scan.IcebergTableFileScanHelper;
 import org.apache.amoro.optimizing.scan.KeyedTableFileScanHelper;
 import org.apache.amoro.optimizing.scan.TableFileScanHelper;
 import org.apache.amoro.optimizing.scan.UnkeyedTableFileScanHelper;
 import org.apache.amoro.shade.guava32.com.google.common.base.MoreObjects;
+import org.apache.amoro.shade.guava32.com.google.common.base.Throwables;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Sets;
 import org.apache.amoro.shade.jackson2.com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.amoro.table.KeyedTableSnapshot;
 import org.apache.amoro.table.MixedTable;
 import org.apache.amoro.table.TableSnapshot;
+import org.apache.amoro.utils.IcebergThreadPools;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataOperations;
 import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.SnapshotSummary;
 import org.apache.iceberg.StructLike;
+import org.apache.iceberg.Table;
 import org.apache.iceberg.expressions.Expression;
 import org.apache.iceberg.expressions.Expressions;
 import org.apache.iceberg.io.CloseableIterable;
 import org.apache.iceberg.util.Pair;
 import org.apache.iceberg.util.PropertyUtil;
+import org.apache.iceberg.util.SnapshotUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public abstract class AbstractOptimizingEvaluator {
@@ -65,6 +85,8 @@ public abstract class AbstractOptimizingEvaluator {
   protected boolean isInitialized = false;
   protected Map<String, PartitionEvaluator> needOptimizingPlanMap = Maps.newHashMap();
   protected Map<String, PartitionEvaluator> partitionPlanMap = Maps.newHashMap();
+  private EvaluatedState previousState;
+  protected int planningParallelism = 1;
 
   public AbstractOptimizingEvaluator(
       ServerTableIdentifier identifier,
@@ -83,8 +105,60 @@ public abstract class AbstractOptimizingEvaluator {
     this.lastMinorOptimizingTime = lastMinorOptimizingTime;
   }
 
+  /**
+   * Evaluate incrementally based on a former evaluation of the same table, only data files appended
+   * since the snapshot evaluated before will be scanned. It falls back to scan the whole table if
+   * the former evaluation can not be reused.
+   *
+   * @param previousState - the state of a former evaluation of the same table, could be null
+   * @return this for chaining
+   */
+  public AbstractOptimizingEvaluator withPreviousState(EvaluatedState previousState) {
+    this.previousState = previousState;
+    return this;
+  }
+
+  /**
+   * Get the state to evaluate the table incrementally next time, it only keeps the evaluated
+   * snapshot and the file counters of each partition.
+   *
+   * @return null if this evaluator is not initialized or its table could not be evaluated
+   *     incrementally
+   */
+  public EvaluatedState getEvaluatedState() {
+    if (!isInitialized || !TableFormat.ICEBERG.equals(mixedTable.format())) {
+      return null;
+    }
+    return new EvaluatedState(this);
+  }
+
+  /**
+   * Evaluate partitions in parallel on the shared partition planning pool. Files of the same
+   * partition are always added to its evaluator by one thread in the scanning order.
+   *
+   * @param planningParallelism - max number of threads used for this table
+   * @return this for chaining
+   */
+  public AbstractOptimizingEvaluator withPlanningParallelism(int planningParallelism) {
+    this.planningParallelism = Math.max(1, planningParallelism);
+    return this;
+  }
+
   protected void initEvaluator() {
     long startTime = System.currentTimeMillis();
+    EvaluatedState previous = previousState;
+    previousState = null;
+    if (previous != null && initPartitionPlansIncrementally(previous)) {
+      isInitialized = true;
+      LOG.info(
+          "{} finished evaluating incrementally from snapshot {}, found {} partitions that need "
+              + "optimizing in {} ms",
+          mixedTable.id(),
+          previous.snapshotId,
+          needOptimizingPlanMap.size(),
+          System.currentTimeMillis() - startTime);
+      return;
+    }
     TableFileScanHelper tableFileScanHelper;
     if (TableFormat.ICEBERG.equals(mixedTable.format())) {
       tableFileScanHelper =
@@ -117,6 +191,12 @@ public abstract class AbstractOptimizingEvaluator {
   private void initPartitionPlans(TableFileScanHelper tableFileScanHelper) {
     long startTime = System.currentTimeMillis();
     long count = 0;
+    // files are handed to the planning pool while scanning if planning in parallel
+    PartitionFileDispatcher dispatcher =
+        planningParallelism > 1
+            ? new PartitionFileDispatcher(
+                planningParallelism, IcebergThreadPools.getPartitionPlanningPool())
+            : null;
     try (CloseableIterable<TableFileScanHelper.FileScanResult> results =
         tableFileScanHelper.scan()) {
       for (TableFileScanHelper.FileScanResult fileScanResult : results) {
@@ -127,17 +207,28 @@ public abstract class AbstractOptimizingEvaluator {
             partitionPlanMap.computeIfAbsent(
                 partitionPath,
                 ignore -> buildEvaluator(Pair.of(partitionSpec.specId(), partition)));
-        evaluator.addFile(fileScanResult.file(), fileScanResult.deleteFiles());
+        if (dispatcher == null) {
+          evaluator.addFile(fileScanResult.file(), fileScanResult.deleteFiles());
+        } else {
+          dispatcher.dispatch(partitionPath, evaluator, fileScanResult);
+        }
         count++;
       }
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
+    if (dispatcher != null) {
+      dispatcher.finish();
+    }
     LOG.info(
         "{} finished file scanning, scanning {} files in {} ms",
         mixedTable.id(),
         count,
         System.currentTimeMillis() - startTime);
+    collectNeedOptimizingPlans();
+  }
+
+  private void collectNeedOptimizingPlans() {
     needOptimizingPlanMap.putAll(
         partitionPlanMap.entrySet().stream()
             .filter(entry -> entry.getValue().isNecessary())
@@ -145,6 +236,216 @@ public abstract class AbstractOptimizingEvaluator {
             .collect(Collectors.toMap(entry -> entry.getKey(), entry -> entry.getValue())));
   }
 
+  /**
+   * Reuse the partition evaluators of the previous evaluator and add the data files of snapshots
+   * committed after it. Only iceberg tables with append-only snapshots since then are supported,
+   * since the appended data files are not related to any delete files and no file is removed.
+   */
+  private boolean initPartitionPlansIncrementally(EvaluatedState previous) {
+    if (!canEvaluateIncrementally(previous)) {
+      return false;
+    }
+    Table table = mixedTable.asUnkeyedTable();
+    List<Snapshot> appendedSnapshots =
+        Lists.newArrayList(
+            SnapshotUtil.ancestorsBetween(
+                table, currentSnapshot.snapshotId(), previous.snapshotId));
+    if (appendedSnapshots.stream()
+        .anyMatch(snapshot -> !DataOperations.APPEND.equals(snapshot.operation()))) {
+      LOG.debug(
+          "{} has non-append snapshots since {}, evaluate the whole table",
+          mixedTable.id(),
+          previous.snapshotId);
+      return false;
+    }
+    long planTime = System.currentTimeMillis();
+    for (PartitionEvaluator evaluator : previous.partitionEvaluators.values()) {
+      if (!(evaluator instanceof CommonPartitionEvaluator)
+          || !((CommonPartitionEvaluator) evaluator).advancePlanTime(planTime)) {
+        return false;
+      }
+    }
+
+    partitionPlanMap.putAll(previous.partitionEvaluators);
+    long count = 0;
+    for (Snapshot snapshot : appendedSnapshots) {
+      for (DataFile dataFile : snapshot.addedDataFiles(table.io())) {
+        PartitionSpec partitionSpec = table.specs().get(dataFile.specId());
+        StructLike partition = dataFile.partition();
+        String partitionPath = partitionSpec.partitionToPath(partition);
+        PartitionEvaluator evaluator =
+            partitionPlanMap.computeIfAbsent(
+                partitionPath,
+                ignore -> buildEvaluator(Pair.of(partitionSpec.specId(), partition)));
+        evaluator.addFile(dataFile, Collections.emptyList());
+        count++;
+      }
+    }
+    LOG.info(
+        "{} finished incremental file scanning, scanning {} files of {} snapshots",
+        mixedTable.id(),
+        count,
+        appendedSnapshots.size());
+    collectNeedOptimizingPlans();
+    return true;
+  }
+
+  /**
+   * Apply the function to all items on the shared partition planning pool with at most {@link
+   * #planningParallelism} threads.
+   *
+   * @return results in the same order as the items
+   */
+  protected <T, R> List<R> mapInParallel(List<T> items, Function<T, R> function) {
+    int parallelism = Math.min(planningParallelism, items.size());
+    if (parallelism <= 1) {
+      return items.stream().map(function).collect(Collectors.toList());
+    }
+    Object[] results = new Object[items.size()];
+    ForkJoinPool pool = IcebergThreadPools.getPartitionPlanningPool();
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      int first = i;
+      tasks.add(
+          pool.submit(
+              () -> {
+                for (int j = first; j < items.size(); j += parallelism) {
+                  results[j] = function.apply(items.get(j));
+                }
+              }));
+    }
+    // join all tasks before rethrowing failures
+    RuntimeException failure = null;
+    for (ForkJoinTask<?> task : tasks) {
+      try {
+        task.join();
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    @SuppressWarnings("unchecked")
+    List<R> resultList = (List<R>) Arrays.asList(results);
+    return resultList;
+  }
+
+  /**
+   * Hands scanned files to a fixed number of lanes by partition, the batches of a lane are added
+   * one after another on the planning pool, so files of one partition are always added by one
+   * thread in the scanning order. At most a few batches of each lane are in flight, the scanning
+   * waits for the lane otherwise, so scanned files are never buffered for the whole table.
+   */
+  private static class PartitionFileDispatcher {
+    private static final int BATCH_SIZE = 256;
+    private static final int MAX_BATCHES_IN_FLIGHT = 4;
+
+    private final Executor executor;
+    private final List<List<Pair<PartitionEvaluator, TableFileScanHelper.FileScanResult>>>
+        batches;
+    private final List<Deque<CompletableFuture<Void>>> lanes;
+
+    PartitionFileDispatcher(int parallelism, Executor executor) {
+      this.executor = executor;
+      this.batches = new ArrayList<>(parallelism);
+      this.lanes = new ArrayList<>(parallelism);
+      for (int i = 0; i < parallelism; i++) {
+        batches.add(new ArrayList<>(BATCH_SIZE));
+        lanes.add(new ArrayDeque<>());
+      }
+    }
+
+    void dispatch(
+        String partitionPath,
+        PartitionEvaluator evaluator,
+        TableFileScanHelper.FileScanResult fileScanResult) {
+      int lane = Math.floorMod(partitionPath.hashCode(), batches.size());
+      List<Pair<PartitionEvaluator, TableFileScanHelper.FileScanResult>> batch =
+          batches.get(lane);
+      batch.add(Pair.of(evaluator, fileScanResult));
+      if (batch.size() >= BATCH_SIZE) {
+        submit(lane);
+      }
+    }
+
+    /** Submit the remaining files and wait until all files are added. */
+    void finish() {
+      for (int lane = 0; lane < batches.size(); lane++) {
+        if (!batches.get(lane).isEmpty()) {
+          submit(lane);
+        }
+      }
+      // wait for all lanes before rethrowing failures
+      RuntimeException failure = null;
+      for (Deque<CompletableFuture<Void>> inFlight : lanes) {
+        try {
+          await(inFlight.peekLast());
+        } catch (RuntimeException e) {
+          if (failure == null) {
+            failure = e;
+          } else {
+            failure.addSuppressed(e);
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+    }
+
+    private void submit(int lane) {
+      List<Pair<PartitionEvaluator, TableFileScanHelper.FileScanResult>> batch =
+          batches.get(lane);
+      batches.set(lane, new ArrayList<>(BATCH_SIZE));
+      Deque<CompletableFuture<Void>> inFlight = lanes.get(lane);
+      CompletableFuture<Void> previous =
+          inFlight.isEmpty() ? CompletableFuture.completedFuture(null) : inFlight.peekLast();
+      inFlight.addLast(previous.thenRunAsync(() -> addFiles(batch), executor));
+      if (inFlight.size() > MAX_BATCHES_IN_FLIGHT) {
+        await(inFlight.pollFirst());
+      }
+    }
+
+    private static void addFiles(
+        List<Pair<PartitionEvaluator, TableFileScanHelper.FileScanResult>> batch) {
+      for (Pair<PartitionEvaluator, TableFileScanHelper.FileScanResult> file : batch) {
+        file.first().addFile(file.second().file(), file.second().deleteFiles());
+      }
+    }
+
+    private static void await(CompletableFuture<Void> future) {
+      if (future == null) {
+        return;
+      }
+      try {
+        future.join();
+      } catch (CompletionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw e;
+      }
+    }
+  }
+
+  private boolean canEvaluateIncrementally(EvaluatedState previous) {
+    return TableFormat.ICEBERG.equals(mixedTable.format())
+        && getClass().equals(previous.evaluatorClass)
+        && identifier.equals(previous.identifier)
+        && config.equals(previous.config)
+        && lastMinorOptimizingTime == previous.lastMinorOptimizingTime
+        && lastFullOptimizingTime == previous.lastFullOptimizingTime
+        && getPartitionFilter().op() == Expression.Operation.TRUE
+        && previous.wholeTableEvaluated
+        && previous.snapshotId != Constants.INVALID_SNAPSHOT_ID
+        && currentSnapshot.snapshotId() != Constants.INVALID_SNAPSHOT_ID
+        && SnapshotUtil.isAncestorOf(
+            mixedTable.asUnkeyedTable(), currentSnapshot.snapshotId(), previous.snapshotId);
+  }
+
   protected abstract PartitionEvaluator buildEvaluator(Pair<Integer, StructLike> partition);
 
   public boolean isNecessary() {
@@ -175,6 +476,32 @@ public abstract class AbstractOptimizingEvaluator {
     return new PendingInput(needOptimizingPlanMap.values());
   }
 
+  /**
+   * State of an evaluation kept to evaluate the same table incrementally, it holds the partition
+   * evaluators which only count the files added to them, but not the table or the scanned files.
+   */
+  public static class EvaluatedState {
+    private final Class<?> evaluatorClass;
+    private final ServerTableIdentifier identifier;
+    private final OptimizingConfig config;
+    private final long lastMinorOptimizingTime;
+    private final long lastFullOptimizingTime;
+    private final boolean wholeTableEvaluated;
+    private final long snapshotId;
+    private final Map<String, PartitionEvaluator> partitionEvaluators;
+
+    private EvaluatedState(AbstractOptimizingEvaluator evaluator) {
+      this.evaluatorClass = evaluator.getClass();
+      this.identifier = evaluator.identifier;
+      this.config = evaluator.config;
+      this.lastMinorOptimizingTime = evaluator.lastMinorOptimizingTime;
+      this.lastFullOptimizingTime = evaluator.lastFullOptimizingTime;
+      this.wholeTableEvaluated = evaluator.getPartitionFilter().op() == Expression.Operation.TRUE;
+      this.snapshotId = evaluator.currentSnapshot.snapshotId();
+      this.partitionEvaluators = evaluator.partitionPlanMap;
+    }
+  }
+
   public static class PendingInput {
 
     @JsonIgnore private final Map<Integer, Set<StructLike>> partitions = Maps.newHashMap();
@@ -162,10 +162,10 @@ public abstract class AbstractOptimizingPlanner extends AbstractOptimizingEvalua
     }
 
     double avgThreadCost = actualInputSize / availableCore;
+    int targetTaskCount = (int) (actualInputSize / avgThreadCost);
     List<RewriteStageTask> tasks = Lists.newArrayList();
-    for (AbstractPartitionPlan partitionPlan : actualPartitionPlans) {
-      tasks.addAll(partitionPlan.splitTasks((int) (actualInputSize / avgThreadCost)));
-    }
+    mapInParallel(actualPartitionPlans, partitionPlan -> partitionPlan.splitTasks(targetTaskCount))
+        .forEach(tasks::addAll);
     if (!tasks.isEmpty()) {
       if (actualPartitionPlans.stream()
           .anyMatch(plan -> plan.getOptimizingType() == OptimizingType.FULL)) {
@@ -179,14 +179,16 @@ public abstract class AbstractOptimizingPlanner extends AbstractOptimizingEvalua
     }
     long endTime = System.nanoTime();
     LOG.info(
-        "{} finish plan, type = {}, get {} tasks, cost {} ns, {} ms maxInputSize {} actualInputSize {}",
+        "{} finish plan, type = {}, get {} tasks, cost {} ns, {} ms maxInputSize {} actualInputSize {}"
+            + " parallelism {}",
         identifier,
         getOptimizingType(),
         tasks.size(),
         endTime - startTime,
         (endTime - startTime) / 1_000_000,
         maxInputSize,
-        actualInputSize);
+        actualInputSize,
+        planningParallelism);
     return cacheAndReturnTasks(tasks);
   }
 
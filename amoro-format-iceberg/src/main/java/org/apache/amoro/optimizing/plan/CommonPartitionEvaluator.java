@@ -48,9 +48,9 @@ public class CommonPartitionEvaluator implements PartitionEvaluator {
   protected final long lastMinorOptimizingTime;
   protected final long fragmentSize;
   protected final long minTargetSize;
-  protected final long planTime;
+  protected long planTime;
 
-  private final boolean reachFullInterval;
+  private boolean reachFullInterval;
 
   // fragment files
   protected int fragmentFileCount = 0;
@@ -104,9 +104,35 @@ public class CommonPartitionEvaluator implements PartitionEvaluator {
     this.planTime = planTime;
     this.lastMinorOptimizingTime = lastMinorOptimizingTime;
     this.lastFullOptimizingTime = lastFullOptimizingTime;
-    this.reachFullInterval =
-        config.getFullTriggerInterval() >= 0
-            && planTime - lastFullOptimizingTime > config.getFullTriggerInterval();
+    this.reachFullInterval = isFullIntervalReached(planTime);
+  }
+
+  private boolean isFullIntervalReached(long planTime) {
+    return config.getFullTriggerInterval() >= 0
+        && planTime - lastFullOptimizingTime > config.getFullTriggerInterval();
+  }
+
+  /**
+   * Move the plan time of this evaluator forward, so that it could be reused when evaluating the
+   * partition incrementally.
+   *
+   * @param planTime - the new plan time
+   * @return false if the evaluator can not be reused, since whether the full optimizing interval
+   *     is reached changes and the files added before should be classified again
+   */
+  public boolean advancePlanTime(long planTime) {
+    if (isFullIntervalReached(planTime) != reachFullInterval) {
+      return false;
+    }
+    this.planTime = planTime;
+    resetEvaluatedResult();
+    return true;
+  }
+
+  private void resetEvaluatedResult() {
+    cost = -1;
+    necessary = null;
+    optimizingType = null;
   }
 
   @Override
@@ -127,6 +153,7 @@ public class CommonPartitionEvaluator implements PartitionEvaluator {
     if (!config.isEnabled()) {
       return false;
     }
+    resetEvaluatedResult();
     if (isFragmentFile(dataFile)) {
       return addFragmentFile(dataFile, deletes);
     } else if (isUndersizedSegmentFile(dataFile)) {
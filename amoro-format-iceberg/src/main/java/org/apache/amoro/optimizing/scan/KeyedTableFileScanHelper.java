@@ -34,6 +34,7 @@ import org.apache.amoro.table.KeyedTableSnapshot;
 import org.apache.amoro.table.TableProperties;
 import org.apache.amoro.table.UnkeyedTable;
 import org.apache.amoro.utils.CompatiblePropertyUtil;
+import org.apache.amoro.utils.IcebergThreadPools;
 import org.apache.amoro.utils.MixedTableUtil;
 import org.apache.iceberg.ContentFile;
 import org.apache.iceberg.DataFile;
@@ -207,7 +208,12 @@ public class KeyedTableFileScanHelper implements TableFileScanHelper {
     if (baseSnapshotId != Constants.INVALID_SNAPSHOT_ID) {
       baseScanResult =
           CloseableIterable.transform(
-              baseTable.newScan().filter(partitionFilter).useSnapshot(baseSnapshotId).planFiles(),
+              baseTable
+                  .newScan()
+                  .planWith(IcebergThreadPools.getPlanningExecutor())
+                  .filter(partitionFilter)
+                  .useSnapshot(baseSnapshotId)
+                  .planFiles(),
               fileScanTask -> {
                 DataFile dataFile = wrapBaseFile(fileScanTask.file());
                 List<ContentFile<?>> deleteFiles = new ArrayList<>(fileScanTask.deletes());
@@ -119,6 +119,10 @@ public class TableProperties {
       "self-optimizing.min-plan-interval";
   public static final long SELF_OPTIMIZING_MIN_PLAN_INTERVAL_DEFAULT = 60000;
 
+  public static final String SELF_OPTIMIZING_BINARY_COPY_ENABLED =
+      "self-optimizing.binary-copy.enabled";
+  public static final boolean SELF_OPTIMIZING_BINARY_COPY_ENABLED_DEFAULT = false;
+
   /** deprecated table optimize related properties */
   @Deprecated public static final String ENABLE_OPTIMIZE = "optimize.enable";
 
@@ -322,6 +326,7 @@ public class TableProperties {
 
   public static final String LOG_STORE_DATA_VERSION = "log-store.data-version";
   public static final String LOG_STORE_DATA_VERSION_DEFAULT = "v1";
+  public static final String LOG_STORE_DATA_VERSION_V2 = "v2";
 
   public static final String LOG_STORE_PROPERTIES_PREFIX = "properties.";
 
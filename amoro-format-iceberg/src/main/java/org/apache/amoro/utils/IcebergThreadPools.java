@@ -23,12 +23,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 public class IcebergThreadPools {
 
   private static final Logger LOG = LoggerFactory.getLogger(IcebergThreadPools.class);
   private static volatile ExecutorService planningExecutor;
   private static volatile ExecutorService commitExecutor;
+  private static volatile ForkJoinPool partitionPlanningPool;
 
   public static void init(int planningThreadPoolSize, int commitThreadPoolSize) {
     if (planningExecutor == null) {
@@ -66,6 +69,28 @@ public class IcebergThreadPools {
     return planningExecutor;
   }
 
+  /** The pool shared by all tables to evaluate and split partitions in parallel. */
+  public static ForkJoinPool getPartitionPlanningPool() {
+    if (partitionPlanningPool == null) {
+      synchronized (IcebergThreadPools.class) {
+        if (partitionPlanningPool == null) {
+          partitionPlanningPool =
+              new ForkJoinPool(
+                  Runtime.getRuntime().availableProcessors(),
+                  pool -> {
+                    ForkJoinWorkerThread thread =
+                        ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setName("partition-planning-pool-" + thread.getPoolIndex());
+                    return thread;
+                  },
+                  null,
+                  false);
+        }
+      }
+    }
+    return partitionPlanningPool;
+  }
+
   public static ExecutorService getCommitExecutor() {
     if (commitExecutor == null) {
       synchronized (IcebergThreadPools.class) {
@@ -20,6 +20,7 @@ package org.apache.amoro.utils;
 
 import org.apache.amoro.utils.map.StructLikeBaseMap;
 import org.apache.amoro.utils.map.StructLikeMemoryMap;
+import org.apache.amoro.utils.map.SpillBackend;
 import org.apache.amoro.utils.map.StructLikeSpillableMap;
 import org.apache.iceberg.StructLike;
 import org.apache.iceberg.types.Types;
@@ -37,7 +38,16 @@ public class StructLikeSet implements Closeable {
 
   public static StructLikeSet createSpillableSet(
       Types.StructType type, Long maxInMemorySizeInBytes, @Nullable String backendBaseDir) {
-    return new StructLikeSet(type, maxInMemorySizeInBytes, backendBaseDir);
+    return createSpillableSet(
+        type, maxInMemorySizeInBytes, backendBaseDir, SpillBackend.Type.ROCKSDB);
+  }
+
+  public static StructLikeSet createSpillableSet(
+      Types.StructType type,
+      Long maxInMemorySizeInBytes,
+      @Nullable String backendBaseDir,
+      SpillBackend.Type backendType) {
+    return new StructLikeSet(type, maxInMemorySizeInBytes, backendBaseDir, backendType);
   }
 
   private static final Integer _V = 0;
@@ -48,9 +58,12 @@ public class StructLikeSet implements Closeable {
   }
 
   private StructLikeSet(
-      Types.StructType type, Long maxInMemorySizeInBytes, @Nullable String backendBaseDir) {
+      Types.StructType type,
+      Long maxInMemorySizeInBytes,
+      @Nullable String backendBaseDir,
+      SpillBackend.Type backendType) {
     this.structLikeMap =
-        StructLikeSpillableMap.create(type, maxInMemorySizeInBytes, backendBaseDir);
+        StructLikeSpillableMap.create(type, maxInMemorySizeInBytes, backendBaseDir, backendType);
   }
 
   public boolean contains(StructLike key) {
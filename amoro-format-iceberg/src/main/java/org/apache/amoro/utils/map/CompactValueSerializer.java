@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.utils.map;
+
+import static org.apache.amoro.shade.guava32.com.google.common.base.Preconditions.checkNotNull;
+
+import org.apache.amoro.data.ChangedLsn;
+import org.apache.amoro.utils.SerializationUtil;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Serializer for values of spilled maps. The value types used by delete filters are written as a
+ * one byte tag followed by their fields, other types fall back to kryo which writes the class name
+ * with every value.
+ */
+public class CompactValueSerializer<T> implements SerializationUtil.SimpleSerializer<T> {
+
+  private static final CompactValueSerializer<?> INSTANCE = new CompactValueSerializer<>();
+
+  private static final byte TAG_KRYO = 0;
+  private static final byte TAG_LONG = 1;
+  private static final byte TAG_INTEGER = 2;
+  private static final byte TAG_CHANGED_LSN = 3;
+
+  @SuppressWarnings("unchecked")
+  public static <T> CompactValueSerializer<T> get() {
+    return (CompactValueSerializer<T>) INSTANCE;
+  }
+
+  private CompactValueSerializer() {}
+
+  @Override
+  public byte[] serialize(T value) {
+    checkNotNull(value);
+    if (value instanceof Long) {
+      return ByteBuffer.allocate(9).put(TAG_LONG).putLong((Long) value).array();
+    } else if (value instanceof Integer) {
+      return ByteBuffer.allocate(5).put(TAG_INTEGER).putInt((Integer) value).array();
+    } else if (value instanceof ChangedLsn) {
+      ChangedLsn lsn = (ChangedLsn) value;
+      return ByteBuffer.allocate(17)
+          .put(TAG_CHANGED_LSN)
+          .putLong(lsn.transactionId())
+          .putLong(lsn.fileOffset())
+          .array();
+    }
+    byte[] bytes = SerializationUtil.kryoSerialize(value);
+    byte[] result = new byte[bytes.length + 1];
+    result[0] = TAG_KRYO;
+    System.arraycopy(bytes, 0, result, 1, bytes.length);
+    return result;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public T deserialize(byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+    switch (bytes[0]) {
+      case TAG_LONG:
+        return (T) Long.valueOf(buffer.getLong());
+      case TAG_INTEGER:
+        return (T) Integer.valueOf(buffer.getInt());
+      case TAG_CHANGED_LSN:
+        return (T) ChangedLsn.of(buffer.getLong(), buffer.getLong());
+      case TAG_KRYO:
+        return SerializationUtil.kryoDeserialize(Arrays.copyOfRange(bytes, 1, bytes.length));
+      default:
+        throw new IllegalArgumentException("Unknown value tag: " + bytes[0]);
+    }
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.utils.map;
+
+import org.apache.amoro.AmoroIOException;
+import org.apache.amoro.shade.guava32.com.google.common.annotations.VisibleForTesting;
+import org.apache.amoro.utils.LocalFileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * {@link SpillBackend} appending records of keys and values to memory-mapped segment files. The
+ * latest address of every key is kept by an {@link OffHeapBytesLongMap}.
+ *
+ * <p>Every segment counts the bytes of its records still referenced by the index. A sealed
+ * segment is dropped once none of its records is live, and compacted by moving its live records
+ * to the current segment once they take at most a quarter of it, so the disk space of updated and
+ * deleted values is reclaimed. Dropped segments are unmapped at once instead of waiting for the
+ * garbage collector, so that their disk blocks are freed with the files.
+ *
+ * <p>This backend is not thread-safe.
+ */
+public class MappedLogSpillBackend implements SpillBackend {
+
+  private static final Logger LOG = LoggerFactory.getLogger(MappedLogSpillBackend.class);
+  private static final String BACKEND_BASE_DIR = System.getProperty("java.io.tmpdir");
+  private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  private static final int RECORD_HEADER_SIZE = 4 + 4;
+  // a sealed segment is compacted once its live records take at most 1 / COMPACTION_RATIO of it
+  private static final int COMPACTION_RATIO = 4;
+  private static final Consumer<MappedByteBuffer> UNMAPPER = unmapper();
+
+  private final File logDir;
+  private final int segmentSize;
+  private final OffHeapBytesLongMap index = new OffHeapBytesLongMap();
+  // segments by id, null once dropped
+  private final List<Segment> segments = new ArrayList<>();
+  private Segment currentSegment;
+  private long bytesOnDisk;
+
+  public MappedLogSpillBackend(@Nullable String backendBaseDir) {
+    this(backendBaseDir, DEFAULT_SEGMENT_SIZE);
+  }
+
+  @VisibleForTesting
+  MappedLogSpillBackend(@Nullable String backendBaseDir, int segmentSize) {
+    String baseDir = backendBaseDir == null ? BACKEND_BASE_DIR : backendBaseDir;
+    this.logDir = new File(baseDir, "spill-log-" + UUID.randomUUID());
+    this.segmentSize = segmentSize;
+    try {
+      LocalFileUtil.mkdir(logDir);
+    } catch (IOException e) {
+      throw new AmoroIOException("Failed to create spill log directory " + logDir, e);
+    }
+  }
+
+  @Override
+  public byte[] get(byte[] key) {
+    long address = index.get(key, key.length);
+    if (address == OffHeapBytesLongMap.MISSING_VALUE) {
+      return null;
+    }
+    ByteBuffer buffer = segments.get(segmentId(address)).buffer.duplicate();
+    buffer.position(offset(address));
+    int keyLength = buffer.getInt();
+    byte[] value = new byte[buffer.getInt()];
+    buffer.position(buffer.position() + keyLength);
+    buffer.get(value);
+    return value;
+  }
+
+  @Override
+  public void put(byte[] key, byte[] value) {
+    long previous = index.get(key, key.length);
+    index.put(key, key.length, append(key, value));
+    if (previous != OffHeapBytesLongMap.MISSING_VALUE) {
+      release(previous);
+    }
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    long previous = index.remove(key, key.length);
+    if (previous != OffHeapBytesLongMap.MISSING_VALUE) {
+      release(previous);
+    }
+  }
+
+  /** Number of bytes written to the segments still on disk. */
+  @Override
+  public long sizeOfFileOnDiskInBytes() {
+    return bytesOnDisk;
+  }
+
+  @Override
+  public void close() {
+    index.close();
+    segments.stream().filter(segment -> segment != null).forEach(Segment::unmap);
+    segments.clear();
+    currentSegment = null;
+    bytesOnDisk = 0;
+    try {
+      LocalFileUtil.deleteDirectory(logDir);
+    } catch (IOException e) {
+      LOG.warn("Failed to delete spill log directory {}", logDir, e);
+    }
+  }
+
+  @VisibleForTesting
+  int segmentCount() {
+    return (int) segments.stream().filter(segment -> segment != null).count();
+  }
+
+  private long append(byte[] key, byte[] value) {
+    int recordSize = RECORD_HEADER_SIZE + key.length + value.length;
+    if (currentSegment == null || currentSegment.buffer.remaining() < recordSize) {
+      currentSegment = newSegment(Math.max(segmentSize, recordSize));
+    }
+    MappedByteBuffer buffer = currentSegment.buffer;
+    long address = ((long) currentSegment.id << 32) | buffer.position();
+    buffer.putInt(key.length);
+    buffer.putInt(value.length);
+    buffer.put(key);
+    buffer.put(value);
+    currentSegment.liveBytes += recordSize;
+    bytesOnDisk += recordSize;
+    return address;
+  }
+
+  /** Called once the record at the address is overwritten or deleted. */
+  private void release(long address) {
+    Segment segment = segments.get(segmentId(address));
+    int offset = offset(address);
+    segment.liveBytes -=
+        RECORD_HEADER_SIZE + segment.buffer.getInt(offset) + segment.buffer.getInt(offset + 4);
+    if (segment == currentSegment) {
+      return;
+    }
+    if (segment.liveBytes == 0) {
+      drop(segment);
+    } else if ((long) segment.liveBytes * COMPACTION_RATIO <= segment.buffer.position()) {
+      compact(segment);
+    }
+  }
+
+  /** Move the live records of the sealed segment to the current one, then drop it. */
+  private void compact(Segment segment) {
+    ByteBuffer buffer = segment.buffer.duplicate();
+    buffer.position(0).limit(segment.buffer.position());
+    while (buffer.hasRemaining()) {
+      long address = ((long) segment.id << 32) | buffer.position();
+      byte[] key = new byte[buffer.getInt()];
+      int valueLength = buffer.getInt();
+      buffer.get(key);
+      if (index.get(key, key.length) == address) {
+        byte[] value = new byte[valueLength];
+        buffer.get(value);
+        index.put(key, key.length, append(key, value));
+      } else {
+        buffer.position(buffer.position() + valueLength);
+      }
+    }
+    drop(segment);
+  }
+
+  private void drop(Segment segment) {
+    segments.set(segment.id, null);
+    bytesOnDisk -= segment.buffer.position();
+    segment.unmap();
+    if (!segment.file.delete()) {
+      LOG.warn("Failed to delete spill log segment {}", segment.file);
+    }
+  }
+
+  private Segment newSegment(int size) {
+    File file = new File(logDir, "segment-" + segments.size());
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(size);
+      // the mapping stays valid after the file is closed
+      MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+      Segment segment = new Segment(segments.size(), file, buffer);
+      segments.add(segment);
+      return segment;
+    } catch (IOException e) {
+      throw new AmoroIOException("Failed to map spill log segment " + file, e);
+    }
+  }
+
+  private static int segmentId(long address) {
+    return (int) (address >>> 32);
+  }
+
+  private static int offset(long address) {
+    return (int) address;
+  }
+
+  private static Consumer<MappedByteBuffer> unmapper() {
+    try {
+      // java 9 and later
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      Object unsafe = theUnsafe.get(null);
+      return buffer -> invokeQuietly(invokeCleaner, unsafe, buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOG.debug("Unsafe#invokeCleaner is not available", e);
+    }
+    try {
+      // java 8
+      Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> {
+        Object bufferCleaner = invokeQuietly(cleaner, buffer);
+        if (bufferCleaner != null) {
+          invokeQuietly(clean, bufferCleaner);
+        }
+      };
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOG.warn("Mapped spill log segments are released by the garbage collector", e);
+      return buffer -> {};
+    }
+  }
+
+  private static Object invokeQuietly(Method method, Object target, Object... args) {
+    try {
+      return method.invoke(target, args);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      LOG.warn("Failed to unmap a spill log segment, it is released by the garbage collector", e);
+      return null;
+    }
+  }
+
+  private static class Segment {
+    private final int id;
+    private final File file;
+    private final MappedByteBuffer buffer;
+    // bytes of the records still referenced by the index
+    private int liveBytes;
+
+    Segment(int id, File file, MappedByteBuffer buffer) {
+      this.id = id;
+      this.file = file;
+      this.buffer = buffer;
+    }
+
+    void unmap() {
+      UNMAPPER.accept(buffer);
+    }
+  }
+}
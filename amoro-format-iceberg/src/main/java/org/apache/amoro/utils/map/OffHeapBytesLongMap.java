@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.utils.map;
+
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+
+/**
+ * An open addressing hash table from byte array keys to long values, both the slots and the
+ * entries are stored in direct memory, so that large key sets do not occupy the heap.
+ *
+ * <p>Entries are appended to an arena as [hash, key length, value, key bytes], the slots hold the
+ * arena offsets of the entries. Putting an existing key overwrites its value in place. Removing a
+ * key frees its slot at once, the arena space of the entry is reclaimed by compacting the live
+ * entries the next time the arena is full, so the arena never grows beyond twice the live entries.
+ * The map holds at most {@link #MAX_SIZE} keys and {@code Integer.MAX_VALUE - 8} bytes of entries.
+ * This map is not thread-safe.
+ */
+public class OffHeapBytesLongMap implements Closeable {
+
+  /** Returned by {@link #get(byte[], int)} if the key does not exist. */
+  public static final long MISSING_VALUE = Long.MIN_VALUE;
+
+  private static final int ENTRY_HEADER_SIZE = 4 + 4 + 8;
+  private static final int SLOT_SIZE = 4;
+  private static final int MAX_SLOT_CAPACITY = 1 << 28;
+  /** The slots are kept at most half full. */
+  public static final int MAX_SIZE = MAX_SLOT_CAPACITY / 2;
+  private static final int MAX_ARENA_SIZE = Integer.MAX_VALUE - 8;
+  private static final int DEFAULT_SLOT_CAPACITY = 1024;
+  private static final int DEFAULT_ARENA_SIZE = 64 * 1024;
+
+  private ByteBuffer slots;
+  private ByteBuffer arena;
+  private int slotCapacity;
+  private int size;
+  private int arenaPosition;
+  // arena bytes of the removed entries
+  private long garbageSize;
+
+  public OffHeapBytesLongMap() {
+    this(DEFAULT_SLOT_CAPACITY, DEFAULT_ARENA_SIZE);
+  }
+
+  public OffHeapBytesLongMap(int initialSlotCapacity, int initialArenaSize) {
+    Preconditions.checkArgument(
+        initialSlotCapacity > 0 && initialSlotCapacity <= MAX_SLOT_CAPACITY,
+        "Slot capacity must be positive and at most %s",
+        MAX_SLOT_CAPACITY);
+    Preconditions.checkArgument(initialArenaSize > 0, "Arena size must be positive");
+    // the slot index is masked by the capacity, round it up to a power of two
+    this.slotCapacity = Math.max(2, Integer.highestOneBit(initialSlotCapacity - 1) << 1);
+    this.slots = ByteBuffer.allocateDirect(slotCapacity * SLOT_SIZE);
+    this.arena = ByteBuffer.allocateDirect(initialArenaSize);
+  }
+
+  /**
+   * Get the value of the key.
+   *
+   * @param key the buffer holding the key
+   * @param length the length of the key in the buffer
+   * @return the value, or {@link #MISSING_VALUE} if the key does not exist
+   */
+  public long get(byte[] key, int length) {
+    int entry = findEntry(key, length, hash(key, length));
+    return entry < 0 ? MISSING_VALUE : arena.getLong(entry + 8);
+  }
+
+  /**
+   * Remove the key.
+   *
+   * @param key the buffer holding the key
+   * @param length the length of the key in the buffer
+   * @return the removed value, or {@link #MISSING_VALUE} if the key does not exist
+   */
+  public long remove(byte[] key, int length) {
+    Preconditions.checkState(slots != null, "The map has been closed");
+    int slot = findSlot(key, length, hash(key, length));
+    if (slot < 0) {
+      return MISSING_VALUE;
+    }
+    int entry = slots.getInt(slot * SLOT_SIZE) - 1;
+    long value = arena.getLong(entry + 8);
+    garbageSize += ENTRY_HEADER_SIZE + arena.getInt(entry + 4);
+    deleteSlot(slot);
+    size--;
+    return value;
+  }
+
+  /** Put the key and the value, the value replaces the existing one of the key. */
+  public void put(byte[] key, int length, long value) {
+    Preconditions.checkState(slots != null, "The map has been closed");
+    int hash = hash(key, length);
+    int entry = findEntry(key, length, hash);
+    if (entry >= 0) {
+      arena.putLong(entry + 8, value);
+      return;
+    }
+
+    Preconditions.checkState(
+        size < MAX_SIZE, "The off-heap map can not hold more than %s keys", MAX_SIZE);
+    entry = appendEntry(key, length, hash, value);
+    insertSlot(slots, slotCapacity, hash, entry);
+    size++;
+    if (size * 2 > slotCapacity) {
+      resizeSlots();
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /** @return the allocated direct memory in bytes. */
+  public long memorySize() {
+    if (slots == null) {
+      return 0;
+    }
+    return (long) slots.capacity() + arena.capacity();
+  }
+
+  @Override
+  public void close() {
+    // direct buffers are released once they are unreachable
+    slots = null;
+    arena = null;
+    size = 0;
+    garbageSize = 0;
+  }
+
+  private int findEntry(byte[] key, int length, int hash) {
+    int slot = findSlot(key, length, hash);
+    return slot < 0 ? -1 : slots.getInt(slot * SLOT_SIZE) - 1;
+  }
+
+  private int findSlot(byte[] key, int length, int hash) {
+    int mask = slotCapacity - 1;
+    int index = hash & mask;
+    while (true) {
+      int offset = slots.getInt(index * SLOT_SIZE);
+      if (offset == 0) {
+        return -1;
+      }
+      int entry = offset - 1;
+      if (arena.getInt(entry) == hash
+          && arena.getInt(entry + 4) == length
+          && keyEquals(entry + ENTRY_HEADER_SIZE, key, length)) {
+        return index;
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  /**
+   * Empty the slot and shift the following slots of the probe sequence backward, so that no
+   * tombstone is needed to keep the other keys reachable.
+   */
+  private void deleteSlot(int slot) {
+    int mask = slotCapacity - 1;
+    int hole = slot;
+    int index = (hole + 1) & mask;
+    while (true) {
+      int offset = slots.getInt(index * SLOT_SIZE);
+      if (offset == 0) {
+        break;
+      }
+      int home = arena.getInt(offset - 1) & mask;
+      // the entry can fill the hole if the hole lies between its home slot and its current slot
+      if (((index - home) & mask) >= ((index - hole) & mask)) {
+        slots.putInt(hole * SLOT_SIZE, offset);
+        hole = index;
+      }
+      index = (index + 1) & mask;
+    }
+    slots.putInt(hole * SLOT_SIZE, 0);
+  }
+
+  private boolean keyEquals(int position, byte[] key, int length) {
+    for (int i = 0; i < length; i++) {
+      if (arena.get(position + i) != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private int appendEntry(byte[] key, int length, int hash, long value) {
+    int entrySize = ENTRY_HEADER_SIZE + length;
+    ensureArenaCapacity(entrySize);
+    int entry = arenaPosition;
+    arena.putInt(entry, hash);
+    arena.putInt(entry + 4, length);
+    arena.putLong(entry + 8, value);
+    for (int i = 0; i < length; i++) {
+      arena.put(entry + ENTRY_HEADER_SIZE + i, key[i]);
+    }
+    arenaPosition += entrySize;
+    return entry;
+  }
+
+  private void ensureArenaCapacity(int entrySize) {
+    if ((long) arenaPosition + entrySize <= arena.capacity()) {
+      return;
+    }
+    long required = arenaPosition - garbageSize + entrySize;
+    Preconditions.checkState(
+        required <= MAX_ARENA_SIZE,
+        "The off-heap map can not hold more than %s bytes",
+        MAX_ARENA_SIZE);
+    // keep the capacity if the live entries take at most half of it after compaction
+    long newCapacity =
+        required * 2 <= arena.capacity()
+            ? arena.capacity()
+            : Math.min(MAX_ARENA_SIZE, Math.max(required, (long) arena.capacity() * 2));
+    ByteBuffer newArena = ByteBuffer.allocateDirect((int) newCapacity);
+    if (garbageSize == 0) {
+      ByteBuffer source = arena.duplicate();
+      source.position(0).limit(arenaPosition);
+      newArena.put(source);
+    } else {
+      compactInto(newArena);
+    }
+    arena = newArena;
+  }
+
+  /** Copy the live entries to the new arena and point their slots to the copies. */
+  private void compactInto(ByteBuffer newArena) {
+    int position = 0;
+    for (int i = 0; i < slotCapacity; i++) {
+      int offset = slots.getInt(i * SLOT_SIZE);
+      if (offset != 0) {
+        int entry = offset - 1;
+        int entrySize = ENTRY_HEADER_SIZE + arena.getInt(entry + 4);
+        ByteBuffer source = arena.duplicate();
+        source.position(entry).limit(entry + entrySize);
+        newArena.position(position);
+        newArena.put(source);
+        slots.putInt(i * SLOT_SIZE, position + 1);
+        position += entrySize;
+      }
+    }
+    arenaPosition = position;
+    garbageSize = 0;
+  }
+
+  private void resizeSlots() {
+    int newCapacity = slotCapacity * 2;
+    // at most MAX_SLOT_CAPACITY * SLOT_SIZE bytes since the map holds at most MAX_SIZE keys
+    ByteBuffer newSlots = ByteBuffer.allocateDirect((int) ((long) newCapacity * SLOT_SIZE));
+    for (int i = 0; i < slotCapacity; i++) {
+      int offset = slots.getInt(i * SLOT_SIZE);
+      if (offset != 0) {
+        int entry = offset - 1;
+        insertSlot(newSlots, newCapacity, arena.getInt(entry), entry);
+      }
+    }
+    slots = newSlots;
+    slotCapacity = newCapacity;
+  }
+
+  private static void insertSlot(ByteBuffer slots, int capacity, int hash, int entry) {
+    int mask = capacity - 1;
+    int index = hash & mask;
+    while (slots.getInt(index * SLOT_SIZE) != 0) {
+      index = (index + 1) & mask;
+    }
+    slots.putInt(index * SLOT_SIZE, entry + 1);
+  }
+
+  private static int hash(byte[] key, int length) {
+    int hash = 1;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + key[i];
+    }
+    // spread the bits since the slot index is taken from the low bits
+    hash ^= hash >>> 16;
+    hash *= 0x85ebca6b;
+    hash ^= hash >>> 13;
+    hash *= 0xc2b2ae35;
+    hash ^= hash >>> 16;
+    return hash;
+  }
+}
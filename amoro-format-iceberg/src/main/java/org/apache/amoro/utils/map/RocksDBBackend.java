@@ -329,6 +329,28 @@ public class RocksDBBackend {
     }
   }
 
+  /**
+   * Retrieve the values of the given keys in a column family with one multiGet call.
+   *
+   * @param columnFamilyHandle Column Family Handle
+   * @param keys Keys to be retrieved
+   * @return values in the same order as the keys, null if the key does not exist
+   */
+  public List<byte[]> multiGet(ColumnFamilyHandle columnFamilyHandle, List<byte[]> keys) {
+    Preconditions.checkArgument(!closed);
+    try {
+      Preconditions.checkArgument(keys != null, "keys in rocksdb can not be null!");
+      Preconditions.checkNotNull(columnFamilyHandle, "Column Family Handle couldn't be null!");
+      List<ColumnFamilyHandle> handles = new ArrayList<>(keys.size());
+      for (int i = 0; i < keys.size(); i++) {
+        handles.add(columnFamilyHandle);
+      }
+      return rocksDB.multiGetAsList(handles, keys);
+    } catch (Exception e) {
+      throw new AmoroIOException(e);
+    }
+  }
+
   public RocksDB getDB() {
     return rocksDB;
   }
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.utils.map;
+
+import javax.annotation.Nullable;
+
+import java.util.UUID;
+
+/** {@link SpillBackend} storing the pairs in a column family of {@link RocksDBBackend}. */
+public class RocksDBSpillBackend implements SpillBackend {
+
+  private final RocksDBBackend rocksDB;
+
+  private final String columnFamily = UUID.randomUUID().toString();
+
+  public RocksDBSpillBackend(@Nullable String backendBaseDir) {
+    rocksDB = RocksDBBackend.getOrCreateInstance(backendBaseDir);
+    rocksDB.addColumnFamily(columnFamily);
+  }
+
+  @Override
+  public byte[] get(byte[] key) {
+    return rocksDB.get(columnFamily, key);
+  }
+
+  @Override
+  public void put(byte[] key, byte[] value) {
+    rocksDB.put(columnFamily, key, value);
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    rocksDB.delete(columnFamily, key);
+  }
+
+  @Override
+  public long sizeOfFileOnDiskInBytes() {
+    return rocksDB.getTotalBytesWritten();
+  }
+
+  @Override
+  public void close() {
+    rocksDB.dropColumnFamily(columnFamily);
+  }
+}
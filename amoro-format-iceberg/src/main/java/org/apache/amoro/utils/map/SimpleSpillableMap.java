@@ -25,13 +25,13 @@ import javax.annotation.Nullable;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
 
   private static final int RECORDS_TO_SKIP_FOR_ESTIMATING = 200;
   private final long maxInMemorySizeInBytes;
   private final String backendBaseDir;
+  private final SpillBackend.Type backendType;
   // Size Estimator for key type
   private final SizeEstimator<K> keySizeEstimator;
   // Size Estimator for key types
@@ -67,9 +67,28 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
       SerializationUtil.SimpleSerializer<T> valueSerializer,
       SizeEstimator<K> keySizeEstimator,
       SizeEstimator<T> valueSizeEstimator) {
+    this(
+        maxInMemorySizeInBytes,
+        backendBaseDir,
+        SpillBackend.Type.ROCKSDB,
+        keySerializer,
+        valueSerializer,
+        keySizeEstimator,
+        valueSizeEstimator);
+  }
+
+  protected SimpleSpillableMap(
+      Long maxInMemorySizeInBytes,
+      @Nullable String backendBaseDir,
+      SpillBackend.Type backendType,
+      SerializationUtil.SimpleSerializer<K> keySerializer,
+      SerializationUtil.SimpleSerializer<T> valueSerializer,
+      SizeEstimator<K> keySizeEstimator,
+      SizeEstimator<T> valueSizeEstimator) {
     this.memoryMap = Maps.newHashMap();
     this.maxInMemorySizeInBytes = maxInMemorySizeInBytes;
     this.backendBaseDir = backendBaseDir;
+    this.backendType = backendType;
     this.currentInMemoryMapSize = 0L;
     this.keySerializer = keySerializer;
     this.valueSerializer = valueSerializer;
@@ -127,7 +146,11 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
     } else {
       if (!diskBasedMap.isPresent()) {
         diskBasedMap =
-            Optional.of(new SimpleSpilledMap<>(keySerializer, valueSerializer, backendBaseDir));
+            Optional.of(
+                new SimpleSpilledMap<>(
+                    keySerializer,
+                    valueSerializer,
+                    SpillBackend.create(backendType, backendBaseDir)));
       }
       diskBasedMap.get().put(key, value);
     }
@@ -149,9 +172,7 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
 
   protected class SimpleSpilledMap<K, T> implements SimpleMap<K, T> {
 
-    private final RocksDBBackend rocksDB;
-
-    private final String columnFamily = UUID.randomUUID().toString();
+    private final SpillBackend backend;
 
     private final SerializationUtil.SimpleSerializer<K> keySerializer;
 
@@ -160,35 +181,34 @@ public class SimpleSpillableMap<K, T> implements SimpleMap<K, T> {
     public SimpleSpilledMap(
         SerializationUtil.SimpleSerializer<K> keySerializer,
         SerializationUtil.SimpleSerializer<T> valueSerializer,
-        @Nullable String backendBaseDir) {
-      rocksDB = RocksDBBackend.getOrCreateInstance(backendBaseDir);
-      rocksDB.addColumnFamily(columnFamily);
+        SpillBackend backend) {
+      this.backend = backend;
       this.keySerializer = keySerializer;
       this.valueSerializer = valueSerializer;
     }
 
     public boolean containsKey(K key) {
-      return rocksDB.get(columnFamily, keySerializer.serialize(key)) != null;
+      return backend.get(keySerializer.serialize(key)) != null;
     }
 
     public T get(K key) {
-      return valueSerializer.deserialize(rocksDB.get(columnFamily, keySerializer.serialize(key)));
+      return valueSerializer.deserialize(backend.get(keySerializer.serialize(key)));
     }
 
     public void put(K key, T value) {
-      rocksDB.put(columnFamily, keySerializer.serialize(key), valueSerializer.serialize(value));
+      backend.put(keySerializer.serialize(key), valueSerializer.serialize(value));
     }
 
     public void delete(K key) {
-      rocksDB.delete(columnFamily, keySerializer.serialize(key));
+      backend.delete(keySerializer.serialize(key));
     }
 
     public void close() {
-      rocksDB.dropColumnFamily(columnFamily);
+      backend.close();
     }
 
     public long sizeOfFileOnDiskInBytes() {
-      return rocksDB.getTotalBytesWritten();
+      return backend.sizeOfFileOnDiskInBytes();
     }
   }
 }
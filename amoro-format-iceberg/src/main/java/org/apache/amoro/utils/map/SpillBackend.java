@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.utils.map;
+
+import javax.annotation.Nullable;
+
+import java.io.Closeable;
+import java.util.Locale;
+
+/** Storage of serialized key-value pairs spilled out of memory by {@link SimpleSpillableMap}. */
+public interface SpillBackend extends Closeable {
+
+  /** @return the value of the key, or null if the key does not exist */
+  byte[] get(byte[] key);
+
+  void put(byte[] key, byte[] value);
+
+  void delete(byte[] key);
+
+  /** Number of bytes written to disk. */
+  long sizeOfFileOnDiskInBytes();
+
+  /** Release the backend, data of it will be dropped. */
+  @Override
+  void close();
+
+  enum Type {
+    /** Column family of a thread-local RocksDB instance. */
+    ROCKSDB,
+    /** Append-only memory-mapped log file with an in-memory offset index. */
+    MAPPED_LOG;
+
+    public static Type fromName(@Nullable String name) {
+      if (name == null || name.isEmpty()) {
+        return ROCKSDB;
+      }
+      return Type.valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+  }
+
+  static SpillBackend create(Type type, @Nullable String backendBaseDir) {
+    switch (type) {
+      case ROCKSDB:
+        return new RocksDBSpillBackend(backendBaseDir);
+      case MAPPED_LOG:
+        return new MappedLogSpillBackend(backendBaseDir);
+      default:
+        throw new IllegalArgumentException("Unknown spill backend type: " + type);
+    }
+  }
+}
@@ -30,6 +30,7 @@ public class StructLikeCollections implements Serializable {
   private final boolean enableSpillableMap;
   private Long maxInMemorySizeInBytes;
   private String backendBaseDir;
+  private SpillBackend.Type spillBackendType = SpillBackend.Type.ROCKSDB;
 
   public StructLikeCollections(boolean enableSpillableMap, Long maxInMemorySizeInBytes) {
     if (maxInMemorySizeInBytes == null || maxInMemorySizeInBytes == 0) {
@@ -49,19 +50,41 @@ public class StructLikeCollections implements Serializable {
     this.backendBaseDir = backendBaseDir;
   }
 
+  public StructLikeCollections(
+      boolean enableSpillableMap,
+      long maxInMemorySizeInBytes,
+      String backendBaseDir,
+      SpillBackend.Type spillBackendType) {
+    this(enableSpillableMap, maxInMemorySizeInBytes, backendBaseDir);
+    this.spillBackendType = spillBackendType;
+  }
+
   public <T> StructLikeBaseMap<T> createStructLikeMap(Types.StructType type) {
     if (!enableSpillableMap) {
       return StructLikeMemoryMap.create(type);
     } else {
-      return StructLikeSpillableMap.create(type, maxInMemorySizeInBytes, backendBaseDir);
+      return StructLikeSpillableMap.create(
+          type, maxInMemorySizeInBytes, backendBaseDir, spillBackendType);
+    }
+  }
+
+  /**
+   * Create a map with long values, the map is stored off-heap if the spillable map is disabled and
+   * the key type is supported by {@link StructLikeOffHeapLongMap}.
+   */
+  public StructLikeBaseMap<Long> createStructLikeLongMap(Types.StructType type) {
+    if (!enableSpillableMap && StructLikeOffHeapLongMap.isSupported(type)) {
+      return StructLikeOffHeapLongMap.create(type);
     }
+    return createStructLikeMap(type);
   }
 
   public StructLikeSet createStructLikeSet(Types.StructType type) {
     if (!enableSpillableMap) {
       return StructLikeSet.createMemorySet(type);
     } else {
-      return StructLikeSet.createSpillableSet(type, maxInMemorySizeInBytes, backendBaseDir);
+      return StructLikeSet.createSpillableSet(
+          type, maxInMemorySizeInBytes, backendBaseDir, spillBackendType);
     }
   }
 }
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.utils.map;
+
+import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
+import org.apache.iceberg.StructLike;
+import org.apache.iceberg.types.Type;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.StructLikeWrapper;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Map implementation for {@link StructLike} keys and long values based on off-heap memory. Keys
+ * are encoded to bytes and stored in an {@link OffHeapBytesLongMap}, so only keys of which the
+ * encoding keeps the equality of {@link StructLikeWrapper} are supported, see {@link
+ * #isSupported(Types.StructType)}. Keys must be converted by {@link
+ * org.apache.iceberg.data.InternalRecordWrapper} first. The off-heap space of deleted keys is
+ * only released when the map is closed.
+ */
+public class StructLikeOffHeapLongMap extends StructLikeBaseMap<Long> {
+
+  public static StructLikeOffHeapLongMap create(Types.StructType type) {
+    return new StructLikeOffHeapLongMap(type);
+  }
+
+  /**
+   * Whether the key type can be stored in this map. Floating point and decimal types are not
+   * supported as their equality is not the equality of their bytes, nested types are not supported
+   * either.
+   */
+  public static boolean isSupported(Types.StructType type) {
+    for (Types.NestedField field : type.fields()) {
+      switch (field.type().typeId()) {
+        case BOOLEAN:
+        case INTEGER:
+        case DATE:
+        case LONG:
+        case TIME:
+        case TIMESTAMP:
+        case STRING:
+        case UUID:
+        case FIXED:
+        case BINARY:
+          break;
+        default:
+          return false;
+      }
+    }
+    return true;
+  }
+
+  private final List<Types.NestedField> fields;
+  private final OffHeapBytesLongMap map = new OffHeapBytesLongMap();
+  private final ThreadLocal<KeyEncoder> encoders = ThreadLocal.withInitial(KeyEncoder::new);
+  private final SimpleMap<StructLikeWrapper, Long> wrapperMap = new WrapperMap();
+
+  private StructLikeOffHeapLongMap(Types.StructType type) {
+    super(type);
+    Preconditions.checkArgument(isSupported(type), "Unsupported key type: %s", type);
+    this.fields = type.fields();
+  }
+
+  @Override
+  public Long get(StructLike key) {
+    KeyEncoder encoder = encoders.get().encode(fields, key);
+    long value = map.get(encoder.buffer, encoder.length);
+    return value == OffHeapBytesLongMap.MISSING_VALUE ? null : value;
+  }
+
+  @Override
+  public void put(StructLike key, Long value) {
+    Preconditions.checkArgument(
+        value != null && value != OffHeapBytesLongMap.MISSING_VALUE,
+        "Unsupported value: %s",
+        value);
+    KeyEncoder encoder = encoders.get().encode(fields, key);
+    map.put(encoder.buffer, encoder.length, value);
+  }
+
+  @Override
+  public void delete(StructLike key) {
+    KeyEncoder encoder = encoders.get().encode(fields, key);
+    map.remove(encoder.buffer, encoder.length);
+  }
+
+  /** @return the number of keys in the map. */
+  public int size() {
+    return map.size();
+  }
+
+  /** @return the allocated off-heap memory in bytes. */
+  public long memorySize() {
+    return map.memorySize();
+  }
+
+  @Override
+  protected SimpleMap<StructLikeWrapper, Long> getInternalMap() {
+    return wrapperMap;
+  }
+
+  private class WrapperMap implements SimpleMap<StructLikeWrapper, Long> {
+
+    @Override
+    public void put(StructLikeWrapper key, Long value) {
+      StructLikeOffHeapLongMap.this.put(key.get(), value);
+    }
+
+    @Override
+    public void delete(StructLikeWrapper key) {
+      StructLikeOffHeapLongMap.this.delete(key.get());
+    }
+
+    @Override
+    public Long get(StructLikeWrapper key) {
+      return StructLikeOffHeapLongMap.this.get(key.get());
+    }
+
+    @Override
+    public void close() {
+      map.close();
+    }
+  }
+
+  /**
+   * Encodes a key to a reusable buffer. Every field starts with a null marker, variable length
+   * fields are prefixed with their length, so different keys never share the same encoding.
+   */
+  private static class KeyEncoder {
+
+    private byte[] buffer = new byte[64];
+    private int length;
+
+    KeyEncoder encode(List<Types.NestedField> fields, StructLike key) {
+      length = 0;
+      for (int i = 0; i < fields.size(); i++) {
+        Type type = fields.get(i).type();
+        Object value = key.get(i, Object.class);
+        if (value == null) {
+          writeByte(0);
+          continue;
+        }
+        writeByte(1);
+        switch (type.typeId()) {
+          case BOOLEAN:
+            writeByte((Boolean) value ? 1 : 0);
+            break;
+          case INTEGER:
+          case DATE:
+            writeInt(((Number) value).intValue());
+            break;
+          case LONG:
+          case TIME:
+          case TIMESTAMP:
+            writeLong(((Number) value).longValue());
+            break;
+          case STRING:
+            writeBytes(value.toString().getBytes(StandardCharsets.UTF_8));
+            break;
+          case UUID:
+            if (value instanceof UUID) {
+              writeLong(((UUID) value).getMostSignificantBits());
+              writeLong(((UUID) value).getLeastSignificantBits());
+            } else {
+              writeByteBuffer(toByteBuffer(value));
+            }
+            break;
+          case FIXED:
+          case BINARY:
+            writeByteBuffer(toByteBuffer(value));
+            break;
+          default:
+            throw new UnsupportedOperationException("Unsupported key type: " + type);
+        }
+      }
+      return this;
+    }
+
+    private static ByteBuffer toByteBuffer(Object value) {
+      return value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : (ByteBuffer) value;
+    }
+
+    private void writeByteBuffer(ByteBuffer value) {
+      int size = value.remaining();
+      writeInt(size);
+      ensureCapacity(size);
+      value.duplicate().get(buffer, length, size);
+      length += size;
+    }
+
+    private void writeBytes(byte[] value) {
+      writeInt(value.length);
+      ensureCapacity(value.length);
+      System.arraycopy(value, 0, buffer, length, value.length);
+      length += value.length;
+    }
+
+    private void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[length++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+      ensureCapacity(4);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        buffer[length++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void writeLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[length++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void ensureCapacity(int size) {
+      if (length + size > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + size));
+      }
+    }
+  }
+}
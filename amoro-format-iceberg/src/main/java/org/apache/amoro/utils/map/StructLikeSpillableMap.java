@@ -18,7 +18,6 @@
 
 package org.apache.amoro.utils.map;
 
-import org.apache.amoro.utils.SerializationUtil;
 import org.apache.iceberg.types.Types;
 import org.apache.iceberg.util.StructLikeWrapper;
 
@@ -32,24 +31,41 @@ public class StructLikeSpillableMap<T> extends StructLikeBaseMap<T> {
 
   public static <T> StructLikeSpillableMap<T> create(
       Types.StructType type, Long maxInMemorySizeInBytes, @Nullable String backendBaseDir) {
-    return new StructLikeSpillableMap<>(type, maxInMemorySizeInBytes, backendBaseDir);
+    return create(type, maxInMemorySizeInBytes, backendBaseDir, SpillBackend.Type.ROCKSDB);
   }
 
-  private final SimpleMap<StructLikeWrapper, T> wrapperMap;
+  public static <T> StructLikeSpillableMap<T> create(
+      Types.StructType type,
+      Long maxInMemorySizeInBytes,
+      @Nullable String backendBaseDir,
+      SpillBackend.Type backendType) {
+    return new StructLikeSpillableMap<>(type, maxInMemorySizeInBytes, backendBaseDir, backendType);
+  }
+
+  private final SimpleSpillableMap<StructLikeWrapper, T> wrapperMap;
 
   private StructLikeSpillableMap(
-      Types.StructType type, Long maxInMemorySizeInBytes, @Nullable String backendBaseDir) {
+      Types.StructType type,
+      Long maxInMemorySizeInBytes,
+      @Nullable String backendBaseDir,
+      SpillBackend.Type backendType) {
     super(type);
     this.wrapperMap =
         new SimpleSpillableMap<>(
             maxInMemorySizeInBytes,
             backendBaseDir,
+            backendType,
             new StructLikeWrapperSerializer(structLikeWrapper),
-            SerializationUtil.createJavaSimpleSerializer(),
+            CompactValueSerializer.get(),
             new StructLikeWrapperSizeEstimator(),
             new DefaultSizeEstimator<>());
   }
 
+  /** Number of bytes spilled to disk. */
+  public long sizeOfFileOnDisk() {
+    return wrapperMap.getSizeOfFileOnDiskInBytes();
+  }
+
   @Override
   protected SimpleMap<StructLikeWrapper, T> getInternalMap() {
     return wrapperMap;
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.iceberg.parquet;
+
+import org.apache.iceberg.io.InputFile;
+import org.apache.iceberg.io.OutputFile;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.PositionOutputStream;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Type;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merges parquet files into one file by copying their row groups, column chunks are copied as
+ * they are without being decoded. This class lies in this package to reuse {@link ParquetIO}.
+ *
+ * <p>A merger that is closed before it is finished leaves a partial file, which should be deleted
+ * by the caller.
+ */
+public class ParquetFileMerger implements Closeable {
+
+  private final ParquetFileWriter writer;
+  // the stream opened by the writer, which only closes it when the file is finished
+  private PositionOutputStream stream;
+  private ParquetMetadata footer;
+  private long length;
+
+  public ParquetFileMerger(OutputFile outputFile, MessageType schema, long rowGroupSize)
+      throws IOException {
+    org.apache.parquet.io.OutputFile file = ParquetIO.file(outputFile);
+    this.writer =
+        new ParquetFileWriter(
+            new org.apache.parquet.io.OutputFile() {
+              @Override
+              public PositionOutputStream create(long blockSizeHint) throws IOException {
+                stream = file.create(blockSizeHint);
+                return stream;
+              }
+
+              @Override
+              public PositionOutputStream createOrOverwrite(long blockSizeHint)
+                  throws IOException {
+                stream = file.createOrOverwrite(blockSizeHint);
+                return stream;
+              }
+
+              @Override
+              public boolean supportsBlockSize() {
+                return file.supportsBlockSize();
+              }
+
+              @Override
+              public long defaultBlockSize() {
+                return file.defaultBlockSize();
+              }
+
+              @Override
+              public String getPath() {
+                return file.getPath();
+              }
+            },
+            schema,
+            ParquetFileWriter.Mode.CREATE,
+            rowGroupSize,
+            0);
+    try {
+      this.writer.start();
+    } catch (IOException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  }
+
+  /** Append all row groups of the file to the merged file. */
+  public void append(InputFile inputFile) throws IOException {
+    writer.appendFile(ParquetIO.file(inputFile));
+  }
+
+  /** Write the footer of the merged file, no more files could be appended after that. */
+  public void finish(Map<String, String> keyValueMetadata) throws IOException {
+    writer.end(keyValueMetadata);
+    this.footer = writer.getFooter();
+    this.length = writer.getPos();
+    this.stream = null;
+  }
+
+  /** Close the stream of a merged file that is not finished, a no-op once it is finished. */
+  @Override
+  public void close() throws IOException {
+    if (stream != null) {
+      PositionOutputStream unfinished = stream;
+      this.stream = null;
+      unfinished.close();
+    }
+  }
+
+  public ParquetMetadata footer() {
+    return footer;
+  }
+
+  public long length() {
+    return length;
+  }
+
+  public static ParquetMetadata readFooter(InputFile inputFile) throws IOException {
+    try (ParquetFileReader reader = ParquetFileReader.open(ParquetIO.file(inputFile))) {
+      return reader.getFooter();
+    }
+  }
+
+  /**
+   * Returns true if row groups of the files could be copied into one file, which requires that all
+   * files have the same schema with field ids and the same compression codec.
+   */
+  public static boolean canMerge(List<ParquetMetadata> footers) {
+    if (footers.isEmpty()) {
+      return false;
+    }
+    MessageType schema = footers.get(0).getFileMetaData().getSchema();
+    for (Type field : schema.getFields()) {
+      if (field.getId() == null) {
+        return false;
+      }
+    }
+    CompressionCodecName codec = null;
+    for (ParquetMetadata footer : footers) {
+      if (!schema.equals(footer.getFileMetaData().getSchema())) {
+        return false;
+      }
+      for (BlockMetaData block : footer.getBlocks()) {
+        for (ColumnChunkMetaData column : block.getColumns()) {
+          if (codec == null) {
+            codec = column.getCodec();
+          } else if (codec != column.getCodec()) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.io.reader;
+
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestPositionDeleteIndex {
+
+  private static final String FILE_A = "/data/file-a.parquet";
+  private static final String FILE_B = "/data/file-b.parquet";
+
+  @Test
+  public void testDeletedPositions() {
+    PositionDeleteIndex index = new PositionDeleteIndex(Lists.newArrayList(FILE_A, FILE_B));
+    for (long pos = 0; pos < 1000; pos += 3) {
+      Assert.assertTrue(index.add(FILE_A, pos));
+    }
+    Assert.assertTrue(index.add(FILE_B, 5));
+    // positions of other files are not indexed
+    Assert.assertFalse(index.add("/data/file-c.parquet", 1));
+    index.freeze();
+
+    for (long pos = 0; pos < 1000; pos++) {
+      Assert.assertEquals(pos % 3 == 0, index.isDeleted(FILE_A, pos));
+    }
+    Assert.assertTrue(index.isDeleted(FILE_B, 5));
+    Assert.assertFalse(index.isDeleted(FILE_B, 3));
+    Assert.assertFalse(index.isDeleted("/data/file-c.parquet", 1));
+    Assert.assertFalse(index.isDeleted(null, 1));
+    Assert.assertTrue(index.memorySize() > 0);
+  }
+
+  @Test
+  public void testPositionsBeyondIntRange() {
+    PositionDeleteIndex index = new PositionDeleteIndex(Lists.newArrayList(FILE_A));
+    long maxIntPosition = 0xFFFFFFFFL;
+    index.add(FILE_A, Integer.MAX_VALUE + 1L);
+    index.add(FILE_A, maxIntPosition);
+    index.add(FILE_A, maxIntPosition + 1);
+    index.freeze();
+
+    Assert.assertTrue(index.isDeleted(FILE_A, Integer.MAX_VALUE + 1L));
+    Assert.assertTrue(index.isDeleted(FILE_A, maxIntPosition));
+    Assert.assertTrue(index.isDeleted(FILE_A, maxIntPosition + 1));
+    Assert.assertFalse(index.isDeleted(FILE_A, Integer.MAX_VALUE));
+    Assert.assertFalse(index.isDeleted(FILE_A, maxIntPosition + 2));
+  }
+
+  @Test
+  public void testFrozenIndex() {
+    PositionDeleteIndex index = new PositionDeleteIndex(Lists.newArrayList(FILE_A));
+    Assert.assertThrows(IllegalStateException.class, () -> index.isDeleted(FILE_A, 0));
+    index.freeze();
+    // an index without any deleted position
+    Assert.assertFalse(index.isDeleted(FILE_A, 0));
+    Assert.assertThrows(IllegalStateException.class, () -> index.add(FILE_A, 0));
+  }
+}
@@ -116,6 +116,68 @@ public class TestLogDataJsonSerialization extends FormatTestBase {
     check(logData, result);
   }
 
+  @Test
+  public void testLogDataSerializeV2() throws IOException {
+    LogDataJsonSerialization<UserPojo> logDataJsonSerialization =
+        new LogDataJsonSerialization<>(userSchema, fieldGetterFactory);
+    UserPojo subUserPojo = new UserPojo();
+    subUserPojo.objects = new Object[] {true, 3, 123456789L};
+    UserPojo userPojo = new UserPojo();
+    userPojo.objects =
+        new Object[] {
+          false,
+          2,
+          987654321L,
+          subUserPojo,
+          543.21f,
+          987.654321d,
+          (int) LocalDate.of(2023, 1, 1).toEpochDay(),
+          LocalTime.of(1, 2, 3, 456789012).toNanoOfDay(),
+          LocalDateTime.of(2023, 1, 2, 3, 4, 5, 678901234),
+          Instant.parse("2023-01-02T03:04:05.12345678Z"),
+          "v2_string",
+          new byte[] {3},
+          new byte[] {'2'},
+          new byte[] {4},
+          BigDecimal.valueOf(222.222),
+          new GenericArrayData(new Long[] {1L, null}, 2, false),
+          new GenericArrayData(new int[] {1, 2}, 2, true),
+          new GenericArrayData(new UserPojo[] {subUserPojo}, 1, false),
+          new GenericMapData(
+              new HashMap<Long, String>() {
+                {
+                  put(2123L, "Str_223");
+                }
+              })
+        };
+    LogData<UserPojo> jsonLogData =
+        new LogDataUser(
+            FormatVersion.FORMAT_VERSION_V1.asBytes(),
+            IdGenerator.generateUpstreamId(),
+            123455L,
+            false,
+            ChangeAction.INSERT,
+            userPojo);
+    LogData<UserPojo> binaryLogData =
+        new LogDataUser(
+            FormatVersion.FORMAT_VERSION_V2.asBytes(),
+            IdGenerator.generateUpstreamId(),
+            123456L,
+            false,
+            ChangeAction.UPDATE_AFTER,
+            userPojo);
+
+    byte[] jsonBytes = logDataJsonSerialization.serialize(jsonLogData);
+    byte[] binaryBytes = logDataJsonSerialization.serialize(binaryLogData);
+    Assert.assertTrue(binaryBytes.length < jsonBytes.length);
+
+    // messages of both versions can be read by the same deserialization
+    LogDataJsonDeserialization<UserPojo> logDataJsonDeserialization =
+        new LogDataJsonDeserialization<>(userSchema, factory, arrayFactory, mapFactory);
+    check(jsonLogData, logDataJsonDeserialization.deserialize(jsonBytes));
+    check(binaryLogData, logDataJsonDeserialization.deserialize(binaryBytes));
+  }
+
   private void check(LogData<UserPojo> expected, LogData<UserPojo> actual) {
     assertArrayEquals(expected.getVersionBytes(), actual.getVersionBytes());
     assertArrayEquals(expected.getUpstreamIdBytes(), actual.getUpstreamIdBytes());
@@ -228,6 +228,83 @@ public class IcebergRewriteExecutorTest extends TableTestBase {
     Assert.assertTrue(output.getDeleteFiles() == null || output.getDeleteFiles().length == 0);
   }
 
+  @Test
+  public void readAllDataPipelined() throws IOException {
+    IcebergRewriteExecutor executor =
+        new IcebergRewriteExecutor(scanTask, getMixedTable(), StructLikeCollections.DEFAULT);
+    // A tiny budget so that the reading thread is blocked by the queue of one batch
+    executor.enablePipeline(1);
+
+    RewriteFilesOutput output = executor.execute();
+
+    try (CloseableIterable<Record> records =
+        openFile(
+            output.getDataFiles()[0].path().toString(),
+            output.getDataFiles()[0].format(),
+            getMixedTable().schema(),
+            new HashMap<>())) {
+      Assert.assertEquals(1, Iterables.size(records));
+      Record record = Iterables.getFirst(records, null);
+      Assert.assertEquals(record.get(0), 3);
+    }
+    Assert.assertEquals(1, output.getDeleteFiles().length);
+    Assert.assertTrue(output.summary().containsKey(OptimizingTaskSummary.READ_DURATION));
+    Assert.assertTrue(output.summary().containsKey(OptimizingTaskSummary.WRITE_WAIT_DURATION));
+  }
+
+  @Test
+  public void readOnlyDataByBinaryCopy() throws IOException {
+    Assume.assumeTrue(fileFormat == FileFormat.PARQUET);
+    getMixedTable()
+        .updateProperties()
+        .set(org.apache.amoro.table.TableProperties.SELF_OPTIMIZING_BINARY_COPY_ENABLED, "true")
+        .commit();
+    StructLike partitionData = getPartitionData();
+    OutputFileFactory outputFileFactory =
+        OutputFileFactory.builderFor(getMixedTable().asUnkeyedTable(), 0, 2)
+            .format(fileFormat)
+            .build();
+    DataFile dataFile =
+        FileHelpers.writeDataFile(
+            getMixedTable().asUnkeyedTable(),
+            outputFileFactory.newOutputFile(partitionData).encryptingOutputFile(),
+            partitionData,
+            Arrays.asList(
+                MixedDataTestHelpers.createRecord(4, "tom", 3, "1970-01-01T08:00:00"),
+                MixedDataTestHelpers.createRecord(5, "kate", 4, "1970-01-01T08:00:00")));
+    RewriteFilesInput input =
+        new RewriteFilesInput(
+            new DataFile[] {
+              dataScanTask.rewrittenDataFiles()[0],
+              MixedDataTestHelpers.wrapIcebergDataFile(dataFile, 2L)
+            },
+            new DataFile[] {},
+            new DeleteFile[] {},
+            new DeleteFile[] {},
+            getMixedTable());
+    IcebergRewriteExecutor executor =
+        new IcebergRewriteExecutor(input, getMixedTable(), StructLikeCollections.DEFAULT);
+
+    RewriteFilesOutput output = executor.execute();
+
+    Assert.assertEquals(1, output.getDataFiles().length);
+    DataFile mergedFile = output.getDataFiles()[0];
+    Assert.assertEquals(5, mergedFile.recordCount());
+    Assert.assertEquals(
+        getMixedTable().io().newInputFile(mergedFile.path().toString()).getLength(),
+        mergedFile.fileSizeInBytes());
+    Assert.assertEquals(2, mergedFile.splitOffsets().size());
+    Assert.assertEquals(5L, (long) mergedFile.valueCounts().get(1));
+    try (CloseableIterable<Record> records =
+        openFile(
+            mergedFile.path().toString(),
+            mergedFile.format(),
+            getMixedTable().schema(),
+            new HashMap<>())) {
+      Assert.assertEquals(5, Iterables.size(records));
+    }
+  }
+
   private CloseableIterable<Record> openFile(
       String path, FileFormat fileFormat, Schema fileProjection, Map<Integer, ?> idToConstant) {
     InputFile input = getMixedTable().io().newInputFile(path);
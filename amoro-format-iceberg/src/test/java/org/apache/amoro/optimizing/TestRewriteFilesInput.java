@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.optimizing;
+
+import org.apache.amoro.BasicTableTestHelper;
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.catalog.BasicCatalogTestHelper;
+import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.catalog.TableTestBase;
+import org.apache.amoro.io.AuthenticatedFileIOs;
+import org.apache.amoro.io.AuthenticatedHadoopFileIO;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.table.MixedTable;
+import org.apache.amoro.table.TableMetaStore;
+import org.apache.amoro.utils.SerializationUtil;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class TestRewriteFilesInput extends TableTestBase {
+
+  public TestRewriteFilesInput(
+      CatalogTestHelper catalogTestHelper, BasicTableTestHelper tableTestHelper) {
+    super(catalogTestHelper, tableTestHelper);
+  }
+
+  @Parameterized.Parameters(name = "{0}, {1}")
+  public static Object[] parameters() {
+    return new Object[][] {
+      {
+        new BasicCatalogTestHelper(TableFormat.MIXED_ICEBERG), new BasicTableTestHelper(true, true)
+      },
+      {
+        new BasicCatalogTestHelper(TableFormat.MIXED_ICEBERG), new BasicTableTestHelper(false, true)
+      },
+      {new BasicCatalogTestHelper(TableFormat.ICEBERG), new BasicTableTestHelper(false, true)}
+    };
+  }
+
+  @Before
+  public void clearCache() {
+    OptimizingTableCache.invalidateAll();
+  }
+
+  @Test
+  public void testShareTableOfSameVersion() {
+    TableHandle handle = TableHandle.of(getMixedTable());
+    Assert.assertTrue(handle.isVersioned());
+    Assert.assertEquals(getMixedTable().id(), handle.identifier());
+
+    RewriteFilesInput first = roundTrip(newInput(getMixedTable()));
+    RewriteFilesInput second = roundTrip(newInput(getMixedTable()));
+    Assert.assertEquals(handle, first.getTableHandle());
+    Assert.assertEquals(handle, second.getTableHandle());
+    Assert.assertNotSame(getMixedTable(), first.getTable());
+    Assert.assertSame(first.getTable(), second.getTable());
+    Assert.assertEquals(getMixedTable().name(), first.getTable().name());
+    Assert.assertEquals(getMixedTable().properties(), first.getTable().properties());
+  }
+
+  @Test
+  public void testReloadTableOfNewVersion() {
+    RewriteFilesInput before = roundTrip(newInput(getMixedTable()));
+
+    getMixedTable().updateProperties().set("test.key", "test.value").commit();
+    getMixedTable().refresh();
+    RewriteFilesInput after = roundTrip(newInput(getMixedTable()));
+
+    Assert.assertNotEquals(before.getTableHandle(), after.getTableHandle());
+    Assert.assertNotSame(before.getTable(), after.getTable());
+    Assert.assertNull(before.getTable().properties().get("test.key"));
+    Assert.assertEquals("test.value", after.getTable().properties().get("test.key"));
+  }
+
+  @Test
+  public void testEnvironmentOfHandle() {
+    AuthenticatedHadoopFileIO io = AuthenticatedFileIOs.buildHadoopFileIO(TableMetaStore.EMPTY);
+    AuthenticatedHadoopFileIO sameIo =
+        AuthenticatedFileIOs.buildHadoopFileIO(TableMetaStore.EMPTY);
+    Assert.assertEquals(TableHandle.environmentHash(io), TableHandle.environmentHash(sameIo));
+
+    // a catalog with other properties must not share tables
+    AuthenticatedHadoopFileIO otherIo =
+        AuthenticatedFileIOs.buildHadoopFileIO(TableMetaStore.EMPTY);
+    otherIo.initialize(ImmutableMap.of("fs.test.endpoint", "http://other:9000"));
+    Assert.assertNotEquals(TableHandle.environmentHash(io), TableHandle.environmentHash(otherIo));
+  }
+
+  private static RewriteFilesInput newInput(MixedTable table) {
+    return new RewriteFilesInput(
+        new DataFile[0], new DataFile[0], new ContentFile[0], new ContentFile[0], table);
+  }
+
+  private static RewriteFilesInput roundTrip(RewriteFilesInput input) {
+    return SerializationUtil.simpleDeserialize(SerializationUtil.simpleSerialize(input).array());
+  }
+}
@@ -20,6 +20,7 @@ package org.apache.amoro.utils.map;
 
 import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Sets;
+import org.apache.amoro.utils.SerializationUtil;
 import org.apache.lucene.util.RamUsageEstimator;
 import org.junit.Assert;
 import org.junit.Before;
@@ -67,13 +68,75 @@ public class TestSimpleSpillableMap {
 
   @Test
   public void testSpillableMapConsistency() {
+    assertSpillableMapConsistency(
+        new SimpleSpillableMap<>(
+            5 * (keySize + valueSize),
+            null,
+            new DefaultSizeEstimator<>(),
+            new DefaultSizeEstimator<>()));
+  }
+
+  @Test
+  public void testMappedLogSpillableMapConsistency() {
     SimpleSpillableMap<Key, Value> actualMap =
         new SimpleSpillableMap<>(
             5 * (keySize + valueSize),
             null,
+            SpillBackend.Type.MAPPED_LOG,
+            SerializationUtil.createJavaSimpleSerializer(),
+            CompactValueSerializer.get(),
             new DefaultSizeEstimator<>(),
             new DefaultSizeEstimator<>());
+    assertSpillableMapConsistency(actualMap);
+    actualMap.close();
+  }
+
+  @Test
+  public void testMappedLogSegments() {
+    MappedLogSpillBackend backend = new MappedLogSpillBackend(null, 64);
+    for (int i = 0; i < 100; i++) {
+      backend.put(new byte[] {(byte) i}, new byte[i]);
+    }
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals(i, backend.get(new byte[] {(byte) i}).length);
+    }
+    backend.delete(new byte[] {1});
+    Assert.assertNull(backend.get(new byte[] {1}));
+    Assert.assertNull(backend.get(new byte[] {(byte) 200}));
+    Assert.assertTrue(backend.sizeOfFileOnDiskInBytes() > 0);
+    backend.close();
+  }
+
+  @Test
+  public void testMappedLogReclaimSegments() {
+    MappedLogSpillBackend backend = new MappedLogSpillBackend(null, 64);
+    for (int i = 0; i < 100; i++) {
+      backend.put(new byte[] {(byte) i}, new byte[8]);
+    }
+    long fullSize = backend.sizeOfFileOnDiskInBytes();
+    int fullSegments = backend.segmentCount();
+    // overwrite most keys and delete the others
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 90; i++) {
+        backend.put(new byte[] {(byte) i}, new byte[] {(byte) round});
+      }
+    }
+    for (int i = 90; i < 100; i++) {
+      backend.delete(new byte[] {(byte) i});
+    }
+    for (int i = 0; i < 90; i++) {
+      Assert.assertArrayEquals(new byte[] {2}, backend.get(new byte[] {(byte) i}));
+    }
+    for (int i = 90; i < 100; i++) {
+      Assert.assertNull(backend.get(new byte[] {(byte) i}));
+    }
+    Assert.assertTrue(backend.sizeOfFileOnDiskInBytes() < fullSize);
+    Assert.assertTrue(backend.segmentCount() < fullSegments);
+    backend.close();
+    Assert.assertEquals(0, backend.sizeOfFileOnDiskInBytes());
+  }
 
+  private void assertSpillableMapConsistency(SimpleSpillableMap<Key, Value> actualMap) {
     Map<Key, Value> expectedMap = Maps.newHashMap();
     for (int i = 0; i < 10; i++) {
       Key key = new Key();
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.utils.map;
+
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.data.GenericRecord;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.StructLikeMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class TestStructLikeOffHeapLongMap {
+
+  private static final Schema PK_SCHEMA =
+      new Schema(
+          Arrays.asList(
+              Types.NestedField.of(1, true, "c1", Types.LongType.get()),
+              Types.NestedField.of(2, true, "c2", Types.StringType.get())));
+
+  @Test
+  public void testBytesLongMap() {
+    OffHeapBytesLongMap map = new OffHeapBytesLongMap(4, 16);
+    int count = 10000;
+    for (int i = 0; i < count; i++) {
+      byte[] key = ("key-" + i).getBytes(StandardCharsets.UTF_8);
+      map.put(key, key.length, i);
+    }
+    Assert.assertEquals(count, map.size());
+
+    byte[] first = "key-0".getBytes(StandardCharsets.UTF_8);
+    map.put(first, first.length, -1L);
+    Assert.assertEquals(count, map.size());
+    Assert.assertEquals(-1L, map.get(first, first.length));
+
+    for (int i = 1; i < count; i++) {
+      byte[] key = ("key-" + i).getBytes(StandardCharsets.UTF_8);
+      Assert.assertEquals(i, map.get(key, key.length));
+    }
+    byte[] missing = "missing".getBytes(StandardCharsets.UTF_8);
+    Assert.assertEquals(OffHeapBytesLongMap.MISSING_VALUE, map.get(missing, missing.length));
+    // only the prefix of the buffer is the key
+    byte[] padded = Arrays.copyOf("key-1".getBytes(StandardCharsets.UTF_8), 16);
+    Assert.assertEquals(1L, map.get(padded, 5));
+
+    Assert.assertTrue(map.memorySize() > 0);
+    map.close();
+    Assert.assertEquals(0, map.memorySize());
+  }
+
+  @Test
+  public void testBytesLongMapRemove() {
+    // the smallest capacity is rounded up so that the slots can still be probed
+    OffHeapBytesLongMap map = new OffHeapBytesLongMap(1, 16);
+    int count = 1000;
+    for (int i = 0; i < count; i++) {
+      byte[] key = ("key-" + i).getBytes(StandardCharsets.UTF_8);
+      map.put(key, key.length, i);
+    }
+    for (int i = 0; i < count; i += 2) {
+      byte[] key = ("key-" + i).getBytes(StandardCharsets.UTF_8);
+      Assert.assertEquals(i, map.remove(key, key.length));
+      Assert.assertEquals(OffHeapBytesLongMap.MISSING_VALUE, map.remove(key, key.length));
+    }
+    Assert.assertEquals(count / 2, map.size());
+    for (int i = 0; i < count; i++) {
+      byte[] key = ("key-" + i).getBytes(StandardCharsets.UTF_8);
+      long expected = i % 2 == 0 ? OffHeapBytesLongMap.MISSING_VALUE : i;
+      Assert.assertEquals(expected, map.get(key, key.length));
+    }
+
+    // removed keys could be put again
+    byte[] key = "key-0".getBytes(StandardCharsets.UTF_8);
+    map.put(key, key.length, 100L);
+    Assert.assertEquals(100L, map.get(key, key.length));
+    Assert.assertEquals(count / 2 + 1, map.size());
+    map.close();
+  }
+
+  @Test
+  public void testBytesLongMapReclaimRemoved() {
+    OffHeapBytesLongMap map = new OffHeapBytesLongMap(16, 1024);
+    byte[] live = "live".getBytes(StandardCharsets.UTF_8);
+    map.put(live, live.length, -1L);
+    // keys put and removed again and again only take the space of the live ones
+    for (int i = 0; i < 100000; i++) {
+      byte[] key = ("key-" + i).getBytes(StandardCharsets.UTF_8);
+      map.put(key, key.length, i);
+      if (i >= 10) {
+        byte[] removed = ("key-" + (i - 10)).getBytes(StandardCharsets.UTF_8);
+        Assert.assertEquals(i - 10, map.remove(removed, removed.length));
+      }
+    }
+    Assert.assertEquals(11, map.size());
+    Assert.assertTrue(map.memorySize() <= 4096);
+    Assert.assertEquals(-1L, map.get(live, live.length));
+    for (int i = 100000 - 10; i < 100000; i++) {
+      byte[] key = ("key-" + i).getBytes(StandardCharsets.UTF_8);
+      Assert.assertEquals(i, map.get(key, key.length));
+    }
+    map.close();
+  }
+
+  @Test
+  public void testStructLikeMap() throws IOException {
+    StructLikeMap<Long> expectedMap = StructLikeMap.create(PK_SCHEMA.asStruct());
+    StructLikeOffHeapLongMap actualMap = StructLikeOffHeapLongMap.create(PK_SCHEMA.asStruct());
+    for (long i = 0; i < 1000; i++) {
+      GenericRecord key = GenericRecord.create(PK_SCHEMA);
+      key.set(0, i % 100);
+      // null is a different key from all strings
+      key.set(1, i % 3 == 0 ? null : "value-" + (i % 7));
+      expectedMap.put(key, i);
+      actualMap.put(key, i);
+    }
+    Assert.assertEquals(expectedMap.size(), actualMap.size());
+
+    for (long i = 0; i < 200; i++) {
+      GenericRecord key = GenericRecord.create(PK_SCHEMA);
+      key.set(0, i);
+      for (int j = 0; j < 8; j++) {
+        key.set(1, j == 7 ? null : "value-" + j);
+        Assert.assertEquals(expectedMap.get(key), actualMap.get(key));
+      }
+    }
+
+    for (long i = 0; i < 100; i += 2) {
+      GenericRecord key = GenericRecord.create(PK_SCHEMA);
+      key.set(0, i);
+      key.set(1, null);
+      expectedMap.remove(key);
+      actualMap.delete(key);
+      Assert.assertNull(actualMap.get(key));
+    }
+    Assert.assertEquals(expectedMap.size(), actualMap.size());
+    actualMap.close();
+  }
+
+  @Test
+  public void testSupportedTypes() {
+    Assert.assertTrue(StructLikeOffHeapLongMap.isSupported(PK_SCHEMA.asStruct()));
+    Assert.assertFalse(
+        StructLikeOffHeapLongMap.isSupported(
+            Types.StructType.of(Types.NestedField.of(1, false, "c1", Types.DoubleType.get()))));
+    Assert.assertFalse(
+        StructLikeOffHeapLongMap.isSupported(
+            Types.StructType.of(
+                Types.NestedField.of(1, false, "c1", Types.DecimalType.of(10, 2)))));
+  }
+}
@@ -182,6 +182,21 @@ public class BasicLookupFunction<T> implements Serializable {
     }
   }
 
+  /**
+   * Lookup multiple keys in one batch. Lookups never wait for the loading in {@link
+   * #checkAndLoad()}, they read the kvTable concurrently.
+   *
+   * @return the results in the same order as the keys.
+   */
+  public List<List<T>> lookupAll(List<RowData> lookupKeys) {
+    checkErrorAndRethrow();
+    try {
+      return kvTable.getAll(lookupKeys);
+    } catch (Exception e) {
+      throw new FlinkRuntimeException(e);
+    }
+  }
+
   /**
    * Check whether it is time to periodically load data to kvTable. Support to use {@link
    * Expression} filters to filter the data.
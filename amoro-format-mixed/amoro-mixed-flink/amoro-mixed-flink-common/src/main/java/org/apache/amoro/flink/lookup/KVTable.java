@@ -23,6 +23,7 @@ import org.apache.flink.table.data.RowData;
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -42,6 +43,20 @@ public interface KVTable<T> extends Serializable, Closeable {
    */
   List<T> get(RowData key) throws IOException;
 
+  /**
+   * Get the results of multiple keys in one batch.
+   *
+   * @return the results in the same order as the keys.
+   * @throws IOException Serialize the rowData failed.
+   */
+  default List<List<T>> getAll(List<RowData> keys) throws IOException {
+    List<List<T>> results = new ArrayList<>(keys.size());
+    for (RowData key : keys) {
+      results.add(get(key));
+    }
+    return results;
+  }
+
   /**
    * Upsert the {@link KVTable} by the Change table dataStream.
    *
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.flink.lookup;
+
+import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.LOOKUP_ASYNC_BATCH_SIZE;
+import static org.apache.amoro.flink.table.descriptors.MixedFormatValidator.LOOKUP_ASYNC_THREAD_NUM;
+
+import org.apache.amoro.flink.read.hybrid.reader.DataIteratorReaderFunction;
+import org.apache.amoro.flink.table.MixedFormatTableLoader;
+import org.apache.amoro.hive.io.reader.AbstractAdaptHiveKeyedDataReader;
+import org.apache.amoro.table.MixedTable;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.AsyncLookupFunction;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+import org.apache.iceberg.Schema;
+import org.apache.iceberg.expressions.Expression;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * An async lookup function for {@link RowData} type. The keys requested concurrently by the async
+ * lookup operator are queued and fetched from the {@link KVTable} in batches, so that the RocksDB
+ * reads are amortized by multiGet.
+ */
+public class MixedFormatRowDataAsyncLookupFunction extends AsyncLookupFunction {
+  private static final Logger LOG =
+      LoggerFactory.getLogger(MixedFormatRowDataAsyncLookupFunction.class);
+  private static final long serialVersionUID = 2947306915384926207L;
+  private static final long POLL_TIMEOUT_MS = 100;
+  private final BasicLookupFunction<RowData> basicLookupFunction;
+  private final int batchSize;
+  private final int threadNum;
+
+  private transient BlockingQueue<LookupRequest> requests;
+  private transient ExecutorService lookupExecutor;
+  private transient volatile boolean running;
+
+  public MixedFormatRowDataAsyncLookupFunction(
+      TableFactory<RowData> tableFactory,
+      MixedTable mixedTable,
+      List<String> joinKeys,
+      Schema projectSchema,
+      List<Expression> filters,
+      MixedFormatTableLoader tableLoader,
+      Configuration config,
+      Predicate<RowData> predicate,
+      AbstractAdaptHiveKeyedDataReader<RowData> flinkMORDataReader,
+      DataIteratorReaderFunction<RowData> readerFunction) {
+    this.basicLookupFunction =
+        new BasicLookupFunction<>(
+            tableFactory,
+            mixedTable,
+            joinKeys,
+            projectSchema,
+            filters,
+            tableLoader,
+            config,
+            predicate,
+            flinkMORDataReader,
+            readerFunction);
+    this.batchSize = config.get(LOOKUP_ASYNC_BATCH_SIZE);
+    this.threadNum = config.get(LOOKUP_ASYNC_THREAD_NUM);
+    Preconditions.checkArgument(
+        batchSize > 0, "%s must be positive", LOOKUP_ASYNC_BATCH_SIZE.key());
+    Preconditions.checkArgument(
+        threadNum > 0, "%s must be positive", LOOKUP_ASYNC_THREAD_NUM.key());
+  }
+
+  @Override
+  public void open(FunctionContext context) throws IOException {
+    basicLookupFunction.open(context);
+    requests = new LinkedBlockingQueue<>();
+    running = true;
+    lookupExecutor =
+        Executors.newFixedThreadPool(
+            threadNum, new ExecutorThreadFactory("Mixed-format-async-lookup"));
+    for (int i = 0; i < threadNum; i++) {
+      lookupExecutor.execute(this::serveRequests);
+    }
+  }
+
+  @Override
+  public CompletableFuture<Collection<RowData>> asyncLookup(RowData keyRow) {
+    CompletableFuture<Collection<RowData>> future = new CompletableFuture<>();
+    if (!running) {
+      future.completeExceptionally(new IllegalStateException("The lookup function is closed."));
+      return future;
+    }
+    requests.add(new LookupRequest(keyRow, future));
+    return future;
+  }
+
+  private void serveRequests() {
+    List<LookupRequest> batch = new ArrayList<>(batchSize);
+    List<RowData> keys = new ArrayList<>(batchSize);
+    while (running) {
+      try {
+        LookupRequest first = requests.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        requests.drainTo(batch, batchSize - 1);
+        batch.forEach(request -> keys.add(request.key));
+        List<List<RowData>> results = basicLookupFunction.lookupAll(keys);
+        for (int i = 0; i < batch.size(); i++) {
+          batch.get(i).future.complete(results.get(i));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } catch (Throwable t) {
+        LOG.error("Failed to lookup {} keys.", batch.size(), t);
+        batch.forEach(request -> request.future.completeExceptionally(t));
+      } finally {
+        batch.clear();
+        keys.clear();
+      }
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    running = false;
+    if (lookupExecutor != null) {
+      lookupExecutor.shutdownNow();
+      lookupExecutor.awaitTermination(POLL_TIMEOUT_MS * 10, TimeUnit.MILLISECONDS);
+    }
+    if (requests != null) {
+      LookupRequest request;
+      while ((request = requests.poll()) != null) {
+        request.future.completeExceptionally(
+            new IllegalStateException("The lookup function is closed."));
+      }
+    }
+    basicLookupFunction.close();
+  }
+
+  private static class LookupRequest {
+    private final RowData key;
+    private final CompletableFuture<Collection<RowData>> future;
+
+    private LookupRequest(RowData key, CompletableFuture<Collection<RowData>> future) {
+      this.key = key;
+      this.future = future;
+    }
+  }
+}
@@ -27,6 +27,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /** A class used to store the state of a lookup record. For {@link UniqueIndexTable}. */
@@ -91,6 +93,42 @@ public class RocksDBRecordState extends RocksDBCacheState<byte[]> {
     return Optional.ofNullable(deserializeValue(recordBytes));
   }
 
+  /**
+   * Retrieve the RowData of multiple keys, the keys missed in the guava cache are fetched from the
+   * rocksDB with one multiGet call.
+   *
+   * @param keyBytesList the serialized keys.
+   * @return the records in the same order as the keys, empty if the key does not exist.
+   */
+  public List<Optional<RowData>> getAll(List<byte[]> keyBytesList) throws IOException {
+    byte[][] recordBytesArray = new byte[keyBytesList.size()][];
+    List<Integer> missedIndexes = new ArrayList<>();
+    List<byte[]> missedKeys = new ArrayList<>();
+    for (int i = 0; i < keyBytesList.size(); i++) {
+      byte[] keyBytes = keyBytesList.get(i);
+      recordBytesArray[i] = guavaCache.getIfPresent(wrap(keyBytes));
+      if (recordBytesArray[i] == null) {
+        missedIndexes.add(i);
+        missedKeys.add(keyBytes);
+      }
+    }
+    if (!missedKeys.isEmpty()) {
+      List<byte[]> fetched = rocksDB.multiGet(columnFamilyHandle, missedKeys);
+      for (int i = 0; i < missedIndexes.size(); i++) {
+        byte[] recordBytes = fetched.get(i);
+        if (recordBytes != null) {
+          recordBytesArray[missedIndexes.get(i)] = recordBytes;
+          guavaCache.put(wrap(missedKeys.get(i)), recordBytes);
+        }
+      }
+    }
+    List<Optional<RowData>> result = new ArrayList<>(recordBytesArray.length);
+    for (byte[] recordBytes : recordBytesArray) {
+      result.add(Optional.ofNullable(deserializeValue(recordBytes)));
+    }
+    return result;
+  }
+
   /**
    * Putting the serialized RowData key and value into the rocksDB and cache.
    *
@@ -28,9 +28,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -135,6 +137,45 @@ public class RocksDBSetSpilledState extends RocksDBCacheState<Set<ByteArrayWrapp
     return result;
   }
 
+  /**
+   * Retrieve the elements of multiple keys, the keys missed in the guava cache are fetched from
+   * the RocksDB with one multiGet call.
+   *
+   * @return the elements in the same order as the keys, not null, but may be empty.
+   */
+  public List<Collection<ByteArrayWrapper>> getAll(List<RowData> keys) throws IOException {
+    List<Collection<ByteArrayWrapper>> result = new ArrayList<>(keys.size());
+    List<Integer> missedIndexes = new ArrayList<>();
+    List<byte[]> missedKeys = new ArrayList<>();
+    for (int i = 0; i < keys.size(); i++) {
+      byte[] joinKeyBytes = serializeKey(keys.get(i));
+      Set<ByteArrayWrapper> cached = guavaCache.getIfPresent(wrap(joinKeyBytes));
+      if (cached == null) {
+        missedIndexes.add(i);
+        missedKeys.add(joinKeyBytes);
+        result.add(Collections.emptyList());
+      } else {
+        result.add(cached);
+      }
+    }
+    if (!missedKeys.isEmpty()) {
+      List<byte[]> fetched = rocksDB.multiGet(columnFamilyHandle, missedKeys);
+      for (int i = 0; i < missedIndexes.size(); i++) {
+        byte[] uniqueKeysDeserialized = fetched.get(i);
+        if (uniqueKeysDeserialized == null) {
+          continue;
+        }
+        Set<ByteArrayWrapper> uniqueKeys =
+            ByteArraySetSerializer.deserialize(uniqueKeysDeserialized);
+        if (CollectionUtils.isNotEmpty(uniqueKeys)) {
+          guavaCache.put(wrap(missedKeys.get(i)), uniqueKeys);
+          result.set(missedIndexes.get(i), uniqueKeys);
+        }
+      }
+    }
+    return result;
+  }
+
   @Override
   public void putCacheValue(
       Cache<ByteArrayWrapper, Set<ByteArrayWrapper>> cache,
@@ -33,6 +33,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -99,6 +100,30 @@ public class SecondaryIndexTable extends UniqueIndexTable {
     return Collections.emptyList();
   }
 
+  @Override
+  public List<List<RowData>> getAll(List<RowData> keys) throws IOException {
+    List<Collection<ByteArrayWrapper>> uniqueKeysList = setState.getAll(keys);
+    // fetch the records of all join keys in one batch
+    int[] counts = new int[uniqueKeysList.size()];
+    List<byte[]> uniqueKeyBytesList = new ArrayList<>();
+    for (int i = 0; i < uniqueKeysList.size(); i++) {
+      for (ByteArrayWrapper uniqueKey : uniqueKeysList.get(i)) {
+        uniqueKeyBytesList.add(uniqueKey.bytes);
+        counts[i]++;
+      }
+    }
+    Iterator<Optional<RowData>> records = recordState.getAll(uniqueKeyBytesList).iterator();
+    List<List<RowData>> results = new ArrayList<>(keys.size());
+    for (int count : counts) {
+      List<RowData> result = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        records.next().ifPresent(result::add);
+      }
+      results.add(result);
+    }
+    return results;
+  }
+
   @Override
   public void upsert(Iterator<RowData> dataStream) throws IOException {
     while (dataStream.hasNext()) {
@@ -236,6 +236,9 @@ public class MixedDynamicTableFactory
     options.add(MixedFormatValidator.LOOKUP_CACHE_MAX_ROWS);
     options.add(MixedFormatValidator.LOOKUP_RELOADING_INTERVAL);
     options.add(MixedFormatValidator.LOOKUP_CACHE_TTL_AFTER_WRITE);
+    options.add(MixedFormatValidator.LOOKUP_ASYNC);
+    options.add(MixedFormatValidator.LOOKUP_ASYNC_BATCH_SIZE);
+    options.add(MixedFormatValidator.LOOKUP_ASYNC_THREAD_NUM);
 
     options.add(MixedFormatValidator.ROCKSDB_AUTO_COMPACTIONS);
     options.add(MixedFormatValidator.ROCKSDB_WRITING_THREADS);
@@ -19,12 +19,14 @@
 package org.apache.amoro.flink.table;
 
 import org.apache.amoro.flink.lookup.KVTableFactory;
+import org.apache.amoro.flink.lookup.MixedFormatRowDataAsyncLookupFunction;
 import org.apache.amoro.flink.lookup.MixedFormatRowDataLookupFunction;
 import org.apache.amoro.flink.lookup.filter.RowDataPredicate;
 import org.apache.amoro.flink.lookup.filter.RowDataPredicateExpressionVisitor;
 import org.apache.amoro.flink.read.hybrid.reader.DataIteratorReaderFunction;
 import org.apache.amoro.flink.read.hybrid.reader.RowDataReaderFunction;
 import org.apache.amoro.flink.read.source.FlinkKeyedMORDataReader;
+import org.apache.amoro.flink.table.descriptors.MixedFormatValidator;
 import org.apache.amoro.flink.util.FilterUtil;
 import org.apache.amoro.flink.util.IcebergAndFlinkFilters;
 import org.apache.amoro.hive.io.reader.AbstractAdaptHiveKeyedDataReader;
@@ -43,10 +45,12 @@ import org.apache.flink.table.connector.source.abilities.SupportsFilterPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsLimitPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsProjectionPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsWatermarkPushDown;
+import org.apache.flink.table.connector.source.lookup.AsyncLookupFunctionProvider;
 import org.apache.flink.table.connector.source.lookup.LookupFunctionProvider;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.expressions.CallExpression;
 import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.functions.AsyncLookupFunction;
 import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
 import org.apache.flink.table.functions.FunctionIdentifier;
 import org.apache.flink.table.functions.LookupFunction;
@@ -247,9 +251,43 @@ public class MixedFormatDynamicSource
       joinKeys[i] = context.getKeys()[i][0];
     }
 
+    Configuration config = new Configuration();
+    properties.forEach(config::setString);
+    if (config.get(MixedFormatValidator.LOOKUP_ASYNC)) {
+      return AsyncLookupFunctionProvider.of(getAsyncLookupFunction(joinKeys));
+    }
     return LookupFunctionProvider.of(getLookupFunction(joinKeys));
   }
 
+  protected AsyncLookupFunction getAsyncLookupFunction(int[] joinKeys) {
+    Schema projectedSchema = getProjectedSchema();
+
+    List<String> joinKeyNames = getJoinKeyNames(joinKeys, projectedSchema);
+
+    Configuration config = new Configuration();
+    properties.forEach(config::setString);
+
+    Optional<RowDataPredicate> rowDataPredicate =
+        generatePredicate(projectedSchema, flinkExpression);
+
+    AbstractAdaptHiveKeyedDataReader<RowData> flinkMORDataReader =
+        generateMORReader(mixedTable, projectedSchema);
+    DataIteratorReaderFunction<RowData> readerFunction =
+        generateReaderFunction(mixedTable, projectedSchema);
+
+    return new MixedFormatRowDataAsyncLookupFunction(
+        KVTableFactory.INSTANCE,
+        mixedTable,
+        joinKeyNames,
+        projectedSchema,
+        filters,
+        tableLoader,
+        config,
+        rowDataPredicate.orElse(null),
+        flinkMORDataReader,
+        readerFunction);
+  }
+
   protected LookupFunction getLookupFunction(int[] joinKeys) {
     Schema projectedSchema = getProjectedSchema();
 
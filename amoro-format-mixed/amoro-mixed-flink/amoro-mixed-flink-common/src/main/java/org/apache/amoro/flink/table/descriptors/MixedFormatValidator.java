@@ -252,6 +252,25 @@ public class MixedFormatValidator extends ConnectorDescriptorValidator {
               "Configuration option for specifying the interval in seconds to reload lookup data in RocksDB."
                   + "\nThe default value is 10 seconds.");
 
+  public static final ConfigOption<Boolean> LOOKUP_ASYNC =
+      ConfigOptions.key("lookup.async")
+          .booleanType()
+          .defaultValue(false)
+          .withDescription(
+              "Whether to lookup asynchronously, the concurrent lookup keys are fetched in batches.");
+
+  public static final ConfigOption<Integer> LOOKUP_ASYNC_BATCH_SIZE =
+      ConfigOptions.key("lookup.async.batch-size")
+          .intType()
+          .defaultValue(64)
+          .withDescription("The maximum number of keys fetched from RocksDB in one async lookup.");
+
+  public static final ConfigOption<Integer> LOOKUP_ASYNC_THREAD_NUM =
+      ConfigOptions.key("lookup.async.thread-num")
+          .intType()
+          .defaultValue(2)
+          .withDescription("The number of threads serving the async lookups.");
+
   public static final ConfigOption<Boolean> ROCKSDB_AUTO_COMPACTIONS =
       ConfigOptions.key("rocksdb.auto-compactions")
           .booleanType()
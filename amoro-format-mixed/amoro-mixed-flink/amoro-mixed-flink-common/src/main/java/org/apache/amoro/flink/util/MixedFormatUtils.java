@@ -22,6 +22,7 @@ import static org.apache.amoro.table.TableProperties.ENABLE_LOG_STORE;
 import static org.apache.amoro.table.TableProperties.LOG_STORE_ADDRESS;
 import static org.apache.amoro.table.TableProperties.LOG_STORE_DATA_VERSION;
 import static org.apache.amoro.table.TableProperties.LOG_STORE_DATA_VERSION_DEFAULT;
+import static org.apache.amoro.table.TableProperties.LOG_STORE_DATA_VERSION_V2;
 import static org.apache.amoro.table.TableProperties.LOG_STORE_MESSAGE_TOPIC;
 import static org.apache.amoro.table.TableProperties.LOG_STORE_STORAGE_TYPE_DEFAULT;
 import static org.apache.amoro.table.TableProperties.LOG_STORE_STORAGE_TYPE_KAFKA;
@@ -37,6 +38,7 @@ import org.apache.amoro.flink.write.AutomaticLogWriter;
 import org.apache.amoro.flink.write.MixedFormatLogWriter;
 import org.apache.amoro.flink.write.hidden.HiddenLogWriter;
 import org.apache.amoro.flink.write.hidden.kafka.HiddenKafkaFactory;
+import org.apache.amoro.log.FormatVersion;
 import org.apache.amoro.table.MixedTable;
 import org.apache.amoro.table.PrimaryKeySpec;
 import org.apache.amoro.table.TableProperties;
@@ -169,34 +171,43 @@ public class MixedFormatUtils {
 
     String version =
         properties.getOrDefault(LOG_STORE_DATA_VERSION, LOG_STORE_DATA_VERSION_DEFAULT);
+    FormatVersion logVersion;
     if (LOG_STORE_DATA_VERSION_DEFAULT.equals(version)) {
-      if (emitMode.equals(MixedFormatValidator.MIXED_FORMAT_EMIT_AUTO)) {
-        LOG.info(
-            "mixed-format emit mode is auto, and we will build automatic log writer: AutomaticLogWriter(v1)");
-        return new AutomaticLogWriter(
-            FlinkSchemaUtil.convert(tableSchema),
-            producerConfig,
-            topic,
-            new HiddenKafkaFactory<>(),
-            LogRecordV1.FIELD_GETTER_FACTORY,
-            IdGenerator.generateUpstreamId(),
-            helper,
-            tableLoader,
-            watermarkWriteGap);
-      }
+      logVersion = FormatVersion.FORMAT_VERSION_V1;
+    } else if (LOG_STORE_DATA_VERSION_V2.equals(version)) {
+      logVersion = FormatVersion.FORMAT_VERSION_V2;
+    } else {
+      throw new UnsupportedOperationException(
+          "don't support log version '" + version + "'. only support 'v1', 'v2' or empty");
+    }
 
-      LOG.info("build log writer: HiddenLogWriter(v1)");
-      return new HiddenLogWriter(
+    if (emitMode.equals(MixedFormatValidator.MIXED_FORMAT_EMIT_AUTO)) {
+      LOG.info(
+          "mixed-format emit mode is auto, and we will build automatic log writer: AutomaticLogWriter({})",
+          version);
+      return new AutomaticLogWriter(
           FlinkSchemaUtil.convert(tableSchema),
           producerConfig,
           topic,
           new HiddenKafkaFactory<>(),
           LogRecordV1.FIELD_GETTER_FACTORY,
           IdGenerator.generateUpstreamId(),
-          helper);
+          helper,
+          tableLoader,
+          watermarkWriteGap,
+          logVersion);
     }
-    throw new UnsupportedOperationException(
-        "don't support log version '" + version + "'. only support 'v1' or empty");
+
+    LOG.info("build log writer: HiddenLogWriter({})", version);
+    return new HiddenLogWriter(
+        FlinkSchemaUtil.convert(tableSchema),
+        producerConfig,
+        topic,
+        new HiddenKafkaFactory<>(),
+        LogRecordV1.FIELD_GETTER_FACTORY,
+        IdGenerator.generateUpstreamId(),
+        helper,
+        logVersion);
   }
 
   /**
@@ -74,7 +74,7 @@ public abstract class AbstractHiddenLogWriter extends MixedFormatLogWriter {
   private final LogData.FieldGetterFactory<RowData> fieldGetterFactory;
   protected transient LogDataJsonSerialization<RowData> logDataJsonSerialization;
 
-  protected FormatVersion logVersion = FormatVersion.FORMAT_VERSION_V1;
+  protected final FormatVersion logVersion;
   protected byte[] jobIdentify;
   // start from 1L, epicNo is similar to checkpoint id.
   protected long epicNo = 1L;
@@ -89,6 +89,26 @@ public abstract class AbstractHiddenLogWriter extends MixedFormatLogWriter {
       LogData.FieldGetterFactory<RowData> fieldGetterFactory,
       byte[] jobId,
       ShuffleHelper helper) {
+    this(
+        schema,
+        producerConfig,
+        topic,
+        factory,
+        fieldGetterFactory,
+        jobId,
+        helper,
+        FormatVersion.FORMAT_VERSION_V1);
+  }
+
+  public AbstractHiddenLogWriter(
+      Schema schema,
+      Properties producerConfig,
+      String topic,
+      LogMsgFactory<RowData> factory,
+      LogData.FieldGetterFactory<RowData> fieldGetterFactory,
+      byte[] jobId,
+      ShuffleHelper helper,
+      FormatVersion logVersion) {
     this.schema = schema;
     this.producerConfig = checkNotNull(producerConfig);
     this.topic = checkNotNull(topic);
@@ -96,6 +116,7 @@ public abstract class AbstractHiddenLogWriter extends MixedFormatLogWriter {
     this.fieldGetterFactory = fieldGetterFactory;
     this.jobIdentify = jobId;
     this.helper = helper;
+    this.logVersion = checkNotNull(logVersion);
   }
 
   @Override
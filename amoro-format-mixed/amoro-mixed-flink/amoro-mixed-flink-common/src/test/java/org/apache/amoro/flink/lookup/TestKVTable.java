@@ -303,6 +303,55 @@ public class TestKVTable extends TestRowDataPredicateBase {
     assertTableSet(secondaryIndexTable, row(3), row(3, "3", 5), row(3, "4", 4));
   }
 
+  @Test
+  public void testGetAll() throws IOException {
+    List<String> joinKeys = Lists.newArrayList("id", "grade");
+    try (UniqueIndexTable uniqueIndexTable = (UniqueIndexTable) createTable(joinKeys)) {
+      uniqueIndexTable.open();
+      initTable(
+          uniqueIndexTable,
+          upsertStream(row(RowKind.INSERT, 1, "1", 1), row(RowKind.INSERT, 2, "2", 2)));
+      if (!uniqueIndexTable.initialized()) {
+        uniqueIndexTable.waitInitializationCompleted();
+      }
+      // read one of the keys first to mix the cached and uncached keys
+      assertTable(uniqueIndexTable, row(2, "2"), row(2, "2", 2));
+
+      List<List<RowData>> results =
+          uniqueIndexTable.getAll(Lists.newArrayList(row(1, "1"), row(3, "3"), row(2, "2")));
+      Assert.assertEquals(3, results.size());
+      Assert.assertEquals(1, results.get(0).size());
+      assertRecord(row(1, "1", 1), results.get(0).get(0));
+      Assert.assertTrue(results.get(1).isEmpty());
+      Assert.assertEquals(1, results.get(2).size());
+      assertRecord(row(2, "2", 2), results.get(2).get(0));
+    }
+
+    dbPath = temp.newFolder().getPath();
+    try (SecondaryIndexTable secondaryIndexTable =
+        (SecondaryIndexTable) createTable(Lists.newArrayList("id"))) {
+      secondaryIndexTable.open();
+      initTable(
+          secondaryIndexTable,
+          upsertStream(
+              row(RowKind.INSERT, 1, "1", 1),
+              row(RowKind.INSERT, 2, "2", 2),
+              row(RowKind.INSERT, 2, "3", 3)));
+      if (!secondaryIndexTable.initialized()) {
+        secondaryIndexTable.waitInitializationCompleted();
+      }
+
+      List<RowData> keys = Lists.newArrayList(row(2), row(4), row(1));
+      List<List<RowData>> results = secondaryIndexTable.getAll(keys);
+      Assert.assertEquals(3, results.size());
+      for (int i = 0; i < keys.size(); i++) {
+        assertTableSet(secondaryIndexTable, keys.get(i), results.get(i).toArray(new RowData[0]));
+      }
+      Assert.assertEquals(2, results.get(0).size());
+      Assert.assertTrue(results.get(1).isEmpty());
+    }
+  }
+
   @Test
   public void testCacheExpired() throws InterruptedException {
     Cache<Integer, Integer> cache =
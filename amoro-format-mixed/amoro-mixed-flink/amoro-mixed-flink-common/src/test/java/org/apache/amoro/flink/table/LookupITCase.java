@@ -91,11 +91,24 @@ public class LookupITCase extends CatalogITCaseBase implements FlinkTaskWriterBa
 
   @Test()
   public void testLookup() throws Exception {
+    testLookupJoin("");
+  }
+
+  @Test()
+  public void testAsyncLookup() throws Exception {
+    // a small batch size so that the concurrent keys are fetched in several batches
+    testLookupJoin(
+        "/*+ OPTIONS('lookup.async'='true', 'lookup.async.batch-size'='2', "
+            + "'lookup.async.thread-num'='2') */");
+  }
+
+  private void testLookupJoin(String dimTableHint) throws Exception {
     TableResult tableResult =
         exec(
-            "select L.id, D.name from vi L LEFT JOIN mixed_catalog.%s.DIM "
+            "select L.id, D.name from vi L LEFT JOIN mixed_catalog.%s.DIM %s "
                 + "for system_time as of L.proc AS D ON L.id = D.id",
-            db);
+            db,
+            dimTableHint);
 
     tableResult.await(1, TimeUnit.MINUTES); // wait for the first row.
 
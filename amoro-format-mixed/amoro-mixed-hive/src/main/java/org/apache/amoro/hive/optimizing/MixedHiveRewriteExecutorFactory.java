@@ -40,10 +40,15 @@ public class MixedHiveRewriteExecutorFactory
   @Override
   public OptimizingExecutor createExecutor(RewriteFilesInput input) {
     OptimizingInputProperties optimizingConfig = OptimizingInputProperties.parse(properties);
-    return new MixedHiveRewriteExecutor(
-        input,
-        input.getTable(),
-        optimizingConfig.getStructLikeCollections(),
-        optimizingConfig.getOutputDir());
+    MixedHiveRewriteExecutor executor =
+        new MixedHiveRewriteExecutor(
+            input,
+            input.getTable(),
+            optimizingConfig.getStructLikeCollections(),
+            optimizingConfig.getOutputDir());
+    if (optimizingConfig.isPipelinedRewrite()) {
+      executor.enablePipeline(optimizingConfig.getPipelineMemoryBudget());
+    }
+    return executor;
   }
 }
@@ -31,9 +31,7 @@ import org.apache.amoro.table.TableIdentifier;
 import org.apache.amoro.table.TableProperties;
 import org.apache.amoro.table.UnkeyedTable;
 import org.apache.amoro.utils.TablePropertyUtil;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.hadoop.hive.metastore.Warehouse;
-import org.apache.hadoop.hive.metastore.api.FieldSchema;
 import org.apache.hadoop.hive.metastore.api.Partition;
 import org.apache.hadoop.hive.metastore.api.Table;
 import org.apache.iceberg.DataFile;
@@ -51,6 +49,9 @@ import org.apache.iceberg.mapping.NameMappingParser;
 import org.apache.iceberg.types.TypeUtil;
 import org.apache.iceberg.types.Types;
 import org.apache.iceberg.util.StructLikeMap;
+import org.apache.iceberg.util.StructLikeSet;
+import org.apache.iceberg.util.Tasks;
+import org.apache.iceberg.util.ThreadPools;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,18 +60,23 @@ import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 /** Utils for syncing the metadata between the hive table and the mixed-hive table. */
 public class HiveMetaSynchronizer {
 
   private static final Logger LOG = LoggerFactory.getLogger(HiveMetaSynchronizer.class);
+  private static final int SYNC_THREAD_POOL_SIZE = 8;
+  private static volatile ExecutorService syncExecutor;
 
   /**
    * Synchronize the schema change of the hive table to mixed-hive table
@@ -211,12 +217,11 @@ public class HiveMetaSynchronizer {
           overwriteTable(table, deleteFiles, hiveDataFiles);
         }
       } else {
+        SyncPhaseTimer timer = new SyncPhaseTimer();
         // list all hive partitions.
         List<Partition> hivePartitions =
-            hiveClient.run(
-                client ->
-                    client.listPartitions(
-                        table.id().getDatabase(), table.id().getTableName(), Short.MAX_VALUE));
+            HivePartitionUtil.getHiveAllPartitions(hiveClient, table.id());
+        timer.finish("list");
         // group mixed-hive table files by partition.
         StructLikeMap<Collection<DataFile>> filesGroupedByPartition =
             StructLikeMap.create(table.spec().partitionType());
@@ -230,9 +235,11 @@ public class HiveMetaSynchronizer {
         } catch (IOException e) {
           throw new UncheckedIOException("Failed to close table scan of " + table.name(), e);
         }
+        timer.finish("scan-files");
         List<DataFile> filesToDelete = Lists.newArrayList();
         List<DataFile> filesToAdd = Lists.newArrayList();
-        List<StructLike> icebergPartitions = Lists.newArrayList(filesGroupedByPartition.keySet());
+        StructLikeSet icebergPartitions = StructLikeSet.create(table.spec().partitionType());
+        icebergPartitions.addAll(filesGroupedByPartition.keySet());
         for (Partition hivePartition : hivePartitions) {
           StructLike partitionData =
               HivePartitionUtil.buildPartitionData(hivePartition.getValues(), table.spec());
@@ -253,18 +260,32 @@ public class HiveMetaSynchronizer {
             }
           }
         }
+        timer.finish("list-hive-files");
+
+        // make sure dropped partition with no files
+        List<DataFile> droppedFiles = Collections.synchronizedList(Lists.newArrayList());
+        Tasks.foreach(icebergPartitions)
+            .executeWith(syncExecutor())
+            .stopOnFailure()
+            .throwFailureWhenFinished()
+            .run(
+                partition -> {
+                  Collection<DataFile> dataFiles = filesGroupedByPartition.get(partition);
+                  if (!dataFiles.isEmpty()
+                      && !table.io().exists(dataFiles.iterator().next().path().toString())) {
+                    droppedFiles.addAll(dataFiles);
+                  }
+                });
+        filesToDelete.addAll(droppedFiles);
+        timer.finish("check-location");
 
-        icebergPartitions.forEach(
-            partition -> {
-              List<DataFile> dataFiles = Lists.newArrayList(filesGroupedByPartition.get(partition));
-              if (dataFiles.size() > 0) {
-                // make sure dropped partition with no files
-                if (!table.io().exists(dataFiles.get(0).path().toString())) {
-                  filesToDelete.addAll(filesGroupedByPartition.get(partition));
-                }
-              }
-            });
         overwriteTable(table, filesToDelete, filesToAdd);
+        timer.finish("commit");
+        LOG.info(
+            "Table {} synced {} hive partitions to the mixed-hive table, cost {}",
+            table.id(),
+            hivePartitions.size(),
+            timer);
       }
     } catch (TException | InterruptedException e) {
       throw new RuntimeException("Failed to get hive table:" + table.id(), e);
@@ -347,166 +368,159 @@ public class HiveMetaSynchronizer {
 
   private static void syncPartitionTable(
       SupportHive table, StructLikeMap<Map<String, String>> partitionProperty) throws Exception {
+    SyncPhaseTimer timer = new SyncPhaseTimer();
     Map<String, StructLike> icebergPartitionMap = new HashMap<>();
     for (StructLike structLike : partitionProperty.keySet()) {
       icebergPartitionMap.put(table.spec().partitionToPath(structLike), structLike);
     }
-    List<String> icebergPartitions = new ArrayList<>(icebergPartitionMap.keySet());
-    List<Partition> hivePartitions =
+    Table hiveTable =
         table
             .getHMSClient()
-            .run(
-                client ->
-                    client.listPartitions(
-                        table.id().getDatabase(), table.id().getTableName(), Short.MAX_VALUE));
-    List<String> hivePartitionNames =
-        table
-            .getHMSClient()
-            .run(
-                client ->
-                    client.listPartitionNames(
-                        table.id().getDatabase(), table.id().getTableName(), Short.MAX_VALUE));
-    List<FieldSchema> partitionKeys =
-        table
-            .getHMSClient()
-            .run(
-                client -> {
-                  Table hiveTable =
-                      client.getTable(table.id().getDatabase(), table.id().getTableName());
-                  return hiveTable.getPartitionKeys();
-                });
+            .run(client -> client.getTable(table.id().getDatabase(), table.id().getTableName()));
     Map<String, Partition> hivePartitionMap = new HashMap<>();
-    for (Partition hivePartition : hivePartitions) {
+    for (Partition hivePartition :
+        HivePartitionUtil.getHiveAllPartitions(table.getHMSClient(), table.id())) {
       hivePartitionMap.put(
-          Warehouse.makePartName(partitionKeys, hivePartition.getValues()), hivePartition);
-    }
-
-    Set<String> inIcebergNotInHive =
-        icebergPartitions.stream()
-            .filter(partition -> !hivePartitionNames.contains(partition))
-            .collect(Collectors.toSet());
-    Set<String> inHiveNotInIceberg =
-        hivePartitionNames.stream()
-            .filter(partition -> !icebergPartitions.contains(partition))
-            .collect(Collectors.toSet());
-    Set<String> inBoth =
-        icebergPartitions.stream().filter(hivePartitionNames::contains).collect(Collectors.toSet());
-
-    if (CollectionUtils.isNotEmpty(inIcebergNotInHive)) {
-      handleInIcebergPartitions(table, inIcebergNotInHive, icebergPartitionMap, partitionProperty);
-    }
-
-    if (CollectionUtils.isNotEmpty(inHiveNotInIceberg)) {
-      handleInHivePartitions(table, inHiveNotInIceberg, hivePartitionMap);
-    }
-
-    if (CollectionUtils.isNotEmpty(inBoth)) {
-      handleInBothPartitions(
-          table, inBoth, hivePartitionMap, icebergPartitionMap, partitionProperty);
+          Warehouse.makePartName(hiveTable.getPartitionKeys(), hivePartition.getValues()),
+          hivePartition);
     }
-  }
-
-  /** if iceberg partition location is existed, should update hive table location. */
-  private static void handleInIcebergPartitions(
-      MixedTable mixedTable,
-      Set<String> inIcebergNotInHive,
-      Map<String, StructLike> icebergPartitionMap,
-      StructLikeMap<Map<String, String>> partitionProperty) {
-    inIcebergNotInHive.forEach(
-        partition -> {
-          Map<String, String> property = partitionProperty.get(icebergPartitionMap.get(partition));
-          if (property == null
-              || property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION) == null) {
-            return;
-          }
-          String currentLocation =
-              property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION);
-
-          if (mixedTable.io().exists(currentLocation)) {
-            int transientTime =
-                Integer.parseInt(
-                    property.getOrDefault(
-                        HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME, "0"));
-            List<DataFile> dataFiles =
-                getIcebergPartitionFiles(mixedTable, icebergPartitionMap.get(partition));
-            HivePartitionUtil.createPartitionIfAbsent(
-                ((SupportHive) mixedTable).getHMSClient(),
-                mixedTable,
-                HivePartitionUtil.partitionValuesAsList(
-                    icebergPartitionMap.get(partition), mixedTable.spec().partitionType()),
-                currentLocation,
-                dataFiles,
-                transientTime);
+    timer.finish("list");
+
+    // locations of the partitions to create in hive, keyed by the partition name
+    Map<String, String> partitionsToCreate = new HashMap<>();
+    Map<String, String> partitionsToCheck = new HashMap<>();
+    // hive partitions whose location moved, keyed by the partition name
+    Map<String, Partition> partitionsToRelocate = new HashMap<>();
+    List<Partition> partitionsToDrop = new ArrayList<>();
+    icebergPartitionMap.forEach(
+        (partitionName, partition) -> {
+          String location = hiveLocation(partitionProperty.get(partition));
+          Partition hivePartition = hivePartitionMap.get(partitionName);
+          if (hivePartition == null) {
+            // only create the partition if the location of the iceberg partition still exists
+            if (location != null) {
+              partitionsToCheck.put(partitionName, location);
+            }
+          } else if (location == null) {
+            if (isCreatedByMixedTable(hivePartition)) {
+              partitionsToDrop.add(hivePartition);
+            }
+          } else if (!Objects.equals(location, hivePartition.getSd().getLocation())) {
+            partitionsToRelocate.put(partitionName, hivePartition);
           }
         });
-  }
-
-  private static void handleInHivePartitions(
-      MixedTable mixedTable,
-      Set<String> inHiveNotInIceberg,
-      Map<String, Partition> hivePartitionMap) {
-    inHiveNotInIceberg.forEach(
-        partition -> {
-          Partition hivePartition = hivePartitionMap.get(partition);
-          boolean isMixedTable =
-              CompatibleHivePropertyUtil.propertyAsBoolean(
-                  hivePartition.getParameters(), HiveTableProperties.MIXED_TABLE_FLAG, false);
-          if (isMixedTable) {
-            HivePartitionUtil.dropPartition(
-                ((SupportHive) mixedTable).getHMSClient(), mixedTable, hivePartition);
+    hivePartitionMap.forEach(
+        (partitionName, hivePartition) -> {
+          if (!icebergPartitionMap.containsKey(partitionName)
+              && isCreatedByMixedTable(hivePartition)) {
+            partitionsToDrop.add(hivePartition);
           }
         });
+    timer.finish("diff");
+
+    Set<String> existingLocations = ConcurrentHashMap.newKeySet();
+    Tasks.foreach(partitionsToCheck.entrySet())
+        .executeWith(syncExecutor())
+        .stopOnFailure()
+        .throwFailureWhenFinished()
+        .run(
+            entry -> {
+              if (table.io().exists(entry.getValue())) {
+                existingLocations.add(entry.getKey());
+              }
+            });
+    existingLocations.forEach(
+        partitionName ->
+            partitionsToCreate.put(partitionName, partitionsToCheck.get(partitionName)));
+    timer.finish("check-location");
+
+    StructLikeSet partitionsWithFiles = StructLikeSet.create(table.spec().partitionType());
+    partitionsToCreate
+        .keySet()
+        .forEach(partitionName -> partitionsWithFiles.add(icebergPartitionMap.get(partitionName)));
+    partitionsToRelocate
+        .keySet()
+        .forEach(partitionName -> partitionsWithFiles.add(icebergPartitionMap.get(partitionName)));
+    StructLikeMap<List<DataFile>> icebergPartitionFiles =
+        getIcebergPartitionFiles(table, partitionsWithFiles);
+    timer.finish("scan-files");
+
+    HivePartitionUtil.dropPartitions(table.getHMSClient(), table, partitionsToDrop, syncExecutor());
+    timer.finish("drop");
+
+    // a moved partition is dropped and created again right away, so it is never missing for long
+    Tasks.foreach(partitionsToRelocate.entrySet())
+        .executeWith(syncExecutor())
+        .stopOnFailure()
+        .throwFailureWhenFinished()
+        .run(
+            entry -> {
+              StructLike partition = icebergPartitionMap.get(entry.getKey());
+              HivePartitionUtil.updatePartitionLocation(
+                  table.getHMSClient(),
+                  table,
+                  entry.getValue(),
+                  hiveLocation(partitionProperty.get(partition)),
+                  icebergPartitionFiles.getOrDefault(partition, Collections.emptyList()),
+                  transientTime(partitionProperty.get(partition)));
+            });
+    timer.finish("relocate");
+
+    List<Partition> newPartitions = new ArrayList<>(partitionsToCreate.size());
+    partitionsToCreate.forEach(
+        (partitionName, location) -> {
+          StructLike partition = icebergPartitionMap.get(partitionName);
+          newPartitions.add(
+              HivePartitionUtil.newPartition(
+                  hiveTable,
+                  HivePartitionUtil.partitionValuesAsList(partition, table.spec().partitionType()),
+                  location,
+                  icebergPartitionFiles.getOrDefault(partition, Collections.emptyList()),
+                  transientTime(partitionProperty.get(partition))));
+        });
+    HivePartitionUtil.addPartitions(table.getHMSClient(), table, newPartitions);
+    timer.finish("create");
+
+    LOG.info(
+        "Table {} synced {} partitions to {} hive partitions, created {}, relocated {},"
+            + " dropped {}, cost {}",
+        table.id(),
+        icebergPartitionMap.size(),
+        hivePartitionMap.size(),
+        newPartitions.size(),
+        partitionsToRelocate.size(),
+        partitionsToDrop.size(),
+        timer);
   }
 
-  private static void handleInBothPartitions(
-      MixedTable mixedTable,
-      Set<String> inBoth,
-      Map<String, Partition> hivePartitionMap,
-      Map<String, StructLike> icebergPartitionMap,
-      StructLikeMap<Map<String, String>> partitionProperty) {
-    Set<String> inHiveNotInIceberg = new HashSet<>();
-    inBoth.forEach(
-        partition -> {
-          Map<String, String> property = partitionProperty.get(icebergPartitionMap.get(partition));
-          if (property == null
-              || property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION) == null) {
-            inHiveNotInIceberg.add(partition);
-            return;
-          }
+  private static int transientTime(Map<String, String> property) {
+    return Integer.parseInt(
+        property.getOrDefault(HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME, "0"));
+  }
 
-          String currentLocation =
-              property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION);
-          Partition hivePartition = hivePartitionMap.get(partition);
-
-          if (!Objects.equals(currentLocation, hivePartition.getSd().getLocation())) {
-            int transientTime =
-                Integer.parseInt(
-                    property.getOrDefault(
-                        HiveTableProperties.PARTITION_PROPERTIES_KEY_TRANSIENT_TIME, "0"));
-            List<DataFile> dataFiles =
-                getIcebergPartitionFiles(mixedTable, icebergPartitionMap.get(partition));
-            HivePartitionUtil.updatePartitionLocation(
-                ((SupportHive) mixedTable).getHMSClient(),
-                mixedTable,
-                hivePartition,
-                currentLocation,
-                dataFiles,
-                transientTime);
-          }
-        });
+  private static String hiveLocation(Map<String, String> property) {
+    return property == null
+        ? null
+        : property.get(HiveTableProperties.PARTITION_PROPERTIES_KEY_HIVE_LOCATION);
+  }
 
-    handleInHivePartitions(mixedTable, inHiveNotInIceberg, hivePartitionMap);
+  private static boolean isCreatedByMixedTable(Partition hivePartition) {
+    return CompatibleHivePropertyUtil.propertyAsBoolean(
+        hivePartition.getParameters(), HiveTableProperties.MIXED_TABLE_FLAG, false);
   }
 
-  private static List<DataFile> getIcebergPartitionFiles(
-      MixedTable mixedTable, StructLike partition) {
-    UnkeyedTable baseStore;
-    baseStore =
+  /** Group the files of the given partitions with one scan of the table. */
+  private static StructLikeMap<List<DataFile>> getIcebergPartitionFiles(
+      MixedTable mixedTable, StructLikeSet partitions) {
+    StructLikeMap<List<DataFile>> partitionFiles =
+        StructLikeMap.create(mixedTable.spec().partitionType());
+    if (partitions.isEmpty()) {
+      return partitionFiles;
+    }
+    UnkeyedTable baseStore =
         mixedTable.isKeyedTable()
             ? mixedTable.asKeyedTable().baseTable()
             : mixedTable.asUnkeyedTable();
-
-    List<DataFile> partitionFiles = new ArrayList<>();
     mixedTable
         .io()
         .doAs(
@@ -514,18 +528,50 @@ public class HiveMetaSynchronizer {
               try (CloseableIterable<FileScanTask> fileScanTasks =
                   baseStore.newScan().planFiles()) {
                 for (FileScanTask fileScanTask : fileScanTasks) {
-                  if (fileScanTask.file().partition().equals(partition)) {
-                    partitionFiles.add(fileScanTask.file());
+                  StructLike partition = fileScanTask.file().partition();
+                  if (partitions.contains(partition)) {
+                    partitionFiles
+                        .computeIfAbsent(partition, k -> new ArrayList<>())
+                        .add(fileScanTask.file());
                   }
                 }
               }
-
               return null;
             });
-
     return partitionFiles;
   }
 
+  /** The bounded pool shared by all tables to check locations and drop partitions in parallel. */
+  private static ExecutorService syncExecutor() {
+    if (syncExecutor == null) {
+      synchronized (HiveMetaSynchronizer.class) {
+        if (syncExecutor == null) {
+          syncExecutor = ThreadPools.newWorkerPool("hive-meta-sync-pool", SYNC_THREAD_POOL_SIZE);
+        }
+      }
+    }
+    return syncExecutor;
+  }
+
+  /** Durations of the phases of a sync, in the order they finished. */
+  private static class SyncPhaseTimer {
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    private long phaseStart = System.currentTimeMillis();
+
+    void finish(String phase) {
+      long now = System.currentTimeMillis();
+      durations.put(phase, now - phaseStart);
+      phaseStart = now;
+    }
+
+    @Override
+    public String toString() {
+      return durations.entrySet().stream()
+          .map(e -> e.getKey() + "=" + e.getValue() + "ms")
+          .collect(Collectors.joining(", "));
+    }
+  }
+
   @VisibleForTesting
   static boolean partitionHasModified(
       UnkeyedTable baseStore, Partition hivePartition, StructLike partitionData) {
@@ -25,6 +25,7 @@ import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.apache.amoro.table.MixedTable;
 import org.apache.amoro.table.TableIdentifier;
 import org.apache.hadoop.hive.metastore.PartitionDropOptions;
+import org.apache.hadoop.hive.metastore.api.AlreadyExistsException;
 import org.apache.hadoop.hive.metastore.api.NoSuchObjectException;
 import org.apache.hadoop.hive.metastore.api.Partition;
 import org.apache.hadoop.hive.metastore.api.PrincipalPrivilegeSet;
@@ -37,19 +38,25 @@ import org.apache.iceberg.StructLike;
 import org.apache.iceberg.exceptions.NoSuchTableException;
 import org.apache.iceberg.types.Type;
 import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.Tasks;
 import org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 public class HivePartitionUtil {
 
   private static final Logger LOG = LoggerFactory.getLogger(HivePartitionUtil.class);
 
+  /** Max number of partitions fetched or added in one call to the hive metastore. */
+  public static final int HMS_BATCH_SIZE = 1000;
+
   public static List<String> partitionValuesAsList(
       StructLike partitionData, Types.StructType partitionSchema) {
     List<Types.NestedField> fields = partitionSchema.fields();
@@ -129,7 +136,9 @@ public class HivePartitionUtil {
   }
 
   /**
-   * Gets all partitions object of the Hive table.
+   * Gets all partitions object of the Hive table. Partition names are listed first and the
+   * partitions are fetched by names in pages of {@link #HMS_BATCH_SIZE}, so that tables with a lot
+   * of partitions are neither truncated nor loaded in one huge response.
    *
    * @param hiveClient Hive client from MixedHiveCatalog
    * @param tableIdentifier A table identifier
@@ -137,11 +146,17 @@ public class HivePartitionUtil {
    */
   public static List<Partition> getHiveAllPartitions(
       HMSClientPool hiveClient, TableIdentifier tableIdentifier) {
+    String db = tableIdentifier.getDatabase();
+    String tableName = tableIdentifier.getTableName();
     try {
-      return hiveClient.run(
-          client ->
-              client.listPartitions(
-                  tableIdentifier.getDatabase(), tableIdentifier.getTableName(), Short.MAX_VALUE));
+      List<String> partitionNames =
+          hiveClient.run(client -> client.listPartitionNames(db, tableName, (short) -1));
+      List<Partition> partitions = Lists.newArrayListWithCapacity(partitionNames.size());
+      for (List<String> page : Lists.partition(partitionNames, HMS_BATCH_SIZE)) {
+        partitions.addAll(
+            hiveClient.run(client -> client.getPartitionsByNames(db, tableName, page)));
+      }
+      return partitions;
     } catch (NoSuchObjectException e) {
       throw new NoSuchTableException(
           e, "Hive table does not exist: %s", tableIdentifier.getTableName());
@@ -313,6 +328,73 @@ public class HivePartitionUtil {
     }
   }
 
+  /**
+   * Add partitions to the hive table in batches of {@link #HMS_BATCH_SIZE}. If a batch fails
+   * because some partitions already exist, its partitions are added one by one and the existing
+   * ones are skipped.
+   *
+   * @param hmsClient Hive client from MixedHiveCatalog
+   * @param mixedTable The mixed-hive table
+   * @param partitions Partitions to add
+   */
+  public static void addPartitions(
+      HMSClientPool hmsClient, MixedTable mixedTable, List<Partition> partitions) {
+    for (List<Partition> batch : Lists.partition(partitions, HMS_BATCH_SIZE)) {
+      try {
+        try {
+          hmsClient.run(client -> client.addPartitions(batch));
+        } catch (AlreadyExistsException e) {
+          LOG.warn(
+              "Some partitions of {} already exist, add {} partitions one by one",
+              mixedTable.id(),
+              batch.size());
+          for (Partition partition : batch) {
+            createPartitionIfAbsent(hmsClient, mixedTable, partition);
+          }
+        }
+      } catch (TException | InterruptedException e) {
+        throw new RuntimeException("Failed to add partitions to " + mixedTable.id(), e);
+      }
+    }
+  }
+
+  private static void createPartitionIfAbsent(
+      HMSClientPool hmsClient, MixedTable mixedTable, Partition partition)
+      throws TException, InterruptedException {
+    hmsClient.run(
+        client -> {
+          try {
+            return client.addPartition(partition);
+          } catch (AlreadyExistsException e) {
+            return client.getPartition(
+                mixedTable.id().getDatabase(),
+                mixedTable.id().getTableName(),
+                partition.getValues());
+          }
+        });
+  }
+
+  /**
+   * Drop partitions of the hive table concurrently with the given executor, the data of the
+   * partitions is kept.
+   *
+   * @param hmsClient Hive client from MixedHiveCatalog
+   * @param mixedTable The mixed-hive table
+   * @param partitions Partitions to drop
+   * @param executor Executor to run the drop calls
+   */
+  public static void dropPartitions(
+      HMSClientPool hmsClient,
+      MixedTable mixedTable,
+      Collection<Partition> partitions,
+      ExecutorService executor) {
+    Tasks.foreach(partitions)
+        .executeWith(executor)
+        .stopOnFailure()
+        .throwFailureWhenFinished()
+        .run(partition -> dropPartition(hmsClient, mixedTable, partition));
+  }
+
   public static void updatePartitionLocation(
       HMSClientPool hmsClient,
       MixedTable mixedTable,
@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.hive.utils;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.amoro.hive.HMSClient;
+import org.apache.amoro.hive.HMSClientPool;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
+import org.apache.amoro.table.MixedTable;
+import org.apache.amoro.table.TableIdentifier;
+import org.apache.hadoop.hive.metastore.PartitionDropOptions;
+import org.apache.hadoop.hive.metastore.api.AlreadyExistsException;
+import org.apache.hadoop.hive.metastore.api.MetaException;
+import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.thrift.TException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class TestHivePartitionUtil {
+
+  private static final String DB = "db";
+  private static final String TABLE = "table";
+
+  private HMSClient client;
+  private HMSClientPool clientPool;
+  private MixedTable table;
+
+  @Before
+  public void setup() {
+    client = mock(HMSClient.class);
+    clientPool =
+        new HMSClientPool() {
+          @Override
+          public <R> R run(Action<R, HMSClient, TException> action) throws TException {
+            return action.run(client);
+          }
+
+          @Override
+          public <R> R run(Action<R, HMSClient, TException> action, boolean retry)
+              throws TException {
+            return action.run(client);
+          }
+        };
+    table = mock(MixedTable.class);
+    when(table.id()).thenReturn(TableIdentifier.of("catalog", DB, TABLE));
+  }
+
+  @Test
+  public void testGetPartitionsByPages() throws TException {
+    int partitionCount = HivePartitionUtil.HMS_BATCH_SIZE * 2 + 500;
+    List<String> names =
+        IntStream.range(0, partitionCount).mapToObj(i -> "p=" + i).collect(Collectors.toList());
+    when(client.listPartitionNames(DB, TABLE, (short) -1)).thenReturn(names);
+    when(client.getPartitionsByNames(eq(DB), eq(TABLE), anyList()))
+        .thenAnswer(
+            invocation -> {
+              List<String> page = invocation.getArgument(2);
+              return page.stream()
+                  .map(TestHivePartitionUtil::partition)
+                  .collect(Collectors.toList());
+            });
+
+    List<Partition> partitions = HivePartitionUtil.getHiveAllPartitions(clientPool, table.id());
+
+    Assert.assertEquals(
+        names,
+        partitions.stream()
+            .map(partition -> partition.getValues().get(0))
+            .collect(Collectors.toList()));
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<String>> pages = ArgumentCaptor.forClass(List.class);
+    verify(client, times(3)).getPartitionsByNames(eq(DB), eq(TABLE), pages.capture());
+    Assert.assertEquals(
+        Lists.newArrayList(HivePartitionUtil.HMS_BATCH_SIZE, HivePartitionUtil.HMS_BATCH_SIZE, 500),
+        pages.getAllValues().stream().map(List::size).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testAddPartitionsInBatches() throws TException {
+    List<Partition> partitions = partitions(HivePartitionUtil.HMS_BATCH_SIZE + 1);
+    when(client.addPartitions(anyList()))
+        .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+    HivePartitionUtil.addPartitions(clientPool, table, partitions);
+
+    verify(client).addPartitions(partitions.subList(0, HivePartitionUtil.HMS_BATCH_SIZE));
+    verify(client)
+        .addPartitions(partitions.subList(HivePartitionUtil.HMS_BATCH_SIZE, partitions.size()));
+    verify(client, never()).addPartition(any());
+  }
+
+  @Test
+  public void testAddPartitionsWithExistingPartitions() throws TException {
+    List<Partition> partitions = partitions(3);
+    Partition existing = partitions.get(1);
+    when(client.addPartitions(anyList())).thenThrow(new AlreadyExistsException("exists"));
+    when(client.addPartition(any()))
+        .thenAnswer(
+            invocation -> {
+              Partition partition = invocation.getArgument(0);
+              if (partition == existing) {
+                throw new AlreadyExistsException("exists");
+              }
+              return partition;
+            });
+    when(client.getPartition(DB, TABLE, existing.getValues())).thenReturn(existing);
+
+    HivePartitionUtil.addPartitions(clientPool, table, partitions);
+
+    // the failed batch falls back to one by one and skips the existing partition
+    for (Partition partition : partitions) {
+      verify(client).addPartition(partition);
+    }
+    verify(client).getPartition(DB, TABLE, existing.getValues());
+  }
+
+  @Test
+  public void testAddPartitionsFailure() throws TException {
+    when(client.addPartitions(anyList())).thenThrow(new MetaException("failed"));
+
+    Assert.assertThrows(
+        RuntimeException.class,
+        () -> HivePartitionUtil.addPartitions(clientPool, table, partitions(2)));
+    verify(client, never()).addPartition(any());
+  }
+
+  @Test
+  public void testDropPartitionsConcurrently() throws Exception {
+    int parallelism = 4;
+    List<Partition> partitions = partitions(parallelism);
+    // every drop waits for the others, so the drops only finish if they run at the same time
+    CountDownLatch running = new CountDownLatch(parallelism);
+    when(client.dropPartition(eq(DB), eq(TABLE), anyList(), any(PartitionDropOptions.class)))
+        .thenAnswer(
+            invocation -> {
+              running.countDown();
+              return running.await(10, TimeUnit.SECONDS);
+            });
+    ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+    try {
+      HivePartitionUtil.dropPartitions(clientPool, table, partitions, executor);
+    } finally {
+      executor.shutdownNow();
+    }
+
+    Assert.assertEquals(0, running.getCount());
+    for (Partition partition : partitions) {
+      verify(client)
+          .dropPartition(
+              eq(DB), eq(TABLE), eq(partition.getValues()), any(PartitionDropOptions.class));
+    }
+  }
+
+  @Test
+  public void testDropPartitionsFailure() throws Exception {
+    when(client.dropPartition(eq(DB), eq(TABLE), anyList(), any(PartitionDropOptions.class)))
+        .thenThrow(new MetaException("failed"));
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Assert.assertThrows(
+          RuntimeException.class,
+          () -> HivePartitionUtil.dropPartitions(clientPool, table, partitions(2), executor));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static List<Partition> partitions(int count) {
+    return IntStream.range(0, count)
+        .mapToObj(i -> partition("p=" + i))
+        .collect(Collectors.toList());
+  }
+
+  private static Partition partition(String value) {
+    Partition partition = new Partition();
+    partition.setDbName(DB);
+    partition.setTableName(TABLE);
+    partition.setValues(Collections.singletonList(value));
+    return partition;
+  }
+}
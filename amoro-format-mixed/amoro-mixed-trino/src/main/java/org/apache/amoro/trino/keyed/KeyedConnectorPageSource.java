@@ -18,7 +18,6 @@
 
 package org.apache.amoro.trino.keyed;
 
-import static io.trino.plugin.iceberg.IcebergErrorCode.ICEBERG_BAD_DATA;
 import static java.util.Objects.requireNonNull;
 import static org.apache.amoro.shade.guava32.com.google.common.base.Preconditions.checkArgument;
 import static org.apache.amoro.shade.guava32.com.google.common.base.Throwables.throwIfInstanceOf;
@@ -32,20 +31,16 @@ import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.ConnectorTransactionHandle;
 import io.trino.spi.connector.DynamicFilter;
-import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeManager;
 import org.apache.amoro.data.DataFileType;
 import org.apache.amoro.data.PrimaryKeyedFile;
-import org.apache.amoro.hive.io.reader.AdaptHiveMixedDeleteFilter;
 import org.apache.amoro.scan.MixedFileScanTask;
 import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
 import org.apache.amoro.table.MetadataColumns;
 import org.apache.amoro.trino.AmoroErrorCode;
 import org.apache.amoro.trino.delete.TrinoDeleteFile;
-import org.apache.amoro.trino.delete.TrinoRow;
 import org.apache.amoro.trino.unkeyed.IcebergPageSourceProvider;
 import org.apache.amoro.trino.unkeyed.IcebergSplit;
-import org.apache.iceberg.io.CloseableIterable;
 import org.joda.time.DateTimeZone;
 
 import java.io.IOException;
@@ -70,10 +65,9 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
   private final List<IcebergColumnHandle> requiredColumns;
   private final DynamicFilter dynamicFilter;
   private final TypeManager typeManager;
-  private final AdaptHiveMixedDeleteFilter<TrinoRow> mixedDeleteFilter;
+  private final KeyedDeleteFilter mixedDeleteFilter;
 
   private final List<ColumnHandle> requireColumnsDummy;
-  private final Type[] requireColumnTypes;
   private final int[] expectedColumnIndexes;
   private final Iterator<MixedFileScanTask> dataTasksIt;
 
@@ -92,7 +86,7 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
       KeyedTableHandle table,
       DynamicFilter dynamicFilter,
       TypeManager typeManager,
-      AdaptHiveMixedDeleteFilter<TrinoRow> mixedDeleteFilter) {
+      KeyedDeleteFilter mixedDeleteFilter) {
     this.expectedColumns = expectedColumns;
     this.icebergPageSourceProvider = icebergPageSourceProvider;
     this.transaction = transaction;
@@ -114,9 +108,6 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
       expectedColumnIndexes[i] = i;
     }
 
-    this.requireColumnTypes =
-        requiredColumns.stream().map(IcebergColumnHandle::getType).toArray(Type[]::new);
-
     this.dataTasksIt = split.getKeyedTableScanTask().dataTasks().iterator();
   }
 
@@ -165,24 +156,12 @@ public class KeyedConnectorPageSource implements ConnectorPageSource {
       }
 
       if (mixedDeleteFilter != null) {
-        int positionCount = page.getPositionCount();
-        int[] positionsToKeep = new int[positionCount];
-        try (CloseableIterable<TrinoRow> filteredRows =
-            mixedDeleteFilter.filter(
-                CloseableIterable.withNoopClose(
-                    TrinoRow.fromPage(requireColumnTypes, page, positionCount)))) {
-          int positionsToKeepCount = 0;
-          for (TrinoRow rowToKeep : filteredRows) {
-            positionsToKeep[positionsToKeepCount] = rowToKeep.getPosition();
-            positionsToKeepCount++;
-          }
-          page =
-              page.getPositions(positionsToKeep, 0, positionsToKeepCount)
-                  .getColumns(expectedColumnIndexes);
-        } catch (IOException e) {
-          throw new TrinoException(
-              ICEBERG_BAD_DATA, "Failed to filter rows during merge-on-read operation", e);
-        }
+        // the page keeps a reference to the positions, so they can't be reused across pages
+        int[] positionsToKeep = new int[page.getPositionCount()];
+        int positionsToKeepCount = mixedDeleteFilter.filterPage(page, positionsToKeep);
+        page =
+            page.getPositions(positionsToKeep, 0, positionsToKeepCount)
+                .getColumns(expectedColumnIndexes);
       }
 
       return page;
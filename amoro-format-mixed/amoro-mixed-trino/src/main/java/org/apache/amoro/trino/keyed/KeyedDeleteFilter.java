@@ -18,12 +18,19 @@
 
 package org.apache.amoro.trino.keyed;
 
+import static io.trino.plugin.iceberg.IcebergPageSink.getIcebergValue;
 import static io.trino.plugin.iceberg.TypeConverter.toIcebergType;
+import static io.trino.spi.type.BigintType.BIGINT;
 import static org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList.toImmutableList;
 
 import io.trino.plugin.iceberg.IcebergColumnHandle;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import org.apache.amoro.data.ChangedLsn;
 import org.apache.amoro.hive.io.reader.AdaptHiveMixedDeleteFilter;
 import org.apache.amoro.scan.KeyedTableScanTask;
+import org.apache.amoro.table.MetadataColumns;
 import org.apache.amoro.table.PrimaryKeySpec;
 import org.apache.amoro.trino.delete.TrinoRow;
 import org.apache.iceberg.Schema;
@@ -32,13 +39,27 @@ import org.apache.iceberg.io.FileIO;
 import org.apache.iceberg.io.InputFile;
 import org.apache.iceberg.types.Types;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /** KeyedDeleteFilter is used to do MOR for Keyed Table */
 public class KeyedDeleteFilter extends AdaptHiveMixedDeleteFilter<TrinoRow> {
 
   private final FileIO fileIO;
+  private final List<IcebergColumnHandle> requestedColumns;
+
+  private PagePrimaryKey primaryKey;
+  private int transactionIdChannel;
+  private int fileOffsetChannel;
+  private int rowPositionChannel;
+
+  // sorted positions of the current data file, rebuilt when the data file changes
+  private Set<Long> sortedPositionsSource;
+  private long[] sortedPositions;
+  private final BitSet deletedPositions = new BitSet();
 
   protected KeyedDeleteFilter(
       KeyedTableScanTask keyedTableScanTask,
@@ -52,6 +73,117 @@ public class KeyedDeleteFilter extends AdaptHiveMixedDeleteFilter<TrinoRow> {
         filterSchema(tableSchema, requestedSchema),
         primaryKeySpec);
     this.fileIO = fileIO;
+    this.requestedColumns = requestedSchema;
+  }
+
+  /**
+   * Filter the rows of a page read from the current data file by the block values, without
+   * wrapping every position as a row. Position deletes are marked as a bitmap over the row
+   * positions of the page, and equality deletes are probed with a primary key view reused across
+   * positions.
+   *
+   * @param page A page with the channels of the requested columns
+   * @param positionsToKeep Array to fill with the positions to keep, at least as long as the page
+   * @return The number of positions to keep
+   */
+  public int filterPage(Page page, int[] positionsToKeep) {
+    int positionCount = page.getPositionCount();
+    if (positionCount == 0) {
+      return 0;
+    }
+    if (primaryKey == null) {
+      initChannels();
+    }
+
+    BitSet deleted = positionDeletes(page);
+    primaryKey.page = page;
+    int positionsToKeepCount = 0;
+    try {
+      for (int position = 0; position < positionCount; position++) {
+        if (deleted != null && deleted.get(position)) {
+          continue;
+        }
+        if (isEqualityDeleted(page, position)) {
+          continue;
+        }
+        positionsToKeep[positionsToKeepCount] = position;
+        positionsToKeepCount++;
+      }
+    } finally {
+      // don't hold a reference to the page
+      primaryKey.page = null;
+    }
+    return positionsToKeepCount;
+  }
+
+  private void initChannels() {
+    List<Types.NestedField> primaryKeyFields = primaryKeySchema().columns();
+    int[] primaryKeyChannels = new int[primaryKeyFields.size()];
+    Type[] primaryKeyTypes = new Type[primaryKeyFields.size()];
+    for (int i = 0; i < primaryKeyFields.size(); i++) {
+      primaryKeyChannels[i] = channel(primaryKeyFields.get(i).fieldId());
+      primaryKeyTypes[i] =
+          primaryKeyChannels[i] < 0 ? null : requestedColumns.get(primaryKeyChannels[i]).getType();
+    }
+    this.primaryKey = new PagePrimaryKey(primaryKeyChannels, primaryKeyTypes);
+    this.transactionIdChannel = channel(MetadataColumns.TRANSACTION_ID_FILED_ID);
+    this.fileOffsetChannel = channel(MetadataColumns.FILE_OFFSET_FILED_ID);
+    this.rowPositionChannel = channel(org.apache.iceberg.MetadataColumns.ROW_POSITION.fieldId());
+  }
+
+  private int channel(int fieldId) {
+    for (int i = 0; i < requestedColumns.size(); i++) {
+      if (requestedColumns.get(i).getId() == fieldId) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /** @return The bitmap of the deleted positions of the page, or null if none is deleted */
+  private BitSet positionDeletes(Page page) {
+    Set<Long> posSet = currentPositionDeletes();
+    if (posSet == null || posSet.isEmpty()) {
+      return null;
+    }
+    if (posSet != sortedPositionsSource) {
+      sortedPositions = posSet.stream().mapToLong(Long::longValue).sorted().toArray();
+      sortedPositionsSource = posSet;
+    }
+
+    Block rowPositions = page.getBlock(rowPositionChannel);
+    int positionCount = page.getPositionCount();
+    long first = BIGINT.getLong(rowPositions, 0);
+    long last = BIGINT.getLong(rowPositions, positionCount - 1);
+    deletedPositions.clear();
+    if (last - first == positionCount - 1) {
+      // the row positions of the page are contiguous, only mark the deletes in the range
+      int index = Arrays.binarySearch(sortedPositions, first);
+      for (int i = index >= 0 ? index : -index - 1;
+          i < sortedPositions.length && sortedPositions[i] <= last;
+          i++) {
+        deletedPositions.set((int) (sortedPositions[i] - first));
+      }
+    } else {
+      for (int position = 0; position < positionCount; position++) {
+        if (Arrays.binarySearch(sortedPositions, BIGINT.getLong(rowPositions, position)) >= 0) {
+          deletedPositions.set(position);
+        }
+      }
+    }
+    return deletedPositions;
+  }
+
+  private boolean isEqualityDeleted(Page page, int position) {
+    primaryKey.position = position;
+    ChangedLsn deleteLsn = equalityDeleteLsn(primaryKey);
+    if (deleteLsn == null) {
+      return false;
+    }
+    long transactionId = BIGINT.getLong(page.getBlock(transactionIdChannel), position);
+    long fileOffset = BIGINT.getLong(page.getBlock(fileOffsetChannel), position);
+    return deleteLsn.transactionId() > transactionId
+        || (deleteLsn.transactionId() == transactionId && deleteLsn.fileOffset() > fileOffset);
   }
 
   @Override
@@ -98,4 +230,32 @@ public class KeyedDeleteFilter extends AdaptHiveMixedDeleteFilter<TrinoRow> {
             requestedSchema.getName(),
             toIcebergType(requestedSchema.getType())));
   }
+
+  /** The primary key of a position of a page, reused for all positions. */
+  private static class PagePrimaryKey implements StructLike {
+    private final int[] channels;
+    private final Type[] types;
+    private Page page;
+    private int position;
+
+    private PagePrimaryKey(int[] channels, Type[] types) {
+      this.channels = channels;
+      this.types = types;
+    }
+
+    @Override
+    public int size() {
+      return channels.length;
+    }
+
+    @Override
+    public <T> T get(int pos, Class<T> javaClass) {
+      return javaClass.cast(getIcebergValue(page.getBlock(channels[pos]), position, types[pos]));
+    }
+
+    @Override
+    public <T> void set(int pos, T value) {
+      throw new UnsupportedOperationException();
+    }
+  }
 }
@@ -32,11 +32,9 @@ import io.trino.spi.connector.ConnectorTransactionHandle;
 import io.trino.spi.connector.DynamicFilter;
 import io.trino.spi.type.TypeManager;
 import org.apache.amoro.data.PrimaryKeyedFile;
-import org.apache.amoro.hive.io.reader.AdaptHiveMixedDeleteFilter;
 import org.apache.amoro.scan.KeyedTableScanTask;
 import org.apache.amoro.scan.MixedFileScanTask;
 import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
-import org.apache.amoro.trino.delete.TrinoRow;
 import org.apache.amoro.trino.unkeyed.IcebergPageSourceProvider;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.SchemaParser;
@@ -96,7 +94,7 @@ public class KeyedPageSourceProvider implements ConnectorPageSourceProvider {
         .filter(column -> !columns.contains(column))
         .forEach(requiredColumnsBuilder::add);
     List<IcebergColumnHandle> requiredColumns = requiredColumnsBuilder.build();
-    AdaptHiveMixedDeleteFilter<TrinoRow> mixedDeleteFilter =
+    KeyedDeleteFilter mixedDeleteFilter =
         new KeyedDeleteFilter(
             keyedTableScanTask,
             tableSchema,
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.trino.keyed;
+
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.type.InternalTypeManager.TESTING_TYPE_MANAGER;
+import static org.apache.amoro.MockAmoroManagementServer.TEST_CATALOG_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.trino.plugin.iceberg.IcebergColumnHandle;
+import io.trino.plugin.iceberg.IcebergUtil;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.type.Type;
+import io.trino.testing.QueryRunner;
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.TestedCatalogs;
+import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.scan.CombinedScanTask;
+import org.apache.amoro.scan.KeyedTableScanTask;
+import org.apache.amoro.scan.MixedFileScanTask;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.table.MetadataColumns;
+import org.apache.amoro.trino.delete.TrinoRow;
+import org.apache.amoro.trino.mixed.MixedFormatQueryRunner;
+import org.apache.amoro.trino.mixed.TableTestBaseWithInitDataForTrino;
+import org.apache.iceberg.io.CloseableIterable;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/** Checks that filtering a page on its blocks keeps the same rows as the row-wise filter. */
+public class TestKeyedDeleteFilter extends TableTestBaseWithInitDataForTrino {
+
+  private static final int PAGE_SIZE = 64;
+
+  private final Random random = new Random(42);
+
+  @Override
+  protected QueryRunner createQueryRunner() throws Exception {
+    CatalogTestHelper testCatalog = TestedCatalogs.hadoopCatalog(TableFormat.MIXED_ICEBERG);
+    setupCatalog(testCatalog);
+
+    setupTables();
+    initData();
+    return MixedFormatQueryRunner.builder()
+        .setIcebergProperties(
+            ImmutableMap.of(
+                "amoro.url",
+                String.format("thrift://localhost:%s/%s", AMS.port(), TEST_CATALOG_NAME)))
+        .build();
+  }
+
+  @Test
+  public void testFilterPageWithContiguousPositions() throws IOException {
+    assertFilterPageMatchesRows(true);
+  }
+
+  @Test
+  public void testFilterPageWithScatteredPositions() throws IOException {
+    assertFilterPageMatchesRows(false);
+  }
+
+  private void assertFilterPageMatchesRows(boolean contiguous) throws IOException {
+    boolean positionDeleted = false;
+    boolean equalityDeleted = false;
+    try (CloseableIterable<CombinedScanTask> combinedTasks = testKeyedTable.newScan().planTasks()) {
+      for (CombinedScanTask combinedTask : combinedTasks) {
+        for (KeyedTableScanTask task : combinedTask.tasks()) {
+          List<IcebergColumnHandle> columns =
+              IcebergUtil.getColumns(
+                  newFilter(task, ImmutableList.of()).requiredSchema(), TESTING_TYPE_MANAGER);
+          Type[] types = columns.stream().map(IcebergColumnHandle::getType).toArray(Type[]::new);
+          for (MixedFileScanTask dataTask : task.dataTasks()) {
+            String dataPath = dataTask.file().path().toString();
+            Page page = randomPage(columns, dataPath, contiguous);
+
+            KeyedDeleteFilter pageFilter = newFilter(task, columns);
+            pageFilter.setCurrentDataPath(dataPath);
+            int[] positionsToKeep = new int[page.getPositionCount()];
+            int keptCount = pageFilter.filterPage(page, positionsToKeep);
+
+            KeyedDeleteFilter rowFilter = newFilter(task, columns);
+            rowFilter.setCurrentDataPath(dataPath);
+            List<Integer> expected = new ArrayList<>();
+            try (CloseableIterable<TrinoRow> rows =
+                rowFilter.filter(
+                    CloseableIterable.withNoopClose(
+                        TrinoRow.fromPage(types, page, page.getPositionCount())))) {
+              rows.forEach(row -> expected.add(row.getPosition()));
+            }
+
+            assertThat(Arrays.stream(positionsToKeep, 0, keptCount).boxed())
+                .as("positions kept of %s", dataPath)
+                .containsExactlyElementsOf(expected);
+            positionDeleted |= !dataTask.deletes().isEmpty() && keptCount < PAGE_SIZE;
+            equalityDeleted |= !task.mixedEquityDeletes().isEmpty() && keptCount < PAGE_SIZE;
+          }
+        }
+      }
+    }
+    // the init data has both kinds of deletes, make sure the pages hit them
+    assertThat(positionDeleted).isTrue();
+    assertThat(equalityDeleted).isTrue();
+  }
+
+  private KeyedDeleteFilter newFilter(KeyedTableScanTask task, List<IcebergColumnHandle> columns) {
+    return new KeyedDeleteFilter(
+        task,
+        testKeyedTable.schema(),
+        columns,
+        testKeyedTable.primaryKeySpec(),
+        testKeyedTable.io());
+  }
+
+  /**
+   * A page of the given columns as if read from the data file. Primary keys and LSNs are drawn from
+   * small ranges, so that they collide with the deletes of the init data.
+   */
+  private Page randomPage(List<IcebergColumnHandle> columns, String dataPath, boolean contiguous) {
+    List<Long> rowPositions = new ArrayList<>(PAGE_SIZE);
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      rowPositions.add(contiguous ? i : (long) i * 2);
+    }
+    if (!contiguous) {
+      Collections.shuffle(rowPositions, random);
+    }
+    Block[] blocks = new Block[columns.size()];
+    for (int channel = 0; channel < columns.size(); channel++) {
+      IcebergColumnHandle column = columns.get(channel);
+      BlockBuilder builder = column.getType().createBlockBuilder(null, PAGE_SIZE);
+      for (int position = 0; position < PAGE_SIZE; position++) {
+        int id = column.getId();
+        if (id == org.apache.iceberg.MetadataColumns.ROW_POSITION.fieldId()) {
+          BIGINT.writeLong(builder, rowPositions.get(position));
+        } else if (id == org.apache.iceberg.MetadataColumns.FILE_PATH.fieldId()) {
+          VARCHAR.writeString(builder, dataPath);
+        } else if (id == MetadataColumns.TRANSACTION_ID_FILED_ID) {
+          BIGINT.writeLong(builder, random.nextInt(6));
+        } else if (id == MetadataColumns.FILE_OFFSET_FILED_ID) {
+          BIGINT.writeLong(builder, random.nextInt(4));
+        } else if (column.getType().equals(INTEGER)) {
+          INTEGER.writeLong(builder, 1 + random.nextInt(6));
+        } else {
+          throw new IllegalStateException("Unexpected column " + column);
+        }
+      }
+      blocks[channel] = builder.build();
+    }
+    return new Page(PAGE_SIZE, blocks);
+  }
+
+  @AfterClass(alwaysRun = true)
+  public void clear() {
+    clearTable();
+  }
+}
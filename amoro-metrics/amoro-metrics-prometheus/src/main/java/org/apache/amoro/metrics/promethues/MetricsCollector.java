@@ -21,11 +21,13 @@ package org.apache.amoro.metrics.promethues;
 import io.prometheus.client.Collector;
 import org.apache.amoro.metrics.Counter;
 import org.apache.amoro.metrics.Gauge;
+import org.apache.amoro.metrics.Histogram;
 import org.apache.amoro.metrics.Metric;
 import org.apache.amoro.metrics.MetricDefine;
 import org.apache.amoro.metrics.MetricKey;
 import org.apache.amoro.metrics.MetricSet;
 import org.apache.amoro.metrics.MetricType;
+import org.apache.amoro.metrics.Timer;
 import org.apache.amoro.shade.guava32.com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -86,6 +88,12 @@ public class MetricsCollector extends Collector {
     List<MetricFamilySamples.Sample> samples = Lists.newArrayList();
     for (MetricKey key : keys) {
       Metric metric = registeredMetrics.get(key);
+      if (metric instanceof Histogram || metric instanceof Timer) {
+        Histogram histogram =
+            metric instanceof Timer ? ((Timer) metric).getHistogram() : (Histogram) metric;
+        addHistogramSamples(samples, define, key.valueOfTags(), histogram);
+        continue;
+      }
 
       MetricFamilySamples.Sample sample =
           new MetricFamilySamples.Sample(
@@ -97,12 +105,44 @@ public class MetricsCollector extends Collector {
         PREFIX + define.getName(), covertType(define.getType()), define.getDescription(), samples);
   }
 
+  private void addHistogramSamples(
+      List<MetricFamilySamples.Sample> samples,
+      MetricDefine define,
+      List<String> tagValues,
+      Histogram histogram) {
+    String name = PREFIX + define.getName();
+    List<String> bucketTags = Lists.newArrayList(define.getTags());
+    bucketTags.add("le");
+
+    long[] counts = histogram.getBucketCounts();
+    long cumulativeCount = 0;
+    for (int i = 0; i < counts.length; i++) {
+      cumulativeCount += counts[i];
+      double bound =
+          i < histogram.getBucketCount() ? histogram.getBucketBound(i) : Double.POSITIVE_INFINITY;
+      List<String> bucketTagValues = Lists.newArrayList(tagValues);
+      bucketTagValues.add(doubleToGoString(bound));
+      samples.add(
+          new MetricFamilySamples.Sample(
+              name + "_bucket", bucketTags, bucketTagValues, cumulativeCount));
+    }
+    samples.add(
+        new MetricFamilySamples.Sample(
+            name + "_count", define.getTags(), tagValues, cumulativeCount));
+    samples.add(
+        new MetricFamilySamples.Sample(
+            name + "_sum", define.getTags(), tagValues, histogram.getSum()));
+  }
+
   private Type covertType(MetricType metricType) {
     switch (metricType) {
       case Counter:
         return Type.COUNTER;
       case Gauge:
         return Type.GAUGE;
+      case Histogram:
+      case Timer:
+        return Type.HISTOGRAM;
       default:
         throw new IllegalStateException("unknown type:" + metricType);
     }
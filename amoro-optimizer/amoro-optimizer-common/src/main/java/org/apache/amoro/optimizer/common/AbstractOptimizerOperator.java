@@ -21,6 +21,7 @@ package org.apache.amoro.optimizer.common;
 import org.apache.amoro.ErrorCodes;
 import org.apache.amoro.api.AmoroException;
 import org.apache.amoro.api.OptimizingService;
+import org.apache.amoro.client.AmsThriftUrl;
 import org.apache.amoro.client.OptimizingClientPools;
 import org.apache.amoro.shade.guava32.com.google.common.base.Preconditions;
 import org.apache.amoro.shade.thrift.org.apache.thrift.TApplicationException;
@@ -31,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import java.io.Serializable;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
 public class AbstractOptimizerOperator implements Serializable {
   private static final Logger LOG = LoggerFactory.getLogger(AbstractOptimizerOperator.class);
@@ -50,9 +52,13 @@ public class AbstractOptimizerOperator implements Serializable {
   protected <T> T callAms(AmsCallOperation<T> operation) throws TException {
     while (isStarted()) {
       try {
-        return operation.call(OptimizingClientPools.getClient(config.getAmsUrl()));
+        return operation.call(OptimizingClientPools.getClient(getAmsUrl()));
       } catch (Throwable t) {
-        if (shouldReturnNull(t)) {
+        if (isRetryAuthError(t)) {
+          // The server may not serve the optimizer group any more, resolve the server again
+          OptimizingClientPools.invalidate(getAmsUrl());
+          throw t;
+        } else if (shouldReturnNull(t)) {
           return null;
         } else if (shouldRetryLater(t)) {
           LOG.error("Call ams got an error and will try again later", t);
@@ -77,6 +83,11 @@ public class AbstractOptimizerOperator implements Serializable {
     }
   }
 
+  private boolean isRetryAuthError(Throwable t) {
+    return t instanceof AmoroException
+        && ErrorCodes.PLUGIN_RETRY_AUTH_ERROR_CODE == ((AmoroException) t).getErrorCode();
+  }
+
   // Return null if got MISSING_RESULT error
   private boolean shouldReturnNull(Throwable t) {
     if (t instanceof TApplicationException) {
@@ -88,18 +99,24 @@ public class AbstractOptimizerOperator implements Serializable {
 
   protected <T> T callAuthenticatedAms(AmsAuthenticatedCallOperation<T> operation)
       throws TException {
-    while (isStarted()) {
+    return callAuthenticatedAms(operation, this::isStarted);
+  }
+
+  /** Call ams like {@link #callAuthenticatedAms(AmsAuthenticatedCallOperation)} while running. */
+  protected <T> T callAuthenticatedAms(
+      AmsAuthenticatedCallOperation<T> operation, BooleanSupplier running) throws TException {
+    while (running.getAsBoolean()) {
       if (tokenIsReady()) {
         String token = getToken();
         try {
-          return operation.call(OptimizingClientPools.getClient(config.getAmsUrl()), token);
+          return operation.call(OptimizingClientPools.getClient(getAmsUrl()), token);
         } catch (Throwable t) {
-          if (t instanceof AmoroException
-              && ErrorCodes.PLUGIN_RETRY_AUTH_ERROR_CODE == ((AmoroException) (t)).getErrorCode()) {
+          if (isRetryAuthError(t)) {
             // Reset the token when got a authorization error
             LOG.error(
                 "Got a authorization error while calling ams, reset token and wait for a new one",
                 t);
+            OptimizingClientPools.invalidate(getAmsUrl());
             resetToken(token);
           } else if (shouldReturnNull(t)) {
             return null;
@@ -126,6 +143,11 @@ public class AbstractOptimizerOperator implements Serializable {
     return config;
   }
 
+  // Resolve the ams serving the optimizer group when ams is sharded
+  private String getAmsUrl() {
+    return AmsThriftUrl.withResourceGroup(config.getAmsUrl(), config.getGroupName());
+  }
+
   protected String getToken() {
     return token.get();
   }
@@ -19,6 +19,9 @@
 package org.apache.amoro.optimizer.common;
 
 import org.apache.amoro.OptimizerProperties;
+import org.apache.amoro.metrics.MetricReporter;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.iceberg.common.DynConstructors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,10 +32,16 @@ import java.util.stream.IntStream;
 
 public class Optimizer {
   private static final Logger LOG = LoggerFactory.getLogger(Optimizer.class);
+  // shipped as a metric reporter plugin, so it is only loaded when it is on the classpath
+  private static final String PROMETHEUS_REPORTER_IMPL =
+      "org.apache.amoro.metrics.promethues.PrometheusMetricsReporter";
+  private static final String PROMETHEUS_REPORTER_PORT = "port";
 
   private final OptimizerConfig config;
   private final OptimizerToucher toucher;
   private final OptimizerExecutor[] executors;
+  private final OptimizerMetrics metrics = new OptimizerMetrics();
+  private MetricReporter metricsReporter;
 
   public Optimizer(OptimizerConfig config) {
     this(config, () -> new OptimizerToucher(config), (i) -> new OptimizerExecutor(config, i));
@@ -47,6 +56,9 @@ public class Optimizer {
     this.executors = new OptimizerExecutor[config.getExecutionParallel()];
     IntStream.range(0, config.getExecutionParallel())
         .forEach(i -> executors[i] = executorFactory.apply(i));
+    Arrays.stream(executors)
+        .forEach(executor -> executor.setMetrics(metrics.thread(executor.getThreadId())));
+    toucher.withMetrics(metrics);
     if (config.getResourceId() != null) {
       toucher.withRegisterProperty(OptimizerProperties.RESOURCE_ID, config.getResourceId());
     }
@@ -54,6 +66,9 @@ public class Optimizer {
 
   public void startOptimizing() {
     LOG.info("Starting optimizer with configuration:{}", config);
+    if (config.getMetricsPort() > 0) {
+      startMetricsReporter();
+    }
     Arrays.stream(executors)
         .forEach(
             optimizerExecutor -> {
@@ -68,12 +83,41 @@ public class Optimizer {
   public void stopOptimizing() {
     toucher.stop();
     Arrays.stream(executors).forEach(OptimizerExecutor::stop);
+    if (metricsReporter != null) {
+      metricsReporter.close();
+      metricsReporter = null;
+    }
+  }
+
+  private void startMetricsReporter() {
+    MetricReporter reporter;
+    try {
+      DynConstructors.Ctor<MetricReporter> ctor =
+          DynConstructors.builder(MetricReporter.class)
+              .impl(PROMETHEUS_REPORTER_IMPL)
+              .buildChecked();
+      reporter = ctor.newInstance();
+    } catch (NoSuchMethodException e) {
+      LOG.warn(
+          "Can not start optimizer metrics endpoint, {} is not on the classpath",
+          PROMETHEUS_REPORTER_IMPL);
+      return;
+    }
+    reporter.open(
+        ImmutableMap.of(PROMETHEUS_REPORTER_PORT, String.valueOf(config.getMetricsPort())));
+    reporter.setGlobalMetricSet(metrics);
+    metricsReporter = reporter;
+    LOG.info("Started optimizer metrics endpoint on port {}", config.getMetricsPort());
   }
 
   public OptimizerToucher getToucher() {
     return toucher;
   }
 
+  public OptimizerMetrics getMetrics() {
+    return metrics;
+  }
+
   public OptimizerExecutor[] getExecutors() {
     return executors;
   }
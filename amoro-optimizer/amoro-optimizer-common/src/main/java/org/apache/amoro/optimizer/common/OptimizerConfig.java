@@ -20,6 +20,7 @@ package org.apache.amoro.optimizer.common;
 
 import org.apache.amoro.OptimizerProperties;
 import org.apache.amoro.shade.guava32.com.google.common.base.MoreObjects;
+import org.apache.amoro.utils.map.SpillBackend;
 import org.kohsuke.args4j.CmdLineException;
 import org.kohsuke.args4j.CmdLineParser;
 import org.kohsuke.args4j.Option;
@@ -76,6 +77,42 @@ public class OptimizerConfig implements Serializable {
       usage = "Memory storage size limit when extending disk storage(MB), default 512MB")
   private long memoryStorageSize = 512; // 512 M
 
+  @Option(
+      name = "-sb",
+      aliases = "--" + OptimizerProperties.OPTIMIZER_SPILL_BACKEND,
+      usage = "Backend of data spilled to disk, rocksdb or mapped-log, default rocksdb")
+  private String spillBackend = OptimizerProperties.OPTIMIZER_SPILL_BACKEND_DEFAULT;
+
+  @Option(
+      name = "-ptc",
+      aliases = "--" + OptimizerProperties.OPTIMIZER_PREFETCH_TASK_COUNT,
+      usage = "Max tasks polled from ams by one thread in a single call, default 1")
+  private int prefetchTaskCount = OptimizerProperties.OPTIMIZER_PREFETCH_TASK_COUNT_DEFAULT;
+
+  @Option(
+      name = "-sts",
+      aliases = "--" + OptimizerProperties.OPTIMIZER_SPLIT_TASK_SIZE,
+      usage =
+          "Input size(MB) above which a task is split into sub-tasks executed in parallel,"
+              + " only used by spark optimizer, default 0 means never split")
+  private long splitTaskSize = OptimizerProperties.OPTIMIZER_SPLIT_TASK_SIZE_DEFAULT;
+
+  @Option(
+      name = "-pr",
+      aliases = "--" + OptimizerProperties.OPTIMIZER_PIPELINED_REWRITE,
+      usage =
+          "Whether to read records on a separate thread while writing them when rewriting files,"
+              + " default false")
+  private boolean pipelinedRewrite = OptimizerProperties.OPTIMIZER_PIPELINED_REWRITE_DEFAULT;
+
+  @Option(
+      name = "-mp",
+      aliases = "--" + OptimizerProperties.OPTIMIZER_METRICS_PORT,
+      usage =
+          "Port of the prometheus endpoint exposing optimizer metrics,"
+              + " default 0 means no endpoint is started")
+  private int metricsPort = OptimizerProperties.OPTIMIZER_METRICS_PORT_DEFAULT;
+
   @Option(name = "-id", aliases = "--" + OptimizerProperties.RESOURCE_ID, usage = "Resource id")
   private String resourceId;
 
@@ -84,6 +121,12 @@ public class OptimizerConfig implements Serializable {
   public OptimizerConfig(String[] args) throws CmdLineException {
     CmdLineParser parser = new CmdLineParser(this);
     parser.parseArgument(args);
+    try {
+      // fail at startup instead of failing every task
+      SpillBackend.Type.fromName(spillBackend);
+    } catch (IllegalArgumentException e) {
+      throw new CmdLineException(parser, "Unknown spill backend: " + spillBackend, e);
+    }
   }
 
   public String getAmsUrl() {
@@ -150,6 +193,46 @@ public class OptimizerConfig implements Serializable {
     this.diskStoragePath = diskStoragePath;
   }
 
+  public String getSpillBackend() {
+    return spillBackend;
+  }
+
+  public void setSpillBackend(String spillBackend) {
+    this.spillBackend = spillBackend;
+  }
+
+  public int getPrefetchTaskCount() {
+    return prefetchTaskCount;
+  }
+
+  public void setPrefetchTaskCount(int prefetchTaskCount) {
+    this.prefetchTaskCount = prefetchTaskCount;
+  }
+
+  public long getSplitTaskSize() {
+    return splitTaskSize;
+  }
+
+  public void setSplitTaskSize(long splitTaskSize) {
+    this.splitTaskSize = splitTaskSize;
+  }
+
+  public boolean isPipelinedRewrite() {
+    return pipelinedRewrite;
+  }
+
+  public void setPipelinedRewrite(boolean pipelinedRewrite) {
+    this.pipelinedRewrite = pipelinedRewrite;
+  }
+
+  public int getMetricsPort() {
+    return metricsPort;
+  }
+
+  public void setMetricsPort(int metricsPort) {
+    this.metricsPort = metricsPort;
+  }
+
   public String getResourceId() {
     return resourceId;
   }
@@ -169,6 +252,11 @@ public class OptimizerConfig implements Serializable {
         .add("extendDiskStorage", extendDiskStorage)
         .add("rocksDBBasePath", diskStoragePath)
         .add("memoryStorageSize", memoryStorageSize)
+        .add("spillBackend", spillBackend)
+        .add("prefetchTaskCount", prefetchTaskCount)
+        .add("splitTaskSize", splitTaskSize)
+        .add("pipelinedRewrite", pipelinedRewrite)
+        .add("metricsPort", metricsPort)
         .add("resourceId", resourceId)
         .toString();
   }
@@ -19,11 +19,14 @@
 package org.apache.amoro.optimizer.common;
 
 import org.apache.amoro.api.OptimizingTask;
+import org.apache.amoro.api.OptimizingTaskId;
 import org.apache.amoro.api.OptimizingTaskResult;
+import org.apache.amoro.metrics.Timer;
 import org.apache.amoro.optimizing.OptimizingExecutor;
 import org.apache.amoro.optimizing.OptimizingExecutorFactory;
 import org.apache.amoro.optimizing.OptimizingInputProperties;
 import org.apache.amoro.optimizing.TableOptimizing;
+import org.apache.amoro.shade.guava32.com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 import org.apache.amoro.utils.ExceptionUtil;
 import org.apache.amoro.utils.SerializationUtil;
@@ -32,22 +35,73 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class OptimizerExecutor extends AbstractOptimizerOperator {
 
   private static final Logger LOG = LoggerFactory.getLogger(OptimizerExecutor.class);
   protected static final int ERROR_MESSAGE_MAX_LENGTH = 4000;
+  private static final int REPORT_RETRY_TIMES = 3;
+  private static final long REPORT_FLUSH_TIMEOUT_MS = 30_000;
+  private static final String TASK_RETURNED_MESSAGE =
+      "Optimizer executor stopped before the task was executed";
 
   private final int threadId;
+  // Tasks polled in batch but not executed yet, they have been acked by ams when polling
+  private final Deque<OptimizingTask> prefetchedTasks = new ConcurrentLinkedDeque<>();
+  private final Queue<OptimizingTaskResult> pendingResults = new ConcurrentLinkedQueue<>();
+  // Set when stopping, the executor loop polls no more tasks but results are still reported
+  private volatile boolean draining = false;
+  private boolean looping = false;
+  private transient ExecutorService resultReporter;
+  private transient OptimizerMetrics.ThreadMetrics metrics;
 
   public OptimizerExecutor(OptimizerConfig config, int threadId) {
     super(config);
     this.threadId = threadId;
   }
 
+  public void setMetrics(OptimizerMetrics.ThreadMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  public synchronized OptimizerMetrics.ThreadMetrics getMetrics() {
+    if (metrics == null) {
+      metrics = new OptimizerMetrics.ThreadMetrics();
+    }
+    return metrics;
+  }
+
   public void start() {
-    while (isStarted()) {
+    setLooping(true);
+    try {
+      loop();
+    } finally {
+      setLooping(false);
+    }
+  }
+
+  private void loop() {
+    while (isPolling()) {
       try {
+        if (executeInBatch()) {
+          List<OptimizingTask> tasks = pollTaskBatch();
+          if (!tasks.isEmpty()) {
+            executeTasks(tasks).forEach(this::completeTask);
+          }
+          continue;
+        }
         OptimizingTask task = pollTask();
         if (task != null && ackTask(task)) {
           OptimizingTaskResult result = executeTask(task);
@@ -63,13 +117,111 @@ public class OptimizerExecutor extends AbstractOptimizerOperator {
     return threadId;
   }
 
+  /**
+   * Stop polling tasks first and let the executor loop finish the task in hand, then return the
+   * prefetched tasks to ams as failed so that they are retried, and report the results still
+   * pending before the operator stops calling ams.
+   */
+  @Override
+  public void stop() {
+    draining = true;
+    try {
+      if (!awaitLoopExit(REPORT_FLUSH_TIMEOUT_MS)) {
+        LOG.warn("Optimizer executor[{}] stopped while executing a task", threadId);
+      }
+      returnPrefetchedTasks();
+      ExecutorService reporter;
+      synchronized (this) {
+        reporter = resultReporter;
+      }
+      if (reporter != null) {
+        reporter.execute(this::reportPendingResults);
+        reporter.shutdown();
+        if (!reporter.awaitTermination(REPORT_FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+          LOG.warn(
+              "Optimizer executor[{}] stopped with {} results not reported",
+              threadId,
+              pendingResults.size());
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      super.stop();
+    }
+  }
+
+  private boolean isPolling() {
+    return isStarted() && !draining;
+  }
+
+  private synchronized void setLooping(boolean looping) {
+    this.looping = looping;
+    notifyAll();
+  }
+
+  private synchronized boolean awaitLoopExit(long timeoutMs) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMs;
+    long remaining = timeoutMs;
+    while (looping && remaining > 0) {
+      wait(remaining);
+      remaining = deadline - System.currentTimeMillis();
+    }
+    return !looping;
+  }
+
+  private void returnPrefetchedTasks() {
+    OptimizingTask task;
+    while ((task = prefetchedTasks.poll()) != null) {
+      OptimizingTaskResult result = new OptimizingTaskResult(task.getTaskId(), threadId);
+      result.setErrorMessage(TASK_RETURNED_MESSAGE);
+      pendingResults.offer(result);
+      LOG.info("Optimizer executor[{}] returned task[{}] to ams", threadId, task.getTaskId());
+    }
+  }
+
+  private boolean isBatchMode() {
+    return getConfig().getPrefetchTaskCount() > 1;
+  }
+
+  /**
+   * Whether all tasks polled together should be handed to {@link #executeTasks(List)} at once
+   * instead of being executed one by one.
+   */
+  protected boolean executeInBatch() {
+    return false;
+  }
+
+  private List<OptimizingTask> pollTaskBatch() {
+    List<OptimizingTask> tasks = new ArrayList<>();
+    OptimizingTask task = pollTask();
+    if (task != null && ackTask(task)) {
+      tasks.add(task);
+    }
+    OptimizingTask prefetched;
+    while (isPolling() && (prefetched = prefetchedTasks.poll()) != null) {
+      tasks.add(prefetched);
+    }
+    return tasks;
+  }
+
   private OptimizingTask pollTask() {
+    if (isBatchMode()) {
+      return pollPrefetchedTask();
+    }
     OptimizingTask task = null;
-    while (isStarted()) {
-      try {
-        task = callAuthenticatedAms((client, token) -> client.pollTask(token, threadId));
+    while (isPolling()) {
+      try (Timer.Context ignored = getMetrics().pollDuration().time()) {
+        task =
+            callAuthenticatedAms(
+                (client, token) -> client.pollTask(token, threadId), this::isPolling);
       } catch (TException exception) {
         LOG.error("Optimizer executor[{}] polled task failed", threadId, exception);
+      } catch (IllegalStateException exception) {
+        // stopped polling while waiting for ams
+        if (isPolling()) {
+          throw exception;
+        }
       }
       if (task != null) {
         LOG.info("Optimizer executor[{}] polled task[{}] from ams", threadId, task.getTaskId());
@@ -81,7 +233,41 @@ public class OptimizerExecutor extends AbstractOptimizerOperator {
     return task;
   }
 
+  private OptimizingTask pollPrefetchedTask() {
+    while (isPolling() && prefetchedTasks.isEmpty()) {
+      try (Timer.Context ignored = getMetrics().pollDuration().time()) {
+        List<OptimizingTask> tasks =
+            callAuthenticatedAms(
+                (client, token) ->
+                    client.pollTasks(token, threadId, getConfig().getPrefetchTaskCount()),
+                this::isPolling);
+        if (tasks != null) {
+          prefetchedTasks.addAll(tasks);
+        }
+      } catch (TException exception) {
+        LOG.error("Optimizer executor[{}] polled tasks failed", threadId, exception);
+      } catch (IllegalStateException exception) {
+        // stopped polling while waiting for ams
+        if (isPolling()) {
+          throw exception;
+        }
+      }
+      if (prefetchedTasks.isEmpty()) {
+        waitAShortTime();
+      } else {
+        LOG.info(
+            "Optimizer executor[{}] polled {} tasks from ams", threadId, prefetchedTasks.size());
+      }
+    }
+    // prefetched tasks are returned to ams by stop() once polling is stopped
+    return isPolling() ? prefetchedTasks.poll() : null;
+  }
+
   private boolean ackTask(OptimizingTask task) {
+    if (isBatchMode()) {
+      // tasks polled in batch are acked by ams implicitly
+      return true;
+    }
     try {
       callAuthenticatedAms(
           (client, token) -> {
@@ -104,8 +290,42 @@ public class OptimizerExecutor extends AbstractOptimizerOperator {
     return executeTask(getConfig(), getThreadId(), task, LOG);
   }
 
+  /** Execute tasks polled together, results are returned in the order of tasks. */
+  protected List<OptimizingTaskResult> executeTasks(List<OptimizingTask> tasks) {
+    List<OptimizingTaskResult> results = new ArrayList<>(tasks.size());
+    for (OptimizingTask task : tasks) {
+      results.add(executeTask(task));
+    }
+    return results;
+  }
+
   protected void completeTask(OptimizingTaskResult optimizingTaskResult) {
-    try {
+    getMetrics().taskExecuted(optimizingTaskResult);
+    if (isBatchMode()) {
+      // report the result in background so that the next prefetched task can start at once
+      pendingResults.offer(optimizingTaskResult);
+      try {
+        getResultReporter().execute(this::reportPendingResults);
+      } catch (RejectedExecutionException e) {
+        // the reporter has been flushed by stop(), report the late result by this thread
+        if (pendingResults.remove(optimizingTaskResult)) {
+          reportResult(optimizingTaskResult);
+        }
+      }
+      return;
+    }
+    reportResult(optimizingTaskResult);
+  }
+
+  private void reportResult(OptimizingTaskResult optimizingTaskResult) {
+    if (!isStarted()) {
+      LOG.warn(
+          "Optimizer executor[{}] stopped before completing task[{}]",
+          threadId,
+          optimizingTaskResult.getTaskId());
+      return;
+    }
+    try (Timer.Context ignored = getMetrics().completeDuration().time()) {
       callAuthenticatedAms(
           (client, token) -> {
             client.completeTask(token, optimizingTaskResult);
@@ -124,6 +344,72 @@ public class OptimizerExecutor extends AbstractOptimizerOperator {
     }
   }
 
+  private synchronized ExecutorService getResultReporter() {
+    if (resultReporter == null) {
+      resultReporter =
+          Executors.newSingleThreadExecutor(
+              new ThreadFactoryBuilder()
+                  .setNameFormat("optimizer-executor-" + threadId + "-reporter")
+                  .setDaemon(true)
+                  .build());
+    }
+    return resultReporter;
+  }
+
+  private void reportPendingResults() {
+    // results offered while the previous report was in flight are completed in one call
+    List<OptimizingTaskResult> results = new ArrayList<>();
+    for (int attempt = 1; isStarted(); attempt++) {
+      OptimizingTaskResult result;
+      while ((result = pendingResults.poll()) != null) {
+        results.add(result);
+      }
+      if (results.isEmpty()) {
+        return;
+      }
+      try (Timer.Context ignored = getMetrics().completeDuration().time()) {
+        List<OptimizingTaskId> rejectedTasks =
+            callAuthenticatedAms((client, token) -> client.completeTasks(token, results));
+        int completed = results.size();
+        // only the rejected results are reported again, the others have been completed by ams
+        if (rejectedTasks != null) {
+          Set<OptimizingTaskId> rejected = new HashSet<>(rejectedTasks);
+          results.removeIf(taskResult -> !rejected.contains(taskResult.getTaskId()));
+        } else {
+          // ams of an older version completes every result without returning anything
+          results.clear();
+        }
+        LOG.info(
+            "Optimizer executor[{}] completed {} tasks to ams",
+            threadId,
+            completed - results.size());
+        if (results.isEmpty()) {
+          return;
+        }
+        LOG.warn(
+            "Optimizer executor[{}] got {} results rejected by ams, attempt {}",
+            threadId,
+            results.size(),
+            attempt);
+      } catch (Throwable throwable) {
+        LOG.error(
+            "Optimizer executor[{}] completed {} tasks failed, attempt {}",
+            threadId,
+            results.size(),
+            attempt,
+            throwable);
+      }
+      if (attempt >= REPORT_RETRY_TIMES) {
+        // complete the results left one by one, so that each failure is logged with its cause
+        results.forEach(this::reportResult);
+        return;
+      }
+      waitAShortTime();
+    }
+    // stopped before the batch could be reported, keep it to be counted as not reported
+    pendingResults.addAll(results);
+  }
+
   @SuppressWarnings({"rawtypes", "unchecked"})
   public static OptimizingTaskResult executeTask(
       OptimizerConfig config, int threadId, OptimizingTask task, Logger logger) {
@@ -144,6 +430,10 @@ public class OptimizerExecutor extends AbstractOptimizerOperator {
       }
       properties.setMaxSizeInMemory(config.getMemoryStorageSize() * 1024 * 1024);
       properties.setSpillMapPath(config.getDiskStoragePath());
+      properties.setSpillMapBackend(config.getSpillBackend());
+      if (config.isPipelinedRewrite()) {
+        properties.enablePipelinedRewrite();
+      }
       factory.initialize(properties.getProperties());
 
       OptimizingExecutor executor = factory.createExecutor(input);
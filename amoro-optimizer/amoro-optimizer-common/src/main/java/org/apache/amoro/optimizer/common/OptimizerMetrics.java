@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.optimizer.common;
+
+import static org.apache.amoro.metrics.MetricDefine.defineCounter;
+import static org.apache.amoro.metrics.MetricDefine.defineGauge;
+import static org.apache.amoro.metrics.MetricDefine.defineTimer;
+
+import org.apache.amoro.OptimizerReportedMetrics;
+import org.apache.amoro.api.OptimizingTaskResult;
+import org.apache.amoro.metrics.Counter;
+import org.apache.amoro.metrics.Gauge;
+import org.apache.amoro.metrics.Metric;
+import org.apache.amoro.metrics.MetricDefine;
+import org.apache.amoro.metrics.MetricKey;
+import org.apache.amoro.metrics.MetricSet;
+import org.apache.amoro.metrics.Timer;
+import org.apache.amoro.optimizing.OptimizingTaskSummary;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.shade.guava32.com.google.common.collect.Maps;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/** Metrics of the executor threads in an optimizer, keyed by the thread id. */
+public class OptimizerMetrics implements MetricSet {
+
+  static final String THREAD_TAG = "thread";
+
+  public static final MetricDefine OPTIMIZER_THREAD_TASKS_COMPLETED =
+      defineCounter("optimizer_thread_tasks_completed")
+          .withDescription("Number of tasks completed by the optimizer thread")
+          .withTags(THREAD_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_THREAD_TASKS_FAILED =
+      defineCounter("optimizer_thread_tasks_failed")
+          .withDescription("Number of tasks failed in the optimizer thread")
+          .withTags(THREAD_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_THREAD_INPUT_BYTES =
+      defineCounter("optimizer_thread_input_bytes")
+          .withDescription("Bytes of the files read by the optimizer thread")
+          .withTags(THREAD_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_THREAD_OUTPUT_BYTES =
+      defineCounter("optimizer_thread_output_bytes")
+          .withDescription("Bytes of the files written by the optimizer thread")
+          .withTags(THREAD_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_THREAD_INPUT_RECORDS =
+      defineCounter("optimizer_thread_input_records")
+          .withDescription("Number of records read by the optimizer thread")
+          .withTags(THREAD_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_THREAD_RECORDS_PER_SECOND =
+      defineGauge("optimizer_thread_records_per_second")
+          .withDescription("Records read per second by the last task of the optimizer thread")
+          .withTags(THREAD_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_THREAD_SPILL_BYTES =
+      defineCounter("optimizer_thread_spill_bytes")
+          .withDescription("Bytes of the delete index spilled to disk by the optimizer thread")
+          .withTags(THREAD_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_THREAD_DELETE_INDEX_MEMORY_BYTES =
+      defineGauge("optimizer_thread_delete_index_memory_bytes")
+          .withDescription("Memory bytes of the delete index built by the last task of the thread")
+          .withTags(THREAD_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_THREAD_POLL_DURATION =
+      defineTimer("optimizer_thread_poll_duration_mills")
+          .withDescription(
+              "Distribution of durations in milliseconds of the optimizer thread polling tasks")
+          .withTags(THREAD_TAG)
+          .build();
+
+  public static final MetricDefine OPTIMIZER_THREAD_COMPLETE_DURATION =
+      defineTimer("optimizer_thread_complete_duration_mills")
+          .withDescription(
+              "Distribution of durations in milliseconds of the optimizer thread completing tasks")
+          .withTags(THREAD_TAG)
+          .build();
+
+  private final Map<Integer, ThreadMetrics> threadMetrics = new ConcurrentHashMap<>();
+
+  /** Get the metrics of an executor thread, they are created on the first call. */
+  public ThreadMetrics thread(int threadId) {
+    return threadMetrics.computeIfAbsent(threadId, id -> new ThreadMetrics());
+  }
+
+  @Override
+  public Map<MetricKey, Metric> getMetrics() {
+    Map<MetricKey, Metric> metrics = Maps.newHashMap();
+    threadMetrics.forEach(
+        (threadId, thread) ->
+            thread
+                .metrics()
+                .forEach(
+                    (define, metric) ->
+                        metrics.put(
+                            new MetricKey(
+                                define, ImmutableMap.of(THREAD_TAG, String.valueOf(threadId))),
+                            metric)));
+    return Collections.unmodifiableMap(metrics);
+  }
+
+  /**
+   * Sum the metrics of all threads into the values reported to ams.
+   *
+   * @return metric values keyed by the names in {@link OptimizerReportedMetrics}
+   */
+  public Map<String, String> report() {
+    Map<String, String> report = Maps.newHashMap();
+    report.put(OptimizerReportedMetrics.TASKS_COMPLETED, sum(t -> t.tasksCompleted.getCount()));
+    report.put(OptimizerReportedMetrics.TASKS_FAILED, sum(t -> t.tasksFailed.getCount()));
+    report.put(OptimizerReportedMetrics.INPUT_BYTES, sum(t -> t.inputBytes.getCount()));
+    report.put(OptimizerReportedMetrics.OUTPUT_BYTES, sum(t -> t.outputBytes.getCount()));
+    report.put(OptimizerReportedMetrics.INPUT_RECORDS, sum(t -> t.inputRecords.getCount()));
+    report.put(OptimizerReportedMetrics.SPILL_BYTES, sum(t -> t.spillBytes.getCount()));
+    report.put(
+        OptimizerReportedMetrics.DELETE_INDEX_MEMORY_BYTES,
+        String.valueOf(
+            threadMetrics.values().stream()
+                .mapToLong(t -> t.deleteIndexMemoryBytes)
+                .max()
+                .orElse(0)));
+    return report;
+  }
+
+  private String sum(ToLongFunction<ThreadMetrics> value) {
+    return String.valueOf(threadMetrics.values().stream().mapToLong(value).sum());
+  }
+
+  /** Metrics of one executor thread. */
+  public static class ThreadMetrics {
+    private final Counter tasksCompleted = new Counter();
+    private final Counter tasksFailed = new Counter();
+    private final Counter inputBytes = new Counter();
+    private final Counter outputBytes = new Counter();
+    private final Counter inputRecords = new Counter();
+    private final Counter spillBytes = new Counter();
+    private final Timer pollDuration = new Timer();
+    private final Timer completeDuration = new Timer();
+    private volatile long recordsPerSecond;
+    private volatile long deleteIndexMemoryBytes;
+
+    public Timer pollDuration() {
+      return pollDuration;
+    }
+
+    public Timer completeDuration() {
+      return completeDuration;
+    }
+
+    /** Count the result of a task executed by this thread. */
+    public void taskExecuted(OptimizingTaskResult result) {
+      if (result.getErrorMessage() != null) {
+        tasksFailed.inc();
+        return;
+      }
+      tasksCompleted.inc();
+      Map<String, String> summary = result.getSummary();
+      if (summary == null) {
+        return;
+      }
+      long records = summaryValue(summary, OptimizingTaskSummary.INPUT_RECORD_CNT);
+      long duration = summaryValue(summary, OptimizingTaskSummary.EXECUTE_DURATION);
+      inputBytes.inc(
+          summaryValue(summary, OptimizingTaskSummary.INPUT_FILE_TOTAL_SIZE)
+              + summaryValue(summary, OptimizingTaskSummary.INPUT_DELETE_FILE_TOTAL_SIZE));
+      inputRecords.inc(records);
+      outputBytes.inc(
+          summaryValue(summary, OptimizingTaskSummary.DATA_FILE_TOTAL_SIZE)
+              + summaryValue(summary, OptimizingTaskSummary.EQ_DELETE_FILE_TOTAL_SIZE)
+              + summaryValue(summary, OptimizingTaskSummary.POS_DELETE_FILE_TOTAL_SIZE));
+      spillBytes.inc(summaryValue(summary, OptimizingTaskSummary.DELETE_INDEX_SPILL_SIZE));
+      deleteIndexMemoryBytes =
+          summaryValue(summary, OptimizingTaskSummary.DELETE_INDEX_MEMORY_SIZE);
+      recordsPerSecond = duration > 0 ? records * TimeUnit.SECONDS.toMillis(1) / duration : 0;
+    }
+
+    public long getTasksCompleted() {
+      return tasksCompleted.getCount();
+    }
+
+    public long getTasksFailed() {
+      return tasksFailed.getCount();
+    }
+
+    public long getInputBytes() {
+      return inputBytes.getCount();
+    }
+
+    public long getOutputBytes() {
+      return outputBytes.getCount();
+    }
+
+    public long getInputRecords() {
+      return inputRecords.getCount();
+    }
+
+    public long getRecordsPerSecond() {
+      return recordsPerSecond;
+    }
+
+    public long getSpillBytes() {
+      return spillBytes.getCount();
+    }
+
+    public long getDeleteIndexMemoryBytes() {
+      return deleteIndexMemoryBytes;
+    }
+
+    private Map<MetricDefine, Metric> metrics() {
+      return ImmutableMap.<MetricDefine, Metric>builder()
+          .put(OPTIMIZER_THREAD_TASKS_COMPLETED, tasksCompleted)
+          .put(OPTIMIZER_THREAD_TASKS_FAILED, tasksFailed)
+          .put(OPTIMIZER_THREAD_INPUT_BYTES, inputBytes)
+          .put(OPTIMIZER_THREAD_OUTPUT_BYTES, outputBytes)
+          .put(OPTIMIZER_THREAD_INPUT_RECORDS, inputRecords)
+          .put(OPTIMIZER_THREAD_RECORDS_PER_SECOND, (Gauge<Long>) this::getRecordsPerSecond)
+          .put(OPTIMIZER_THREAD_SPILL_BYTES, spillBytes)
+          .put(
+              OPTIMIZER_THREAD_DELETE_INDEX_MEMORY_BYTES,
+              (Gauge<Long>) this::getDeleteIndexMemoryBytes)
+          .put(OPTIMIZER_THREAD_POLL_DURATION, pollDuration)
+          .put(OPTIMIZER_THREAD_COMPLETE_DURATION, completeDuration)
+          .build();
+    }
+
+    private static long summaryValue(Map<String, String> summary, String key) {
+      String value = summary.get(key);
+      if (value == null) {
+        return 0;
+      }
+      try {
+        return Long.parseLong(value);
+      } catch (NumberFormatException e) {
+        return 0;
+      }
+    }
+  }
+}
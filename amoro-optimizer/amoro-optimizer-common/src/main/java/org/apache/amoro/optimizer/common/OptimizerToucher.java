@@ -27,6 +27,7 @@ import org.apache.amoro.shade.thrift.org.apache.thrift.TException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.Map;
 
 public class OptimizerToucher extends AbstractOptimizerOperator {
@@ -35,6 +36,7 @@ public class OptimizerToucher extends AbstractOptimizerOperator {
   private TokenChangeListener tokenChangeListener;
   private final Map<String, String> registerProperties = Maps.newHashMap();
   private final long startTime;
+  private transient OptimizerMetrics metrics;
 
   public OptimizerToucher(OptimizerConfig config) {
     super(config);
@@ -46,6 +48,12 @@ public class OptimizerToucher extends AbstractOptimizerOperator {
     return this;
   }
 
+  /** Report the metrics of the optimizer to ams on every touch. */
+  public OptimizerToucher withMetrics(OptimizerMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
   public OptimizerToucher withRegisterProperty(String name, String value) {
     registerProperties.put(name, value);
     LOG.info("Adding register property {}:{} into optimizer", name, value);
@@ -107,7 +115,8 @@ public class OptimizerToucher extends AbstractOptimizerOperator {
     try {
       callAms(
           client -> {
-            client.touch(getToken());
+            client.touch(
+                getToken(), metrics == null ? Collections.emptyMap() : metrics.report());
             return null;
           });
       LOG.debug("Optimizer[{}] touch ams", getToken());
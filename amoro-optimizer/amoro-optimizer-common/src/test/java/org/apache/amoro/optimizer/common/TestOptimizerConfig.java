@@ -82,6 +82,16 @@ public class TestOptimizerConfig {
     new OptimizerConfig(args);
   }
 
+  @Test
+  public void testSpillBackend() throws CmdLineException {
+    String cmd = "-a thrift://127.0.0.1:1260 -p 4 -g g1 -eds -dsp /tmp/amoro -sb mapped-log";
+    OptimizerConfig optimizerConfig = new OptimizerConfig(cmd.split(" "));
+    Assert.assertEquals("mapped-log", optimizerConfig.getSpillBackend());
+
+    String[] args = {"-a", "thrift://127.0.0.1:1260", "-p", "4", "-g", "g1", "-sb", "unknown"};
+    Assert.assertThrows(CmdLineException.class, () -> new OptimizerConfig(args));
+  }
+
   @Test(expected = CmdLineException.class)
   public void testMissingValueArgs() throws CmdLineException {
     String[] args = {"-a", "thrift://127.0.0.1:1260", "-p", "-g", "testGroup"};
@@ -35,6 +35,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -82,6 +83,8 @@ public class TestOptimizerExecutor extends OptimizerTestBase {
     Assert.assertNull(taskResult.getErrorMessage());
     TestOptimizingOutput output = SerializationUtil.simpleDeserialize(taskResult.getTaskOutput());
     Assert.assertEquals(1, output.inputId());
+    Assert.assertEquals(1, optimizerExecutor.getMetrics().getTasksCompleted());
+    Assert.assertEquals(0, optimizerExecutor.getMetrics().getTasksFailed());
   }
 
   @Test
@@ -101,23 +104,118 @@ public class TestOptimizerExecutor extends OptimizerTestBase {
     Assert.assertEquals(new OptimizingTaskId(0, 0), taskResult.getTaskId());
     Assert.assertNull(taskResult.getTaskOutput());
     Assert.assertTrue(taskResult.getErrorMessage().contains(FAILED_TASK_MESSAGE));
+    Assert.assertEquals(0, optimizerExecutor.getMetrics().getTasksCompleted());
+    Assert.assertEquals(1, optimizerExecutor.getMetrics().getTasksFailed());
+  }
+
+  @Test
+  public void testExecuteTasksInBatch() throws InterruptedException, TException {
+    OptimizerConfig optimizerConfig =
+        OptimizerTestHelpers.buildOptimizerConfig(TEST_AMS.getServerUrl());
+    optimizerConfig.setPrefetchTaskCount(3);
+    OptimizerExecutor batchExecutor = new OptimizerExecutor(optimizerConfig, 1);
+    TEST_AMS.getOptimizerHandler().authenticate(new OptimizerRegisterInfo());
+    String token =
+        TEST_AMS.getOptimizerHandler().getRegisteredOptimizers().keySet().iterator().next();
+    for (int i = 0; i < 3; i++) {
+      TEST_AMS.getOptimizerHandler().offerTask(TestOptimizingInput.successInput(i).toTask(0, i));
+    }
+    batchExecutor.setToken(token);
+    new Thread(batchExecutor::start).start();
+    try {
+      TimeUnit.MILLISECONDS.sleep(OptimizerTestHelpers.CALL_AMS_INTERVAL * 2);
+      Assert.assertEquals(0, TEST_AMS.getOptimizerHandler().getPendingTasks().size());
+      Assert.assertTrue(TEST_AMS.getOptimizerHandler().getCompletedTasks().containsKey(token));
+      Assert.assertEquals(3, TEST_AMS.getOptimizerHandler().getCompletedTasks().get(token).size());
+      for (OptimizingTaskResult taskResult :
+          TEST_AMS.getOptimizerHandler().getCompletedTasks().get(token)) {
+        Assert.assertNull(taskResult.getErrorMessage());
+        Assert.assertEquals(1, taskResult.getThreadId());
+      }
+    } finally {
+      batchExecutor.stop();
+    }
+  }
+
+  @Test
+  public void testReportRejectedResultsOnly() throws InterruptedException, TException {
+    OptimizerConfig optimizerConfig =
+        OptimizerTestHelpers.buildOptimizerConfig(TEST_AMS.getServerUrl());
+    optimizerConfig.setPrefetchTaskCount(3);
+    OptimizerExecutor batchExecutor = new OptimizerExecutor(optimizerConfig, 1);
+    String token = TEST_AMS.getOptimizerHandler().authenticate(new OptimizerRegisterInfo());
+    for (int i = 0; i < 3; i++) {
+      TEST_AMS.getOptimizerHandler().offerTask(TestOptimizingInput.successInput(i).toTask(0, i));
+    }
+    TEST_AMS.getOptimizerHandler().rejectTaskOnce(new OptimizingTaskId(0, 1));
+    batchExecutor.setToken(token);
+    new Thread(batchExecutor::start).start();
+    try {
+      TimeUnit.MILLISECONDS.sleep(OptimizerTestHelpers.CALL_AMS_INTERVAL * 4);
+      List<OptimizingTaskResult> results =
+          TEST_AMS.getOptimizerHandler().getCompletedTasks().get(token);
+      Assert.assertEquals(3, results.size());
+      Assert.assertEquals(
+          3, results.stream().map(OptimizingTaskResult::getTaskId).distinct().count());
+    } finally {
+      batchExecutor.stop();
+    }
+  }
+
+  @Test
+  public void testReturnPrefetchedTasksOnStop() throws InterruptedException, TException {
+    OptimizerConfig optimizerConfig =
+        OptimizerTestHelpers.buildOptimizerConfig(TEST_AMS.getServerUrl());
+    optimizerConfig.setPrefetchTaskCount(3);
+    OptimizerExecutor batchExecutor = new OptimizerExecutor(optimizerConfig, 1);
+    String token = TEST_AMS.getOptimizerHandler().authenticate(new OptimizerRegisterInfo());
+    TEST_AMS
+        .getOptimizerHandler()
+        .offerTask(
+            TestOptimizingInput.slowInput(0, OptimizerTestHelpers.CALL_AMS_INTERVAL * 2)
+                .toTask(0, 0));
+    for (int i = 1; i < 3; i++) {
+      TEST_AMS.getOptimizerHandler().offerTask(TestOptimizingInput.successInput(i).toTask(0, i));
+    }
+    batchExecutor.setToken(token);
+    new Thread(batchExecutor::start).start();
+    TimeUnit.MILLISECONDS.sleep(OptimizerTestHelpers.CALL_AMS_INTERVAL);
+    // the first task is executing and the others are prefetched
+    batchExecutor.stop();
+
+    List<OptimizingTaskResult> results =
+        TEST_AMS.getOptimizerHandler().getCompletedTasks().get(token);
+    Assert.assertEquals(3, results.size());
+    for (OptimizingTaskResult taskResult : results) {
+      if (taskResult.getTaskId().getTaskId() == 0) {
+        Assert.assertNull(taskResult.getErrorMessage());
+      } else {
+        Assert.assertNotNull(taskResult.getErrorMessage());
+      }
+    }
   }
 
   public static class TestOptimizingInput extends BaseOptimizingInput {
     private final int inputId;
     private final boolean executeSuccess;
+    private final long executeMillis;
 
-    private TestOptimizingInput(int inputId, boolean executeSuccess) {
+    private TestOptimizingInput(int inputId, boolean executeSuccess, long executeMillis) {
       this.inputId = inputId;
       this.executeSuccess = executeSuccess;
+      this.executeMillis = executeMillis;
     }
 
     public static TestOptimizingInput successInput(int inputId) {
-      return new TestOptimizingInput(inputId, true);
+      return new TestOptimizingInput(inputId, true, 0);
     }
 
     public static TestOptimizingInput failedInput(int inputId) {
-      return new TestOptimizingInput(inputId, false);
+      return new TestOptimizingInput(inputId, false, 0);
+    }
+
+    public static TestOptimizingInput slowInput(int inputId, long executeMillis) {
+      return new TestOptimizingInput(inputId, true, executeMillis);
     }
 
     private int inputId() {
@@ -158,6 +256,11 @@ public class TestOptimizerExecutor extends OptimizerTestBase {
 
     @Override
     public TestOptimizingOutput execute() {
+      try {
+        TimeUnit.MILLISECONDS.sleep(input.executeMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
       if (input.executeSuccess) {
         return new TestOptimizingOutput(input.inputId());
       } else {
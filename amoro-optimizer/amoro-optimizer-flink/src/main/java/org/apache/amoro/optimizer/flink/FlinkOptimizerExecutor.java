@@ -22,8 +22,10 @@ import org.apache.amoro.api.OptimizingTask;
 import org.apache.amoro.api.OptimizingTaskResult;
 import org.apache.amoro.optimizer.common.OptimizerConfig;
 import org.apache.amoro.optimizer.common.OptimizerExecutor;
+import org.apache.amoro.optimizer.common.OptimizerMetrics;
 import org.apache.amoro.shade.guava32.com.google.common.base.Strings;
 import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
 import org.apache.flink.metrics.MetricGroup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,7 +38,7 @@ import java.util.concurrent.ConcurrentHashMap;
  *
  * <ul>
  *   <li>Add additional content to error messages to help locate execution nodes.
- *   <li>Add some Flink metrics like task number executed.
+ *   <li>Add some Flink metrics like task number executed and the optimizer thread metrics.
  * </ul>
  */
 public class FlinkOptimizerExecutor extends OptimizerExecutor {
@@ -55,7 +57,18 @@ public class FlinkOptimizerExecutor extends OptimizerExecutor {
 
   public void initOperatorMetric(MetricGroup metricGroup) {
     this.operatorMetricGroup = metricGroup;
-    taskCounter = this.operatorMetricGroup.addGroup("amoro").addGroup("optimizer").counter("tasks");
+    MetricGroup optimizerGroup = this.operatorMetricGroup.addGroup("amoro").addGroup("optimizer");
+    taskCounter = optimizerGroup.counter("tasks");
+    OptimizerMetrics.ThreadMetrics metrics = getMetrics();
+    optimizerGroup.gauge("tasks_completed", (Gauge<Long>) metrics::getTasksCompleted);
+    optimizerGroup.gauge("tasks_failed", (Gauge<Long>) metrics::getTasksFailed);
+    optimizerGroup.gauge("input_bytes", (Gauge<Long>) metrics::getInputBytes);
+    optimizerGroup.gauge("output_bytes", (Gauge<Long>) metrics::getOutputBytes);
+    optimizerGroup.gauge("input_records", (Gauge<Long>) metrics::getInputRecords);
+    optimizerGroup.gauge("records_per_second", (Gauge<Long>) metrics::getRecordsPerSecond);
+    optimizerGroup.gauge("spill_bytes", (Gauge<Long>) metrics::getSpillBytes);
+    optimizerGroup.gauge(
+        "delete_index_memory_bytes", (Gauge<Long>) metrics::getDeleteIndexMemoryBytes);
   }
 
   private void callBeforeTaskComplete() {
@@ -19,70 +19,211 @@
 package org.apache.amoro.optimizer.spark;
 
 import org.apache.amoro.api.OptimizingTask;
+import org.apache.amoro.api.OptimizingTaskId;
 import org.apache.amoro.api.OptimizingTaskResult;
 import org.apache.amoro.optimizer.common.OptimizerConfig;
 import org.apache.amoro.optimizer.common.OptimizerExecutor;
 import org.apache.amoro.optimizing.RewriteFilesInput;
 import org.apache.amoro.optimizing.TableOptimizing;
-import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableList;
 import org.apache.amoro.utils.ExceptionUtil;
 import org.apache.amoro.utils.SerializationUtil;
+import org.apache.spark.api.java.JavaFutureAction;
 import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.util.CollectionAccumulator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
- * The {@code SparkOptimizerExecutor} takes OptimizingTask from AMS and wraps it as a spark job,
- * then submit to the spark environment.
+ * The {@code SparkOptimizerExecutor} takes OptimizingTasks from AMS and wraps them as one spark
+ * job, then submit to the spark environment. Every task, or every sub-task of a large task, runs as
+ * a partition of the job, so the job could use as many executor cores as there are tasks.
+ *
+ * <p>Only tasks polled together are run as one job, which requires {@code prefetch-task-count}
+ * greater than 1. Otherwise every job runs a single task, split into sub-tasks if it is large.
+ *
+ * <p>If the job fails, the files written by its succeeded partitions are deleted before the tasks
+ * are run again one job per task, so that they are not left as orphan files.
  */
 public class SparkOptimizerExecutor extends OptimizerExecutor {
   private static final Logger LOG = LoggerFactory.getLogger(SparkOptimizerExecutor.class);
   private final JavaSparkContext jsc;
   private final int threadId;
+  private final SparkOptimizingTaskSplitter taskSplitter;
 
   public SparkOptimizerExecutor(JavaSparkContext jsc, OptimizerConfig config, int threadId) {
     super(config, threadId);
     this.jsc = jsc;
     this.threadId = threadId;
+    this.taskSplitter = new SparkOptimizingTaskSplitter(config.getSplitTaskSize() * 1024 * 1024);
+  }
+
+  @Override
+  protected boolean executeInBatch() {
+    return true;
   }
 
   @Override
   protected OptimizingTaskResult executeTask(OptimizingTask task) {
-    OptimizingTaskResult result;
+    return executeTasks(Collections.singletonList(task)).get(0);
+  }
+
+  @Override
+  protected List<OptimizingTaskResult> executeTasks(List<OptimizingTask> tasks) {
     String threadName = Thread.currentThread().getName();
     long startTime = System.currentTimeMillis();
+    OptimizingTaskResult[] results = new OptimizingTaskResult[tasks.size()];
+    TableOptimizing.OptimizingInput[] inputs = new TableOptimizing.OptimizingInput[tasks.size()];
+    List<List<OptimizingTask>> taskSplits = new ArrayList<>(tasks.size());
+    List<OptimizingTask> subTasks = new ArrayList<>();
+    List<String> descriptions = new ArrayList<>();
+    int maxSplits = jsc.defaultParallelism();
+    for (int i = 0; i < tasks.size(); i++) {
+      OptimizingTask task = tasks.get(i);
+      List<OptimizingTask> splits = Collections.emptyList();
+      try {
+        TableOptimizing.OptimizingInput input =
+            SerializationUtil.simpleDeserialize(task.getTaskInput());
+        inputs[i] = input;
+        descriptions.add(taskDescription(task, input));
+        splits = taskSplitter.split(task, input, maxSplits);
+        subTasks.addAll(splits);
+      } catch (Throwable t) {
+        results[i] = failedResult(task, t);
+      }
+      taskSplits.add(splits);
+    }
+
+    CollectionAccumulator<Map.Entry<OptimizingTaskId, String>> writtenFiles =
+        jsc.sc().collectionAccumulator("written files of executor " + threadId);
+    SparkOptimizingTaskFunction taskFunction =
+        new SparkOptimizingTaskFunction(getConfig(), threadId, writtenFiles);
     try {
-      ImmutableList<OptimizingTask> of = ImmutableList.of(task);
-      jsc.setJobDescription(jobDescription(task));
-      SparkOptimizingTaskFunction taskFunction =
-          new SparkOptimizingTaskFunction(getConfig(), threadId);
-      List<OptimizingTaskResult> results = jsc.parallelize(of, 1).map(taskFunction).collect();
-      result = results.get(0);
+      if (!subTasks.isEmpty()) {
+        jsc.setJobDescription(jobDescription(descriptions));
+        List<OptimizingTaskResult> subResults =
+            jsc.parallelize(subTasks, subTasks.size()).map(taskFunction).collect();
+        int offset = 0;
+        for (int i = 0; i < tasks.size(); i++) {
+          int splitCount = taskSplits.get(i).size();
+          if (splitCount > 0) {
+            results[i] =
+                taskSplitter.merge(
+                    tasks.get(i),
+                    inputs[i],
+                    threadId,
+                    subResults.subList(offset, offset + splitCount));
+            offset += splitCount;
+          }
+        }
+      }
       LOG.info(
-          "Optimizer executor[{}] executed task[{}] and cost {}",
+          "Optimizer executor[{}] executed {} tasks as {} sub-tasks and cost {}",
           threadName,
-          task.getTaskId(),
+          tasks.size(),
+          subTasks.size(),
           System.currentTimeMillis() - startTime);
-      return result;
     } catch (Throwable r) {
       LOG.error(
-          "Optimizer executor[{}] executed task[{}] failed, and cost {}",
+          "Optimizer executor[{}] executed {} tasks failed and cost {}, run them one by one",
           threadName,
-          task.getTaskId(),
+          tasks.size(),
           (System.currentTimeMillis() - startTime),
           r);
-      result = new OptimizingTaskResult(task.getTaskId(), threadId);
-      result.setErrorMessage(ExceptionUtil.getErrorMessage(r, ERROR_MESSAGE_MAX_LENGTH));
-      return result;
+      for (int i = 0; i < tasks.size(); i++) {
+        if (results[i] == null) {
+          discardWrittenFiles(tasks.get(i), inputs[i], writtenFiles);
+        }
+      }
+      writtenFiles.reset();
+      executeSeparately(tasks, inputs, taskSplits, taskFunction, writtenFiles, results);
+    }
+    List<OptimizingTaskResult> resultList = new ArrayList<>(tasks.size());
+    Collections.addAll(resultList, results);
+    return resultList;
+  }
+
+  /**
+   * Run every task without a result as a job of its own, so that a task whose partitions keep
+   * failing only fails itself instead of the whole batch.
+   */
+  private void executeSeparately(
+      List<OptimizingTask> tasks,
+      TableOptimizing.OptimizingInput[] inputs,
+      List<List<OptimizingTask>> taskSplits,
+      SparkOptimizingTaskFunction taskFunction,
+      CollectionAccumulator<Map.Entry<OptimizingTaskId, String>> writtenFiles,
+      OptimizingTaskResult[] results) {
+    List<JavaFutureAction<List<OptimizingTaskResult>>> jobs = new ArrayList<>(tasks.size());
+    for (int i = 0; i < tasks.size(); i++) {
+      List<OptimizingTask> splits = taskSplits.get(i);
+      if (results[i] != null || splits.isEmpty()) {
+        jobs.add(null);
+        continue;
+      }
+      try {
+        jobs.add(jsc.parallelize(splits, splits.size()).map(taskFunction).collectAsync());
+      } catch (Throwable t) {
+        jobs.add(null);
+        results[i] = failedResult(tasks.get(i), t);
+      }
+    }
+    for (int i = 0; i < tasks.size(); i++) {
+      JavaFutureAction<List<OptimizingTaskResult>> job = jobs.get(i);
+      if (job == null) {
+        continue;
+      }
+      try {
+        results[i] = taskSplitter.merge(tasks.get(i), inputs[i], threadId, job.get());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        results[i] = failedResult(tasks.get(i), e);
+      } catch (Throwable t) {
+        LOG.error("Optimizer executor executed task[{}] failed", tasks.get(i).getTaskId(), t);
+        discardWrittenFiles(tasks.get(i), inputs[i], writtenFiles);
+        results[i] = failedResult(tasks.get(i), t);
+      }
+    }
+  }
+
+  /** Delete the files written by the succeeded partitions of a task whose job failed. */
+  private void discardWrittenFiles(
+      OptimizingTask task,
+      TableOptimizing.OptimizingInput input,
+      CollectionAccumulator<Map.Entry<OptimizingTaskId, String>> writtenFiles) {
+    List<String> paths = new ArrayList<>();
+    for (Map.Entry<OptimizingTaskId, String> file : writtenFiles.value()) {
+      if (task.getTaskId().equals(file.getKey())) {
+        paths.add(file.getValue());
+      }
+    }
+    if (!paths.isEmpty()) {
+      LOG.info("Delete {} files written for failed task[{}]", paths.size(), task.getTaskId());
+      SparkOptimizingTaskSplitter.deleteFiles(input, paths);
+    }
+  }
+
+  private OptimizingTaskResult failedResult(OptimizingTask task, Throwable throwable) {
+    OptimizingTaskResult result = new OptimizingTaskResult(task.getTaskId(), threadId);
+    result.setErrorMessage(ExceptionUtil.getErrorMessage(throwable, ERROR_MESSAGE_MAX_LENGTH));
+    return result;
+  }
+
+  private String jobDescription(List<String> descriptions) {
+    if (descriptions.size() == 1) {
+      return descriptions.get(0);
     }
+    return String.format(
+        "Amoro rewrite files tasks, count:%s, %s",
+        descriptions.size(), String.join("; ", descriptions));
   }
 
-  private String jobDescription(OptimizingTask task) {
+  private String taskDescription(OptimizingTask task, TableOptimizing.OptimizingInput input) {
     String description;
-    TableOptimizing.OptimizingInput input =
-        SerializationUtil.simpleDeserialize(task.getTaskInput());
     if (input instanceof RewriteFilesInput) {
       description =
           String.format(
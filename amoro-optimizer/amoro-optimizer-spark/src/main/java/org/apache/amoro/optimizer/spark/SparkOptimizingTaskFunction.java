@@ -19,13 +19,18 @@
 package org.apache.amoro.optimizer.spark;
 
 import org.apache.amoro.api.OptimizingTask;
+import org.apache.amoro.api.OptimizingTaskId;
 import org.apache.amoro.api.OptimizingTaskResult;
 import org.apache.amoro.optimizer.common.OptimizerConfig;
 import org.apache.amoro.optimizer.common.OptimizerExecutor;
 import org.apache.spark.api.java.function.Function;
+import org.apache.spark.util.CollectionAccumulator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.AbstractMap;
+import java.util.Map;
+
 /**
  * The {@code SparkOptimizingTaskExecuteFunction} defines the whole processing logic that how to
  * execute {@code OptimizingTask}
@@ -34,14 +39,30 @@ public class SparkOptimizingTaskFunction implements Function<OptimizingTask, Opt
   private static final Logger LOG = LoggerFactory.getLogger(SparkOptimizingTaskFunction.class);
   private final OptimizerConfig config;
   private final int threadId;
+  // files written by succeeded tasks, still known to the driver if the job fails
+  private final CollectionAccumulator<Map.Entry<OptimizingTaskId, String>> writtenFiles;
 
   public SparkOptimizingTaskFunction(OptimizerConfig config, int threadId) {
+    this(config, threadId, null);
+  }
+
+  public SparkOptimizingTaskFunction(
+      OptimizerConfig config,
+      int threadId,
+      CollectionAccumulator<Map.Entry<OptimizingTaskId, String>> writtenFiles) {
     this.config = config;
     this.threadId = threadId;
+    this.writtenFiles = writtenFiles;
   }
 
   @Override
   public OptimizingTaskResult call(OptimizingTask task) {
-    return OptimizerExecutor.executeTask(config, threadId, task, LOG);
+    OptimizingTaskResult result = OptimizerExecutor.executeTask(config, threadId, task, LOG);
+    if (writtenFiles != null && result.getErrorMessage() == null) {
+      for (String path : SparkOptimizingTaskSplitter.outputFiles(result)) {
+        writtenFiles.add(new AbstractMap.SimpleImmutableEntry<>(task.getTaskId(), path));
+      }
+    }
+    return result;
   }
 }
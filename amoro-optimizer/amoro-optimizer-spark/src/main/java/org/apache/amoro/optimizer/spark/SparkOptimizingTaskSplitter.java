@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.optimizer.spark;
+
+import org.apache.amoro.api.OptimizingTask;
+import org.apache.amoro.api.OptimizingTaskResult;
+import org.apache.amoro.io.AuthenticatedFileIO;
+import org.apache.amoro.optimizing.IcebergRewriteExecutorFactory;
+import org.apache.amoro.optimizing.OptimizingInputProperties;
+import org.apache.amoro.optimizing.OptimizingTaskSummary;
+import org.apache.amoro.optimizing.RewriteFilesInput;
+import org.apache.amoro.optimizing.RewriteFilesOutput;
+import org.apache.amoro.optimizing.TableOptimizing;
+import org.apache.amoro.utils.SerializationUtil;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileContent;
+import org.apache.iceberg.MetadataColumns;
+import org.apache.iceberg.types.Conversions;
+import org.apache.iceberg.types.Types;
+import org.apache.iceberg.util.ContentFileUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * The {@code SparkOptimizingTaskSplitter} splits a large rewrite task into sub-tasks over disjoint
+ * data files, so that one task could be executed by several spark executor cores, and merges the
+ * results of the sub-tasks back into one result.
+ *
+ * <p>Every sub-task carries the delete files of the task that may apply to its own data files, so
+ * the rows it keeps are exactly the rows the whole task keeps for its data files. Only tasks of
+ * iceberg format are split, tasks of mixed format rely on the file tree of a task and are always
+ * executed as a whole.
+ */
+public class SparkOptimizingTaskSplitter {
+  private static final Logger LOG = LoggerFactory.getLogger(SparkOptimizingTaskSplitter.class);
+
+  private final long splitSize;
+
+  /** @param splitSize input size in bytes above which a task is split, 0 means never split */
+  public SparkOptimizingTaskSplitter(long splitSize) {
+    this.splitSize = splitSize;
+  }
+
+  public List<OptimizingTask> split(
+      OptimizingTask task, TableOptimizing.OptimizingInput input, int maxSplits) {
+    if (splitSize <= 0 || maxSplits <= 1 || !(input instanceof RewriteFilesInput)) {
+      return Collections.singletonList(task);
+    }
+    OptimizingInputProperties properties = OptimizingInputProperties.parse(task.getProperties());
+    String executorFactoryImpl = properties.getExecutorFactoryImpl();
+    if (!IcebergRewriteExecutorFactory.class.getName().equals(executorFactoryImpl)) {
+      return Collections.singletonList(task);
+    }
+    RewriteFilesInput rewriteInput = (RewriteFilesInput) input;
+    List<DataFile> rewrittenDataFiles = asList(rewriteInput.rewrittenDataFiles());
+    List<DataFile> rePosDeletedDataFiles = asList(rewriteInput.rePosDeletedDataFiles());
+    long totalSize = 0;
+    for (DataFile dataFile : rewriteInput.dataFiles()) {
+      totalSize += dataFile.fileSizeInBytes();
+    }
+    int splits =
+        (int)
+            Math.min(
+                Math.min(maxSplits, (totalSize + splitSize - 1) / splitSize),
+                rewrittenDataFiles.size() + rePosDeletedDataFiles.size());
+    if (splits <= 1) {
+      return Collections.singletonList(task);
+    }
+
+    List<List<DataFile>> rewrittenSplits = newSplits(splits);
+    List<List<DataFile>> rePosDeletedSplits = newSplits(splits);
+    long[] splitSizes = new long[splits];
+    binPack(rewrittenDataFiles, rewrittenSplits, splitSizes);
+    binPack(rePosDeletedDataFiles, rePosDeletedSplits, splitSizes);
+
+    List<OptimizingTask> subTasks = new ArrayList<>(splits);
+    for (int i = 0; i < splits; i++) {
+      List<DataFile> dataFiles = new ArrayList<>(rewrittenSplits.get(i));
+      dataFiles.addAll(rePosDeletedSplits.get(i));
+      RewriteFilesInput subInput =
+          new RewriteFilesInput(
+              rewrittenSplits.get(i).toArray(new DataFile[0]),
+              rePosDeletedSplits.get(i).toArray(new DataFile[0]),
+              applicableDeletes(rewriteInput.readOnlyDeleteFiles(), dataFiles),
+              applicableDeletes(rewriteInput.rewrittenDeleteFiles(), dataFiles),
+              rewriteInput.getTable());
+      subInput.options(rewriteInput.getOptions());
+      OptimizingTask subTask = new OptimizingTask(task.getTaskId());
+      subTask.setTaskInput(SerializationUtil.simpleSerialize(subInput));
+      subTask.setProperties(task.getProperties());
+      subTasks.add(subTask);
+    }
+    return subTasks;
+  }
+
+  /**
+   * Merge results of the sub-tasks of a task, the task fails if any of its sub-tasks fails and the
+   * files written by its other sub-tasks are deleted.
+   */
+  public OptimizingTaskResult merge(
+      OptimizingTask task,
+      TableOptimizing.OptimizingInput input,
+      int threadId,
+      List<OptimizingTaskResult> subResults) {
+    if (subResults.size() == 1) {
+      return subResults.get(0);
+    }
+    for (OptimizingTaskResult subResult : subResults) {
+      if (subResult.getErrorMessage() != null) {
+        List<String> writtenFiles = new ArrayList<>();
+        subResults.forEach(result -> writtenFiles.addAll(outputFiles(result)));
+        deleteFiles(input, writtenFiles);
+        OptimizingTaskResult errorResult = new OptimizingTaskResult(task.getTaskId(), threadId);
+        errorResult.setErrorMessage(subResult.getErrorMessage());
+        return errorResult;
+      }
+    }
+    List<DataFile> dataFiles = new ArrayList<>();
+    List<DeleteFile> deleteFiles = new ArrayList<>();
+    Map<String, String> summary = new HashMap<>();
+    for (OptimizingTaskResult subResult : subResults) {
+      RewriteFilesOutput output = SerializationUtil.simpleDeserialize(subResult.getTaskOutput());
+      dataFiles.addAll(asList(output.getDataFiles()));
+      deleteFiles.addAll(asList(output.getDeleteFiles()));
+      if (output.summary() != null) {
+        output.summary().forEach((key, value) -> summary.merge(key, value, mergeSummary(key)));
+      }
+    }
+    if (input instanceof RewriteFilesInput
+        && summary.containsKey(OptimizingTaskSummary.INPUT_DELETE_FILE_TOTAL_SIZE)) {
+      // sub-tasks may share delete files, count each delete file of the task once
+      long deleteFileTotalSize = 0;
+      for (ContentFile<?> deleteFile : ((RewriteFilesInput) input).deleteFiles()) {
+        deleteFileTotalSize += deleteFile.fileSizeInBytes();
+      }
+      summary.put(
+          OptimizingTaskSummary.INPUT_DELETE_FILE_TOTAL_SIZE, String.valueOf(deleteFileTotalSize));
+    }
+    RewriteFilesOutput output =
+        new RewriteFilesOutput(
+            dataFiles.toArray(new DataFile[0]), deleteFiles.toArray(new DeleteFile[0]), summary);
+    OptimizingTaskResult result = new OptimizingTaskResult(task.getTaskId(), threadId);
+    result.setTaskOutput(SerializationUtil.simpleSerialize(output));
+    result.setSummary(output.summary());
+    return result;
+  }
+
+  /** Paths of the files written by a task, empty if it failed. */
+  static List<String> outputFiles(OptimizingTaskResult result) {
+    if (result.getErrorMessage() != null || result.getTaskOutput() == null) {
+      return Collections.emptyList();
+    }
+    Object output = SerializationUtil.simpleDeserialize(result.getTaskOutput());
+    if (!(output instanceof RewriteFilesOutput)) {
+      return Collections.emptyList();
+    }
+    List<String> paths = new ArrayList<>();
+    for (ContentFile<?> file : asList(((RewriteFilesOutput) output).getDataFiles())) {
+      paths.add(file.path().toString());
+    }
+    for (ContentFile<?> file : asList(((RewriteFilesOutput) output).getDeleteFiles())) {
+      paths.add(file.path().toString());
+    }
+    return paths;
+  }
+
+  /** Delete files written for a task whose results are discarded, so they are not left orphan. */
+  static void deleteFiles(TableOptimizing.OptimizingInput input, Collection<String> paths) {
+    if (paths.isEmpty() || !(input instanceof RewriteFilesInput)) {
+      return;
+    }
+    AuthenticatedFileIO io = ((RewriteFilesInput) input).getTable().io();
+    for (String path : paths) {
+      try {
+        io.deleteFile(path);
+      } catch (Exception e) {
+        LOG.warn("Failed to delete file {} of a discarded task result", path, e);
+      }
+    }
+  }
+
+  /** Delete files of the task that may remove rows from any of the given data files. */
+  static ContentFile<?>[] applicableDeletes(
+      ContentFile<?>[] deleteFiles, List<DataFile> dataFiles) {
+    if (deleteFiles == null) {
+      return null;
+    }
+    List<ContentFile<?>> applicable = new ArrayList<>(deleteFiles.length);
+    for (ContentFile<?> deleteFile : deleteFiles) {
+      for (DataFile dataFile : dataFiles) {
+        if (appliesTo(deleteFile, dataFile)) {
+          applicable.add(deleteFile);
+          break;
+        }
+      }
+    }
+    return applicable.toArray(new ContentFile<?>[0]);
+  }
+
+  private static boolean appliesTo(ContentFile<?> deleteFile, DataFile dataFile) {
+    if (!(deleteFile instanceof DeleteFile)) {
+      return true;
+    }
+    Long deleteSequence = deleteFile.dataSequenceNumber();
+    Long dataSequence = dataFile.dataSequenceNumber();
+    if (deleteFile.content() == FileContent.EQUALITY_DELETES) {
+      return deleteSequence == null || dataSequence == null || dataSequence < deleteSequence;
+    }
+    if (deleteSequence != null && dataSequence != null && dataSequence > deleteSequence) {
+      return false;
+    }
+    String path = dataFile.path().toString();
+    CharSequence referencedDataFile = ContentFileUtil.referencedDataFile((DeleteFile) deleteFile);
+    if (referencedDataFile != null) {
+      return path.equals(referencedDataFile.toString());
+    }
+    String lower = pathBound(deleteFile.lowerBounds());
+    String upper = pathBound(deleteFile.upperBounds());
+    return (lower == null || lower.compareTo(path) <= 0)
+        && (upper == null || upper.compareTo(path) >= 0);
+  }
+
+  private static String pathBound(Map<Integer, ByteBuffer> bounds) {
+    if (bounds == null) {
+      return null;
+    }
+    ByteBuffer bound = bounds.get(MetadataColumns.DELETE_FILE_PATH.fieldId());
+    if (bound == null) {
+      return null;
+    }
+    CharSequence path = Conversions.fromByteBuffer(Types.StringType.get(), bound);
+    return path.toString();
+  }
+
+  static BinaryOperator<String> mergeSummary(String key) {
+    // sub-tasks run side by side, so durations and memory usage do not add up
+    boolean useMax =
+        OptimizingTaskSummary.EXECUTE_DURATION.equals(key)
+            || OptimizingTaskSummary.DELETE_INDEX_MEMORY_SIZE.equals(key);
+    return (left, right) -> {
+      try {
+        long l = Long.parseLong(left);
+        long r = Long.parseLong(right);
+        return String.valueOf(useMax ? Math.max(l, r) : l + r);
+      } catch (NumberFormatException e) {
+        return left;
+      }
+    };
+  }
+
+  private static void binPack(
+      List<DataFile> files, List<List<DataFile>> splits, long[] splitSizes) {
+    List<DataFile> sorted = new ArrayList<>(files);
+    sorted.sort(Comparator.comparingLong(DataFile::fileSizeInBytes).reversed());
+    for (DataFile file : sorted) {
+      int smallest = 0;
+      for (int i = 1; i < splitSizes.length; i++) {
+        if (splitSizes[i] < splitSizes[smallest]) {
+          smallest = i;
+        }
+      }
+      splits.get(smallest).add(file);
+      splitSizes[smallest] += file.fileSizeInBytes();
+    }
+  }
+
+  private static List<List<DataFile>> newSplits(int splits) {
+    List<List<DataFile>> result = new ArrayList<>(splits);
+    for (int i = 0; i < splits; i++) {
+      result.add(new ArrayList<>());
+    }
+    return result;
+  }
+
+  private static <T> List<T> asList(T[] array) {
+    return array == null ? Collections.emptyList() : Arrays.asList(array);
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.amoro.optimizer.spark;
+
+import org.apache.amoro.BasicTableTestHelper;
+import org.apache.amoro.TableFormat;
+import org.apache.amoro.TableTestHelper;
+import org.apache.amoro.api.OptimizingTask;
+import org.apache.amoro.api.OptimizingTaskId;
+import org.apache.amoro.api.OptimizingTaskResult;
+import org.apache.amoro.catalog.BasicCatalogTestHelper;
+import org.apache.amoro.catalog.CatalogTestHelper;
+import org.apache.amoro.catalog.TableTestBase;
+import org.apache.amoro.optimizing.IcebergRewriteExecutorFactory;
+import org.apache.amoro.optimizing.OptimizingInputProperties;
+import org.apache.amoro.optimizing.OptimizingTaskSummary;
+import org.apache.amoro.optimizing.RewriteFilesInput;
+import org.apache.amoro.optimizing.RewriteFilesOutput;
+import org.apache.amoro.shade.guava32.com.google.common.collect.ImmutableMap;
+import org.apache.amoro.utils.SerializationUtil;
+import org.apache.iceberg.ContentFile;
+import org.apache.iceberg.DataFile;
+import org.apache.iceberg.DataFiles;
+import org.apache.iceberg.DeleteFile;
+import org.apache.iceberg.FileFormat;
+import org.apache.iceberg.FileMetadata;
+import org.apache.iceberg.MetadataColumns;
+import org.apache.iceberg.Metrics;
+import org.apache.iceberg.types.Conversions;
+import org.apache.iceberg.types.Types;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RunWith(Parameterized.class)
+public class TestSparkOptimizingTaskSplitter extends TableTestBase {
+
+  private static final long MB = 1024 * 1024;
+
+  public TestSparkOptimizingTaskSplitter(
+      CatalogTestHelper catalogTestHelper, TableTestHelper tableTestHelper) {
+    super(catalogTestHelper, tableTestHelper);
+  }
+
+  @Parameterized.Parameters(name = "{0}, {1}")
+  public static Object[][] parameters() {
+    return new Object[][] {
+      {new BasicCatalogTestHelper(TableFormat.ICEBERG), new BasicTableTestHelper(false, false)}
+    };
+  }
+
+  @Test
+  public void testNotSplit() {
+    RewriteFilesInput input = newInput(new DataFile[] {dataFile("a", 64)}, new DeleteFile[0]);
+    OptimizingTask task = newTask(input);
+
+    Assert.assertEquals(1, new SparkOptimizingTaskSplitter(0).split(task, input, 4).size());
+    Assert.assertEquals(1, new SparkOptimizingTaskSplitter(MB).split(task, input, 1).size());
+    // a single data file can not be split
+    Assert.assertEquals(1, new SparkOptimizingTaskSplitter(MB).split(task, input, 4).size());
+  }
+
+  @Test
+  public void testSplitByFileSize() {
+    DataFile[] dataFiles = {
+      dataFile("a", 64), dataFile("b", 32), dataFile("c", 16), dataFile("d", 16)
+    };
+    RewriteFilesInput input = newInput(dataFiles, new DeleteFile[0]);
+
+    List<OptimizingTask> subTasks =
+        new SparkOptimizingTaskSplitter(32 * MB).split(newTask(input), input, 3);
+
+    Assert.assertEquals(3, subTasks.size());
+    Set<String> splitFiles = new HashSet<>();
+    for (OptimizingTask subTask : subTasks) {
+      RewriteFilesInput subInput = SerializationUtil.simpleDeserialize(subTask.getTaskInput());
+      Assert.assertTrue(subInput.rewrittenDataFiles().length > 0);
+      long size = 0;
+      for (DataFile dataFile : subInput.rewrittenDataFiles()) {
+        Assert.assertTrue(splitFiles.add(dataFile.path().toString()));
+        size += dataFile.fileSizeInBytes();
+      }
+      Assert.assertTrue(size <= 64 * MB);
+    }
+    Assert.assertEquals(
+        Arrays.stream(dataFiles).map(file -> file.path().toString()).collect(Collectors.toSet()),
+        splitFiles);
+  }
+
+  @Test
+  public void testSplitAssignsApplicableDeletes() {
+    DataFile fileA = dataFile("a", 64);
+    DataFile fileB = dataFile("b", 64);
+    DeleteFile posDeleteA = positionDelete("pos-a", fileA, fileA);
+    DeleteFile posDeleteB = positionDelete("pos-b", fileB, fileB);
+    DeleteFile posDeleteAll = positionDelete("pos-all", fileA, fileB);
+    DeleteFile eqDelete = equalityDelete("eq");
+    RewriteFilesInput input =
+        newInput(
+            new DataFile[] {fileA, fileB},
+            new DeleteFile[] {posDeleteA, posDeleteB, posDeleteAll, eqDelete});
+
+    List<OptimizingTask> subTasks =
+        new SparkOptimizingTaskSplitter(MB).split(newTask(input), input, 2);
+
+    Assert.assertEquals(2, subTasks.size());
+    for (OptimizingTask subTask : subTasks) {
+      RewriteFilesInput subInput = SerializationUtil.simpleDeserialize(subTask.getTaskInput());
+      Assert.assertEquals(1, subInput.rewrittenDataFiles().length);
+      String dataFile = subInput.rewrittenDataFiles()[0].path().toString();
+      String ownDelete = dataFile.equals(fileA.path().toString()) ? "pos-a" : "pos-b";
+      Assert.assertEquals(
+          new HashSet<>(Arrays.asList(ownDelete, "pos-all", "eq")),
+          paths(subInput.readOnlyDeleteFiles()));
+    }
+  }
+
+  @Test
+  public void testMerge() {
+    SparkOptimizingTaskSplitter splitter = new SparkOptimizingTaskSplitter(MB);
+    OptimizingTask task = new OptimizingTask(new OptimizingTaskId(1L, 1));
+    DataFile fileA = dataFile("a", 64);
+    DataFile fileB = dataFile("b", 32);
+    RewriteFilesInput input =
+        newInput(new DataFile[] {fileA, fileB}, new DeleteFile[] {equalityDelete("eq")});
+    OptimizingTaskResult merged =
+        splitter.merge(
+            task,
+            input,
+            1,
+            Arrays.asList(
+                subResult(task, fileA, summary(fileA, 100L)),
+                subResult(task, fileB, summary(fileB, 300L))));
+
+    Assert.assertNull(merged.getErrorMessage());
+    RewriteFilesOutput output = SerializationUtil.simpleDeserialize(merged.getTaskOutput());
+    Assert.assertEquals(2, output.getDataFiles().length);
+    Map<String, String> summary = merged.getSummary();
+    Assert.assertEquals("2", summary.get(OptimizingTaskSummary.DATA_FILE_CNT));
+    Assert.assertEquals(
+        String.valueOf(96 * MB), summary.get(OptimizingTaskSummary.DATA_FILE_TOTAL_SIZE));
+    Assert.assertEquals("300", summary.get(OptimizingTaskSummary.EXECUTE_DURATION));
+    Assert.assertEquals(
+        String.valueOf(96 * MB), summary.get(OptimizingTaskSummary.INPUT_FILE_TOTAL_SIZE));
+    // the delete file shared by both sub-tasks is counted once
+    Assert.assertEquals(
+        String.valueOf(MB), summary.get(OptimizingTaskSummary.INPUT_DELETE_FILE_TOTAL_SIZE));
+
+    OptimizingTaskResult failed = new OptimizingTaskResult(task.getTaskId(), 1);
+    failed.setErrorMessage("failed");
+    merged =
+        splitter.merge(
+            task, input, 1, Arrays.asList(subResult(task, fileA, summary(fileA, 100L)), failed));
+    Assert.assertEquals("failed", merged.getErrorMessage());
+    Assert.assertNull(merged.getTaskOutput());
+  }
+
+  @Test
+  public void testDeleteFilesOfFailedMerge() throws IOException {
+    SparkOptimizingTaskSplitter splitter = new SparkOptimizingTaskSplitter(MB);
+    OptimizingTask task = new OptimizingTask(new OptimizingTaskId(1L, 1));
+    DataFile written = dataFile("written", 1);
+    getMixedTable().io().newOutputFile(written.path().toString()).create().close();
+    Assert.assertTrue(getMixedTable().io().exists(written.path().toString()));
+    RewriteFilesInput input = newInput(new DataFile[] {dataFile("a", 64)}, new DeleteFile[0]);
+
+    OptimizingTaskResult failed = new OptimizingTaskResult(task.getTaskId(), 1);
+    failed.setErrorMessage("failed");
+    OptimizingTaskResult succeeded = subResult(task, written, summary(written, 100L));
+    Assert.assertEquals(
+        Collections.singletonList(written.path().toString()),
+        SparkOptimizingTaskSplitter.outputFiles(succeeded));
+    Assert.assertTrue(SparkOptimizingTaskSplitter.outputFiles(failed).isEmpty());
+
+    OptimizingTaskResult merged = splitter.merge(task, input, 1, Arrays.asList(succeeded, failed));
+    Assert.assertEquals("failed", merged.getErrorMessage());
+    // the output of the succeeded sub-task is not left as an orphan file
+    Assert.assertFalse(getMixedTable().io().exists(written.path().toString()));
+  }
+
+  @Test
+  public void testMergeSummary() {
+    Assert.assertEquals(
+        "5",
+        SparkOptimizingTaskSplitter.mergeSummary(OptimizingTaskSummary.DATA_FILE_CNT)
+            .apply("2", "3"));
+    Assert.assertEquals(
+        "3",
+        SparkOptimizingTaskSplitter.mergeSummary(OptimizingTaskSummary.EXECUTE_DURATION)
+            .apply("2", "3"));
+    Assert.assertEquals(
+        "3",
+        SparkOptimizingTaskSplitter.mergeSummary(OptimizingTaskSummary.DELETE_INDEX_MEMORY_SIZE)
+            .apply("3", "2"));
+    // values that are not numbers keep the first one
+    Assert.assertEquals("a", SparkOptimizingTaskSplitter.mergeSummary("unknown").apply("a", "b"));
+  }
+
+  private OptimizingTask newTask(RewriteFilesInput input) {
+    OptimizingTask task = new OptimizingTask(new OptimizingTaskId(1L, 1));
+    task.setTaskInput(SerializationUtil.simpleSerialize(input));
+    task.setProperties(
+        new OptimizingInputProperties()
+            .setExecutorFactoryImpl(IcebergRewriteExecutorFactory.class.getName())
+            .getProperties());
+    return task;
+  }
+
+  private RewriteFilesInput newInput(DataFile[] dataFiles, DeleteFile[] deleteFiles) {
+    return new RewriteFilesInput(
+        dataFiles, new DataFile[0], deleteFiles, new DeleteFile[0], getMixedTable());
+  }
+
+  private DataFile dataFile(String name, long sizeInMb) {
+    return DataFiles.builder(getMixedTable().spec())
+        .withPath(getMixedTable().location() + "/data/" + name + ".parquet")
+        .withFormat(FileFormat.PARQUET)
+        .withFileSizeInBytes(sizeInMb * MB)
+        .withRecordCount(sizeInMb)
+        .build();
+  }
+
+  private DeleteFile positionDelete(String name, DataFile lower, DataFile upper) {
+    int pathField = MetadataColumns.DELETE_FILE_PATH.fieldId();
+    Map<Integer, ByteBuffer> lowerBounds =
+        ImmutableMap.of(pathField, Conversions.toByteBuffer(Types.StringType.get(), lower.path()));
+    Map<Integer, ByteBuffer> upperBounds =
+        ImmutableMap.of(pathField, Conversions.toByteBuffer(Types.StringType.get(), upper.path()));
+    return FileMetadata.deleteFileBuilder(getMixedTable().spec())
+        .ofPositionDeletes()
+        .withPath(getMixedTable().location() + "/data/" + name + ".parquet")
+        .withFormat(FileFormat.PARQUET)
+        .withFileSizeInBytes(MB)
+        .withMetrics(new Metrics(1L, null, null, null, null, lowerBounds, upperBounds))
+        .build();
+  }
+
+  private DeleteFile equalityDelete(String name) {
+    return FileMetadata.deleteFileBuilder(getMixedTable().spec())
+        .ofEqualityDeletes(1)
+        .withPath(getMixedTable().location() + "/data/" + name + ".parquet")
+        .withFormat(FileFormat.PARQUET)
+        .withFileSizeInBytes(MB)
+        .withRecordCount(1)
+        .build();
+  }
+
+  private static Map<String, String> summary(DataFile dataFile, long duration) {
+    return ImmutableMap.of(
+        OptimizingTaskSummary.DATA_FILE_CNT,
+        "1",
+        OptimizingTaskSummary.DATA_FILE_TOTAL_SIZE,
+        String.valueOf(dataFile.fileSizeInBytes()),
+        OptimizingTaskSummary.EXECUTE_DURATION,
+        String.valueOf(duration),
+        OptimizingTaskSummary.INPUT_FILE_TOTAL_SIZE,
+        String.valueOf(dataFile.fileSizeInBytes()),
+        OptimizingTaskSummary.INPUT_DELETE_FILE_TOTAL_SIZE,
+        String.valueOf(MB));
+  }
+
+  private static OptimizingTaskResult subResult(
+      OptimizingTask task, DataFile dataFile, Map<String, String> summary) {
+    RewriteFilesOutput output =
+        new RewriteFilesOutput(new DataFile[] {dataFile}, new DeleteFile[0], summary);
+    OptimizingTaskResult result = new OptimizingTaskResult(task.getTaskId(), 1);
+    result.setTaskOutput(SerializationUtil.simpleSerialize(output));
+    result.setSummary(summary);
+    return result;
+  }
+
+  private static Set<String> paths(ContentFile<?>[] files) {
+    return Arrays.stream(files)
+        .map(file -> file.path().toString())
+        .map(path -> path.substring(path.lastIndexOf('/') + 1, path.lastIndexOf('.')))
+        .collect(Collectors.toSet());
+  }
+}
@@ -23,6 +23,10 @@ CURRENT_DIR="$( cd "$(dirname "$0")" ; pwd -P )"
 
 LIB_PATH=$AMORO_HOME/lib
 export CLASSPATH=$AMORO_CONF_DIR/optimize:$LIB_PATH/:$(find $LIB_PATH/ -type f -name "*.jar" | paste -sd':' -)
+# metric reporters used by the optimizer metrics endpoint
+if [ -d "$AMORO_HOME/plugin/metric-reporters" ]; then
+  export CLASSPATH=$CLASSPATH:$(find $AMORO_HOME/plugin/metric-reporters/ -type f -name "*.jar" | paste -sd':' -)
+fi
 if [ -z "$(find $LIB_PATH/ -type f -name "*.jar" | paste -sd':' -)" ]; then
   echo "Launching the localOptimize task lacks relevant jars, please check" >&2
   exit 1